@@ -0,0 +1,172 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+
+/**
+ * Fixed capacity binary heap of primitive doubles that retains the largest (or smallest) values
+ * offered to it. Offering a value costs O(log capacity) and the heap never holds more than its
+ * capacity, which makes it suitable for top N queries over large inputs. Its array grows as
+ * values are retained, so a large capacity costs nothing until it is used. Heaps filled by
+ * different threads can be merged, so it can be used as the container of a parallel
+ * {@link java.util.stream.DoubleStream#collect} reduction.
+ *
+ * <p>Values are ordered the same way as {@link Double#compare(double, double)}.
+ *
+ * <p>This class is not thread safe.
+ */
+final class BoundedDoubleHeap {
+
+  /**
+   * Initial length of the heap array, which grows up to the capacity as values are retained.
+   */
+  private static final int initialLength = 16;
+
+  /**
+   * Maximum number of values retained.
+   */
+  private final int capacity;
+  /**
+   * Heap ordered elements. The root is the retained element that would be evicted first.
+   */
+  private double[] heap;
+  /**
+   * Whether the largest values are retained, rather than the smallest ones.
+   */
+  private final boolean retainLargest;
+  /**
+   * Number of elements in the heap.
+   */
+  private int size;
+
+  /**
+   * Creates an empty heap.
+   *
+   * @param capacity      The maximum number of values to retain.
+   * @param retainLargest Whether the largest values are retained, rather than the smallest ones.
+   */
+  BoundedDoubleHeap(int capacity, boolean retainLargest) {
+    this.capacity = capacity;
+    this.heap = new double[Math.min(capacity, initialLength)];
+    this.retainLargest = retainLargest;
+  }
+
+  /**
+   * Offers a value to the heap. It is retained if the heap isn't full or if it ranks before the
+   * value that would be evicted first.
+   *
+   * @param value The value to offer.
+   */
+  void offer(double value) {
+    if (size < capacity) {
+      if (size == heap.length) {
+        heap = Arrays.copyOf(heap, (int) Math.min(capacity, 2L * heap.length));
+      }
+      heap[size] = value;
+      siftUp(size++);
+    } else if (size > 0 && isEvictedBefore(heap[0], value)) {
+      heap[0] = value;
+      siftDown(0);
+    }
+  }
+
+  /**
+   * Offers every value retained by another heap to this one.
+   *
+   * @param other The heap to merge into this one.
+   */
+  void merge(BoundedDoubleHeap other) {
+    for (int index = 0; index < other.size; index++) {
+      offer(other.heap[index]);
+    }
+  }
+
+  /**
+   * Returns the number of values retained.
+   *
+   * @return The number of values retained.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the values retained, ordered from the highest ranked to the lowest ranked. That is
+   * largest first when retaining the largest values and smallest first otherwise.
+   *
+   * @return The values retained.
+   */
+  double[] toSortedArray() {
+    double[] values = Arrays.copyOf(heap, size);
+    Arrays.sort(values);
+    if (retainLargest) {
+      reverse(values);
+    }
+    return values;
+  }
+
+  /**
+   * Reverses an array in place.
+   *
+   * @param values The array to reverse.
+   */
+  static void reverse(double[] values) {
+    for (int left = 0, right = values.length - 1; left < right; left++, right--) {
+      double temporary = values[left];
+      values[left] = values[right];
+      values[right] = temporary;
+    }
+  }
+
+  /**
+   * Checks whether the first value would be evicted before the second one.
+   *
+   * @param first  The first value.
+   * @param second The second value.
+   * @return True if the first value would be evicted before the second one.
+   */
+  private boolean isEvictedBefore(double first, double second) {
+    int comparison = Double.compare(first, second);
+    return retainLargest ? comparison < 0 : comparison > 0;
+  }
+
+  /**
+   * Moves the element at the provided index up until the heap order is restored.
+   *
+   * @param index The index of the element to move.
+   */
+  private void siftUp(int index) {
+    double value = heap[index];
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (!isEvictedBefore(value, heap[parent])) {
+        break;
+      }
+      heap[index] = heap[parent];
+      index = parent;
+    }
+    heap[index] = value;
+  }
+
+  /**
+   * Moves the element at the provided index down until the heap order is restored.
+   *
+   * @param index The index of the element to move.
+   */
+  private void siftDown(int index) {
+    double value = heap[index];
+    int half = size >>> 1;
+    while (index < half) {
+      int child = 2 * index + 1;
+      int right = child + 1;
+      if (right < size && isEvictedBefore(heap[right], heap[child])) {
+        child = right;
+      }
+      if (!isEvictedBefore(heap[child], value)) {
+        break;
+      }
+      heap[index] = heap[child];
+      index = child;
+    }
+    heap[index] = value;
+  }
+}
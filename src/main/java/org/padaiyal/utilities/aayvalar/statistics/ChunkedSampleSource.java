@@ -0,0 +1,570 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Values stored outside of the heap, whose statistics are computed chunk by chunk. The values are
+ * split into chunks of the size the array kernels of {@link StatisticsUtility} reduce in, in
+ * parallel if its execution policy says so. Each chunk is copied into a buffer owned by the
+ * thread reducing it and fed to the same kernels, and the partial results are combined in the
+ * same order, so every metric is identical to that of the equivalent array.
+ *
+ * <p>Percentiles are selected exactly, by counting the values in a few passes, each narrowing
+ * down the bits of the selected values. The metrics without a method here are computed by passing
+ * {@link #stream()} to their {@link DoubleStream} variant in {@link StatisticsUtility}, which
+ * doesn't copy the values either.
+ *
+ * <p>The values should not change while a metric is being computed.
+ */
+abstract class ChunkedSampleSource {
+
+  /**
+   * Number of values reduced by each task, which is that of the array kernels.
+   */
+  static final int chunkSize = DoubleReduction.chunkSize;
+  /**
+   * Largest number of bits of the sort keys counted by each percentile selection pass, which is
+   * also the base 2 logarithm of the number of counters of each pass.
+   */
+  private static final int radixBits = 16;
+  /**
+   * Smallest number of bits of the sort keys counted by each percentile selection pass, which
+   * bounds the number of passes.
+   */
+  private static final int minRadixBits = 8;
+  /**
+   * Buffer each thread copies the chunks it reduces into.
+   */
+  private static final ThreadLocal<double[]> chunkBuffer = ThreadLocal.withInitial(
+      () -> new double[chunkSize]
+  );
+
+  /**
+   * Returns the number of values.
+   *
+   * @return The number of values.
+   */
+  public abstract long getCount();
+
+  /**
+   * Copies a range of values, which lies within a chunk, into a buffer.
+   *
+   * @param first  The index of the first value of the range.
+   * @param length The number of values of the range.
+   * @param values The buffer to copy the values into.
+   */
+  abstract void read(long first, int length, double[] values);
+
+  /**
+   * Returns a value.
+   *
+   * @param index The index of the value, which should be less than the count.
+   * @return The value, converted to double.
+   */
+  abstract double getAsDouble(long index);
+
+  /**
+   * Returns a spliterator over the values, which splits them at chunk boundaries.
+   *
+   * @return The spliterator over the values, in order.
+   */
+  public Spliterator.OfDouble spliterator() {
+    return new ValueSpliterator(0, getCount());
+  }
+
+  /**
+   * Returns a stream of the values, whose parallelism follows the execution policy. It is meant
+   * for the {@link DoubleStream} variants of the {@link StatisticsUtility} metrics.
+   *
+   * @return The stream of the values, in order.
+   */
+  public DoubleStream stream() {
+    return StreamSupport.doubleStream(
+        spliterator(),
+        StatisticsUtility.getExecutionPolicy().isParallel(getCount())
+    );
+  }
+
+  /**
+   * Gets the sum of the values.
+   *
+   * @return The sum of the values, 0 if there are none.
+   */
+  public double getSum() {
+    if (getCount() == 0) {
+      return 0;
+    }
+    return reduceChunks(
+        (values, length) -> DoubleReduction.sumChunk(values, 0, length),
+        (sum, nextSum) -> {
+          sum.merge(nextSum);
+          return sum;
+        }
+    ).getSum();
+  }
+
+  /**
+   * Gets the mean (arithmetic, geometric or harmonic) of the values.
+   *
+   * @param meanType The type of mean to calculate.
+   * @return The mean of the values.
+   */
+  public double getMean(MeanType meanType) {
+    Objects.requireNonNull(meanType);
+    return switch (meanType) {
+      case ARITHMETIC -> {
+        validateNotEmpty();
+        yield getSum() / getCount();
+      }
+      case GEOMETRIC -> Math.exp(getCompensatedSum(meanType) / getCount());
+      case HARMONIC -> getCount() / getCompensatedSum(meanType);
+      default -> throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "StatisticsUtility.error.invalidMeanType",
+              meanType.toString()
+          )
+      );
+    };
+  }
+
+  /**
+   * Gets the variance of the values about their mean.
+   *
+   * @param meanType The mean type to use for calculation.
+   * @return The variance of the values.
+   */
+  public double getVariance(MeanType meanType) {
+    Objects.requireNonNull(meanType);
+    return switch (meanType) {
+      case ARITHMETIC, GEOMETRIC, HARMONIC -> {
+        validateNotEmpty();
+        MomentsAccumulator moments = getMoments();
+        yield meanType == MeanType.ARITHMETIC
+            ? moments.getVariance()
+            : moments.getVariance(getMean(meanType));
+      }
+      default -> throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "StatisticsUtility.error.invalidMeanType",
+              meanType.toString()
+          )
+      );
+    };
+  }
+
+  /**
+   * Gets the standard deviation of the values about their mean.
+   *
+   * @param meanType The mean type to use for calculation.
+   * @return The standard deviation of the values.
+   */
+  public double getStandardDeviation(MeanType meanType) {
+    return Math.sqrt(getVariance(meanType));
+  }
+
+  /**
+   * Gets the count, sum, minimum, average and maximum of the values.
+   *
+   * @return The summary statistics of the values.
+   */
+  public DoubleSummaryStatistics getSummaryStatistics() {
+    if (getCount() == 0) {
+      return new DoubleSummaryStatistics();
+    }
+    DoubleSummaryStatistics summaryStatistics = reduceChunks(
+        (values, length) -> DoubleReduction.reduceChunk(values, 0, length, 0),
+        (reduction, nextReduction) -> {
+          reduction.merge(nextReduction);
+          return reduction;
+        }
+    ).toSummaryStatistics();
+    return summaryStatistics != null
+        ? summaryStatistics
+        : StatisticsUtility.getSummaryStatistics(stream());
+  }
+
+  /**
+   * Gets the smallest value.
+   *
+   * @return The smallest value, positive infinity if there are none.
+   */
+  public double getMinValue() {
+    return getSummaryStatistics().getMin();
+  }
+
+  /**
+   * Gets the largest value.
+   *
+   * @return The largest value, negative infinity if there are none.
+   */
+  public double getMaxValue() {
+    return getSummaryStatistics().getMax();
+  }
+
+  /**
+   * Gets the count, mean and central moments of the values.
+   *
+   * @return The moments of the values.
+   */
+  public MomentsAccumulator getMoments() {
+    if (getCount() == 0) {
+      return new MomentsAccumulator();
+    }
+    return reduceChunks(
+        (values, length) -> MomentsAccumulator.of(values, 0, length),
+        (moments, nextMoments) -> {
+          moments.combine(nextMoments);
+          return moments;
+        }
+    );
+  }
+
+  /**
+   * Gets the skewness of the values.
+   *
+   * @return The skewness of the values.
+   */
+  public double getSkewness() {
+    return getMoments().getSkewness();
+  }
+
+  /**
+   * Gets the excess kurtosis of the values.
+   *
+   * @return The excess kurtosis of the values.
+   */
+  public double getKurtosis() {
+    return getMoments().getKurtosis();
+  }
+
+  /**
+   * Gets the median of the values.
+   *
+   * @return The median of the values.
+   */
+  public double getMedian() {
+    return getPercentile(50);
+  }
+
+  /**
+   * Gets a percentile of the values, interpolated between the values around it.
+   *
+   * @param percentile The percentile to get, between 0 and 100.
+   * @return The percentile of the values.
+   */
+  public double getPercentile(double percentile) {
+    return getPercentiles(percentile)[0];
+  }
+
+  /**
+   * Gets several percentiles of the values, interpolated between the values around each of them.
+   * The values around every percentile are selected in the same passes over the values.
+   *
+   * @param percentiles The percentiles to get, between 0 and 100.
+   * @return The percentiles of the values, in the same order as requested.
+   */
+  public double[] getPercentiles(double... percentiles) {
+    StatisticsUtility.validatePercentiles(percentiles);
+    validateNotEmpty();
+    long count = getCount();
+    long[] ranks = new long[2 * percentiles.length];
+    for (int index = 0; index < percentiles.length; index++) {
+      long lowerRank = (long) Math.floor((count - 1) * (percentiles[index] / 100));
+      ranks[2 * index] = lowerRank;
+      ranks[2 * index + 1] = Math.min(lowerRank + 1, count - 1);
+    }
+    ranks = Arrays.stream(ranks).sorted().distinct().toArray();
+    long[] rankKeys = selectKeys(ranks);
+
+    double[] result = new double[percentiles.length];
+    for (int index = 0; index < percentiles.length; index++) {
+      double position = (count - 1) * (percentiles[index] / 100);
+      long lowerRank = (long) Math.floor(position);
+      double fraction = position - lowerRank;
+      double lower = toValue(rankKeys[Arrays.binarySearch(ranks, lowerRank)]);
+      result[index] = fraction == 0
+          ? lower
+          : (1 - fraction) * lower
+              + fraction * toValue(rankKeys[Arrays.binarySearch(ranks, lowerRank + 1)]);
+    }
+    return result;
+  }
+
+  /**
+   * Selects the sort keys of the values at several ranks. Each pass over the values counts, for
+   * every distinct prefix of the keys selected so far, the values sharing that prefix by their
+   * next digit, which determines that digit of the selected keys. The more distinct prefixes
+   * there are, the narrower the digits, so that each pass uses at most 2^radixBits counters.
+   *
+   * @param ranks The ranks to select, distinct and in ascending order.
+   * @return The sort keys of the values at the ranks, in the same order.
+   */
+  private long[] selectKeys(long[] ranks) {
+    long[] keys = new long[ranks.length];
+    long[] remainingRanks = ranks.clone();
+    for (int prefixShift = Long.SIZE; prefixShift > 0; ) {
+      long[] prefixes = Arrays.stream(keys).sorted().distinct().toArray();
+      int prefixBits = Integer.SIZE - Integer.numberOfLeadingZeros(prefixes.length - 1);
+      int digitBits = Math.min(prefixShift, Math.max(minRadixBits, radixBits - prefixBits));
+      int shift = prefixShift - digitBits;
+      long[] digitCounts = countDigits(prefixes, prefixShift, shift, digitBits);
+      for (int index = 0; index < ranks.length; index++) {
+        int countsOffset = Arrays.binarySearch(prefixes, keys[index]) << digitBits;
+        int digit = 0;
+        while (remainingRanks[index] >= digitCounts[countsOffset + digit]) {
+          remainingRanks[index] -= digitCounts[countsOffset + digit];
+          digit++;
+        }
+        keys[index] |= (long) digit << shift;
+      }
+      prefixShift = shift;
+    }
+    return keys;
+  }
+
+  /**
+   * Counts the values whose sort keys start with each of the provided prefixes by the digit
+   * following the prefix.
+   *
+   * @param prefixes    The prefixes, distinct and in ascending signed order, with their lower
+   *                    prefixShift bits cleared.
+   * @param prefixShift The number of low bits of the keys that aren't part of the prefixes.
+   * @param shift       The position of the lowest bit of the counted digits.
+   * @param digitBits   The number of bits of the counted digits.
+   * @return The counts of each digit of each prefix, the counts of the prefix at an index
+   *     starting at that index shifted left by digitBits.
+   */
+  private long[] countDigits(long[] prefixes, int prefixShift, int shift, int digitBits) {
+    int digitMask = (1 << digitBits) - 1;
+    ExecutionPolicy executionPolicy = StatisticsUtility.getExecutionPolicy();
+    IntStream chunks = executionPolicy.configure(IntStream.range(0, getChunkCount()), getCount());
+    return executionPolicy.execute(() -> chunks.collect(
+        () -> new long[prefixes.length << digitBits],
+        (counts, chunk) -> {
+          double[] values = chunkBuffer.get();
+          int length = readChunk(chunk, values);
+          for (int index = 0; index < length; index++) {
+            long key = toKey(values[index]);
+            long prefix = prefixShift == Long.SIZE ? 0 : key >>> prefixShift << prefixShift;
+            int prefixIndex = prefixes.length == 1 ? 0 : Arrays.binarySearch(prefixes, prefix);
+            if (prefixIndex >= 0 && prefixes[prefixIndex] == prefix) {
+              counts[prefixIndex << digitBits | (int) (key >>> shift) & digitMask]++;
+            }
+          }
+        },
+        (counts, otherCounts) -> {
+          for (int index = 0; index < counts.length; index++) {
+            counts[index] += otherCounts[index];
+          }
+        }
+    ));
+  }
+
+  /**
+   * Reduces the values chunk by chunk, in parallel if the execution policy says so, and combines
+   * the partial results in order.
+   *
+   * @param chunkReduction Reduces the values of a chunk, given the buffer holding them and their
+   *                       number.
+   * @param combiner       Combines the partial result of a chunk with that of the chunk following
+   *                       it.
+   * @param <T>            Type of the partial results.
+   * @return The reduction of the values, which should not be empty.
+   */
+  private <T> T reduceChunks(BiFunction<double[], Integer, T> chunkReduction,
+      BinaryOperator<T> combiner) {
+    return StatisticsUtility.getExecutionPolicy().reduceChunks(getChunkCount(), getCount(),
+        chunk -> {
+          double[] values = chunkBuffer.get();
+          return chunkReduction.apply(values, readChunk(chunk, values));
+        },
+        combiner);
+  }
+
+  /**
+   * Returns the number of chunks the values are reduced in.
+   *
+   * @return The number of chunks.
+   */
+  private int getChunkCount() {
+    return Math.toIntExact((getCount() + chunkSize - 1) / chunkSize);
+  }
+
+  /**
+   * Copies the values of a chunk into a buffer.
+   *
+   * @param chunk  The index of the chunk.
+   * @param values The buffer to copy the values into, of chunkSize values.
+   * @return The number of values of the chunk.
+   */
+  private int readChunk(int chunk, double[] values) {
+    long first = (long) chunk * chunkSize;
+    int length = (int) Math.min(chunkSize, getCount() - first);
+    read(first, length, values);
+    return length;
+  }
+
+  /**
+   * Sums a term of each value.
+   *
+   * @param meanType The mean whose terms are summed, the logarithms for geometric means and the
+   *                 reciprocals for harmonic means.
+   * @return The compensated sum of the terms.
+   */
+  private double getCompensatedSum(MeanType meanType) {
+    if (getCount() == 0) {
+      return 0;
+    }
+    boolean logarithms = meanType == MeanType.GEOMETRIC;
+    return reduceChunks(
+        (values, length) -> {
+          CompensatedSum chunkSum = new CompensatedSum();
+          for (int index = 0; index < length; index++) {
+            chunkSum.accept(logarithms ? Math.log(values[index]) : 1 / values[index]);
+          }
+          return chunkSum;
+        },
+        (sum, nextSum) -> {
+          sum.merge(nextSum);
+          return sum;
+        }
+    ).getSum();
+  }
+
+  /**
+   * Checks that there are values.
+   */
+  private void validateNotEmpty() {
+    if (getCount() == 0) {
+      throw new NoSuchElementException(
+          I18nUtility.getString("StatisticsUtility.error.emptyInput")
+      );
+    }
+  }
+
+  /**
+   * Converts a value into a key whose unsigned order is that of {@link Double#compare}, which
+   * sorts -0.0 before 0.0 and NaN last.
+   *
+   * @param value The value.
+   * @return The sort key of the value.
+   */
+  private static long toKey(double value) {
+    long bits = Double.doubleToLongBits(value);
+    return bits ^ (bits >> (Long.SIZE - 1) | Long.MIN_VALUE);
+  }
+
+  /**
+   * Converts a sort key back into its value.
+   *
+   * @param key The sort key.
+   * @return The value of the key.
+   */
+  private static double toValue(long key) {
+    return Double.longBitsToDouble(key ^ (~key >> (Long.SIZE - 1) | Long.MIN_VALUE));
+  }
+
+  /**
+   * Spliterator over a range of the values, split at chunk boundaries so that each half holds
+   * whole chunks.
+   */
+  private final class ValueSpliterator implements Spliterator.OfDouble {
+
+    /**
+     * Index of the next value.
+     */
+    private long index;
+    /**
+     * Index of the end of the range, exclusive.
+     */
+    private final long end;
+
+    /**
+     * Creates a spliterator over a range of the values.
+     *
+     * @param index The index of the first value, inclusive.
+     * @param end   The index of the end of the range, exclusive.
+     */
+    ValueSpliterator(long index, long end) {
+      this.index = index;
+      this.end = end;
+    }
+
+    /**
+     * Passes the next value to an action.
+     *
+     * @param action The action.
+     * @return False if there are no values left.
+     */
+    @Override
+    public boolean tryAdvance(DoubleConsumer action) {
+      Objects.requireNonNull(action);
+      if (index >= end) {
+        return false;
+      }
+      action.accept(getAsDouble(index++));
+      return true;
+    }
+
+    /**
+     * Passes the remaining values to an action, in order.
+     *
+     * @param action The action.
+     */
+    @Override
+    public void forEachRemaining(DoubleConsumer action) {
+      Objects.requireNonNull(action);
+      for (; index < end; index++) {
+        action.accept(getAsDouble(index));
+      }
+    }
+
+    /**
+     * Splits off the first half of the remaining chunks.
+     *
+     * @return The spliterator over the first half, or null if less than two chunks remain.
+     */
+    @Override
+    public Spliterator.OfDouble trySplit() {
+      long middle = (index + end) >>> 1;
+      middle -= middle % chunkSize;
+      if (middle <= index) {
+        return null;
+      }
+      ValueSpliterator prefix = new ValueSpliterator(index, middle);
+      index = middle;
+      return prefix;
+    }
+
+    /**
+     * Returns the number of remaining values.
+     *
+     * @return The number of remaining values.
+     */
+    @Override
+    public long estimateSize() {
+      return end - index;
+    }
+
+    /**
+     * Returns the characteristics of the spliterator.
+     *
+     * @return The characteristics.
+     */
+    @Override
+    public int characteristics() {
+      return ORDERED | SIZED | SUBSIZED | NONNULL;
+    }
+  }
+}
@@ -0,0 +1,60 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * Sums doubles with Neumaier's compensated summation. The rounding error of every addition is
+ * accumulated separately and added back at the end, so the error of the sum no longer grows with
+ * the number of values added. For more information:
+ * https://en.wikipedia.org/wiki/Kahan_summation_algorithm#Further_enhancements
+ *
+ * <p>This class is not thread safe.
+ */
+final class CompensatedSum implements DoubleConsumer {
+
+  /**
+   * Sum of the values, rounded at every addition.
+   */
+  private double sum;
+  /**
+   * Sum of the rounding errors of the additions.
+   */
+  private double compensation;
+
+  /**
+   * Adds a value to the sum.
+   *
+   * @param value The value to add.
+   */
+  @Override
+  public void accept(double value) {
+    double total = sum + value;
+    if (Math.abs(sum) >= Math.abs(value)) {
+      compensation += (sum - total) + value;
+    } else {
+      compensation += (value - total) + sum;
+    }
+    sum = total;
+  }
+
+  /**
+   * Adds the values summed by another instance to this one.
+   *
+   * @param other The sum to merge into this one.
+   */
+  void merge(CompensatedSum other) {
+    accept(other.sum);
+    compensation += other.compensation;
+  }
+
+  /**
+   * Returns the compensated sum of the values added.
+   *
+   * @return The sum of the values added.
+   */
+  double getSum() {
+    double total = sum + compensation;
+    // Infinite values make the compensation NaN, in which case the rounded sum is the answer.
+    return Double.isNaN(total) && !Double.isNaN(sum) ? sum : total;
+  }
+}
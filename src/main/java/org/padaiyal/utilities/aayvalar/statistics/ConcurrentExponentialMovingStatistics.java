@@ -0,0 +1,162 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+/**
+ * Thread safe estimator of the time-decayed exponentially weighted moving mean and variance of a
+ * signal, for values added concurrently by many threads on a hot path:
+ * <pre>{@code
+ * ConcurrentExponentialMovingStatistics latency = ConcurrentExponentialMovingStatistics
+ *     .ofHalfLife(TimeUnit.SECONDS.toNanos(10));
+ * latency.add(System.nanoTime(), requestLatency);
+ * }</pre>
+ * The values are spread over stripes by thread, in the same spirit as
+ * {@link java.util.concurrent.atomic.DoubleAdder}, so that threads rarely contend for the lock of
+ * a stripe, and adding a value does not allocate. Time-decayed weights only depend on the
+ * timestamps of the values, so merging the stripes gives the same estimates as adding every
+ * value to a single {@link ExponentialMovingStatistics}, up to rounding errors.
+ *
+ * <p>Reading the estimates merges the stripes and costs O(number of stripes), so it should be
+ * done at the reporting rate rather than per value.
+ */
+public final class ConcurrentExponentialMovingStatistics {
+
+  /**
+   * Multiplier spreading thread identifiers over the stripes.
+   */
+  private static final long spreadingMultiplier = 0x9E3779B97F4A7C15L;
+  /**
+   * Stripes of the estimator, whose number is a power of two. Each stripe is guarded by its own
+   * lock.
+   */
+  private final ExponentialMovingStatistics[] stripes;
+
+  /**
+   * Creates an empty estimator.
+   *
+   * @param stripes The empty stripes of the estimator, whose number is a power of two.
+   */
+  private ConcurrentExponentialMovingStatistics(ExponentialMovingStatistics[] stripes) {
+    this.stripes = stripes;
+  }
+
+  /**
+   * Creates an empty estimator whose weights halve every half-life, with a stripe per processor
+   * rounded up to a power of two.
+   *
+   * @param halfLife The half-life, greater than 0, in the unit of the timestamps.
+   * @return The estimator.
+   */
+  public static ConcurrentExponentialMovingStatistics ofHalfLife(double halfLife) {
+    int processors = Runtime.getRuntime().availableProcessors();
+    ExponentialMovingStatistics[] stripes = new ExponentialMovingStatistics[
+        processors == 1 ? 1 : Integer.highestOneBit(processors - 1) << 1];
+    for (int stripe = 0; stripe < stripes.length; stripe++) {
+      stripes[stripe] = ExponentialMovingStatistics.ofHalfLife(halfLife);
+    }
+    return new ConcurrentExponentialMovingStatistics(stripes);
+  }
+
+  /**
+   * Adds a value at a timestamp. Values may be added out of timestamp order, in which case they
+   * are weighted by their age.
+   *
+   * @param timestamp The timestamp of the value.
+   * @param value     The value to add.
+   */
+  public void add(long timestamp, double value) {
+    ExponentialMovingStatistics stripe = stripes[getStripeIndex()];
+    synchronized (stripe) {
+      stripe.add(timestamp, value);
+    }
+  }
+
+  /**
+   * Returns a snapshot of the estimates, merging the stripes.
+   *
+   * @return A new estimator holding every value added so far.
+   */
+  public ExponentialMovingStatistics snapshot() {
+    ExponentialMovingStatistics snapshot = ExponentialMovingStatistics.ofHalfLife(
+        stripes[0].getHalfLife());
+    for (ExponentialMovingStatistics stripe : stripes) {
+      synchronized (stripe) {
+        snapshot.merge(stripe);
+      }
+    }
+    return snapshot;
+  }
+
+  /**
+   * Returns the number of values added.
+   *
+   * @return The number of values.
+   */
+  public long getCount() {
+    return snapshot().getCount();
+  }
+
+  /**
+   * Returns the exponentially weighted mean of the values added.
+   *
+   * @return The mean, or NaN if no values have been added.
+   */
+  public double getMean() {
+    return snapshot().getMean();
+  }
+
+  /**
+   * Returns the exponentially weighted population variance of the values added.
+   *
+   * @return The variance, or NaN if no values have been added.
+   */
+  public double getVariance() {
+    return snapshot().getVariance();
+  }
+
+  /**
+   * Returns the exponentially weighted population standard deviation of the values added.
+   *
+   * @return The standard deviation, or NaN if no values have been added.
+   */
+  public double getStandardDeviation() {
+    return snapshot().getStandardDeviation();
+  }
+
+  /**
+   * Removes every value added. Values added concurrently may or may not be removed.
+   */
+  public void clear() {
+    for (ExponentialMovingStatistics stripe : stripes) {
+      synchronized (stripe) {
+        stripe.clear();
+      }
+    }
+  }
+
+  /**
+   * Returns a string representation of the estimator.
+   *
+   * @return The string representation of the estimator.
+   */
+  @Override
+  public String toString() {
+    ExponentialMovingStatistics snapshot = snapshot();
+    return String.format(
+        "%s{stripes=%d, count=%d, mean=%s, variance=%s}",
+        getClass().getSimpleName(),
+        stripes.length,
+        snapshot.getCount(),
+        snapshot.getMean(),
+        snapshot.getVariance()
+    );
+  }
+
+  /**
+   * Returns the index of the stripe of the current thread.
+   *
+   * @return The index of the stripe.
+   */
+  private int getStripeIndex() {
+    long hash = Thread.currentThread().getId() * spreadingMultiplier;
+    return (int) (hash >>> 32) & (stripes.length - 1);
+  }
+}
@@ -0,0 +1,244 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Records non negative long values, such as latencies in nanoseconds, from many threads at once
+ * and reports their statistics per interval:
+ * <pre>{@code
+ * ConcurrentStatisticsRecorder recorder = new ConcurrentStatisticsRecorder(
+ *     TimeUnit.MINUTES.toNanos(1), 3);
+ * // On every request thread:
+ * recorder.record(System.nanoTime() - requestStartTime);
+ * // Every few seconds, on a reporting thread:
+ * IntervalStatistics latencies = recorder.getIntervalStatistics();
+ * }</pre>
+ * The values are recorded into striped cells: the sums and extremes into {@link DoubleAdder}
+ * and {@link LongAccumulator} cells, and the counts into a histogram bucket array per stripe of
+ * threads. Recording never takes a lock and never waits for
+ * readers. Two sets of cells alternate: getting the statistics of an interval swaps the active
+ * set for the inactive one and waits, through a {@link WriterReaderPhaser}, for the writers still
+ * recording into the previously active set, which it then reads. Readers never block writers.
+ *
+ * <p>The sums are shifted by the mean of a previous interval, which keeps the variance accurate
+ * for values whose spread is small compared with their magnitude.
+ */
+public final class ConcurrentStatisticsRecorder {
+
+  /**
+   * Multiplier spreading thread identifiers over the stripes.
+   */
+  private static final long spreadingMultiplier = 0x9E3779B97F4A7C15L;
+  /**
+   * Histogram defining the range, the precision and the bucket layout of the recorded values.
+   */
+  private final LogLinearHistogram layout;
+  /**
+   * Number of stripes of the histogram cells, which is a power of two.
+   */
+  private final int stripes;
+  /**
+   * Synchronizes the writers with the reader swapping the intervals.
+   */
+  private final WriterReaderPhaser phaser = new WriterReaderPhaser();
+  /**
+   * Cells the values are currently recorded into.
+   */
+  private volatile Interval activeInterval;
+  /**
+   * Cells of the previous interval, reused for the next one. Guarded by this recorder's lock.
+   */
+  private Interval inactiveInterval;
+  /**
+   * Value subtracted from the values of the next interval before summing them, which is the mean
+   * of the latest interval with values. Guarded by this recorder's lock.
+   */
+  private double nextShift;
+
+  /**
+   * Creates a recorder, whose first interval starts now.
+   *
+   * @param highestTrackableValue The largest value that can be recorded, at least 2.
+   * @param significantDigits     The number of significant decimal digits the values are
+   *                              counted with in the histograms, between 0 and 5.
+   */
+  public ConcurrentStatisticsRecorder(long highestTrackableValue, int significantDigits) {
+    layout = new LogLinearHistogram(highestTrackableValue, significantDigits);
+    int processors = Runtime.getRuntime().availableProcessors();
+    stripes = processors == 1 ? 1 : Integer.highestOneBit(processors - 1) << 1;
+    activeInterval = new Interval(stripes * layout.getCountsLength());
+    inactiveInterval = new Interval(stripes * layout.getCountsLength());
+    activeInterval.reset(0, System.nanoTime());
+  }
+
+  /**
+   * Records a value into the current interval.
+   *
+   * @param value The value to record, between 0 and the highest trackable value.
+   */
+  public void record(long value) {
+    layout.validateValue(value);
+    int index = getStripeIndex() * layout.getCountsLength() + layout.getCountsIndex(value);
+    long criticalValue = phaser.writerCriticalSectionEnter();
+    try {
+      activeInterval.record(value, index);
+    } finally {
+      phaser.writerCriticalSectionExit(criticalValue);
+    }
+  }
+
+  /**
+   * Ends the current interval, starts the next one, and returns the statistics of the values
+   * recorded during the interval that ended. The first interval starts when the recorder is
+   * created.
+   *
+   * @return The statistics of the interval that ended.
+   */
+  public synchronized IntervalStatistics getIntervalStatistics() {
+    long time = System.nanoTime();
+    Interval endedInterval = activeInterval;
+    inactiveInterval.reset(nextShift, time);
+    activeInterval = inactiveInterval;
+    phaser.flipPhase();
+    inactiveInterval = endedInterval;
+    IntervalStatistics intervalStatistics = endedInterval.toStatistics(time);
+    if (intervalStatistics.getCount() > 0) {
+      nextShift = intervalStatistics.getMean();
+    }
+    return intervalStatistics;
+  }
+
+  /**
+   * Returns a string representation of the recorder.
+   *
+   * @return The string representation of the recorder.
+   */
+  @Override
+  public String toString() {
+    return String.format(
+        "%s{significantDigits=%d, highestTrackableValue=%d, stripes=%d}",
+        getClass().getSimpleName(),
+        layout.getSignificantDigits(),
+        layout.getHighestTrackableValue(),
+        stripes
+    );
+  }
+
+  /**
+   * Returns the index of the stripe of the current thread.
+   *
+   * @return The index of the stripe.
+   */
+  private int getStripeIndex() {
+    long hash = Thread.currentThread().getId() * spreadingMultiplier;
+    return (int) (hash >>> 32) & (stripes - 1);
+  }
+
+  /**
+   * Cells recording the values of an interval.
+   */
+  private final class Interval {
+
+    /**
+     * Counts of the histogram buckets, one array of buckets per stripe.
+     */
+    private final AtomicLongArray bucketCounts;
+    /**
+     * Sum of the values recorded minus the shift.
+     */
+    private final DoubleAdder shiftedSum = new DoubleAdder();
+    /**
+     * Sum of the squares of the values recorded minus the shift.
+     */
+    private final DoubleAdder shiftedSquareSum = new DoubleAdder();
+    /**
+     * Smallest value recorded.
+     */
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    /**
+     * Largest value recorded.
+     */
+    private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+    /**
+     * Value subtracted from the values before summing them. It is written before the interval
+     * becomes active, which publishes it to the writers.
+     */
+    private double shift;
+    /**
+     * Start of the interval, in nanoseconds.
+     */
+    private long startTime;
+
+    /**
+     * Creates empty cells.
+     *
+     * @param bucketCountsLength The number of histogram buckets of all the stripes.
+     */
+    Interval(int bucketCountsLength) {
+      bucketCounts = new AtomicLongArray(bucketCountsLength);
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value The value to record.
+     * @param index The index of the bucket of the value in the stripe of the current thread.
+     */
+    void record(long value, int index) {
+      bucketCounts.getAndIncrement(index);
+      double shiftedValue = value - shift;
+      shiftedSum.add(shiftedValue);
+      shiftedSquareSum.add(shiftedValue * shiftedValue);
+      min.accumulate(value);
+      max.accumulate(value);
+    }
+
+    /**
+     * Empties the cells for a new interval, which should not be active.
+     *
+     * @param shift     The value subtracted from the values before summing them.
+     * @param startTime The start of the interval, in nanoseconds.
+     */
+    void reset(double shift, long startTime) {
+      for (int index = 0; index < bucketCounts.length(); index++) {
+        bucketCounts.set(index, 0);
+      }
+      shiftedSum.reset();
+      shiftedSquareSum.reset();
+      min.reset();
+      max.reset();
+      this.shift = shift;
+      this.startTime = startTime;
+    }
+
+    /**
+     * Reads the statistics of the interval, which should not be active anymore.
+     *
+     * @param endTime The end of the interval, in nanoseconds.
+     * @return The statistics of the interval.
+     */
+    IntervalStatistics toStatistics(long endTime) {
+      int countsLength = layout.getCountsLength();
+      long[] counts = new long[countsLength];
+      long valueCount = 0;
+      for (int index = 0; index < bucketCounts.length(); index++) {
+        long bucketCount = bucketCounts.get(index);
+        counts[index % countsLength] += bucketCount;
+        valueCount += bucketCount;
+      }
+      LogLinearHistogram histogram = new LogLinearHistogram(layout.getHighestTrackableValue(),
+          layout.getSignificantDigits());
+      histogram.addCounts(counts, min.get(), max.get());
+
+      double deviationSum = shiftedSum.sum();
+      double deviationMean = valueCount == 0 ? 0 : deviationSum / valueCount;
+      double variance = valueCount == 0
+          ? Double.NaN
+          : Math.max(0, shiftedSquareSum.sum() / valueCount - deviationMean * deviationMean);
+      return new IntervalStatistics(startTime, endTime, valueCount,
+          shift * valueCount + deviationSum, variance, histogram);
+    }
+  }
+}
@@ -0,0 +1,540 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Consumer;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Accumulates the count, the means and the co-moments of a sequence of rows of k values in a
+ * single pass, from which the covariance and correlation matrices of the k columns are derived.
+ * Rows are added using Welford's online update and partial results are merged using Chan et al.'s
+ * pairwise update, which makes this usable as the mutable container of a parallel reduction,
+ * for example:
+ * <pre>{@code
+ * CovarianceAccumulator coMoments = rows.parallelStream().collect(
+ *     () -> new CovarianceAccumulator(dimension),
+ *     CovarianceAccumulator::accept,
+ *     CovarianceAccumulator::combine
+ * );
+ * }</pre>
+ * For more information:
+ * https://en.wikipedia.org/wiki/Algorithms_for_calculating_variance#Covariance
+ *
+ * <p>The co-moment matrix is symmetric, so only its upper triangle is stored, row after row in a
+ * single array of k * (k + 1) / 2 values, which every row added updates sequentially. Rows added
+ * at once with {@link #acceptRows(double[][], int, int)} are copied into a contiguous block,
+ * centered on the means of the block, and added to the triangle four rows at a time, so each
+ * co-moment is read and written once for four rows. With k in the hundreds the triangle no
+ * longer fits in the L1 cache, and this is faster than adding the rows one by one.
+ *
+ * <p>NaN values make every covariance of their column NaN.
+ *
+ * <p>This class is not thread safe.
+ */
+public class CovarianceAccumulator implements Consumer<double[]> {
+
+  static {
+    I18nUtility.addResourceBundle(
+        CovarianceAccumulator.class,
+        CovarianceAccumulator.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Largest dimension supported, for which the upper triangle of the co-moment matrix still fits
+   * in an array.
+   */
+  public static final int maxDimension = 65_535;
+  /**
+   * Number of rows centered together by {@link #acceptRows(double[][], int, int)}.
+   */
+  private static final int blockRows = 64;
+  /**
+   * Number of rows of a block whose products are added to the co-moments together.
+   */
+  private static final int updateRows = 4;
+
+  /**
+   * Number of values in each row.
+   */
+  private final int dimension;
+  /**
+   * Arithmetic mean of each column.
+   */
+  private final double[] means;
+  /**
+   * Upper triangle of the matrix of the sums of the products of the deviations from the means of
+   * each pair of columns, row after row.
+   */
+  private final double[] coMoments;
+  /**
+   * Deviations of the row being added, or of the mean of the block being added, from the means.
+   */
+  private final double[] deviations;
+  /**
+   * Rows of the block being added, centered on their means, or null until rows are added by
+   * blocks.
+   */
+  private double[] block;
+  /**
+   * Number of rows accumulated.
+   */
+  private long count;
+
+  /**
+   * Creates an empty accumulator of rows of the provided dimension.
+   *
+   * @param dimension The number of values in each row, between 1 and {@link #maxDimension}.
+   */
+  public CovarianceAccumulator(int dimension) {
+    validateDimension(dimension);
+    this.dimension = dimension;
+    means = new double[dimension];
+    coMoments = new double[(int) ((long) dimension * (dimension + 1) / 2)];
+    deviations = new double[dimension];
+  }
+
+  /**
+   * Adds a row to the accumulated co-moments.
+   *
+   * @param row The row to add, of as many values as the dimension.
+   */
+  @Override
+  public void accept(double[] row) {
+    validateRow(row);
+    count++;
+    for (int column = 0; column < dimension; column++) {
+      deviations[column] = row[column] - means[column];
+      means[column] += deviations[column] / count;
+    }
+    addOuterProduct(deviations, (count - 1.0) / count);
+  }
+
+  /**
+   * Adds consecutive rows of an array of rows to the accumulated co-moments.
+   *
+   * @param rows   The array of rows to add, each of as many values as the dimension.
+   * @param offset The index of the first row to add.
+   * @param length The number of rows to add.
+   */
+  public void acceptRows(double[][] rows, int offset, int length) {
+    Objects.requireNonNull(rows);
+    Objects.checkFromIndexSize(offset, length, rows.length);
+    for (int blockStart = offset; blockStart < offset + length; blockStart += blockRows) {
+      int rowCount = Math.min(blockRows, offset + length - blockStart);
+      double[] blockValues = getBlock();
+      for (int row = 0; row < rowCount; row++) {
+        validateRow(rows[blockStart + row]);
+        System.arraycopy(rows[blockStart + row], 0, blockValues, row * dimension, dimension);
+      }
+      acceptBlock(rowCount);
+    }
+  }
+
+  /**
+   * Adds consecutive rows of an array holding rows one after the other to the accumulated
+   * co-moments.
+   *
+   * @param values   The array holding the rows, each of as many values as the dimension.
+   * @param offset   The index of the first value of the first row to add.
+   * @param rowCount The number of rows to add.
+   */
+  public void acceptRows(double[] values, int offset, int rowCount) {
+    Objects.requireNonNull(values);
+    Objects.checkFromIndexSize(offset, 0, values.length);
+    Objects.checkFromIndexSize(0, rowCount, (values.length - offset) / dimension);
+    for (int blockStart = 0; blockStart < rowCount; blockStart += blockRows) {
+      int blockRowCount = Math.min(blockRows, rowCount - blockStart);
+      System.arraycopy(values, offset + blockStart * dimension, getBlock(), 0,
+          blockRowCount * dimension);
+      acceptBlock(blockRowCount);
+    }
+  }
+
+  /**
+   * Merges the co-moments accumulated by another accumulator into this one.
+   *
+   * @param other The accumulator to merge into this one, of the same dimension.
+   */
+  public void combine(CovarianceAccumulator other) {
+    if (other.dimension != dimension) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "CovarianceAccumulator.error.incompatibleDimension",
+              other.dimension,
+              dimension
+          )
+      );
+    }
+    if (other.count == 0) {
+      return;
+    }
+    if (count == 0) {
+      count = other.count;
+      System.arraycopy(other.means, 0, means, 0, dimension);
+      System.arraycopy(other.coMoments, 0, coMoments, 0, coMoments.length);
+      return;
+    }
+    for (int index = 0; index < coMoments.length; index++) {
+      coMoments[index] += other.coMoments[index];
+    }
+    mergeMeans(other.means, other.count);
+  }
+
+  /**
+   * Returns the number of values in each row.
+   *
+   * @return The dimension of the rows.
+   */
+  public int getDimension() {
+    return dimension;
+  }
+
+  /**
+   * Returns the number of rows accumulated.
+   *
+   * @return The number of rows accumulated.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the arithmetic mean of a column of the rows accumulated.
+   *
+   * @param column The index of the column.
+   * @return The arithmetic mean, or NaN if no rows have been accumulated.
+   */
+  public double getMean(int column) {
+    Objects.checkIndex(column, dimension);
+    return count == 0 ? Double.NaN : means[column];
+  }
+
+  /**
+   * Returns the arithmetic means of the columns of the rows accumulated.
+   *
+   * @return The arithmetic mean of each column, which are NaN if no rows have been accumulated.
+   */
+  public double[] getMeans() {
+    double[] columnMeans = new double[dimension];
+    for (int column = 0; column < dimension; column++) {
+      columnMeans[column] = getMean(column);
+    }
+    return columnMeans;
+  }
+
+  /**
+   * Returns the sum of the products of the deviations from their means of two columns.
+   *
+   * @param firstColumn  The index of the first column.
+   * @param secondColumn The index of the second column.
+   * @return The sum of the products of the deviations from the means.
+   */
+  public double getCoMoment(int firstColumn, int secondColumn) {
+    return coMoments[getIndex(firstColumn, secondColumn)];
+  }
+
+  /**
+   * Returns the population covariance of two columns of the rows accumulated.
+   *
+   * @param firstColumn  The index of the first column.
+   * @param secondColumn The index of the second column.
+   * @return The population covariance, or NaN if no rows have been accumulated.
+   */
+  public double getCovariance(int firstColumn, int secondColumn) {
+    double coMoment = getCoMoment(firstColumn, secondColumn);
+    return count == 0 ? Double.NaN : coMoment / count;
+  }
+
+  /**
+   * Returns the sample (Bessel corrected) covariance of two columns of the rows accumulated.
+   *
+   * @param firstColumn  The index of the first column.
+   * @param secondColumn The index of the second column.
+   * @return The sample covariance, or NaN if less than two rows have been accumulated.
+   */
+  public double getSampleCovariance(int firstColumn, int secondColumn) {
+    double coMoment = getCoMoment(firstColumn, secondColumn);
+    return count < 2 ? Double.NaN : coMoment / (count - 1);
+  }
+
+  /**
+   * Returns the Pearson correlation coefficient of two columns of the rows accumulated.
+   * For more information: https://en.wikipedia.org/wiki/Pearson_correlation_coefficient
+   *
+   * @param firstColumn  The index of the first column.
+   * @param secondColumn The index of the second column.
+   * @return The correlation coefficient, between -1 and 1, or NaN if no rows have been
+   *     accumulated or all the values of either column are equal.
+   */
+  public double getCorrelation(int firstColumn, int secondColumn) {
+    double coMoment = getCoMoment(firstColumn, secondColumn);
+    double firstM2 = getCoMoment(firstColumn, firstColumn);
+    double secondM2 = getCoMoment(secondColumn, secondColumn);
+    if (count == 0 || firstM2 == 0 || secondM2 == 0) {
+      return Double.NaN;
+    }
+    double correlation = coMoment / Math.sqrt(firstM2 * secondM2);
+    // Rounding errors can take the coefficient of (anti) proportional columns slightly past 1.
+    return Math.max(-1, Math.min(1, correlation));
+  }
+
+  /**
+   * Returns the population covariance matrix of the columns of the rows accumulated.
+   *
+   * @return The symmetric matrix of the covariance of each pair of columns, whose values are NaN
+   *     if no rows have been accumulated.
+   */
+  public double[][] getCovarianceMatrix() {
+    double[][] matrix = new double[dimension][dimension];
+    for (int firstColumn = 0; firstColumn < dimension; firstColumn++) {
+      for (int secondColumn = firstColumn; secondColumn < dimension; secondColumn++) {
+        matrix[firstColumn][secondColumn] = getCovariance(firstColumn, secondColumn);
+        matrix[secondColumn][firstColumn] = matrix[firstColumn][secondColumn];
+      }
+    }
+    return matrix;
+  }
+
+  /**
+   * Returns the sample (Bessel corrected) covariance matrix of the columns of the rows
+   * accumulated.
+   *
+   * @return The symmetric matrix of the sample covariance of each pair of columns, whose values
+   *     are NaN if less than two rows have been accumulated.
+   */
+  public double[][] getSampleCovarianceMatrix() {
+    double[][] matrix = new double[dimension][dimension];
+    for (int firstColumn = 0; firstColumn < dimension; firstColumn++) {
+      for (int secondColumn = firstColumn; secondColumn < dimension; secondColumn++) {
+        matrix[firstColumn][secondColumn] = getSampleCovariance(firstColumn, secondColumn);
+        matrix[secondColumn][firstColumn] = matrix[firstColumn][secondColumn];
+      }
+    }
+    return matrix;
+  }
+
+  /**
+   * Returns the Pearson correlation matrix of the columns of the rows accumulated.
+   *
+   * @return The symmetric matrix of the correlation coefficient of each pair of columns. The
+   *     diagonal is 1 for the columns whose values are not all equal, and the coefficients of the
+   *     other columns are NaN.
+   */
+  public double[][] getCorrelationMatrix() {
+    double[][] matrix = new double[dimension][dimension];
+    for (int firstColumn = 0; firstColumn < dimension; firstColumn++) {
+      for (int secondColumn = firstColumn; secondColumn < dimension; secondColumn++) {
+        matrix[firstColumn][secondColumn] = getCorrelation(firstColumn, secondColumn);
+        matrix[secondColumn][firstColumn] = matrix[firstColumn][secondColumn];
+      }
+    }
+    return matrix;
+  }
+
+  /**
+   * Returns a string representation of the accumulator.
+   *
+   * @return The string representation of the accumulator.
+   */
+  @Override
+  public String toString() {
+    return String.format(
+        "%s{dimension=%d, count=%d}",
+        getClass().getSimpleName(),
+        dimension,
+        count
+    );
+  }
+
+  /**
+   * Adds the rows copied at the start of the block. They are shifted by the running means, or by
+   * their first row if there are none yet, so that constant columns have deviations of exactly
+   * zero. Their co-moments are added four rows at a time and moved to the means of the block, and
+   * these means are merged with Chan et al.'s update.
+   *
+   * @param rowCount The number of rows in the block.
+   */
+  private void acceptBlock(int rowCount) {
+    double[] shifts = count == 0 ? Arrays.copyOf(block, dimension) : means;
+    double[] deviationSums = new double[dimension];
+    for (int row = 0; row < rowCount; row++) {
+      int rowOffset = row * dimension;
+      for (int column = 0; column < dimension; column++) {
+        block[rowOffset + column] -= shifts[column];
+        deviationSums[column] += block[rowOffset + column];
+      }
+    }
+
+    int row = 0;
+    for (; row + updateRows <= rowCount; row += updateRows) {
+      addRowProducts(row * dimension);
+    }
+    for (; row < rowCount; row++) {
+      addRowProduct(row * dimension);
+    }
+    addOuterProduct(deviationSums, -1.0 / rowCount);
+    // Rounding errors can take the sums of squares of nearly constant columns slightly below 0.
+    for (int column = 0; column < dimension; column++) {
+      int index = getIndex(column, column);
+      coMoments[index] = Math.max(0, coMoments[index]);
+    }
+
+    double[] blockMeans = new double[dimension];
+    for (int column = 0; column < dimension; column++) {
+      blockMeans[column] = shifts[column] + deviationSums[column] / rowCount;
+    }
+    if (count == 0) {
+      count = rowCount;
+      System.arraycopy(blockMeans, 0, means, 0, dimension);
+    } else {
+      mergeMeans(blockMeans, rowCount);
+    }
+  }
+
+  /**
+   * Adds the sums of the outer products with themselves of four consecutive rows of the block to
+   * the co-moments, reading and writing each co-moment once for the four rows.
+   *
+   * @param rowOffset The index in the block of the first value of the first row.
+   */
+  private void addRowProducts(int rowOffset) {
+    int secondRowOffset = rowOffset + dimension;
+    int thirdRowOffset = secondRowOffset + dimension;
+    int fourthRowOffset = thirdRowOffset + dimension;
+    // Offset of the co-moments of the first column, relative to the second column.
+    int firstColumnOffset = 0;
+    for (int firstColumn = 0; firstColumn < dimension; firstColumn++) {
+      double firstDeviation = block[rowOffset + firstColumn];
+      double secondDeviation = block[secondRowOffset + firstColumn];
+      double thirdDeviation = block[thirdRowOffset + firstColumn];
+      double fourthDeviation = block[fourthRowOffset + firstColumn];
+      for (int secondColumn = firstColumn; secondColumn < dimension; secondColumn++) {
+        coMoments[firstColumnOffset + secondColumn] +=
+            firstDeviation * block[rowOffset + secondColumn]
+                + secondDeviation * block[secondRowOffset + secondColumn]
+                + thirdDeviation * block[thirdRowOffset + secondColumn]
+                + fourthDeviation * block[fourthRowOffset + secondColumn];
+      }
+      firstColumnOffset += dimension - firstColumn - 1;
+    }
+  }
+
+  /**
+   * Adds the outer product with itself of a row of the block to the co-moments.
+   *
+   * @param rowOffset The index in the block of the first value of the row.
+   */
+  private void addRowProduct(int rowOffset) {
+    // Offset of the co-moments of the first column, relative to the second column.
+    int firstColumnOffset = 0;
+    for (int firstColumn = 0; firstColumn < dimension; firstColumn++) {
+      double deviation = block[rowOffset + firstColumn];
+      for (int secondColumn = firstColumn; secondColumn < dimension; secondColumn++) {
+        coMoments[firstColumnOffset + secondColumn] += deviation * block[rowOffset + secondColumn];
+      }
+      firstColumnOffset += dimension - firstColumn - 1;
+    }
+  }
+
+  /**
+   * Merges the means of other rows into the means, and adds the co-moments between the two sets
+   * of means. The co-moments of the other rows around their own means must already be added.
+   *
+   * @param otherMeans The means of the other rows.
+   * @param otherCount The number of other rows, while this accumulator has at least one row.
+   */
+  private void mergeMeans(double[] otherMeans, long otherCount) {
+    double combinedCount = (double) count + otherCount;
+    for (int column = 0; column < dimension; column++) {
+      deviations[column] = otherMeans[column] - means[column];
+      means[column] += deviations[column] * otherCount / combinedCount;
+    }
+    addOuterProduct(deviations, count * (otherCount / combinedCount));
+    count += otherCount;
+  }
+
+  /**
+   * Adds the scaled outer product of a vector with itself to the co-moments.
+   *
+   * @param vector The vector, of as many values as the dimension.
+   * @param scale  The factor to scale the outer product by.
+   */
+  private void addOuterProduct(double[] vector, double scale) {
+    // Offset of the co-moments of the first column, relative to the second column.
+    int firstColumnOffset = 0;
+    for (int firstColumn = 0; firstColumn < dimension; firstColumn++) {
+      double scaledValue = vector[firstColumn] * scale;
+      for (int secondColumn = firstColumn; secondColumn < dimension; secondColumn++) {
+        coMoments[firstColumnOffset + secondColumn] += scaledValue * vector[secondColumn];
+      }
+      firstColumnOffset += dimension - firstColumn - 1;
+    }
+  }
+
+  /**
+   * Returns the index in the upper triangle of the co-moments of a pair of columns.
+   *
+   * @param firstColumn  The index of the first column.
+   * @param secondColumn The index of the second column.
+   * @return The index of the co-moment of the columns.
+   */
+  private int getIndex(int firstColumn, int secondColumn) {
+    Objects.checkIndex(firstColumn, dimension);
+    Objects.checkIndex(secondColumn, dimension);
+    int row = Math.min(firstColumn, secondColumn);
+    // Rows before the row hold dimension, dimension - 1, ... dimension - row + 1 values.
+    return (int) ((long) row * dimension - (long) row * (row - 1) / 2)
+        + Math.max(firstColumn, secondColumn) - row;
+  }
+
+  /**
+   * Returns the block rows are copied into before being added, allocating it the first time.
+   *
+   * @return The block.
+   */
+  private double[] getBlock() {
+    if (block == null) {
+      block = new double[blockRows * dimension];
+    }
+    return block;
+  }
+
+  /**
+   * Validates the dimension of the rows of an accumulator.
+   *
+   * @param dimension The number of values in each row.
+   */
+  static void validateDimension(int dimension) {
+    if (dimension < 1 || dimension > maxDimension) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "CovarianceAccumulator.error.invalidDimension",
+              dimension,
+              maxDimension
+          )
+      );
+    }
+  }
+
+  /**
+   * Validates that a row has as many values as the dimension.
+   *
+   * @param row The row to validate.
+   */
+  private void validateRow(double[] row) {
+    Objects.requireNonNull(row);
+    if (row.length != dimension) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "CovarianceAccumulator.error.dimensionMismatch",
+              row.length,
+              dimension
+          )
+      );
+    }
+  }
+}
@@ -0,0 +1,566 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Parses a numeric column of CSV text straight from its bytes, for example:
+ * <pre>{@code
+ * MomentsAccumulator latencies = CsvColumnParser.of(2)
+ *     .withHeader()
+ *     .collect(path, MomentsAccumulator::new, MomentsAccumulator::accept,
+ *         MomentsAccumulator::combine);
+ * }</pre>
+ * The fields are located and decoded in place, without creating a String per line or field, and
+ * the values are pushed into a {@link DoubleConsumer} such as the accumulators of this package.
+ * Numbers of at most 18 significant digits whose decimal exponent is small enough are converted
+ * exactly with a single multiplication or division. The others, as well as NaN, infinities and
+ * hexadecimal numbers, fall back to {@link Double#parseDouble(String)}, so every value is the
+ * same as the one it returns.
+ *
+ * <p>Files are split into chunks of 1 MiB parsed in parallel if the execution policy of
+ * {@link StatisticsUtility} says so, each into its own container. The containers are combined in
+ * file order, so the result doesn't depend on the policy.
+ *
+ * <p>Fields may be surrounded by blanks and enclosed in double quotes, and quoted fields may
+ * contain the delimiter, but not line breaks. Lines whose column is missing or empty are skipped.
+ * Lines are separated by LF or CRLF and can't be longer than 64 KiB in files.
+ *
+ * <p>Instances are immutable and thread safe. Each {@code with} method returns a new parser.
+ */
+public final class CsvColumnParser {
+
+  static {
+    I18nUtility.addResourceBundle(
+        CsvColumnParser.class,
+        CsvColumnParser.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Number of bytes of each chunk of a file parsed by a task.
+   */
+  private static final int chunkSize = 1 << 20;
+  /**
+   * Number of bytes a line of a file can span past the end of the chunk it starts in.
+   */
+  private static final int maxLineLength = 1 << 16;
+  /**
+   * Initial number of bytes of the buffer channels are read into.
+   */
+  private static final int channelBufferSize = 1 << 16;
+  /**
+   * Largest number of significant digits accumulated into the mantissa, which can't overflow.
+   */
+  private static final int maxMantissaDigits = 18;
+  /**
+   * Mantissas below this bound are converted to double exactly.
+   */
+  private static final long maxExactMantissa = 1L << 53;
+  /**
+   * Powers of ten that are exact doubles, 10^0 to 10^22.
+   */
+  private static final double[] exactPowersOfTen = IntStream.rangeClosed(0, 22)
+      .mapToDouble(exponent -> Double.parseDouble("1e" + exponent))
+      .toArray();
+  /**
+   * Buffer each thread reads the chunks it parses into.
+   */
+  private static final ThreadLocal<ByteBuffer> chunkBuffer = ThreadLocal.withInitial(
+      () -> ByteBuffer.allocateDirect(chunkSize + maxLineLength)
+  );
+  /**
+   * Index of the parsed column, starting from 0.
+   */
+  private final int column;
+  /**
+   * Character separating the fields.
+   */
+  private final byte delimiter;
+  /**
+   * True if the first line is a header that is skipped.
+   */
+  private final boolean header;
+
+  /**
+   * Creates a parser.
+   *
+   * @param column    The index of the parsed column.
+   * @param delimiter The character separating the fields.
+   * @param header    True if the first line is a header that is skipped.
+   */
+  private CsvColumnParser(int column, byte delimiter, boolean header) {
+    this.column = column;
+    this.delimiter = delimiter;
+    this.header = header;
+  }
+
+  /**
+   * Creates a parser of a column of comma separated lines without header.
+   *
+   * @param column The index of the column to parse, starting from 0.
+   * @return The parser.
+   */
+  public static CsvColumnParser of(int column) {
+    if (column < 0) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "CsvColumnParser.error.invalidColumn",
+              column
+          )
+      );
+    }
+    return new CsvColumnParser(column, (byte) ',', false);
+  }
+
+  /**
+   * Creates a copy of this parser whose fields are separated by the provided character.
+   *
+   * @param delimiter The character separating the fields, an ASCII character other than double
+   *                  quotes and line breaks.
+   * @return The parser using the provided delimiter.
+   */
+  public CsvColumnParser withDelimiter(char delimiter) {
+    if (delimiter > 0x7f || delimiter == '"' || delimiter == '\n' || delimiter == '\r') {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "CsvColumnParser.error.invalidDelimiter",
+              delimiter
+          )
+      );
+    }
+    return new CsvColumnParser(column, (byte) delimiter, header);
+  }
+
+  /**
+   * Creates a copy of this parser skipping the first line, which is a header.
+   *
+   * @return The parser skipping the header.
+   */
+  public CsvColumnParser withHeader() {
+    return new CsvColumnParser(column, delimiter, true);
+  }
+
+  /**
+   * Returns the index of the parsed column.
+   *
+   * @return The index of the column, starting from 0.
+   */
+  public int getColumn() {
+    return column;
+  }
+
+  /**
+   * Returns the character separating the fields.
+   *
+   * @return The delimiter.
+   */
+  public char getDelimiter() {
+    return (char) delimiter;
+  }
+
+  /**
+   * Checks whether the first line is a header that is skipped.
+   *
+   * @return True if the first line is skipped.
+   */
+  public boolean hasHeader() {
+    return header;
+  }
+
+  /**
+   * Parses the column of the lines between the position and the limit of a buffer, which are all
+   * the lines of the input. The position of the buffer is moved to its limit.
+   *
+   * @param bytes    The buffer holding the lines.
+   * @param consumer The consumer the values of the column are pushed into, in order.
+   */
+  public void parse(ByteBuffer bytes, DoubleConsumer consumer) {
+    Objects.requireNonNull(bytes);
+    Objects.requireNonNull(consumer);
+    parseLines(bytes, bytes.position(), bytes.limit(), header, consumer);
+    bytes.position(bytes.limit());
+  }
+
+  /**
+   * Parses the column of the lines read from a channel, until the end of the channel. The lines
+   * are read into a buffer that only grows for lines longer than it.
+   *
+   * @param channel  The channel to read the lines from.
+   * @param consumer The consumer the values of the column are pushed into, in order.
+   * @throws IOException When the channel can't be read.
+   */
+  public void parse(ReadableByteChannel channel, DoubleConsumer consumer) throws IOException {
+    Objects.requireNonNull(channel);
+    Objects.requireNonNull(consumer);
+    ByteBuffer buffer = ByteBuffer.allocate(channelBufferSize);
+    boolean skipHeader = header;
+    while (channel.read(buffer) >= 0) {
+      int linesEnd = buffer.position();
+      while (linesEnd > 0 && buffer.get(linesEnd - 1) != '\n') {
+        linesEnd--;
+      }
+      if (linesEnd > 0) {
+        parseLines(buffer, 0, linesEnd, skipHeader, consumer);
+        skipHeader = false;
+        buffer.limit(buffer.position()).position(linesEnd);
+        buffer.compact();
+      } else if (!buffer.hasRemaining()) {
+        buffer = ByteBuffer.allocate(2 * buffer.capacity()).put(buffer.flip());
+      }
+    }
+    parseLines(buffer, 0, buffer.position(), skipHeader, consumer);
+  }
+
+  /**
+   * Parses the column of a file into containers, in parallel if the execution policy of
+   * {@link StatisticsUtility} says so, like {@link java.util.stream.DoubleStream#collect}.
+   *
+   * @param path        The path of the file.
+   * @param supplier    Creates an empty container for each chunk of the file.
+   * @param accumulator Adds a value to a container.
+   * @param combiner    Adds the values of the second container, which follow those of the first
+   *                    one, to the first container.
+   * @param <R>         Type of the containers.
+   * @return The container holding the values of the whole file.
+   * @throws IOException When the file can't be read.
+   */
+  public <R> R collect(Path path, Supplier<R> supplier, ObjDoubleConsumer<R> accumulator,
+      BiConsumer<R, R> combiner) throws IOException {
+    Objects.requireNonNull(path);
+    Objects.requireNonNull(supplier);
+    Objects.requireNonNull(accumulator);
+    Objects.requireNonNull(combiner);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      int chunkCount = Math.toIntExact(Math.max(1, (size + chunkSize - 1) / chunkSize));
+      try {
+        return StatisticsUtility.getExecutionPolicy().reduceChunks(chunkCount, size,
+            chunk -> {
+              R container = supplier.get();
+              parseChunk(channel, size, chunk, value -> accumulator.accept(container, value));
+              return container;
+            },
+            (container, otherContainer) -> {
+              combiner.accept(container, otherContainer);
+              return container;
+            });
+      } catch (UncheckedIOException exception) {
+        throw exception.getCause();
+      }
+    }
+  }
+
+  /**
+   * Parses the column of a file into an array, in parallel if the execution policy of
+   * {@link StatisticsUtility} says so.
+   *
+   * @param path The path of the file.
+   * @return The values of the column, in file order.
+   * @throws IOException When the file can't be read.
+   */
+  public double[] toArray(Path path) throws IOException {
+    GrowableDoubleArray values = collect(path, GrowableDoubleArray::new,
+        GrowableDoubleArray::accept, GrowableDoubleArray::append);
+    return Arrays.copyOf(values.getValues(), values.size());
+  }
+
+  /**
+   * Returns a string representation of the parser.
+   *
+   * @return The string representation of the parser.
+   */
+  @Override
+  public String toString() {
+    return String.format(
+        "%s{column=%d, delimiter=%s, header=%s}",
+        getClass().getSimpleName(),
+        column,
+        (char) delimiter,
+        header
+    );
+  }
+
+  /**
+   * Parses the lines starting in a chunk of a file. The line started in the previous chunk is
+   * left to it, and the last line starting in the chunk is read past its end.
+   *
+   * @param channel  The channel of the file.
+   * @param size     The size of the file.
+   * @param chunk    The index of the chunk.
+   * @param consumer The consumer the values of the column are pushed into.
+   */
+  private void parseChunk(FileChannel channel, long size, int chunk, DoubleConsumer consumer) {
+    long start = (long) chunk * chunkSize;
+    // The byte preceding the chunk tells whether a line starts at its beginning.
+    long readStart = Math.max(0, start - 1);
+    ByteBuffer buffer = chunkBuffer.get().clear();
+    buffer.limit((int) Math.min(buffer.capacity(), size - readStart));
+    try {
+      // Positional reads may return fewer bytes than requested.
+      int readBytes = 0;
+      while (buffer.hasRemaining() && readBytes >= 0) {
+        readBytes = channel.read(buffer, readStart + buffer.position());
+      }
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+    int length = buffer.position();
+    int chunkEnd = (int) (Math.min(size, start + chunkSize) - readStart);
+
+    int linesStart = 0;
+    if (start > 0) {
+      linesStart = indexOfLineFeed(buffer, 0, length) + 1;
+      if (linesStart == 0 || linesStart >= chunkEnd) {
+        return;
+      }
+    }
+    int linesEnd = indexOfLineFeed(buffer, Math.max(linesStart, chunkEnd - 1), length) + 1;
+    if (linesEnd == 0) {
+      if (readStart + length < size) {
+        throw new IllegalArgumentException(
+            I18nUtility.getFormattedString(
+                "CsvColumnParser.error.lineTooLong",
+                maxLineLength
+            )
+        );
+      }
+      linesEnd = length;
+    }
+    parseLines(buffer, linesStart, linesEnd, header && start == 0, consumer);
+  }
+
+  /**
+   * Parses the column of the lines of a range of a buffer.
+   *
+   * @param bytes         The buffer.
+   * @param from          The index of the start of the first line, inclusive.
+   * @param to            The index of the end of the last line, exclusive.
+   * @param skipFirstLine True if the first line is skipped.
+   * @param consumer      The consumer the values of the column are pushed into.
+   */
+  private void parseLines(ByteBuffer bytes, int from, int to, boolean skipFirstLine,
+      DoubleConsumer consumer) {
+    int lineStart = from;
+    if (skipFirstLine) {
+      lineStart = indexOfLineFeed(bytes, from, to) + 1;
+      if (lineStart == 0) {
+        return;
+      }
+    }
+    while (lineStart < to) {
+      int lineEnd = indexOfLineFeed(bytes, lineStart, to);
+      if (lineEnd < 0) {
+        lineEnd = to;
+      }
+      parseLine(bytes, lineStart, lineEnd, consumer);
+      lineStart = lineEnd + 1;
+    }
+  }
+
+  /**
+   * Parses the column of a line.
+   *
+   * @param bytes    The buffer holding the line.
+   * @param from     The index of the start of the line, inclusive.
+   * @param to       The index of the end of the line, exclusive, which excludes the line feed.
+   * @param consumer The consumer the value of the column is pushed into, if it isn't empty.
+   */
+  private void parseLine(ByteBuffer bytes, int from, int to, DoubleConsumer consumer) {
+    int index = from;
+    boolean quoted = false;
+    for (int field = 0; field < column; index++) {
+      if (index >= to) {
+        return;
+      }
+      byte character = bytes.get(index);
+      if (character == '"') {
+        quoted = !quoted;
+      } else if (character == delimiter && !quoted) {
+        field++;
+      }
+    }
+    int fieldStart = index;
+    for (; index < to; index++) {
+      byte character = bytes.get(index);
+      if (character == '"') {
+        quoted = !quoted;
+      } else if (character == delimiter && !quoted) {
+        break;
+      }
+    }
+    int fieldEnd = index;
+
+    while (fieldStart < fieldEnd && isBlank(bytes.get(fieldStart))) {
+      fieldStart++;
+    }
+    while (fieldEnd > fieldStart && isBlank(bytes.get(fieldEnd - 1))) {
+      fieldEnd--;
+    }
+    if (fieldEnd - fieldStart >= 2 && bytes.get(fieldStart) == '"'
+        && bytes.get(fieldEnd - 1) == '"') {
+      fieldStart++;
+      fieldEnd--;
+    }
+    if (fieldStart < fieldEnd) {
+      consumer.accept(parseDouble(bytes, fieldStart, fieldEnd));
+    }
+  }
+
+  /**
+   * Parses a decimal number, the same way as {@link Double#parseDouble(String)}.
+   *
+   * @param bytes The buffer holding the number as ASCII characters.
+   * @param from  The index of the first character of the number, inclusive.
+   * @param to    The index of the last character of the number, exclusive.
+   * @return The number.
+   */
+  static double parseDouble(ByteBuffer bytes, int from, int to) {
+    int index = from;
+    byte sign = bytes.get(index);
+    boolean negative = sign == '-';
+    if (negative || sign == '+') {
+      index++;
+    }
+
+    long mantissa = 0;
+    int mantissaDigits = 0;
+    int digitCount = 0;
+    int exponent = 0;
+    boolean exact = true;
+    for (; index < to; index++) {
+      int digit = bytes.get(index) - '0';
+      if (digit < 0 || digit > 9) {
+        break;
+      }
+      digitCount++;
+      if (mantissaDigits < maxMantissaDigits) {
+        mantissa = 10 * mantissa + digit;
+        mantissaDigits += mantissa == 0 ? 0 : 1;
+      } else {
+        exponent++;
+        exact &= digit == 0;
+      }
+    }
+    if (index < to && bytes.get(index) == '.') {
+      for (index++; index < to; index++) {
+        int digit = bytes.get(index) - '0';
+        if (digit < 0 || digit > 9) {
+          break;
+        }
+        digitCount++;
+        if (mantissaDigits < maxMantissaDigits) {
+          mantissa = 10 * mantissa + digit;
+          mantissaDigits += mantissa == 0 ? 0 : 1;
+          exponent--;
+        } else {
+          exact &= digit == 0;
+        }
+      }
+    }
+    if (digitCount > 0 && index < to && (bytes.get(index) | 0x20) == 'e') {
+      index++;
+      boolean negativeExponent = index < to && bytes.get(index) == '-';
+      if (index < to && (negativeExponent || bytes.get(index) == '+')) {
+        index++;
+      }
+      int exponentStart = index;
+      int explicitExponent = 0;
+      for (; index < to; index++) {
+        int digit = bytes.get(index) - '0';
+        if (digit < 0 || digit > 9) {
+          break;
+        }
+        explicitExponent = Math.min(10 * explicitExponent + digit, 1 << 20);
+      }
+      if (index == exponentStart) {
+        return parseDoubleSlowly(bytes, from, to);
+      }
+      exponent += negativeExponent ? -explicitExponent : explicitExponent;
+    }
+
+    if (digitCount == 0 || index != to || !exact) {
+      return parseDoubleSlowly(bytes, from, to);
+    }
+    if (mantissa == 0) {
+      return negative ? -0.0 : 0.0;
+    }
+    if (mantissa < maxExactMantissa && exponent >= -22 && exponent <= 22) {
+      // Both operands are exact, so the single rounding of the operation is the correct one.
+      double value = exponent >= 0
+          ? mantissa * exactPowersOfTen[exponent]
+          : mantissa / exactPowersOfTen[-exponent];
+      return negative ? -value : value;
+    }
+    return parseDoubleSlowly(bytes, from, to);
+  }
+
+  /**
+   * Parses a number with {@link Double#parseDouble(String)}.
+   *
+   * @param bytes The buffer holding the number as ASCII characters.
+   * @param from  The index of the first character of the number, inclusive.
+   * @param to    The index of the last character of the number, exclusive.
+   * @return The number.
+   */
+  private static double parseDoubleSlowly(ByteBuffer bytes, int from, int to) {
+    byte[] characters = new byte[to - from];
+    bytes.get(from, characters);
+    String number = new String(characters, StandardCharsets.ISO_8859_1);
+    try {
+      return Double.parseDouble(number);
+    } catch (NumberFormatException exception) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "CsvColumnParser.error.invalidNumber",
+              number
+          ),
+          exception
+      );
+    }
+  }
+
+  /**
+   * Finds the first line feed in a range of a buffer.
+   *
+   * @param bytes The buffer.
+   * @param from  The index the search starts from, inclusive.
+   * @param to    The index the search ends at, exclusive.
+   * @return The index of the line feed, or -1 if there is none.
+   */
+  private static int indexOfLineFeed(ByteBuffer bytes, int from, int to) {
+    for (int index = from; index < to; index++) {
+      if (bytes.get(index) == '\n') {
+        return index;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Checks whether a character is a blank surrounding fields, which includes the carriage returns
+   * of CRLF line breaks.
+   *
+   * @param character The character.
+   * @return True if the character is blank.
+   */
+  private static boolean isBlank(byte character) {
+    return character == ' ' || character == '\t' || character == '\r';
+  }
+}
@@ -0,0 +1,511 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.DoubleSummaryStatistics;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.DoubleStream;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Immutable set of values whose statistics are computed at most once, for example:
+ * <pre>{@code
+ * Dataset latencies = Dataset.of(values);
+ * double median = latencies.getMedian();
+ * double[] percentiles = latencies.getPercentiles(90, 99, 99.9);
+ * double[] slowest = latencies.getTopMaxValues(10);
+ * long fasterThan100 = latencies.getRank(100);
+ * }</pre>
+ * The values are copied once into a primitive array. The derived data the statistics need is
+ * built on the first query that needs it and kept for the following ones:
+ * <ul>
+ *   <li>A sorted copy of the values, from which the median and percentiles are read in constant
+ *   time, the top values in time proportional to their number, and the rank and number of
+ *   occurrences of a value are found by binary search.</li>
+ *   <li>The frequency table and the order of the distinct values by frequency, from which the
+ *   mode is read in constant time.</li>
+ *   <li>The sum, summary statistics, moments, means and variances.</li>
+ * </ul>
+ * Every metric has the same value as the corresponding {@link StatisticsUtility} metric of the
+ * values. The order statistics follow the order of {@link Double#compare}, which sorts -0.0 before
+ * 0.0 and NaN last.
+ *
+ * <p>Instances are thread safe. A derived data structure may be built more than once when
+ * several threads query it for the first time together, which doesn't change the results.
+ */
+public final class Dataset {
+
+  /**
+   * The values, in their original order.
+   */
+  private final double[] values;
+  /**
+   * Means of the values by type, computed on demand.
+   */
+  private final Map<MeanType, Double> means = new ConcurrentHashMap<>();
+  /**
+   * Variances of the values by type of mean, computed on demand.
+   */
+  private final Map<MeanType, Double> variances = new ConcurrentHashMap<>();
+  /**
+   * The values in ascending order, or null until they are needed.
+   */
+  private volatile double[] sortedValues;
+  /**
+   * Number of occurrences of each distinct value, or null until it is needed.
+   */
+  private volatile DoubleCountMap frequencyTable;
+  /**
+   * Distinct values, most frequent first, or null until they are needed.
+   */
+  private volatile double[] frequencyOrder;
+  /**
+   * Count, sum, minimum, average and maximum of the values, or null until they are needed.
+   */
+  private volatile DoubleSummaryStatistics summaryStatistics;
+  /**
+   * Moments of the values, or null until they are needed.
+   */
+  private volatile MomentsAccumulator moments;
+
+  /**
+   * Creates a dataset owning the provided array.
+   *
+   * @param values The values, which are not copied.
+   */
+  private Dataset(double[] values) {
+    this.values = values;
+  }
+
+  /**
+   * Creates a dataset of a copy of the provided values.
+   *
+   * @param values The values.
+   * @return The dataset.
+   */
+  public static Dataset of(double... values) {
+    Objects.requireNonNull(values);
+    return new Dataset(values.clone());
+  }
+
+  /**
+   * Creates a dataset of a copy of a range of the provided array.
+   *
+   * @param values The array holding the values.
+   * @param offset The index of the first element in the range.
+   * @param length The number of elements in the range.
+   * @return The dataset.
+   */
+  public static Dataset of(double[] values, int offset, int length) {
+    Objects.requireNonNull(values);
+    Objects.checkFromIndexSize(offset, length, values.length);
+    return new Dataset(Arrays.copyOfRange(values, offset, offset + length));
+  }
+
+  /**
+   * Creates a dataset of the provided values, converted to doubles.
+   *
+   * @param values The values.
+   * @return The dataset.
+   */
+  public static Dataset of(long[] values) {
+    return new Dataset(StatisticsUtility.toDoubleArray(values));
+  }
+
+  /**
+   * Creates a dataset of the provided values, converted to doubles.
+   *
+   * @param values The values.
+   * @return The dataset.
+   */
+  public static Dataset of(int[] values) {
+    return new Dataset(StatisticsUtility.toDoubleArray(values));
+  }
+
+  /**
+   * Creates a dataset of the values of the provided collection, converted to doubles like the
+   * collection variants of the {@link StatisticsUtility} metrics do.
+   *
+   * @param inputCollection The collection of the values.
+   * @return The dataset.
+   */
+  public static Dataset of(Collection<? extends Number> inputCollection) {
+    return new Dataset(StatisticsUtility.toDoubleArray(inputCollection));
+  }
+
+  /**
+   * Creates a dataset of the values of the provided stream.
+   *
+   * @param values The stream of the values.
+   * @return The dataset.
+   */
+  public static Dataset of(DoubleStream values) {
+    Objects.requireNonNull(values);
+    return new Dataset(values.toArray());
+  }
+
+  /**
+   * Returns the number of values.
+   *
+   * @return The number of values.
+   */
+  public int size() {
+    return values.length;
+  }
+
+  /**
+   * Returns a copy of the values, in their original order.
+   *
+   * @return The values.
+   */
+  public double[] toArray() {
+    return values.clone();
+  }
+
+  /**
+   * Returns a copy of the values in ascending order.
+   *
+   * @return The sorted values.
+   */
+  public double[] toSortedArray() {
+    return getSortedValues().clone();
+  }
+
+  /**
+   * Returns a stream of the values, in their original order.
+   *
+   * @return The stream of the values.
+   */
+  public DoubleStream stream() {
+    return Arrays.stream(values);
+  }
+
+  /**
+   * Gets the sum of the values.
+   *
+   * @return The sum of the values.
+   */
+  public double getSum() {
+    return getSummaryStatistics().getSum();
+  }
+
+  /**
+   * Gets the mean (arithmetic, geometric or harmonic) of the values.
+   *
+   * @param meanType The type of mean to calculate.
+   * @return The mean of the values.
+   */
+  public double getMean(MeanType meanType) {
+    Objects.requireNonNull(meanType);
+    return means.computeIfAbsent(
+        meanType,
+        type -> StatisticsUtility.getMean(values, type)
+    );
+  }
+
+  /**
+   * Gets the variance of the values about their mean.
+   *
+   * @param meanType The mean type to use for calculation.
+   * @return The variance of the values.
+   */
+  public double getVariance(MeanType meanType) {
+    Objects.requireNonNull(meanType);
+    return variances.computeIfAbsent(
+        meanType,
+        type -> StatisticsUtility.getVariance(values, type)
+    );
+  }
+
+  /**
+   * Gets the standard deviation of the values about their mean.
+   *
+   * @param meanType The mean type to use for calculation.
+   * @return The standard deviation of the values.
+   */
+  public double getStandardDeviation(MeanType meanType) {
+    return Math.sqrt(getVariance(meanType));
+  }
+
+  /**
+   * Gets the count, sum, minimum, average and maximum of the values.
+   *
+   * @return A copy of the summary statistics of the values.
+   */
+  public DoubleSummaryStatistics getSummaryStatistics() {
+    DoubleSummaryStatistics summaryStatistics = this.summaryStatistics;
+    if (summaryStatistics == null) {
+      summaryStatistics = StatisticsUtility.getSummaryStatistics(values);
+      this.summaryStatistics = summaryStatistics;
+    }
+    DoubleSummaryStatistics copy = new DoubleSummaryStatistics();
+    copy.combine(summaryStatistics);
+    return copy;
+  }
+
+  /**
+   * Gets the smallest value.
+   *
+   * @return The smallest value, positive infinity if there are none.
+   */
+  public double getMinValue() {
+    return getSummaryStatistics().getMin();
+  }
+
+  /**
+   * Gets the largest value.
+   *
+   * @return The largest value, negative infinity if there are none.
+   */
+  public double getMaxValue() {
+    return getSummaryStatistics().getMax();
+  }
+
+  /**
+   * Gets the count, mean and central moments of the values.
+   *
+   * @return A copy of the moments of the values.
+   */
+  public MomentsAccumulator getMoments() {
+    MomentsAccumulator moments = this.moments;
+    if (moments == null) {
+      moments = StatisticsUtility.getMoments(values);
+      this.moments = moments;
+    }
+    MomentsAccumulator copy = new MomentsAccumulator();
+    copy.combine(moments);
+    return copy;
+  }
+
+  /**
+   * Gets the skewness of the values.
+   *
+   * @return The skewness of the values.
+   */
+  public double getSkewness() {
+    return getMoments().getSkewness();
+  }
+
+  /**
+   * Gets the excess kurtosis of the values.
+   *
+   * @return The excess kurtosis of the values.
+   */
+  public double getKurtosis() {
+    return getMoments().getKurtosis();
+  }
+
+  /**
+   * Gets the median of the values.
+   *
+   * @return The median of the values.
+   */
+  public double getMedian() {
+    return getPercentile(50);
+  }
+
+  /**
+   * Gets a percentile of the values, interpolated between the values around it.
+   *
+   * @param percentile The percentile to get, between 0 and 100.
+   * @return The percentile of the values.
+   */
+  public double getPercentile(double percentile) {
+    return getPercentiles(percentile)[0];
+  }
+
+  /**
+   * Gets several percentiles of the values, interpolated between the values around each of them.
+   *
+   * @param percentiles The percentiles to get, between 0 and 100.
+   * @return The percentiles of the values, in the same order as requested.
+   */
+  public double[] getPercentiles(double... percentiles) {
+    StatisticsUtility.validatePercentiles(percentiles);
+    if (values.length == 0) {
+      throw new NoSuchElementException(
+          I18nUtility.getString("StatisticsUtility.error.emptyInput")
+      );
+    }
+    return StatisticsUtility.interpolatePercentiles(getSortedValues(), 0, values.length,
+        percentiles);
+  }
+
+  /**
+   * Gets the largest values, largest first.
+   *
+   * @param topNumbers The number of values to get.
+   * @return The largest values, fewer if there aren't enough values.
+   */
+  public double[] getTopMaxValues(int topNumbers) {
+    StatisticsUtility.validateTopNumbers(topNumbers);
+    double[] sortedValues = getSortedValues();
+    double[] topValues = Arrays.copyOfRange(sortedValues,
+        sortedValues.length - Math.min(topNumbers, sortedValues.length), sortedValues.length);
+    BoundedDoubleHeap.reverse(topValues);
+    return topValues;
+  }
+
+  /**
+   * Gets the smallest values, smallest first.
+   *
+   * @param topNumbers The number of values to get.
+   * @return The smallest values, fewer if there aren't enough values.
+   */
+  public double[] getTopMinValues(int topNumbers) {
+    StatisticsUtility.validateTopNumbers(topNumbers);
+    double[] sortedValues = getSortedValues();
+    return Arrays.copyOf(sortedValues, Math.min(topNumbers, sortedValues.length));
+  }
+
+  /**
+   * Gets the number of values smaller than the provided one.
+   *
+   * @param value The value to rank.
+   * @return The number of values smaller than the provided one.
+   */
+  public int getRank(double value) {
+    return getBound(getSortedValues(), value, false);
+  }
+
+  /**
+   * Gets the percentage of the values smaller than the provided one.
+   *
+   * @param value The value to rank.
+   * @return The percentile rank of the value, between 0 and 100, or NaN if there are no values.
+   */
+  public double getPercentileRank(double value) {
+    return values.length == 0 ? Double.NaN : 100.0 * getRank(value) / values.length;
+  }
+
+  /**
+   * Gets the number of occurrences of a value.
+   *
+   * @param value The value to count.
+   * @return The number of occurrences of the value.
+   */
+  public int getFrequency(double value) {
+    double[] sortedValues = getSortedValues();
+    return getBound(sortedValues, value, true) - getBound(sortedValues, value, false);
+  }
+
+  /**
+   * Gets the number of occurrences of each distinct value.
+   *
+   * @return A copy of the frequency table of the values.
+   */
+  public DoubleCountMap getFrequencyTable() {
+    DoubleCountMap copy = new DoubleCountMap();
+    copy.merge(getCachedFrequencyTable());
+    return copy;
+  }
+
+  /**
+   * Gets the most frequent values, most frequent first. Values with equal counts are returned in
+   * no particular order.
+   *
+   * @param topNumbers The number of values to get.
+   * @return The most frequent values, fewer if there aren't enough distinct values.
+   */
+  public double[] getTopFrequentElements(int topNumbers) {
+    StatisticsUtility.validateTopNumbers(topNumbers);
+    double[] frequencyOrder = this.frequencyOrder;
+    if (frequencyOrder == null) {
+      DoubleCountMap frequencyTable = getCachedFrequencyTable();
+      frequencyOrder = frequencyTable.getTopFrequentKeys(frequencyTable.size());
+      this.frequencyOrder = frequencyOrder;
+    }
+    return Arrays.copyOf(frequencyOrder, Math.min(topNumbers, frequencyOrder.length));
+  }
+
+  /**
+   * Gets the most frequent value.
+   *
+   * @return The mode of the values.
+   */
+  public double getMode() {
+    double[] mode = getTopFrequentElements(1);
+    if (mode.length == 0) {
+      throw new NoSuchElementException(
+          I18nUtility.getString("StatisticsUtility.error.emptyInput")
+      );
+    }
+    return mode[0];
+  }
+
+  /**
+   * Returns a string representation of the dataset.
+   *
+   * @return The string representation of the dataset.
+   */
+  @Override
+  public String toString() {
+    return String.format(
+        "%s{size=%d, sorted=%s}",
+        getClass().getSimpleName(),
+        values.length,
+        sortedValues != null
+    );
+  }
+
+  /**
+   * Returns the values in ascending order, sorting a copy of them the first time.
+   *
+   * @return The sorted values, which should not be modified.
+   */
+  private double[] getSortedValues() {
+    double[] sortedValues = this.sortedValues;
+    if (sortedValues == null) {
+      sortedValues = values.clone();
+      if (StatisticsUtility.getExecutionPolicy().isParallel(sortedValues.length)) {
+        Arrays.parallelSort(sortedValues);
+      } else {
+        Arrays.sort(sortedValues);
+      }
+      this.sortedValues = sortedValues;
+    }
+    return sortedValues;
+  }
+
+  /**
+   * Returns the frequency table of the values, building it the first time.
+   *
+   * @return The frequency table, which should not be modified.
+   */
+  private DoubleCountMap getCachedFrequencyTable() {
+    DoubleCountMap frequencyTable = this.frequencyTable;
+    if (frequencyTable == null) {
+      frequencyTable = StatisticsUtility.getFrequencyTable(values);
+      this.frequencyTable = frequencyTable;
+    }
+    return frequencyTable;
+  }
+
+  /**
+   * Finds the number of sorted values smaller than a value, or not larger than it, in the order of
+   * {@link Double#compare}.
+   *
+   * @param sortedValues The values in ascending order.
+   * @param value        The value.
+   * @param inclusive    Whether the values equal to the value are counted.
+   * @return The index of the first sorted value larger than the value if inclusive, of the first
+   *     one not smaller than it otherwise.
+   */
+  private static int getBound(double[] sortedValues, double value, boolean inclusive) {
+    int threshold = inclusive ? 1 : 0;
+    int low = 0;
+    int high = sortedValues.length;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (Double.compare(sortedValues[middle], value) < threshold) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+}
@@ -0,0 +1,167 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts the occurrences of primitive double keys without boxing them. Keys are compared the
+ * same way as {@link Double#equals(Object)}, which means that all NaN values are the same key
+ * and that 0.0 and -0.0 are different keys. Maps filled by different threads can be merged, so it
+ * can be used as the container of a parallel {@link java.util.stream.DoubleStream#collect}
+ * reduction.
+ *
+ * <p>This class is not thread safe.
+ */
+public class DoubleCountMap {
+
+  /**
+   * Counts keyed by the bits of the double keys.
+   */
+  private final LongCountMap countMap = new LongCountMap();
+
+  /**
+   * Consumes the entries of a map.
+   */
+  @FunctionalInterface
+  public interface EntryConsumer {
+
+    /**
+     * Consumes an entry of the map.
+     *
+     * @param key   The key of the entry.
+     * @param count The number of occurrences of the key.
+     */
+    void accept(double key, long count);
+  }
+
+  /**
+   * Counts one occurrence of a key.
+   *
+   * @param key The key to count.
+   */
+  public void add(double key) {
+    countMap.add(Double.doubleToLongBits(key), 1);
+  }
+
+  /**
+   * Counts several occurrences of a key.
+   *
+   * @param key   The key to count.
+   * @param count The number of occurrences to count, greater than 0.
+   */
+  public void add(double key, long count) {
+    countMap.add(Double.doubleToLongBits(key), count);
+  }
+
+  /**
+   * Returns the number of occurrences counted for a key.
+   *
+   * @param key The key to look up.
+   * @return The number of occurrences of the key, 0 if it wasn't counted.
+   */
+  public long get(double key) {
+    return countMap.get(Double.doubleToLongBits(key));
+  }
+
+  /**
+   * Adds the counts of another map to this one.
+   *
+   * @param other The map to merge into this one.
+   */
+  public void merge(DoubleCountMap other) {
+    countMap.merge(other.countMap);
+  }
+
+  /**
+   * Returns the number of distinct keys counted.
+   *
+   * @return The number of distinct keys counted.
+   */
+  public int size() {
+    return countMap.size();
+  }
+
+  /**
+   * Returns the total number of occurrences counted.
+   *
+   * @return The total number of occurrences counted.
+   */
+  public long getTotalCount() {
+    return countMap.getTotalCount();
+  }
+
+  /**
+   * Performs an action for each key counted, in no particular order.
+   *
+   * @param consumer The action to perform.
+   */
+  public void forEach(EntryConsumer consumer) {
+    countMap.forEach((key, count) -> consumer.accept(Double.longBitsToDouble(key), count));
+  }
+
+  /**
+   * Returns the keys counted, in no particular order.
+   *
+   * @return The keys counted.
+   */
+  public double[] keys() {
+    return toDoubleArray(countMap.keys());
+  }
+
+  /**
+   * Returns the most frequent keys, most frequent first. Keys with equal counts are returned in no
+   * particular order.
+   *
+   * @param topNumbers The number of keys to return.
+   * @return The most frequent keys.
+   */
+  public double[] getTopFrequentKeys(int topNumbers) {
+    return toDoubleArray(countMap.getTopFrequentKeys(topNumbers));
+  }
+
+  /**
+   * Copies the counts into a boxed map.
+   *
+   * @return A map from each key counted to its number of occurrences.
+   */
+  public Map<Double, Long> toMap() {
+    Map<Double, Long> map = new HashMap<>(size() * 2);
+    forEach(map::put);
+    return map;
+  }
+
+  /**
+   * Converts an array of double bits into the doubles they represent.
+   *
+   * @param bits The bits of the doubles.
+   * @return The doubles.
+   */
+  private static double[] toDoubleArray(long[] bits) {
+    double[] values = new double[bits.length];
+    for (int index = 0; index < bits.length; index++) {
+      values[index] = Double.longBitsToDouble(bits[index]);
+    }
+    return values;
+  }
+
+  /**
+   * Returns a string representation of the count map.
+   *
+   * @return The string representation of the count map.
+   */
+  @Override
+  public String toString() {
+    return toMap().toString();
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return this == other
+        || other instanceof DoubleCountMap && countMap.equals(((DoubleCountMap) other).countMap);
+  }
+
+  @Override
+  public int hashCode() {
+    return countMap.hashCode();
+  }
+}
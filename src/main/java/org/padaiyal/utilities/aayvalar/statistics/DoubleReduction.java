@@ -0,0 +1,430 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.DoubleSummaryStatistics;
+
+/**
+ * Count, compensated sums of deviations and squared deviations from a center, minimum and maximum
+ * of a range of doubles, computed by an unrolled kernel. Four independent lanes are accumulated
+ * per iteration, which removes the dependency of every addition on the previous one and lets the
+ * processor overlap them, instead of the one element at a time reductions of streams. Each lane
+ * adds its values with the error free TwoSum transformation and accumulates the rounding errors
+ * separately, and the lanes are merged the same way, so the sums are as accurate as Neumaier's
+ * compensated summation of {@link CompensatedSum}.
+ *
+ * <p>Ranges are split in fixed size chunks that are reduced in parallel according to the
+ * execution policy and combined in order, so the results don't depend on the number of
+ * processors or on how the work was scheduled.
+ *
+ * <p>This class is not thread safe.
+ */
+final class DoubleReduction {
+
+  /**
+   * Number of elements reduced by each parallel task.
+   */
+  static final int chunkSize = 1 << 14;
+
+  /**
+   * Center the deviations are measured from.
+   */
+  private final double center;
+  /**
+   * Number of values reduced.
+   */
+  private long count;
+  /**
+   * Sum of the deviations, rounded at every addition.
+   */
+  private double sum;
+  /**
+   * Sum of the rounding errors of the sum of the deviations.
+   */
+  private double sumCompensation;
+  /**
+   * Sum of the squared deviations, rounded at every addition.
+   */
+  private double squareSum;
+  /**
+   * Sum of the rounding errors of the sum of the squared deviations.
+   */
+  private double squareSumCompensation;
+  /**
+   * Smallest value reduced.
+   */
+  private double min = Double.POSITIVE_INFINITY;
+  /**
+   * Largest value reduced.
+   */
+  private double max = Double.NEGATIVE_INFINITY;
+
+  /**
+   * Creates an empty reduction.
+   *
+   * @param center The center the deviations are measured from.
+   */
+  private DoubleReduction(double center) {
+    this.center = center;
+  }
+
+  /**
+   * Reduces a range of an array, in parallel if the execution policy says so.
+   *
+   * @param values          The array to reduce.
+   * @param offset          The index of the first element in the range.
+   * @param length          The number of elements in the range.
+   * @param center          The center the deviations are measured from, 0 for plain sums.
+   * @param executionPolicy The execution policy.
+   * @return The reduction of the range.
+   */
+  static DoubleReduction reduce(double[] values, int offset, int length, double center,
+      ExecutionPolicy executionPolicy) {
+    return executionPolicy.reduceInChunks(
+        offset,
+        length,
+        chunkSize,
+        (from, to) -> reduceChunk(values, from, to, center),
+        (reduction, nextReduction) -> {
+          reduction.merge(nextReduction);
+          return reduction;
+        }
+    );
+  }
+
+  /**
+   * Sums a range of an array, in parallel if the execution policy says so. Only the sum is
+   * computed, which makes it cheaper than a full reduction.
+   *
+   * @param values          The array to sum.
+   * @param offset          The index of the first element in the range.
+   * @param length          The number of elements in the range.
+   * @param executionPolicy The execution policy.
+   * @return The compensated sum of the range.
+   */
+  static double sum(double[] values, int offset, int length, ExecutionPolicy executionPolicy) {
+    return executionPolicy.reduceInChunks(
+        offset,
+        length,
+        chunkSize,
+        (from, to) -> sumChunk(values, from, to),
+        (sum, nextSum) -> {
+          sum.merge(nextSum);
+          return sum;
+        }
+    ).getSum();
+  }
+
+  /**
+   * Sums a range of an array in the calling thread.
+   *
+   * @param values The array to sum.
+   * @param from   The index of the first element in the range, inclusive.
+   * @param to     The index of the last element in the range, exclusive.
+   * @return The compensated sum of the range.
+   */
+  static CompensatedSum sumChunk(double[] values, int from, int to) {
+    double sum0 = 0;
+    double sum1 = 0;
+    double sum2 = 0;
+    double sum3 = 0;
+    double compensation0 = 0;
+    double compensation1 = 0;
+    double compensation2 = 0;
+    double compensation3 = 0;
+    int index = from;
+    for (; index + 4 <= to; index += 4) {
+      // TwoSum: the rounding error of a + b is exactly (a - (t - b')) + (b - b'), where t is the
+      // rounded sum and b' = t - a.
+      double value = values[index];
+      double total = sum0 + value;
+      double part = total - sum0;
+      compensation0 += (sum0 - (total - part)) + (value - part);
+      sum0 = total;
+
+      value = values[index + 1];
+      total = sum1 + value;
+      part = total - sum1;
+      compensation1 += (sum1 - (total - part)) + (value - part);
+      sum1 = total;
+
+      value = values[index + 2];
+      total = sum2 + value;
+      part = total - sum2;
+      compensation2 += (sum2 - (total - part)) + (value - part);
+      sum2 = total;
+
+      value = values[index + 3];
+      total = sum3 + value;
+      part = total - sum3;
+      compensation3 += (sum3 - (total - part)) + (value - part);
+      sum3 = total;
+    }
+
+    CompensatedSum sum = new CompensatedSum();
+    for (double partialSum : mergeOrder(sum0, sum1, sum2, sum3, compensation0, compensation1,
+        compensation2, compensation3)) {
+      sum.accept(partialSum);
+    }
+    for (; index < to; index++) {
+      sum.accept(values[index]);
+    }
+    return sum;
+  }
+
+  /**
+   * Reduces a range of an array in the calling thread.
+   *
+   * @param values The array to reduce.
+   * @param from   The index of the first element in the range, inclusive.
+   * @param to     The index of the last element in the range, exclusive.
+   * @param center The center the deviations are measured from.
+   * @return The reduction of the range.
+   */
+  static DoubleReduction reduceChunk(double[] values, int from, int to, double center) {
+    double sum0 = 0;
+    double sum1 = 0;
+    double sum2 = 0;
+    double sum3 = 0;
+    double sumCompensation0 = 0;
+    double sumCompensation1 = 0;
+    double sumCompensation2 = 0;
+    double sumCompensation3 = 0;
+    double squareSum0 = 0;
+    double squareSum1 = 0;
+    double squareSum2 = 0;
+    double squareSum3 = 0;
+    double squareSumCompensation0 = 0;
+    double squareSumCompensation1 = 0;
+    double squareSumCompensation2 = 0;
+    double squareSumCompensation3 = 0;
+    double min0 = Double.POSITIVE_INFINITY;
+    double min1 = Double.POSITIVE_INFINITY;
+    double max0 = Double.NEGATIVE_INFINITY;
+    double max1 = Double.NEGATIVE_INFINITY;
+
+    int index = from;
+    for (; index + 4 <= to; index += 4) {
+      double value0 = values[index];
+      double value1 = values[index + 1];
+      double value2 = values[index + 2];
+      double value3 = values[index + 3];
+      min0 = Math.min(min0, Math.min(value0, value1));
+      min1 = Math.min(min1, Math.min(value2, value3));
+      max0 = Math.max(max0, Math.max(value0, value1));
+      max1 = Math.max(max1, Math.max(value2, value3));
+
+      // TwoSum on every lane, as in sumChunk.
+      double deviation = value0 - center;
+      double total = sum0 + deviation;
+      double part = total - sum0;
+      sumCompensation0 += (sum0 - (total - part)) + (deviation - part);
+      sum0 = total;
+      double square = deviation * deviation;
+      total = squareSum0 + square;
+      part = total - squareSum0;
+      squareSumCompensation0 += (squareSum0 - (total - part)) + (square - part);
+      squareSum0 = total;
+
+      deviation = value1 - center;
+      total = sum1 + deviation;
+      part = total - sum1;
+      sumCompensation1 += (sum1 - (total - part)) + (deviation - part);
+      sum1 = total;
+      square = deviation * deviation;
+      total = squareSum1 + square;
+      part = total - squareSum1;
+      squareSumCompensation1 += (squareSum1 - (total - part)) + (square - part);
+      squareSum1 = total;
+
+      deviation = value2 - center;
+      total = sum2 + deviation;
+      part = total - sum2;
+      sumCompensation2 += (sum2 - (total - part)) + (deviation - part);
+      sum2 = total;
+      square = deviation * deviation;
+      total = squareSum2 + square;
+      part = total - squareSum2;
+      squareSumCompensation2 += (squareSum2 - (total - part)) + (square - part);
+      squareSum2 = total;
+
+      deviation = value3 - center;
+      total = sum3 + deviation;
+      part = total - sum3;
+      sumCompensation3 += (sum3 - (total - part)) + (deviation - part);
+      sum3 = total;
+      square = deviation * deviation;
+      total = squareSum3 + square;
+      part = total - squareSum3;
+      squareSumCompensation3 += (squareSum3 - (total - part)) + (square - part);
+      squareSum3 = total;
+    }
+
+    DoubleReduction reduction = new DoubleReduction(center);
+    reduction.count = index - from;
+    reduction.min = Math.min(min0, min1);
+    reduction.max = Math.max(max0, max1);
+    for (double partialSum : mergeOrder(sum0, sum1, sum2, sum3, sumCompensation0,
+        sumCompensation1, sumCompensation2, sumCompensation3)) {
+      reduction.addSum(partialSum, 0);
+    }
+    for (double partialSum : mergeOrder(squareSum0, squareSum1, squareSum2, squareSum3,
+        squareSumCompensation0, squareSumCompensation1, squareSumCompensation2,
+        squareSumCompensation3)) {
+      reduction.addSquareSum(partialSum, 0);
+    }
+    for (; index < to; index++) {
+      reduction.accept(values[index]);
+    }
+    return reduction;
+  }
+
+  /**
+   * Lists the partial sums of the four lanes and their compensations in the order they are merged
+   * in. The lane sums go first, as the compensations of lanes that cancel each other out can be
+   * far larger than the total. The compensations of lanes that added infinite values are NaN and
+   * are replaced by 0, the lane sums being the answer then.
+   *
+   * @param sum0          The sum of the first lane.
+   * @param sum1          The sum of the second lane.
+   * @param sum2          The sum of the third lane.
+   * @param sum3          The sum of the fourth lane.
+   * @param compensation0 The rounding errors of the first lane.
+   * @param compensation1 The rounding errors of the second lane.
+   * @param compensation2 The rounding errors of the third lane.
+   * @param compensation3 The rounding errors of the fourth lane.
+   * @return The partial sums to add, in order.
+   */
+  private static double[] mergeOrder(double sum0, double sum1, double sum2, double sum3,
+      double compensation0, double compensation1, double compensation2, double compensation3) {
+    double[] partialSums = {sum0, sum1, sum2, sum3, compensation0, compensation1,
+        compensation2, compensation3};
+    for (int index = 4; index < partialSums.length; index++) {
+      partialSums[index] = Double.isNaN(partialSums[index]) ? 0 : partialSums[index];
+    }
+    return partialSums;
+  }
+
+  /**
+   * Adds a value to the reduction.
+   *
+   * @param value The value to add.
+   */
+  private void accept(double value) {
+    double deviation = value - center;
+    count++;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+    addSum(deviation, 0);
+    addSquareSum(deviation * deviation, 0);
+  }
+
+  /**
+   * Combines the values reduced by another reduction, around the same center, into this one.
+   *
+   * @param other The reduction to merge into this one.
+   */
+  void merge(DoubleReduction other) {
+    count += other.count;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+    addSum(other.sum, other.sumCompensation);
+    addSquareSum(other.squareSum, other.squareSumCompensation);
+  }
+
+  /**
+   * Adds a compensated partial sum to the sum of the deviations.
+   *
+   * @param partialSum   The partial sum, rounded.
+   * @param compensation The rounding error of the partial sum.
+   */
+  private void addSum(double partialSum, double compensation) {
+    double total = sum + partialSum;
+    double part = total - sum;
+    sumCompensation += (sum - (total - part)) + (partialSum - part) + compensation;
+    sum = total;
+  }
+
+  /**
+   * Adds a compensated partial sum to the sum of the squared deviations.
+   *
+   * @param partialSum   The partial sum, rounded.
+   * @param compensation The rounding error of the partial sum.
+   */
+  private void addSquareSum(double partialSum, double compensation) {
+    double total = squareSum + partialSum;
+    double part = total - squareSum;
+    squareSumCompensation += (squareSum - (total - part)) + (partialSum - part) + compensation;
+    squareSum = total;
+  }
+
+  /**
+   * Returns the number of values reduced.
+   *
+   * @return The number of values reduced.
+   */
+  long getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the sum of the deviations of the values from the center.
+   *
+   * @return The sum of the deviations.
+   */
+  double getSum() {
+    return compensate(sum, sumCompensation);
+  }
+
+  /**
+   * Returns the sum of the squared deviations of the values from the center.
+   *
+   * @return The sum of the squared deviations.
+   */
+  double getSquareSum() {
+    return compensate(squareSum, squareSumCompensation);
+  }
+
+  /**
+   * Returns the smallest value reduced.
+   *
+   * @return The smallest value, positive infinity if no values were reduced.
+   */
+  double getMin() {
+    return min;
+  }
+
+  /**
+   * Returns the largest value reduced.
+   *
+   * @return The largest value, negative infinity if no values were reduced.
+   */
+  double getMax() {
+    return max;
+  }
+
+  /**
+   * Converts a reduction around 0 into summary statistics.
+   *
+   * @return The summary statistics, or null if they can't be represented because the sum is NaN
+   *     while the minimum and maximum aren't, as happens when summing infinities of both signs.
+   */
+  DoubleSummaryStatistics toSummaryStatistics() {
+    double total = getSum();
+    if (count > 0 && Double.isNaN(total) != Double.isNaN(min)) {
+      return null;
+    }
+    return new DoubleSummaryStatistics(count, min, max, total);
+  }
+
+  /**
+   * Adds the compensation to a sum.
+   *
+   * @param sum          The sum, rounded.
+   * @param compensation The rounding error of the sum.
+   * @return The compensated sum.
+   */
+  private static double compensate(double sum, double compensation) {
+    double total = sum + compensation;
+    // Infinite values make the compensation NaN, in which case the rounded sum is the answer.
+    return Double.isNaN(total) && !Double.isNaN(sum) ? sum : total;
+  }
+}
@@ -0,0 +1,10 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+/**
+ * Enum used for representing how the statistics are computed.
+ */
+public enum ExecutionMode {
+  SEQUENTIAL,
+  PARALLEL,
+  AUTO
+}
@@ -0,0 +1,351 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+import java.util.stream.BaseStream;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Decides whether a computation over a given number of elements runs sequentially or in
+ * parallel, and in which {@link ForkJoinPool}. Forking parallel tasks costs more than summing a
+ * few thousand values, so in {@link ExecutionMode#AUTO} mode only inputs of at least the parallel
+ * threshold are split. The threshold can be measured on the current machine with
+ * {@link #calibrate(ForkJoinPool)}.
+ *
+ * <p>Instances are immutable and thread safe.
+ */
+public final class ExecutionPolicy {
+
+  static {
+    I18nUtility.addResourceBundle(
+        ExecutionPolicy.class,
+        ExecutionPolicy.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Parallel threshold of {@link #auto()}, used until a policy is calibrated. It keeps the small
+   * inputs of per request code paths sequential.
+   */
+  public static final int defaultParallelThreshold = 1 << 15;
+
+  /**
+   * Smallest input size measured when calibrating.
+   */
+  private static final int smallestCalibrationSize = 1 << 10;
+
+  /**
+   * Largest input size measured when calibrating.
+   */
+  private static final int largestCalibrationSize = 1 << 22;
+
+  /**
+   * Number of timed runs of each measurement when calibrating, of which the fastest is kept.
+   */
+  private static final int calibrationRuns = 7;
+
+  /**
+   * How much faster than the sequential computation the parallel one must be when calibrating.
+   */
+  private static final double calibrationSpeedup = 1.1;
+
+  /**
+   * The execution mode.
+   */
+  private final ExecutionMode mode;
+  /**
+   * Smallest number of elements computed in parallel in AUTO mode.
+   */
+  private final int parallelThreshold;
+  /**
+   * The pool parallel computations run in, null for the common pool.
+   */
+  private final ForkJoinPool pool;
+
+  /**
+   * Creates a policy.
+   *
+   * @param mode              The execution mode.
+   * @param parallelThreshold Smallest number of elements computed in parallel in AUTO mode.
+   * @param pool              The pool parallel computations run in, null for the common pool.
+   */
+  private ExecutionPolicy(ExecutionMode mode, int parallelThreshold, ForkJoinPool pool) {
+    this.mode = mode;
+    this.parallelThreshold = parallelThreshold;
+    this.pool = pool;
+  }
+
+  /**
+   * Creates a policy that computes everything in the calling thread.
+   *
+   * @return The sequential policy.
+   */
+  public static ExecutionPolicy sequential() {
+    return new ExecutionPolicy(ExecutionMode.SEQUENTIAL, Integer.MAX_VALUE, null);
+  }
+
+  /**
+   * Creates a policy that computes everything in parallel, whatever the size of the input.
+   *
+   * @return The parallel policy.
+   */
+  public static ExecutionPolicy parallel() {
+    return new ExecutionPolicy(ExecutionMode.PARALLEL, 0, null);
+  }
+
+  /**
+   * Creates a policy that computes inputs of at least {@link #defaultParallelThreshold} elements
+   * in parallel.
+   *
+   * @return The automatic policy.
+   */
+  public static ExecutionPolicy auto() {
+    return auto(defaultParallelThreshold);
+  }
+
+  /**
+   * Creates a policy that computes inputs of at least the provided number of elements in
+   * parallel.
+   *
+   * @param parallelThreshold The smallest number of elements computed in parallel.
+   * @return The automatic policy.
+   */
+  public static ExecutionPolicy auto(int parallelThreshold) {
+    if (parallelThreshold < 0) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "ExecutionPolicy.error.negativeParallelThreshold",
+              parallelThreshold
+          )
+      );
+    }
+    return new ExecutionPolicy(ExecutionMode.AUTO, parallelThreshold, null);
+  }
+
+  /**
+   * Measures the smallest input for which summing squares in parallel in the provided pool is
+   * faster than summing them sequentially, and creates an automatic policy with that threshold.
+   * Inputs of doubling sizes are timed, so calibrating takes around a second.
+   *
+   * @param pool The pool to calibrate, which the returned policy runs in.
+   * @return The calibrated automatic policy. If parallel computations never win, for example on a
+   *     single processor, its threshold is {@link Integer#MAX_VALUE}.
+   */
+  public static ExecutionPolicy calibrate(ForkJoinPool pool) {
+    Objects.requireNonNull(pool);
+    ExecutionPolicy parallelPolicy = parallel().withPool(pool);
+    double[] values = new Random(0).doubles(largestCalibrationSize).toArray();
+
+    int parallelThreshold = Integer.MAX_VALUE;
+    if (pool.getParallelism() > 1) {
+      for (int size = smallestCalibrationSize; size <= largestCalibrationSize; size <<= 1) {
+        int length = size;
+        long sequentialTime = getFastestRunTime(() -> sumOfSquares(values, length, false));
+        long parallelTime = getFastestRunTime(() -> parallelPolicy.execute(
+            () -> sumOfSquares(values, length, true)
+        ));
+        if (parallelTime * calibrationSpeedup < sequentialTime) {
+          parallelThreshold = size;
+          break;
+        }
+      }
+    }
+    return auto(parallelThreshold).withPool(pool);
+  }
+
+  /**
+   * Creates a copy of this policy whose parallel computations run in the provided pool.
+   *
+   * @param pool The pool to run parallel computations in.
+   * @return The policy using the provided pool.
+   */
+  public ExecutionPolicy withPool(ForkJoinPool pool) {
+    return new ExecutionPolicy(mode, parallelThreshold, Objects.requireNonNull(pool));
+  }
+
+  /**
+   * Returns the execution mode.
+   *
+   * @return The execution mode.
+   */
+  public ExecutionMode getMode() {
+    return mode;
+  }
+
+  /**
+   * Returns the smallest number of elements computed in parallel in AUTO mode.
+   *
+   * @return The parallel threshold.
+   */
+  public int getParallelThreshold() {
+    return parallelThreshold;
+  }
+
+  /**
+   * Returns the pool parallel computations run in.
+   *
+   * @return The pool parallel computations run in.
+   */
+  public ForkJoinPool getPool() {
+    return pool == null ? ForkJoinPool.commonPool() : pool;
+  }
+
+  /**
+   * Checks whether a computation over the provided number of elements should run in parallel.
+   *
+   * @param size The number of elements.
+   * @return True if the computation should run in parallel.
+   */
+  public boolean isParallel(long size) {
+    return switch (mode) {
+      case SEQUENTIAL -> false;
+      case PARALLEL -> true;
+      case AUTO -> size >= parallelThreshold && getPool().getParallelism() > 1;
+    };
+  }
+
+  /**
+   * Makes a stream over the provided number of elements sequential or parallel according to this
+   * policy. Its terminal operation should run through {@link #execute(Supplier)} for the
+   * parallel work to happen in the pool of this policy.
+   *
+   * @param stream The stream to configure.
+   * @param size   The number of elements of the stream.
+   * @param <S>    Type of the stream.
+   * @return The configured stream.
+   */
+  public <S extends BaseStream<?, S>> S configure(S stream, long size) {
+    return isParallel(size) ? stream.parallel() : stream.sequential();
+  }
+
+  /**
+   * Runs a computation in the pool of this policy, so that the parallel streams it uses are split
+   * between the threads of that pool. Computations already running in that pool, and those of
+   * policies without a dedicated pool, run directly in the calling thread.
+   *
+   * @param computation The computation to run.
+   * @param <T>         Type of the result.
+   * @return The result of the computation.
+   */
+  public <T> T execute(Supplier<T> computation) {
+    if (pool == null || ForkJoinTask.getPool() == pool) {
+      return computation.get();
+    }
+    return pool.invoke(ForkJoinTask.adapt((Callable<T>) computation::get));
+  }
+
+  /**
+   * Reduces a range in fixed size chunks, in parallel if this policy says so, and combines the
+   * partial results in order. The chunks don't depend on the number of processors and the
+   * combination order doesn't depend on the scheduling, so the result is the same for every
+   * policy and machine.
+   *
+   * @param offset         The index of the first element in the range.
+   * @param length         The number of elements in the range.
+   * @param chunkSize      The number of elements of each chunk.
+   * @param chunkReduction Reduces the elements from the first index, inclusive, to the second
+   *                       index, exclusive.
+   * @param combiner       Combines the partial result of a range with that of the range
+   *                       following it.
+   * @param <T>            Type of the partial results.
+   * @return The reduction of the range.
+   */
+  <T> T reduceInChunks(int offset, int length, int chunkSize,
+      BiFunction<Integer, Integer, T> chunkReduction, BinaryOperator<T> combiner) {
+    return reduceChunks((length - 1) / chunkSize + 1, length,
+        chunk -> chunkReduction.apply(
+            offset + chunk * chunkSize,
+            offset + (int) Math.min(length, (chunk + 1L) * chunkSize)
+        ),
+        combiner);
+  }
+
+  /**
+   * Reduces each of a number of chunks, in parallel if this policy says so for their total size,
+   * and combines the partial results in order, so that the result doesn't depend on the
+   * scheduling.
+   *
+   * @param chunkCount     The number of chunks, of which there should be at least one.
+   * @param size           The total number of elements of the chunks.
+   * @param chunkReduction Reduces the chunk of an index.
+   * @param combiner       Combines the partial result of the chunks up to one with that of the
+   *                       chunk following them.
+   * @param <T>            Type of the partial results.
+   * @return The reduction of the chunks.
+   */
+  <T> T reduceChunks(int chunkCount, long size, IntFunction<T> chunkReduction,
+      BinaryOperator<T> combiner) {
+    if (chunkCount <= 1) {
+      return chunkReduction.apply(0);
+    }
+    IntStream chunks = configure(IntStream.range(0, chunkCount), size);
+    List<T> chunkResults = execute(() -> chunks
+        .mapToObj(chunkReduction)
+        .collect(Collectors.toList()));
+
+    T result = chunkResults.get(0);
+    for (int chunk = 1; chunk < chunkResults.size(); chunk++) {
+      result = combiner.apply(result, chunkResults.get(chunk));
+    }
+    return result;
+  }
+
+  /**
+   * Times a computation several times.
+   *
+   * @param computation The computation to time.
+   * @return The fastest run time in nanoseconds.
+   */
+  private static long getFastestRunTime(Supplier<Double> computation) {
+    long fastestRunTime = Long.MAX_VALUE;
+    double checksum = 0;
+    for (int run = 0; run < calibrationRuns; run++) {
+      long startTime = System.nanoTime();
+      checksum += computation.get();
+      fastestRunTime = Math.min(fastestRunTime, System.nanoTime() - startTime);
+    }
+    // Using the results keeps the computations from being optimized away.
+    return Double.isNaN(checksum) ? Long.MAX_VALUE : fastestRunTime;
+  }
+
+  /**
+   * Sums the squares of the first values of an array.
+   *
+   * @param values   The array to sum the squares of.
+   * @param length   The number of values to sum.
+   * @param parallel Whether to sum in parallel.
+   * @return The sum of the squares.
+   */
+  private static double sumOfSquares(double[] values, int length, boolean parallel) {
+    DoubleStream stream = Arrays.stream(values, 0, length);
+    return (parallel ? stream.parallel() : stream)
+        .map(value -> value * value)
+        .sum();
+  }
+
+  /**
+   * Returns a string representation of the execution policy.
+   *
+   * @return The string representation of the execution policy.
+   */
+  @Override
+  public String toString() {
+    return String.format("%s{mode=%s, parallelThreshold=%d, pool=%s}",
+        getClass().getSimpleName(), mode, parallelThreshold,
+        pool == null ? "common" : pool.toString());
+  }
+}
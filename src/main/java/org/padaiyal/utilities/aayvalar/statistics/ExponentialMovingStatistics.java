@@ -0,0 +1,286 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Locale;
+import java.util.function.DoubleConsumer;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Estimates the exponentially weighted moving mean and variance of a signal, in O(1) time and
+ * without allocating per value. The weight of a value decays either with every value added after
+ * it:
+ * <pre>{@code
+ * ExponentialMovingStatistics smoothed = ExponentialMovingStatistics.ofSmoothingFactor(0.1);
+ * smoothed.accept(latency);
+ * }</pre>
+ * or with the time elapsed since it was added, halving every half-life:
+ * <pre>{@code
+ * ExponentialMovingStatistics smoothed = ExponentialMovingStatistics.ofHalfLife(
+ *     TimeUnit.SECONDS.toNanos(10));
+ * smoothed.add(System.nanoTime(), latency);
+ * }</pre>
+ * The mean and variance are those of every value added, weighted by its decayed weight, and are
+ * updated incrementally as described by Finch in "Incremental calculation of weighted mean and
+ * variance". Normalizing by the total weight makes the estimates follow the conventional
+ * recurrence {@code mean += smoothingFactor * (value - mean)} once the weights of the first values
+ * have decayed, without its bias towards the first value. Values with a timestamp before the
+ * latest one are weighted by their age instead of being rejected. For more information:
+ * https://en.wikipedia.org/wiki/Moving_average#Exponential_moving_average
+ *
+ * <p>This class is not thread safe. {@link ConcurrentExponentialMovingStatistics} is a thread
+ * safe variant for time-decayed estimates.
+ */
+public final class ExponentialMovingStatistics implements DoubleConsumer {
+
+  static {
+    I18nUtility.addResourceBundle(
+        ExponentialMovingStatistics.class,
+        ExponentialMovingStatistics.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Factor by which the weights decay with every value added, or 1 if they decay with time.
+   */
+  private final double sampleRetention;
+  /**
+   * Rate at which the weights decay per unit of time, or 0 if they decay with every value added.
+   */
+  private final double decayRate;
+  /**
+   * Half-life of the weights, or NaN if they decay with every value added.
+   */
+  private final double halfLife;
+  /**
+   * Number of values added.
+   */
+  private long count;
+  /**
+   * Total decayed weight of the values added.
+   */
+  private double weight;
+  /**
+   * Weighted mean of the values added.
+   */
+  private double mean;
+  /**
+   * Weighted population variance of the values added.
+   */
+  private double variance;
+  /**
+   * Latest timestamp of the values added.
+   */
+  private long latestTimestamp = Long.MIN_VALUE;
+
+  /**
+   * Creates an empty estimator.
+   *
+   * @param sampleRetention Factor by which the weights decay with every value added.
+   * @param halfLife        Half-life of the weights, or NaN if they decay with every value added.
+   */
+  private ExponentialMovingStatistics(double sampleRetention, double halfLife) {
+    this.sampleRetention = sampleRetention;
+    this.halfLife = halfLife;
+    this.decayRate = Double.isNaN(halfLife) ? 0 : Math.log(2) / halfLife;
+  }
+
+  /**
+   * Creates an empty estimator whose weights decay with every value added. Each value added
+   * weighs the smoothing factor in the estimates and the weights of the previous values are
+   * multiplied by one minus the smoothing factor.
+   *
+   * @param smoothingFactor The smoothing factor, greater than 0 and at most 1.
+   * @return The estimator.
+   */
+  public static ExponentialMovingStatistics ofSmoothingFactor(double smoothingFactor) {
+    if (!(smoothingFactor > 0 && smoothingFactor <= 1)) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "ExponentialMovingStatistics.error.invalidSmoothingFactor",
+              smoothingFactor
+          )
+      );
+    }
+    return new ExponentialMovingStatistics(1 - smoothingFactor, Double.NaN);
+  }
+
+  /**
+   * Creates an empty estimator whose weights halve every half-life.
+   *
+   * @param halfLife The half-life, greater than 0, in the unit of the timestamps.
+   * @return The estimator.
+   */
+  public static ExponentialMovingStatistics ofHalfLife(double halfLife) {
+    if (!(halfLife > 0 && halfLife < Double.POSITIVE_INFINITY)) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "ExponentialMovingStatistics.error.invalidHalfLife",
+              halfLife
+          )
+      );
+    }
+    return new ExponentialMovingStatistics(1, halfLife);
+  }
+
+  /**
+   * Adds a value. The value is added at the latest timestamp if the weights decay with time.
+   *
+   * @param value The value to add.
+   */
+  @Override
+  public void accept(double value) {
+    update(count == 0 ? 0 : sampleRetention, 1, value);
+  }
+
+  /**
+   * Adds a value at a timestamp. The weights of the previous values decay by the time elapsed
+   * since the latest timestamp. If the timestamp is before the latest one, the value is weighted
+   * by its age instead. Estimators whose weights decay with every value added ignore the
+   * timestamp.
+   *
+   * @param timestamp The timestamp of the value.
+   * @param value     The value to add.
+   */
+  public void add(long timestamp, double value) {
+    if (decayRate == 0) {
+      accept(value);
+    } else if (count == 0 || timestamp >= latestTimestamp) {
+      double retention = count == 0 ? 0 : decay((double) timestamp - latestTimestamp);
+      latestTimestamp = timestamp;
+      update(retention, 1, value);
+    } else {
+      update(1, decay((double) latestTimestamp - timestamp), value);
+    }
+  }
+
+  /**
+   * Returns the number of values added.
+   *
+   * @return The number of values.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the exponentially weighted mean of the values added.
+   *
+   * @return The mean, or NaN if no values have been added.
+   */
+  public double getMean() {
+    return count == 0 ? Double.NaN : mean;
+  }
+
+  /**
+   * Returns the exponentially weighted population variance of the values added.
+   *
+   * @return The variance, or NaN if no values have been added.
+   */
+  public double getVariance() {
+    return count == 0 ? Double.NaN : variance;
+  }
+
+  /**
+   * Returns the exponentially weighted population standard deviation of the values added.
+   *
+   * @return The standard deviation, or NaN if no values have been added.
+   */
+  public double getStandardDeviation() {
+    return Math.sqrt(getVariance());
+  }
+
+  /**
+   * Removes every value added.
+   */
+  public void clear() {
+    count = 0;
+    weight = 0;
+    mean = 0;
+    variance = 0;
+    latestTimestamp = Long.MIN_VALUE;
+  }
+
+  /**
+   * Returns a string representation of the estimator.
+   *
+   * @return The string representation of the estimator.
+   */
+  @Override
+  public String toString() {
+    return String.format(
+        "%s{count=%d, mean=%s, variance=%s}",
+        getClass().getSimpleName(),
+        count,
+        getMean(),
+        getVariance()
+    );
+  }
+
+  /**
+   * Returns the half-life of the weights.
+   *
+   * @return The half-life, or NaN if the weights decay with every value added.
+   */
+  double getHalfLife() {
+    return halfLife;
+  }
+
+  /**
+   * Merges the values added to another estimator into this one, as if they had been added to
+   * this one. Both estimators should have weights decaying with time at the same half-life.
+   *
+   * @param other The estimator to merge into this one.
+   */
+  void merge(ExponentialMovingStatistics other) {
+    if (other.count == 0) {
+      return;
+    } else if (count == 0) {
+      count = other.count;
+      weight = other.weight;
+      mean = other.mean;
+      variance = other.variance;
+      latestTimestamp = other.latestTimestamp;
+      return;
+    }
+    long timestamp = Math.max(latestTimestamp, other.latestTimestamp);
+    double thisWeight = weight * decay((double) timestamp - latestTimestamp);
+    double otherWeight = other.weight * decay((double) timestamp - other.latestTimestamp);
+    double totalWeight = thisWeight + otherWeight;
+    double otherFraction = otherWeight / totalWeight;
+    double delta = other.mean - mean;
+
+    count += other.count;
+    weight = totalWeight;
+    mean += delta * otherFraction;
+    variance = (1 - otherFraction) * variance + otherFraction * other.variance
+        + (1 - otherFraction) * otherFraction * delta * delta;
+    latestTimestamp = timestamp;
+  }
+
+  /**
+   * Adds a value to the estimates.
+   *
+   * @param retention   Factor by which the weight of the previous values decays.
+   * @param valueWeight Weight of the value.
+   * @param value       The value to add.
+   */
+  private void update(double retention, double valueWeight, double value) {
+    count++;
+    weight = weight * retention + valueWeight;
+    double valueFraction = valueWeight / weight;
+    double delta = value - mean;
+    double increment = valueFraction * delta;
+    mean += increment;
+    variance = (1 - valueFraction) * (variance + delta * increment);
+  }
+
+  /**
+   * Returns the factor by which weights decay over a duration.
+   *
+   * @param duration The duration, not negative.
+   * @return The decay factor.
+   */
+  private double decay(double duration) {
+    return Math.exp(-decayRate * duration);
+  }
+}
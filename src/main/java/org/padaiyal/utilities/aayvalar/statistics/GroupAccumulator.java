@@ -0,0 +1,326 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.DoubleConsumer;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Statistics of the values of one group, computed by {@link GroupedStatistics}. The count,
+ * extremes and moments are always accumulated. The quantile sketch, the top values and the
+ * frequent values are only accumulated if the grouped statistics request them, and asking for
+ * them otherwise throws an {@link IllegalStateException}.
+ *
+ * <p>Accumulators of the same grouped statistics can be combined, for example to aggregate the
+ * groups of several inputs.
+ *
+ * <p>This class is not thread safe.
+ */
+public final class GroupAccumulator implements DoubleConsumer {
+
+  static {
+    I18nUtility.addResourceBundle(
+        GroupAccumulator.class,
+        GroupAccumulator.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * The count, extremes, mean and central moments of the values.
+   */
+  private final MomentsAccumulator moments = new MomentsAccumulator();
+  /**
+   * Compensated sum of the values, which is exact where the mean times the count isn't.
+   */
+  private final CompensatedSum sum = new CompensatedSum();
+  /**
+   * The grouped statistics this accumulator computes.
+   */
+  private final GroupedStatistics statistics;
+  /**
+   * Quantile sketch of the values, or null if it was not requested.
+   */
+  private final TDigest quantileSketch;
+  /**
+   * The largest values, or null if they were not requested.
+   */
+  private final BoundedDoubleHeap topMaxValues;
+  /**
+   * The smallest values, or null if they were not requested.
+   */
+  private final BoundedDoubleHeap topMinValues;
+  /**
+   * Heavy hitters sketch of the values, or null if it was not requested.
+   */
+  private final SpaceSavingSketch frequentValues;
+
+  /**
+   * Creates an empty accumulator.
+   *
+   * @param statistics The grouped statistics to compute.
+   */
+  GroupAccumulator(GroupedStatistics statistics) {
+    this.statistics = statistics;
+    double compression = statistics.getQuantileSketchCompression();
+    this.quantileSketch = compression > 0 ? new TDigest(compression) : null;
+    int topMaxNumbers = statistics.getTopMaxNumbers();
+    this.topMaxValues = topMaxNumbers > 0 ? new BoundedDoubleHeap(topMaxNumbers, true) : null;
+    int topMinNumbers = statistics.getTopMinNumbers();
+    this.topMinValues = topMinNumbers > 0 ? new BoundedDoubleHeap(topMinNumbers, false) : null;
+    int frequentValuesCapacity = statistics.getFrequentValuesCapacity();
+    this.frequentValues = frequentValuesCapacity > 0
+        ? new SpaceSavingSketch(frequentValuesCapacity)
+        : null;
+  }
+
+  /**
+   * Adds a value to the group.
+   *
+   * @param value The value to add.
+   */
+  @Override
+  public void accept(double value) {
+    moments.accept(value);
+    sum.accept(value);
+    if (quantileSketch != null) {
+      quantileSketch.add(value);
+    }
+    if (topMaxValues != null) {
+      topMaxValues.offer(value);
+    }
+    if (topMinValues != null) {
+      topMinValues.offer(value);
+    }
+    if (frequentValues != null) {
+      frequentValues.add(value);
+    }
+  }
+
+  /**
+   * Combines the values of another accumulator of the same grouped statistics into this one. The
+   * other accumulator is left unchanged.
+   *
+   * @param other The accumulator to combine into this one.
+   */
+  public void combine(GroupAccumulator other) {
+    Objects.requireNonNull(other);
+    if (!statistics.equals(other.statistics)) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "GroupAccumulator.error.incompatibleAccumulator",
+              other.statistics
+          )
+      );
+    }
+    moments.combine(other.moments);
+    sum.merge(other.sum);
+    if (quantileSketch != null) {
+      quantileSketch.merge(other.quantileSketch);
+    }
+    if (topMaxValues != null) {
+      topMaxValues.merge(other.topMaxValues);
+    }
+    if (topMinValues != null) {
+      topMinValues.merge(other.topMinValues);
+    }
+    if (frequentValues != null) {
+      frequentValues.merge(other.frequentValues);
+    }
+  }
+
+  /**
+   * Returns the number of values of the group.
+   *
+   * @return The number of values.
+   */
+  public long getCount() {
+    return moments.getCount();
+  }
+
+  /**
+   * Returns the sum of the values of the group.
+   *
+   * @return The sum of the values.
+   */
+  public double getSum() {
+    return sum.getSum();
+  }
+
+  /**
+   * Returns the arithmetic mean of the values of the group.
+   *
+   * @return The mean of the values.
+   */
+  public double getMean() {
+    return moments.getMean();
+  }
+
+  /**
+   * Returns the population variance of the values of the group.
+   *
+   * @return The variance of the values.
+   */
+  public double getVariance() {
+    return moments.getVariance();
+  }
+
+  /**
+   * Returns the population standard deviation of the values of the group.
+   *
+   * @return The standard deviation of the values.
+   */
+  public double getStandardDeviation() {
+    return moments.getStandardDeviation();
+  }
+
+  /**
+   * Returns the smallest value of the group.
+   *
+   * @return The smallest value.
+   */
+  public double getMinValue() {
+    return moments.getMin();
+  }
+
+  /**
+   * Returns the largest value of the group.
+   *
+   * @return The largest value.
+   */
+  public double getMaxValue() {
+    return moments.getMax();
+  }
+
+  /**
+   * Returns the skewness of the values of the group.
+   *
+   * @return The skewness of the values.
+   */
+  public double getSkewness() {
+    return moments.getSkewness();
+  }
+
+  /**
+   * Returns the excess kurtosis of the values of the group.
+   *
+   * @return The excess kurtosis of the values.
+   */
+  public double getKurtosis() {
+    return moments.getKurtosis();
+  }
+
+  /**
+   * Returns the count, extremes, mean and central moments of the values of the group.
+   *
+   * @return A copy of the moments of the values.
+   */
+  public MomentsAccumulator getMoments() {
+    MomentsAccumulator copy = new MomentsAccumulator();
+    copy.combine(moments);
+    return copy;
+  }
+
+  /**
+   * Estimates a percentile of the values of the group with the quantile sketch.
+   *
+   * @param percentile The percentile to estimate, between 0 and 100.
+   * @return The estimated percentile.
+   * @throws IllegalStateException If the quantile sketch was not requested.
+   */
+  public double getPercentile(double percentile) {
+    StatisticsUtility.validatePercentiles(new double[]{percentile});
+    if (quantileSketch == null) {
+      throw notRequested("quantileSketch");
+    }
+    return quantileSketch.quantile(percentile / 100);
+  }
+
+  /**
+   * Returns the quantile sketch of the values of the group.
+   *
+   * @return A copy of the quantile sketch.
+   * @throws IllegalStateException If the quantile sketch was not requested.
+   */
+  public TDigest getQuantileSketch() {
+    if (quantileSketch == null) {
+      throw notRequested("quantileSketch");
+    }
+    TDigest copy = new TDigest(quantileSketch.getCompression());
+    copy.merge(quantileSketch);
+    return copy;
+  }
+
+  /**
+   * Returns the largest values of the group.
+   *
+   * @return The largest values, largest first.
+   * @throws IllegalStateException If the largest values were not requested.
+   */
+  public double[] getTopMaxValues() {
+    if (topMaxValues == null) {
+      throw notRequested("topMaxValues");
+    }
+    return topMaxValues.toSortedArray();
+  }
+
+  /**
+   * Returns the smallest values of the group.
+   *
+   * @return The smallest values, smallest first.
+   * @throws IllegalStateException If the smallest values were not requested.
+   */
+  public double[] getTopMinValues() {
+    if (topMinValues == null) {
+      throw notRequested("topMinValues");
+    }
+    return topMinValues.toSortedArray();
+  }
+
+  /**
+   * Returns the most frequent values of the group, with their estimated counts.
+   *
+   * @param topNumbers The number of values to return.
+   * @return The most frequent values, most frequent first.
+   * @throws IllegalStateException If the frequent values were not requested.
+   */
+  public List<HeavyHitter<Double>> getFrequentValues(int topNumbers) {
+    if (frequentValues == null) {
+      throw notRequested("frequentValues");
+    }
+    return frequentValues.getHeavyHitters(topNumbers);
+  }
+
+  /**
+   * Creates the exception thrown when a statistic that was not requested is asked for.
+   *
+   * @param statistic The description of the statistic.
+   * @return The exception to throw.
+   */
+  private static IllegalStateException notRequested(String statistic) {
+    return new IllegalStateException(
+        I18nUtility.getFormattedString(
+            "GroupAccumulator.error.statisticNotRequested",
+            statistic
+        )
+    );
+  }
+
+  /**
+   * Returns a string representation of the accumulator.
+   *
+   * @return The string representation of the accumulator.
+   */
+  @Override
+  public String toString() {
+    return String.format(
+        "%s{count=%d, mean=%s, min=%s, max=%s}",
+        getClass().getSimpleName(),
+        moments.getCount(),
+        moments.getMean(),
+        moments.getMin(),
+        moments.getMax()
+    );
+  }
+}
@@ -0,0 +1,509 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Declares the statistics to compute for each group of a grouped input, for example the
+ * latencies of each endpoint:
+ * <pre>{@code
+ * Map<String, GroupAccumulator> endpoints = GroupedStatistics.of()
+ *     .withQuantileSketch()
+ *     .withTopMaxValues(5)
+ *     .compute(requests, Request::getEndpoint, Request::getLatency);
+ * double p99 = endpoints.get("/login").getPercentile(99);
+ * }</pre>
+ * The count, extremes and moments of each group are always computed. The quantile sketch, top
+ * values and frequent values are computed if requested, at the cost of their memory for every
+ * group.
+ *
+ * <p>Instead of partitioning the input into one collection per group, the pairs are aggregated
+ * in chunks of 65536 pairs, each into its own hash table of accumulators, and the tables of
+ * neighboring chunks are merged pairwise until one remains. How the pairs are chunked depends on
+ * the number of distinct keys of the first chunk:
+ * <ul>
+ *   <li>Up to 4096, the input is chunked as is. Each group appears in many chunks, but the
+ *   tables stay small and cheap to merge.</li>
+ *   <li>Above it, the pairs are first copied, grouped by the hash of their key, into 64
+ *   partitions, so each group belongs to a single partition. The partitions are chunked and
+ *   aggregated independently, so many small groups are neither duplicated in every chunk nor
+ *   merged across partitions.</li>
+ * </ul>
+ * The partitions and the chunks are aggregated in parallel if the execution policy of
+ * {@link StatisticsUtility} says so. Neither the partitions nor the chunks depend on the number
+ * of processors, so the results are the same for every policy and machine, and throughput scales
+ * with the cores for few large groups as well as many small ones. The key and value extractors
+ * are called once per element.
+ *
+ * <p>Instances are immutable and thread safe. Each {@code with} method returns a new instance.
+ */
+public final class GroupedStatistics {
+
+  static {
+    I18nUtility.addResourceBundle(
+        GroupedStatistics.class,
+        GroupedStatistics.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Number of pairs of a partition aggregated into each hash table before the tables are merged.
+   */
+  private static final int chunkSize = 1 << 16;
+  /**
+   * Number of partitions the pairs are distributed into by the hash of their key.
+   */
+  private static final int partitionCount = 1 << 6;
+  /**
+   * Number of distinct keys of the first chunk above which the pairs are partitioned.
+   */
+  private static final int partitionThreshold = chunkSize >> 4;
+  /**
+   * Shift of the scrambled hash codes leaving the bits of their partition.
+   */
+  private static final int partitionShift = Integer.SIZE - 6;
+
+  /**
+   * Compression of the quantile sketches, 0 for none.
+   */
+  private final double quantileSketchCompression;
+  /**
+   * The number of largest values to retain per group, 0 for none.
+   */
+  private final int topMaxNumbers;
+  /**
+   * The number of smallest values to retain per group, 0 for none.
+   */
+  private final int topMinNumbers;
+  /**
+   * The number of counters of the frequent values sketches, 0 for none.
+   */
+  private final int frequentValuesCapacity;
+
+  /**
+   * Creates grouped statistics.
+   *
+   * @param quantileSketchCompression Compression of the quantile sketches, 0 for none.
+   * @param topMaxNumbers             The number of largest values to retain per group, 0 for
+   *                                  none.
+   * @param topMinNumbers             The number of smallest values to retain per group, 0 for
+   *                                  none.
+   * @param frequentValuesCapacity    The number of counters of the frequent values sketches, 0
+   *                                  for none.
+   */
+  private GroupedStatistics(double quantileSketchCompression, int topMaxNumbers,
+      int topMinNumbers, int frequentValuesCapacity) {
+    this.quantileSketchCompression = quantileSketchCompression;
+    this.topMaxNumbers = topMaxNumbers;
+    this.topMinNumbers = topMinNumbers;
+    this.frequentValuesCapacity = frequentValuesCapacity;
+  }
+
+  /**
+   * Creates grouped statistics computing the count, extremes and moments of each group.
+   *
+   * @return The grouped statistics.
+   */
+  public static GroupedStatistics of() {
+    return new GroupedStatistics(0, 0, 0, 0);
+  }
+
+  /**
+   * Creates a copy of these grouped statistics also summarizing each group in a t-digest of the
+   * default compression.
+   *
+   * @return The grouped statistics computing the quantile sketches.
+   */
+  public GroupedStatistics withQuantileSketch() {
+    return withQuantileSketch(TDigest.defaultCompression);
+  }
+
+  /**
+   * Creates a copy of these grouped statistics also summarizing each group in a t-digest.
+   *
+   * @param compression The compression of the digests, between 1 and 1000000.
+   * @return The grouped statistics computing the quantile sketches.
+   */
+  public GroupedStatistics withQuantileSketch(double compression) {
+    TDigest.validateCompression(compression);
+    return new GroupedStatistics(compression, topMaxNumbers, topMinNumbers,
+        frequentValuesCapacity);
+  }
+
+  /**
+   * Creates a copy of these grouped statistics also retaining the largest values of each group.
+   *
+   * @param topNumbers The number of largest values to retain.
+   * @return The grouped statistics retaining the largest values.
+   */
+  public GroupedStatistics withTopMaxValues(int topNumbers) {
+    StatisticsUtility.validateTopNumbers(topNumbers);
+    return new GroupedStatistics(quantileSketchCompression, topNumbers, topMinNumbers,
+        frequentValuesCapacity);
+  }
+
+  /**
+   * Creates a copy of these grouped statistics also retaining the smallest values of each group.
+   *
+   * @param topNumbers The number of smallest values to retain.
+   * @return The grouped statistics retaining the smallest values.
+   */
+  public GroupedStatistics withTopMinValues(int topNumbers) {
+    StatisticsUtility.validateTopNumbers(topNumbers);
+    return new GroupedStatistics(quantileSketchCompression, topMaxNumbers, topNumbers,
+        frequentValuesCapacity);
+  }
+
+  /**
+   * Creates a copy of these grouped statistics also tracking the most frequent values of each
+   * group in a Space-Saving sketch.
+   *
+   * @param capacity The number of counters of the sketches.
+   * @return The grouped statistics tracking the frequent values.
+   */
+  public GroupedStatistics withFrequentValues(int capacity) {
+    SpaceSavingSketch.validateCapacity(capacity);
+    return new GroupedStatistics(quantileSketchCompression, topMaxNumbers, topMinNumbers,
+        capacity);
+  }
+
+  /**
+   * Computes the statistics of each group of (key, value) pairs.
+   *
+   * @param keys   The keys of the pairs. Null is a valid key.
+   * @param values The values of the pairs.
+   * @param <K>    Type of the keys.
+   * @return The statistics of each group, by key.
+   */
+  public <K> Map<K, GroupAccumulator> compute(K[] keys, double[] values) {
+    Objects.requireNonNull(keys);
+    Objects.requireNonNull(values);
+    if (keys.length != values.length) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "GroupedStatistics.error.lengthMismatch",
+              keys.length,
+              values.length
+          )
+      );
+    }
+    return aggregate(values.length, index -> keys[index], index -> values[index]);
+  }
+
+  /**
+   * Computes the statistics of each group of elements.
+   *
+   * @param elements    The elements.
+   * @param keyMapper   Maps each element to the key of its group. Null is a valid key.
+   * @param valueMapper Maps each element to its double value.
+   * @param <T>         Type of the elements.
+   * @param <K>         Type of the keys.
+   * @return The statistics of each group, by key.
+   */
+  public <T, K> Map<K, GroupAccumulator> compute(Collection<? extends T> elements,
+      Function<? super T, ? extends K> keyMapper, ToDoubleFunction<? super T> valueMapper) {
+    Objects.requireNonNull(elements);
+    Objects.requireNonNull(keyMapper);
+    Objects.requireNonNull(valueMapper);
+    List<? extends T> list = elements instanceof List && elements instanceof RandomAccess
+        ? (List<? extends T>) elements
+        : new ArrayList<>(elements);
+    return aggregate(
+        list.size(),
+        index -> keyMapper.apply(list.get(index)),
+        index -> valueMapper.applyAsDouble(list.get(index))
+    );
+  }
+
+  /**
+   * Creates an empty accumulator of the statistics of a group.
+   *
+   * @return The accumulator.
+   */
+  public GroupAccumulator newAccumulator() {
+    return new GroupAccumulator(this);
+  }
+
+  /**
+   * Returns the compression of the quantile sketches.
+   *
+   * @return The compression of the quantile sketches, 0 if they are not computed.
+   */
+  public double getQuantileSketchCompression() {
+    return quantileSketchCompression;
+  }
+
+  /**
+   * Returns the number of largest values retained per group.
+   *
+   * @return The number of largest values, 0 for none.
+   */
+  public int getTopMaxNumbers() {
+    return topMaxNumbers;
+  }
+
+  /**
+   * Returns the number of smallest values retained per group.
+   *
+   * @return The number of smallest values, 0 for none.
+   */
+  public int getTopMinNumbers() {
+    return topMinNumbers;
+  }
+
+  /**
+   * Returns the number of counters of the frequent values sketches.
+   *
+   * @return The number of counters, 0 if the frequent values are not tracked.
+   */
+  public int getFrequentValuesCapacity() {
+    return frequentValuesCapacity;
+  }
+
+  /**
+   * Aggregates indexed (key, value) pairs, partition by partition if the first chunk has many
+   * distinct keys. Each key and value is mapped once.
+   *
+   * @param length The number of pairs.
+   * @param keys   Returns the key of the pair at an index.
+   * @param values Returns the value of the pair at an index.
+   * @param <K>    Type of the keys.
+   * @return The statistics of each group, by key.
+   */
+  private <K> Map<K, GroupAccumulator> aggregate(int length, IntFunction<? extends K> keys,
+      IntToDoubleFunction values) {
+    ExecutionPolicy policy = StatisticsUtility.getExecutionPolicy();
+    boolean parallel = policy.isParallel(length);
+    if (length <= chunkSize) {
+      return policy.execute(() -> aggregateRange(0, length, keys, values, parallel));
+    }
+
+    // Counting the distinct keys of the first chunk stops as soon as there are enough to
+    // partition, and the keys mapped meanwhile are reused rather than mapped again.
+    List<K> sampledKeys = new ArrayList<>();
+    Set<K> distinctKeys = new HashSet<>();
+    while (sampledKeys.size() < chunkSize && distinctKeys.size() <= partitionThreshold) {
+      K key = keys.apply(sampledKeys.size());
+      sampledKeys.add(key);
+      distinctKeys.add(key);
+    }
+    int sampleLength = sampledKeys.size();
+    IntFunction<K> mappedKeys = index -> index < sampleLength
+        ? sampledKeys.get(index)
+        : keys.apply(index);
+    if (distinctKeys.size() <= partitionThreshold) {
+      return policy.execute(() -> aggregateRange(0, length, mappedKeys, values, parallel));
+    }
+    return policy.execute(() -> {
+      List<K> partitionedKeys = new ArrayList<>(Collections.nCopies(length, null));
+      double[] partitionedValues = new double[length];
+      int[] partitionEnds = partition(length, mappedKeys, values, partitionedKeys,
+          partitionedValues, policy);
+      List<Map<K, GroupAccumulator>> partitionGroups = policy
+          .configure(IntStream.range(0, partitionCount), length)
+          .mapToObj(partition -> aggregateRange(
+              partition == 0 ? 0 : partitionEnds[partition - 1],
+              partitionEnds[partition],
+              partitionedKeys::get,
+              index -> partitionedValues[index],
+              parallel
+          ))
+          .collect(Collectors.toList());
+
+      Map<K, GroupAccumulator> groups = new HashMap<>(
+          (int) Math.min(1 << 30, partitionGroups.stream().mapToLong(Map::size).sum() * 4 / 3 + 1)
+      );
+      partitionGroups.forEach(groups::putAll);
+      return groups;
+    });
+  }
+
+  /**
+   * Copies the pairs grouped by the partition of their key with a counting sort, in parallel
+   * chunks if the policy says so. The pairs of each partition remain in index order, and are
+   * read sequentially when the partition is aggregated. Each key and value is mapped once: the
+   * keys mapped by the counting sweep are kept for the copying sweep.
+   *
+   * @param length            The number of pairs.
+   * @param keys              Returns the key of the pair at an index.
+   * @param values            Returns the value of the pair at an index.
+   * @param partitionedKeys   Receives the keys of the pairs, by partition.
+   * @param partitionedValues Receives the values of the pairs, by partition.
+   * @param policy            The execution policy.
+   * @param <K>               Type of the keys.
+   * @return The position following the last pair of each partition.
+   */
+  private static <K> int[] partition(int length, IntFunction<? extends K> keys,
+      IntToDoubleFunction values, List<K> partitionedKeys, double[] partitionedValues,
+      ExecutionPolicy policy) {
+    List<K> mappedKeys = new ArrayList<>(Collections.nCopies(length, null));
+    byte[] partitions = new byte[length];
+    int chunkCount = (length - 1) / chunkSize + 1;
+    int[][] chunkCounts = new int[chunkCount][partitionCount];
+    policy.configure(IntStream.range(0, chunkCount), length).forEach(chunk -> {
+      int[] counts = chunkCounts[chunk];
+      int end = (int) Math.min(length, (long) (chunk + 1) * chunkSize);
+      for (int index = chunk * chunkSize; index < end; index++) {
+        K key = keys.apply(index);
+        int partition = getPartition(key);
+        mappedKeys.set(index, key);
+        partitions[index] = (byte) partition;
+        counts[partition]++;
+      }
+    });
+
+    // Turns the counts of each chunk into the position of its first pair of each partition.
+    int[] partitionEnds = new int[partitionCount];
+    int position = 0;
+    for (int partition = 0; partition < partitionCount; partition++) {
+      for (int[] counts : chunkCounts) {
+        int count = counts[partition];
+        counts[partition] = position;
+        position += count;
+      }
+      partitionEnds[partition] = position;
+    }
+
+    policy.configure(IntStream.range(0, chunkCount), length).forEach(chunk -> {
+      int[] positions = chunkCounts[chunk];
+      int end = (int) Math.min(length, (long) (chunk + 1) * chunkSize);
+      for (int index = chunk * chunkSize; index < end; index++) {
+        int pairPosition = positions[partitions[index]]++;
+        partitionedKeys.set(pairPosition, mappedKeys.get(index));
+        partitionedValues[pairPosition] = values.applyAsDouble(index);
+      }
+    });
+    return partitionEnds;
+  }
+
+  /**
+   * Returns the partition of a key. It is taken from the high bits of the scrambled hash code,
+   * since the hash tables of the partitions index their keys with the low bits.
+   *
+   * @param key The key.
+   * @return The partition of the key.
+   */
+  private static int getPartition(Object key) {
+    return (Objects.hashCode(key) * 0x9E3779B9) >>> partitionShift;
+  }
+
+  /**
+   * Aggregates a range of pairs in chunks, splitting it at a chunk boundary in halves until a
+   * single chunk remains and merging the groups of the second half into those of the first.
+   *
+   * @param from     The index of the first pair of the range.
+   * @param to       The index following the last pair of the range.
+   * @param keys     Returns the key of the pair at an index.
+   * @param values   Returns the value of the pair at an index.
+   * @param parallel Whether the halves are aggregated in parallel.
+   * @param <K>      Type of the keys.
+   * @return The statistics of each group of the range, by key.
+   */
+  private <K> Map<K, GroupAccumulator> aggregateRange(int from, int to,
+      IntFunction<? extends K> keys, IntToDoubleFunction values, boolean parallel) {
+    if (to - from <= chunkSize) {
+      Map<K, GroupAccumulator> groups = new HashMap<>();
+      for (int index = from; index < to; index++) {
+        K key = keys.apply(index);
+        GroupAccumulator group = groups.get(key);
+        if (group == null) {
+          group = newAccumulator();
+          groups.put(key, group);
+        }
+        group.accept(values.applyAsDouble(index));
+      }
+      return groups;
+    }
+
+    int chunkCount = (to - from - 1) / chunkSize + 1;
+    int middle = from + (chunkCount >>> 1) * chunkSize;
+    Map<K, GroupAccumulator> groups;
+    Map<K, GroupAccumulator> followingGroups;
+    if (parallel) {
+      ForkJoinTask<Map<K, GroupAccumulator>> followingTask = ForkJoinTask.adapt(
+          (Callable<Map<K, GroupAccumulator>>) () -> aggregateRange(
+              middle, to, keys, values, true
+          )
+      ).fork();
+      groups = aggregateRange(from, middle, keys, values, true);
+      followingGroups = followingTask.join();
+    } else {
+      groups = aggregateRange(from, middle, keys, values, false);
+      followingGroups = aggregateRange(middle, to, keys, values, false);
+    }
+    followingGroups.forEach((key, followingGroup) -> {
+      GroupAccumulator group = groups.putIfAbsent(key, followingGroup);
+      if (group != null) {
+        group.combine(followingGroup);
+      }
+    });
+    return groups;
+  }
+
+  /**
+   * Checks whether other grouped statistics compute the same statistics.
+   *
+   * @param other The other grouped statistics.
+   * @return Whether both compute the same statistics.
+   */
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof GroupedStatistics)) {
+      return false;
+    }
+    GroupedStatistics otherStatistics = (GroupedStatistics) other;
+    return Double.compare(quantileSketchCompression, otherStatistics.quantileSketchCompression)
+        == 0
+        && topMaxNumbers == otherStatistics.topMaxNumbers
+        && topMinNumbers == otherStatistics.topMinNumbers
+        && frequentValuesCapacity == otherStatistics.frequentValuesCapacity;
+  }
+
+  /**
+   * Computes the hash code of the grouped statistics.
+   *
+   * @return The hash code.
+   */
+  @Override
+  public int hashCode() {
+    return Objects.hash(quantileSketchCompression, topMaxNumbers, topMinNumbers,
+        frequentValuesCapacity);
+  }
+
+  /**
+   * Returns a string representation of the grouped statistics.
+   *
+   * @return The string representation of the grouped statistics.
+   */
+  @Override
+  public String toString() {
+    return String.format(
+        "%s{quantileSketchCompression=%s, topMaxNumbers=%d, topMinNumbers=%d, "
+            + "frequentValuesCapacity=%d}",
+        getClass().getSimpleName(), quantileSketchCompression, topMaxNumbers, topMinNumbers,
+        frequentValuesCapacity
+    );
+  }
+}
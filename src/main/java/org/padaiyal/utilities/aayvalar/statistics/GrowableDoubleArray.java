@@ -0,0 +1,86 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.function.DoubleConsumer;
+
+/**
+ * Array of primitive doubles that grows as values are added, without boxing them. Arrays filled
+ * by different threads can be appended to each other, so it can be used as the container of a
+ * parallel reduction that needs every value.
+ *
+ * <p>This class is not thread safe.
+ */
+final class GrowableDoubleArray implements DoubleConsumer {
+
+  /**
+   * Initial length of the array.
+   */
+  private static final int initialLength = 16;
+
+  /**
+   * The values added, followed by unused elements.
+   */
+  private double[] values = new double[initialLength];
+  /**
+   * Number of values added.
+   */
+  private int size;
+
+  /**
+   * Adds a value to the end of the array.
+   *
+   * @param value The value to add.
+   */
+  @Override
+  public void accept(double value) {
+    if (size == values.length) {
+      grow(size + 1);
+    }
+    values[size++] = value;
+  }
+
+  /**
+   * Adds the values of another array to the end of this one.
+   *
+   * @param other The array to append.
+   */
+  void append(GrowableDoubleArray other) {
+    if (size + other.size > values.length) {
+      grow(size + other.size);
+    }
+    System.arraycopy(other.values, 0, values, size, other.size);
+    size += other.size;
+  }
+
+  /**
+   * Returns the number of values added.
+   *
+   * @return The number of values added.
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Returns the array backing the values, whose first {@link #size()} elements are the values
+   * added. The array is not copied.
+   *
+   * @return The array backing the values.
+   */
+  double[] getValues() {
+    return values;
+  }
+
+  /**
+   * Grows the array to hold at least the provided number of values.
+   *
+   * @param minimumLength The minimum number of values to hold.
+   */
+  private void grow(int minimumLength) {
+    if (minimumLength < 0) {
+      throw new OutOfMemoryError();
+    }
+    long length = Math.max(minimumLength, 2L * values.length);
+    values = Arrays.copyOf(values, (int) Math.min(length, Integer.MAX_VALUE - 8));
+  }
+}
@@ -0,0 +1,108 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Objects;
+
+/**
+ * An element reported by an approximate frequency sketch, together with bounds on how often it
+ * actually occurred.
+ *
+ * @param <ValueT> Type of the element.
+ */
+public final class HeavyHitter<ValueT extends Number> {
+
+  /**
+   * The element.
+   */
+  private final ValueT value;
+  /**
+   * Estimated number of occurrences, never lower than the actual number of occurrences.
+   */
+  private final long count;
+  /**
+   * Maximum amount by which the estimated number of occurrences exceeds the actual one.
+   */
+  private final long error;
+
+  /**
+   * Creates a heavy hitter.
+   *
+   * @param value The element.
+   * @param count The estimated number of occurrences.
+   * @param error The maximum amount by which the estimate exceeds the actual number of
+   *              occurrences.
+   */
+  HeavyHitter(ValueT value, long count, long error) {
+    this.value = value;
+    this.count = count;
+    this.error = error;
+  }
+
+  /**
+   * Returns the element.
+   *
+   * @return The element.
+   */
+  public ValueT getValue() {
+    return value;
+  }
+
+  /**
+   * Returns the estimated number of occurrences. It is an upper bound of the actual number of
+   * occurrences.
+   *
+   * @return The estimated number of occurrences.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the maximum amount by which the estimated number of occurrences exceeds the actual
+   * one.
+   *
+   * @return The maximum overestimation.
+   */
+  public long getError() {
+    return error;
+  }
+
+  /**
+   * Returns the guaranteed number of occurrences, a lower bound of the actual number of
+   * occurrences.
+   *
+   * @return The guaranteed number of occurrences.
+   */
+  public long getGuaranteedCount() {
+    return count - error;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof HeavyHitter)) {
+      return false;
+    }
+    HeavyHitter<?> otherHeavyHitter = (HeavyHitter<?>) other;
+    return count == otherHeavyHitter.count
+        && error == otherHeavyHitter.error
+        && Objects.equals(value, otherHeavyHitter.value);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(value, count, error);
+  }
+
+  /**
+   * Returns a string representation of the heavy hitter.
+   *
+   * @return The string representation of the heavy hitter.
+   */
+  @Override
+  public String toString() {
+    return String.format("%s{value=%s, count=%d, error=%d}",
+        getClass().getSimpleName(), value, count, error);
+  }
+}
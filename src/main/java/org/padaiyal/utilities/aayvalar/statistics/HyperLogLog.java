@@ -0,0 +1,494 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.DoubleConsumer;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Estimates the number of distinct values added to it with the HyperLogLog algorithm, in a fixed
+ * amount of memory however many values are added. With a precision of p:
+ * <ul>
+ *   <li>The values are hashed into 64 bits. The first p bits select one of 2^p registers, which
+ *   retains the largest number of leading zeros, plus one, seen in the remaining bits.</li>
+ *   <li>The registers take 2^p bytes, 16 KiB with the default precision of 14.</li>
+ *   <li>The relative standard error of the estimate is about 1.04 / sqrt(2^p), 0.81% with the
+ *   default precision.</li>
+ * </ul>
+ * The 64 bit hashes never need the large range correction of the original algorithm, and the
+ * estimate is computed with the improved estimator of Ertl, which is unbiased from small to large
+ * cardinalities without the empirical bias correction tables of HyperLogLog++. For more
+ * information: https://arxiv.org/abs/1702.01284
+ *
+ * <p>Doubles are hashed from their bits, so they are distinguished the same way as
+ * {@link Double#equals(Object)}: all NaN values are the same value and 0.0 and -0.0 are different
+ * values. Longs are hashed from their own bits, so the long 1 and the double 1.0 are different
+ * values. Other types can be added by hashing them into 64 bits first.
+ *
+ * <p>Estimators of the same precision filled by different threads can be merged, so it can be
+ * used as the container of a parallel {@link java.util.stream.DoubleStream#collect} reduction.
+ * It can also be serialized into a compact binary form, which only lists the registers in use
+ * while few of them are.
+ *
+ * <p>This class is not thread safe.
+ */
+public class HyperLogLog implements DoubleConsumer {
+
+  static {
+    I18nUtility.addResourceBundle(
+        HyperLogLog.class,
+        HyperLogLog.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Smallest precision supported.
+   */
+  public static final int minPrecision = 4;
+  /**
+   * Largest precision supported.
+   */
+  public static final int maxPrecision = 18;
+  /**
+   * Default precision, which gives a relative standard error of 0.81% in 16 KiB.
+   */
+  public static final int defaultPrecision = 14;
+  /**
+   * Version of the serialized form written by {@link #toByteArray()}.
+   */
+  private static final int serializationVersion = 1;
+  /**
+   * Serialized form listing the registers in use.
+   */
+  private static final byte sparseFormat = 0;
+  /**
+   * Serialized form packing every register in 6 bits.
+   */
+  private static final byte denseFormat = 1;
+  /**
+   * Number of bits of a packed register, enough for the largest register value of 61.
+   */
+  private static final int registerBits = 6;
+
+  /**
+   * Number of bits of the hashes selecting the register.
+   */
+  private final int precision;
+  /**
+   * Largest number of leading zeros plus one seen by each register, 0 if none.
+   */
+  private final byte[] registers;
+
+  /**
+   * Creates an empty estimator with the default precision.
+   */
+  public HyperLogLog() {
+    this(defaultPrecision);
+  }
+
+  /**
+   * Creates an empty estimator.
+   *
+   * @param precision The number of bits selecting the register, between 4 and 18. Each
+   *                  additional bit doubles the memory used and divides the error by sqrt(2).
+   */
+  public HyperLogLog(int precision) {
+    validatePrecision(precision);
+    this.precision = precision;
+    this.registers = new byte[1 << precision];
+  }
+
+  /**
+   * Creates an empty estimator whose relative standard error is at most the provided one.
+   *
+   * @param maximumError The maximum relative standard error, between 0.00203125 and 0.26.
+   * @return The estimator.
+   */
+  public static HyperLogLog withMaximumError(double maximumError) {
+    return new HyperLogLog(getPrecision(maximumError));
+  }
+
+  /**
+   * Computes the smallest precision whose relative standard error is at most the provided one.
+   *
+   * @param maximumError The maximum relative standard error, between 0.00203125 and 0.26.
+   * @return The precision.
+   */
+  static int getPrecision(double maximumError) {
+    if (!(maximumError >= getRelativeStandardError(maxPrecision)
+        && maximumError <= getRelativeStandardError(minPrecision))) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "HyperLogLog.error.invalidMaximumError",
+              maximumError
+          )
+      );
+    }
+    int precision = minPrecision;
+    while (getRelativeStandardError(precision) > maximumError) {
+      precision++;
+    }
+    return precision;
+  }
+
+  /**
+   * Validates the precision of an estimator.
+   *
+   * @param precision The precision to validate.
+   */
+  static void validatePrecision(int precision) {
+    if (precision < minPrecision || precision > maxPrecision) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "HyperLogLog.error.invalidPrecision",
+              precision
+          )
+      );
+    }
+  }
+
+  /**
+   * Adds a double value.
+   *
+   * @param value The value to add.
+   */
+  public void add(double value) {
+    addHash(hash(Double.doubleToLongBits(value)));
+  }
+
+  /**
+   * Adds a long value.
+   *
+   * @param value The value to add.
+   */
+  public void add(long value) {
+    addHash(hash(value));
+  }
+
+  /**
+   * Adds a double value.
+   *
+   * @param value The value to add.
+   */
+  @Override
+  public void accept(double value) {
+    addHash(hash(Double.doubleToLongBits(value)));
+  }
+
+  /**
+   * Adds a value by its 64 bit hash. The estimate is only accurate if the hashes of the values
+   * are uniformly distributed over all 64 bits.
+   *
+   * @param hash The hash of the value to add.
+   */
+  public void addHash(long hash) {
+    int register = (int) (hash >>> (Long.SIZE - precision));
+    // The marker bit caps the rank at the number of hash bits left, plus one.
+    byte rank = (byte) (Long.numberOfLeadingZeros(hash << precision | 1L << (precision - 1)) + 1);
+    if (rank > registers[register]) {
+      registers[register] = rank;
+    }
+  }
+
+  /**
+   * Merges another estimator of the same precision into this one. This one then estimates the
+   * number of distinct values added to either. The other estimator is left unchanged.
+   *
+   * @param other The estimator to merge into this one.
+   */
+  public void merge(HyperLogLog other) {
+    Objects.requireNonNull(other);
+    if (other.precision != precision) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "HyperLogLog.error.incompatiblePrecision",
+              other.precision,
+              precision
+          )
+      );
+    }
+    for (int register = 0; register < registers.length; register++) {
+      if (other.registers[register] > registers[register]) {
+        registers[register] = other.registers[register];
+      }
+    }
+  }
+
+  /**
+   * Estimates the number of distinct values added.
+   *
+   * @return The estimated number of distinct values.
+   */
+  public long getDistinctCount() {
+    int maxRank = Long.SIZE - precision + 1;
+    int[] rankCounts = new int[maxRank + 1];
+    for (byte rank : registers) {
+      rankCounts[rank]++;
+    }
+    double registerCount = registers.length;
+    double harmonicSum = registerCount * tau(1 - rankCounts[maxRank] / registerCount);
+    for (int rank = maxRank - 1; rank >= 1; rank--) {
+      harmonicSum = 0.5 * (harmonicSum + rankCounts[rank]);
+    }
+    harmonicSum += registerCount * sigma(rankCounts[0] / registerCount);
+    return Math.round(registerCount * registerCount / (2 * Math.log(2)) / harmonicSum);
+  }
+
+  /**
+   * Returns the precision of the estimator.
+   *
+   * @return The number of bits of the hashes selecting the register.
+   */
+  public int getPrecision() {
+    return precision;
+  }
+
+  /**
+   * Returns the relative standard error of the estimates.
+   *
+   * @return The relative standard error.
+   */
+  public double getRelativeStandardError() {
+    return getRelativeStandardError(precision);
+  }
+
+  /**
+   * Checks whether no value was added.
+   *
+   * @return Whether no value was added.
+   */
+  public boolean isEmpty() {
+    for (byte rank : registers) {
+      if (rank != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Serializes the estimator into a compact binary form, which can be read back with
+   * {@link #fromByteArray(byte[])}. While few registers are in use, only those are listed, with
+   * their indices delta encoded in variable length integers. Otherwise every register is packed
+   * in 6 bits.
+   *
+   * @return The serialized estimator.
+   */
+  public byte[] toByteArray() {
+    ByteArrayOutputStream sparseRegisters = new ByteArrayOutputStream();
+    int denseLength = (registers.length * registerBits + Byte.SIZE - 1) / Byte.SIZE;
+    int previousRegister = -1;
+    for (int register = 0; register < registers.length; register++) {
+      if (registers[register] != 0) {
+        long entry = (long) (register - previousRegister - 1) << registerBits
+            | registers[register];
+        for (; entry >= 0x80; entry >>>= 7) {
+          sparseRegisters.write((int) (entry & 0x7F | 0x80));
+        }
+        sparseRegisters.write((int) entry);
+        previousRegister = register;
+        if (sparseRegisters.size() >= denseLength) {
+          break;
+        }
+      }
+    }
+
+    boolean sparse = sparseRegisters.size() < denseLength;
+    ByteBuffer byteBuffer = ByteBuffer.allocate(
+        Integer.BYTES + 2 + (sparse ? sparseRegisters.size() : denseLength)
+    );
+    byteBuffer.putInt(serializationVersion)
+        .put((byte) precision)
+        .put(sparse ? sparseFormat : denseFormat);
+    if (sparse) {
+      byteBuffer.put(sparseRegisters.toByteArray());
+    } else {
+      long bits = 0;
+      int bitCount = 0;
+      for (byte rank : registers) {
+        bits = bits << registerBits | rank;
+        bitCount += registerBits;
+        for (; bitCount >= Byte.SIZE; bitCount -= Byte.SIZE) {
+          byteBuffer.put((byte) (bits >>> (bitCount - Byte.SIZE)));
+        }
+      }
+      if (bitCount > 0) {
+        byteBuffer.put((byte) (bits << (Byte.SIZE - bitCount)));
+      }
+    }
+    return byteBuffer.array();
+  }
+
+  /**
+   * Deserializes an estimator written by {@link #toByteArray()}.
+   *
+   * @param bytes The serialized estimator.
+   * @return The estimator.
+   */
+  public static HyperLogLog fromByteArray(byte[] bytes) {
+    ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+    try {
+      int version = byteBuffer.getInt();
+      if (version != serializationVersion) {
+        throw new IllegalArgumentException(
+            I18nUtility.getFormattedString(
+                "HyperLogLog.error.unsupportedSerializationVersion",
+                version
+            )
+        );
+      }
+      int precision = byteBuffer.get();
+      if (precision < minPrecision || precision > maxPrecision) {
+        throw invalidSerializedEstimator(null);
+      }
+      HyperLogLog estimator = new HyperLogLog(precision);
+      byte[] registers = estimator.registers;
+      int maxRank = Long.SIZE - precision + 1;
+      byte format = byteBuffer.get();
+      if (format == sparseFormat) {
+        long register = -1;
+        while (byteBuffer.hasRemaining()) {
+          long entry = 0;
+          int shift = 0;
+          byte entryByte;
+          do {
+            entryByte = byteBuffer.get();
+            entry |= (long) (entryByte & 0x7F) << shift;
+            shift += 7;
+          } while (entryByte < 0 && shift < Long.SIZE);
+          register += (entry >>> registerBits) + 1;
+          int rank = (int) (entry & (1 << registerBits) - 1);
+          if (entryByte < 0 || register >= registers.length || rank == 0 || rank > maxRank) {
+            throw invalidSerializedEstimator(null);
+          }
+          registers[(int) register] = (byte) rank;
+        }
+      } else if (format == denseFormat) {
+        long bits = 0;
+        int bitCount = 0;
+        for (int register = 0; register < registers.length; register++) {
+          for (; bitCount < registerBits; bitCount += Byte.SIZE) {
+            bits = bits << Byte.SIZE | (byteBuffer.get() & 0xFF);
+          }
+          bitCount -= registerBits;
+          int rank = (int) (bits >>> bitCount) & (1 << registerBits) - 1;
+          if (rank > maxRank) {
+            throw invalidSerializedEstimator(null);
+          }
+          registers[register] = (byte) rank;
+        }
+        if (byteBuffer.hasRemaining()) {
+          throw invalidSerializedEstimator(null);
+        }
+      } else {
+        throw invalidSerializedEstimator(null);
+      }
+      return estimator;
+    } catch (BufferUnderflowException exception) {
+      throw invalidSerializedEstimator(exception);
+    }
+  }
+
+  /**
+   * Hashes a 64 bit key into 64 uniformly distributed bits with the finalizer of SplitMix64, so
+   * that keys which only differ in a few bits (such as consecutive integers, or the bits of small
+   * integral doubles) get unrelated hashes.
+   *
+   * @param key The key to hash.
+   * @return The hash of the key.
+   */
+  static long hash(long key) {
+    key += 0x9E3779B97F4A7C15L;
+    key = (key ^ (key >>> 30)) * 0xBF58476D1CE4E5B9L;
+    key = (key ^ (key >>> 27)) * 0x94D049BB133111EBL;
+    return key ^ (key >>> 31);
+  }
+
+  /**
+   * Computes the relative standard error of the estimates of a precision.
+   *
+   * @param precision The precision.
+   * @return The relative standard error.
+   */
+  private static double getRelativeStandardError(int precision) {
+    return 1.04 / Math.sqrt(1 << precision);
+  }
+
+  /**
+   * Computes the correction of the improved estimator for the registers that saw no value.
+   *
+   * @param fraction The fraction of registers that saw no value.
+   * @return The correction, infinite if no register saw a value.
+   */
+  private static double sigma(double fraction) {
+    if (fraction == 1) {
+      return Double.POSITIVE_INFINITY;
+    }
+    double power = fraction;
+    double weight = 1;
+    double sum = fraction;
+    double previousSum;
+    do {
+      power *= power;
+      previousSum = sum;
+      sum += power * weight;
+      weight += weight;
+    } while (sum != previousSum);
+    return sum;
+  }
+
+  /**
+   * Computes the correction of the improved estimator for the registers at the largest rank.
+   *
+   * @param fraction The fraction of registers below the largest rank.
+   * @return The correction.
+   */
+  private static double tau(double fraction) {
+    if (fraction == 0 || fraction == 1) {
+      return 0;
+    }
+    double root = fraction;
+    double weight = 1;
+    double sum = 1 - fraction;
+    double previousSum;
+    do {
+      root = Math.sqrt(root);
+      previousSum = sum;
+      weight *= 0.5;
+      sum -= (1 - root) * (1 - root) * weight;
+    } while (sum != previousSum);
+    return sum / 3;
+  }
+
+  /**
+   * Creates the exception thrown when bytes are not a serialized estimator.
+   *
+   * @param cause The cause of the exception, or null.
+   * @return The exception to throw.
+   */
+  private static IllegalArgumentException invalidSerializedEstimator(Throwable cause) {
+    return new IllegalArgumentException(
+        I18nUtility.getString("HyperLogLog.error.invalidSerializedEstimator"),
+        cause
+    );
+  }
+
+  /**
+   * Returns a string representation of the estimator.
+   *
+   * @return The string representation of the estimator.
+   */
+  @Override
+  public String toString() {
+    return String.format(
+        "%s{precision=%d, distinctCount=%d}",
+        getClass().getSimpleName(),
+        precision,
+        getDistinctCount()
+    );
+  }
+}
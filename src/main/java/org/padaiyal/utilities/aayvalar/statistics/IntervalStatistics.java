@@ -0,0 +1,174 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+/**
+ * Statistics of the values recorded by a {@link ConcurrentStatisticsRecorder} during an interval:
+ * their count, sum, mean, variance, extremes, and a {@link LogLinearHistogram} of them for
+ * percentiles.
+ */
+public final class IntervalStatistics {
+
+  /**
+   * Start of the interval, in nanoseconds as returned by {@link System#nanoTime()}.
+   */
+  private final long startTime;
+  /**
+   * End of the interval, in nanoseconds as returned by {@link System#nanoTime()}.
+   */
+  private final long endTime;
+  /**
+   * Number of values recorded.
+   */
+  private final long count;
+  /**
+   * Sum of the values recorded.
+   */
+  private final double sum;
+  /**
+   * Population variance of the values recorded.
+   */
+  private final double variance;
+  /**
+   * Histogram of the values recorded.
+   */
+  private final LogLinearHistogram histogram;
+
+  /**
+   * Creates the statistics of an interval.
+   *
+   * @param startTime The start of the interval.
+   * @param endTime   The end of the interval.
+   * @param count     The number of values recorded.
+   * @param sum       The sum of the values recorded.
+   * @param variance  The population variance of the values recorded.
+   * @param histogram The histogram of the values recorded.
+   */
+  IntervalStatistics(long startTime, long endTime, long count, double sum, double variance,
+      LogLinearHistogram histogram) {
+    this.startTime = startTime;
+    this.endTime = endTime;
+    this.count = count;
+    this.sum = sum;
+    this.variance = variance;
+    this.histogram = histogram;
+  }
+
+  /**
+   * Returns the start of the interval.
+   *
+   * @return The start, in nanoseconds as returned by {@link System#nanoTime()}.
+   */
+  public long getStartTime() {
+    return startTime;
+  }
+
+  /**
+   * Returns the end of the interval.
+   *
+   * @return The end, in nanoseconds as returned by {@link System#nanoTime()}.
+   */
+  public long getEndTime() {
+    return endTime;
+  }
+
+  /**
+   * Returns the number of values recorded during the interval.
+   *
+   * @return The number of values.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the sum of the values recorded during the interval.
+   *
+   * @return The sum, or 0 if no values have been recorded.
+   */
+  public double getSum() {
+    return sum;
+  }
+
+  /**
+   * Returns the arithmetic mean of the values recorded during the interval.
+   *
+   * @return The mean, or NaN if no values have been recorded.
+   */
+  public double getMean() {
+    return count == 0 ? Double.NaN : sum / count;
+  }
+
+  /**
+   * Returns the population variance of the values recorded during the interval.
+   *
+   * @return The variance, or NaN if no values have been recorded.
+   */
+  public double getVariance() {
+    return count == 0 ? Double.NaN : variance;
+  }
+
+  /**
+   * Returns the population standard deviation of the values recorded during the interval.
+   *
+   * @return The standard deviation, or NaN if no values have been recorded.
+   */
+  public double getStandardDeviation() {
+    return Math.sqrt(getVariance());
+  }
+
+  /**
+   * Returns the smallest value recorded during the interval.
+   *
+   * @return The minimum, or positive infinity if no values have been recorded.
+   */
+  public double getMin() {
+    return histogram.getMin();
+  }
+
+  /**
+   * Returns the largest value recorded during the interval.
+   *
+   * @return The maximum, or negative infinity if no values have been recorded.
+   */
+  public double getMax() {
+    return histogram.getMax();
+  }
+
+  /**
+   * Returns a percentile of the values recorded during the interval, within the precision of the
+   * histogram.
+   *
+   * @param percentile The percentile, between 0 and 100.
+   * @return The percentile, or NaN if no values have been recorded.
+   */
+  public double getPercentile(double percentile) {
+    return histogram.getPercentile(percentile);
+  }
+
+  /**
+   * Returns the histogram of the values recorded during the interval.
+   *
+   * @return The histogram, which belongs to these statistics.
+   */
+  public LogLinearHistogram getHistogram() {
+    return histogram;
+  }
+
+  /**
+   * Returns a string representation of the statistics.
+   *
+   * @return The string representation of the statistics.
+   */
+  @Override
+  public String toString() {
+    return String.format(
+        "%s{durationNanos=%d, count=%d, mean=%s, standardDeviation=%s, min=%s, max=%s}",
+        getClass().getSimpleName(),
+        endTime - startTime,
+        count,
+        getMean(),
+        getStandardDeviation(),
+        getMin(),
+        getMax()
+    );
+  }
+}
@@ -0,0 +1,533 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Histogram of non negative long values, such as latencies in nanoseconds, with a fixed relative
+ * precision over a high dynamic range, in the style of HdrHistogram. The buckets are log-linear:
+ * values are grouped by power of two, and each power of two is split into as many linear
+ * sub-buckets as needed for the requested number of significant decimal digits. For example, with
+ * 3 significant digits every value is counted in a bucket less than 0.1% wide, so the percentiles
+ * are within 0.1% of the exact ones, whether the values are microseconds or hours. For more
+ * information: http://hdrhistogram.org
+ *
+ * <p>Unlike {@link StatisticsUtility#getFrequencyDistribution(double[])}, which counts every
+ * distinct value, the memory used only depends on the range and the precision. Recording a value
+ * is O(1) and does not allocate, and histograms of the same precision can be merged and
+ * serialized compactly.
+ *
+ * <p>This class is not thread safe.
+ */
+public final class LogLinearHistogram {
+
+  static {
+    I18nUtility.addResourceBundle(
+        LogLinearHistogram.class,
+        LogLinearHistogram.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Largest number of significant digits supported.
+   */
+  public static final int maxSignificantDigits = 5;
+
+  /**
+   * Version of the binary format written by {@link #toByteArray()}.
+   */
+  private static final int serializationVersion = 1;
+
+  /**
+   * Number of significant decimal digits the values are counted with.
+   */
+  private final int significantDigits;
+  /**
+   * Largest value that can be recorded.
+   */
+  private final long highestTrackableValue;
+  /**
+   * Base two logarithm of the number of sub-buckets per power of two.
+   */
+  private final int subBucketCountMagnitude;
+  /**
+   * Base two logarithm of the number of sub-buckets of each bucket but the first one, which is
+   * half of the number of sub-buckets per power of two.
+   */
+  private final int subBucketHalfCountMagnitude;
+  /**
+   * Mask of the values counted in the first bucket.
+   */
+  private final long subBucketMask;
+  /**
+   * Counts of the sub-buckets.
+   */
+  private final long[] counts;
+  /**
+   * Number of values recorded.
+   */
+  private long totalCount;
+  /**
+   * Smallest value recorded.
+   */
+  private long min = Long.MAX_VALUE;
+  /**
+   * Largest value recorded.
+   */
+  private long max = Long.MIN_VALUE;
+
+  /**
+   * Creates an empty histogram.
+   *
+   * @param highestTrackableValue The largest value that can be recorded, at least 2.
+   * @param significantDigits     The number of significant decimal digits the values are
+   *                              counted with, between 0 and 5. Each digit multiplies the memory
+   *                              used by about 10.
+   */
+  public LogLinearHistogram(long highestTrackableValue, int significantDigits) {
+    if (significantDigits < 0 || significantDigits > maxSignificantDigits) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "LogLinearHistogram.error.invalidSignificantDigits",
+              significantDigits
+          )
+      );
+    }
+    if (highestTrackableValue < 2) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "LogLinearHistogram.error.invalidHighestTrackableValue",
+              highestTrackableValue
+          )
+      );
+    }
+    this.significantDigits = significantDigits;
+    this.highestTrackableValue = highestTrackableValue;
+    long largestValueWithSingleUnitResolution = 2 * (long) Math.pow(10, significantDigits);
+    subBucketCountMagnitude = 64 - Long.numberOfLeadingZeros(
+        largestValueWithSingleUnitResolution - 1);
+    subBucketHalfCountMagnitude = subBucketCountMagnitude - 1;
+    subBucketMask = (1L << subBucketCountMagnitude) - 1;
+    counts = new long[getCountsIndex(highestTrackableValue) + 1];
+  }
+
+  /**
+   * Records a value.
+   *
+   * @param value The value to record, between 0 and the highest trackable value.
+   */
+  public void record(long value) {
+    record(value, 1);
+  }
+
+  /**
+   * Records a value several times.
+   *
+   * @param value The value to record, between 0 and the highest trackable value.
+   * @param count The number of times to record the value, not negative.
+   */
+  public void record(long value, long count) {
+    validateValue(value);
+    if (count < 0) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "LogLinearHistogram.error.negativeCount",
+              count
+          )
+      );
+    }
+    if (count == 0) {
+      return;
+    }
+    counts[getCountsIndex(value)] += count;
+    totalCount += count;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+  }
+
+  /**
+   * Adds the values recorded in another histogram to this one.
+   *
+   * @param other The histogram to merge into this one, whose values should all be trackable by
+   *              this one and whose significant digits should be the same as this one's.
+   */
+  public void merge(LogLinearHistogram other) {
+    if (other.significantDigits != significantDigits) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "LogLinearHistogram.error.incompatibleHistogram",
+              other.significantDigits,
+              significantDigits
+          )
+      );
+    }
+    if (other.totalCount == 0) {
+      return;
+    }
+    if (other.max > highestTrackableValue) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "LogLinearHistogram.error.valueOutOfRange",
+              other.max,
+              highestTrackableValue
+          )
+      );
+    }
+    for (int index = 0; index < Math.min(counts.length, other.counts.length); index++) {
+      counts[index] += other.counts[index];
+    }
+    totalCount += other.totalCount;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+  }
+
+  /**
+   * Returns the number of values recorded.
+   *
+   * @return The number of values.
+   */
+  public long getTotalCount() {
+    return totalCount;
+  }
+
+  /**
+   * Returns the smallest value recorded.
+   *
+   * @return The minimum, or positive infinity if no values have been recorded.
+   */
+  public double getMin() {
+    return totalCount == 0 ? Double.POSITIVE_INFINITY : min;
+  }
+
+  /**
+   * Returns the largest value recorded.
+   *
+   * @return The maximum, or negative infinity if no values have been recorded.
+   */
+  public double getMax() {
+    return totalCount == 0 ? Double.NEGATIVE_INFINITY : max;
+  }
+
+  /**
+   * Returns the mean of the values recorded, counting each value as the middle of its bucket.
+   *
+   * @return The mean, or NaN if no values have been recorded.
+   */
+  public double getMean() {
+    if (totalCount == 0) {
+      return Double.NaN;
+    }
+    double sum = 0;
+    for (int index = 0; index < counts.length; index++) {
+      if (counts[index] != 0) {
+        sum += counts[index] * (getLowestValue(index) + (getBucketWidth(index) - 1) / 2.0);
+      }
+    }
+    return Math.min(max, Math.max(min, sum / totalCount));
+  }
+
+  /**
+   * Returns a percentile of the values recorded, which is the highest value of the bucket holding
+   * the value of that rank, within the precision of the histogram.
+   *
+   * @param percentile The percentile, between 0 and 100.
+   * @return The percentile, or NaN if no values have been recorded.
+   */
+  public double getPercentile(double percentile) {
+    return getPercentiles(percentile)[0];
+  }
+
+  /**
+   * Returns percentiles of the values recorded, which are the highest values of the buckets
+   * holding the values of their ranks, within the precision of the histogram.
+   *
+   * @param percentiles The percentiles, between 0 and 100.
+   * @return The percentiles in the same order as requested, or NaNs if no values have been
+   *     recorded.
+   */
+  public double[] getPercentiles(double... percentiles) {
+    StatisticsUtility.validatePercentiles(percentiles);
+    double[] result = new double[percentiles.length];
+    for (int percentileIndex = 0; percentileIndex < percentiles.length; percentileIndex++) {
+      if (totalCount == 0) {
+        result[percentileIndex] = Double.NaN;
+        continue;
+      }
+      long rank = Math.min(totalCount, Math.max(1,
+          (long) Math.ceil(percentiles[percentileIndex] / 100 * totalCount)));
+      long cumulativeCount = 0;
+      int index = 0;
+      while (cumulativeCount + counts[index] < rank) {
+        cumulativeCount += counts[index++];
+      }
+      long highestValue = getLowestValue(index) + getBucketWidth(index) - 1;
+      result[percentileIndex] = Math.min(max, Math.max(min, highestValue));
+    }
+    return result;
+  }
+
+  /**
+   * Returns the median of the values recorded, within the precision of the histogram.
+   *
+   * @return The median, or NaN if no values have been recorded.
+   */
+  public double getMedian() {
+    return getPercentile(50);
+  }
+
+  /**
+   * Returns the number of significant decimal digits the values are counted with.
+   *
+   * @return The number of significant digits.
+   */
+  public int getSignificantDigits() {
+    return significantDigits;
+  }
+
+  /**
+   * Returns the largest value that can be recorded.
+   *
+   * @return The highest trackable value.
+   */
+  public long getHighestTrackableValue() {
+    return highestTrackableValue;
+  }
+
+  /**
+   * Removes every value recorded.
+   */
+  public void clear() {
+    Arrays.fill(counts, 0);
+    totalCount = 0;
+    min = Long.MAX_VALUE;
+    max = Long.MIN_VALUE;
+  }
+
+  /**
+   * Serializes the histogram into a compact binary form, which can be read back with
+   * {@link #fromByteArray(byte[])}. The counts are written as variable length integers, and runs
+   * of empty buckets as a single negative integer.
+   *
+   * @return The serialized histogram.
+   */
+  public byte[] toByteArray() {
+    ByteBuffer byteBuffer = ByteBuffer.allocate(
+        Integer.BYTES * 2 + Long.BYTES * 3 + counts.length * 10
+    );
+    byteBuffer.putInt(serializationVersion)
+        .putInt(significantDigits)
+        .putLong(highestTrackableValue)
+        .putLong(min)
+        .putLong(max);
+    int index = 0;
+    while (index < counts.length) {
+      if (counts[index] != 0) {
+        putVariableLengthLong(byteBuffer, counts[index++]);
+        continue;
+      }
+      int emptyBuckets = 0;
+      while (index < counts.length && counts[index] == 0) {
+        emptyBuckets++;
+        index++;
+      }
+      putVariableLengthLong(byteBuffer, -emptyBuckets);
+    }
+    return Arrays.copyOf(byteBuffer.array(), byteBuffer.position());
+  }
+
+  /**
+   * Deserializes a histogram written by {@link #toByteArray()}.
+   *
+   * @param bytes The serialized histogram.
+   * @return The histogram.
+   */
+  public static LogLinearHistogram fromByteArray(byte[] bytes) {
+    ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+    try {
+      int version = byteBuffer.getInt();
+      if (version != serializationVersion) {
+        throw new IllegalArgumentException(
+            I18nUtility.getFormattedString(
+                "LogLinearHistogram.error.unsupportedSerializationVersion",
+                version
+            )
+        );
+      }
+      int significantDigits = byteBuffer.getInt();
+      LogLinearHistogram histogram = new LogLinearHistogram(byteBuffer.getLong(),
+          significantDigits);
+      histogram.min = byteBuffer.getLong();
+      histogram.max = byteBuffer.getLong();
+      int index = 0;
+      while (byteBuffer.hasRemaining()) {
+        long count = getVariableLengthLong(byteBuffer);
+        if (count < 0) {
+          index = Math.toIntExact(index - count);
+        } else {
+          histogram.counts[index++] = count;
+          histogram.totalCount += count;
+        }
+      }
+      if (index != histogram.counts.length) {
+        throw new IllegalArgumentException(
+            I18nUtility.getString("LogLinearHistogram.error.invalidSerializedHistogram")
+        );
+      }
+      return histogram;
+    } catch (BufferUnderflowException | IndexOutOfBoundsException
+        | ArithmeticException exception) {
+      throw new IllegalArgumentException(
+          I18nUtility.getString("LogLinearHistogram.error.invalidSerializedHistogram"),
+          exception
+      );
+    }
+  }
+
+  /**
+   * Returns a string representation of the histogram.
+   *
+   * @return The string representation of the histogram.
+   */
+  @Override
+  public String toString() {
+    return String.format(
+        "%s{significantDigits=%d, highestTrackableValue=%d, totalCount=%d, min=%s, max=%s}",
+        getClass().getSimpleName(),
+        significantDigits,
+        highestTrackableValue,
+        totalCount,
+        getMin(),
+        getMax()
+    );
+  }
+
+  /**
+   * Validates that a value can be recorded.
+   *
+   * @param value The value to validate.
+   */
+  void validateValue(long value) {
+    if (value < 0 || value > highestTrackableValue) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "LogLinearHistogram.error.valueOutOfRange",
+              value,
+              highestTrackableValue
+          )
+      );
+    }
+  }
+
+  /**
+   * Returns the number of sub-buckets of the histogram.
+   *
+   * @return The length of the counts.
+   */
+  int getCountsLength() {
+    return counts.length;
+  }
+
+  /**
+   * Adds counts of values recorded elsewhere to the histogram.
+   *
+   * @param bucketCounts The counts of the sub-buckets, laid out as this histogram's.
+   * @param min          The smallest value counted.
+   * @param max          The largest value counted.
+   */
+  void addCounts(long[] bucketCounts, long min, long max) {
+    long addedCount = 0;
+    for (int index = 0; index < counts.length; index++) {
+      counts[index] += bucketCounts[index];
+      addedCount += bucketCounts[index];
+    }
+    if (addedCount > 0) {
+      totalCount += addedCount;
+      this.min = Math.min(this.min, min);
+      this.max = Math.max(this.max, max);
+    }
+  }
+
+  /**
+   * Returns the index of the sub-bucket counting a value.
+   *
+   * @param value The value, between 0 and the highest trackable value.
+   * @return The index in the counts.
+   */
+  int getCountsIndex(long value) {
+    int bucketIndex = 64 - Long.numberOfLeadingZeros(value | subBucketMask)
+        - subBucketCountMagnitude;
+    int subBucketIndex = (int) (value >>> bucketIndex);
+    return (bucketIndex << subBucketHalfCountMagnitude) + subBucketIndex;
+  }
+
+  /**
+   * Returns the base two logarithm of the width of a sub-bucket.
+   *
+   * @param index The index of the sub-bucket in the counts.
+   * @return The index of the power of two bucket the sub-bucket belongs to.
+   */
+  private int getBucketIndex(int index) {
+    return Math.max(0, (index >> subBucketHalfCountMagnitude) - 1);
+  }
+
+  /**
+   * Returns the lowest value counted in a sub-bucket.
+   *
+   * @param index The index of the sub-bucket in the counts.
+   * @return The lowest value of the sub-bucket.
+   */
+  private long getLowestValue(int index) {
+    int bucketIndex = getBucketIndex(index);
+    return (long) (index - (bucketIndex << subBucketHalfCountMagnitude)) << bucketIndex;
+  }
+
+  /**
+   * Returns the number of distinct values counted in a sub-bucket.
+   *
+   * @param index The index of the sub-bucket in the counts.
+   * @return The width of the sub-bucket.
+   */
+  private long getBucketWidth(int index) {
+    return 1L << getBucketIndex(index);
+  }
+
+  /**
+   * Writes a long as a zigzag encoded variable length integer, which takes one byte per seven
+   * significant bits.
+   *
+   * @param byteBuffer The buffer to write to.
+   * @param value      The value to write.
+   */
+  private static void putVariableLengthLong(ByteBuffer byteBuffer, long value) {
+    long zigzag = (value << 1) ^ (value >> 63);
+    while ((zigzag & ~0x7FL) != 0) {
+      byteBuffer.put((byte) ((zigzag & 0x7F) | 0x80));
+      zigzag >>>= 7;
+    }
+    byteBuffer.put((byte) zigzag);
+  }
+
+  /**
+   * Reads a long written by {@link #putVariableLengthLong(ByteBuffer, long)}.
+   *
+   * @param byteBuffer The buffer to read from.
+   * @return The value read.
+   */
+  private static long getVariableLengthLong(ByteBuffer byteBuffer) {
+    long zigzag = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte currentByte = byteBuffer.get();
+      zigzag |= (long) (currentByte & 0x7F) << shift;
+      if (currentByte >= 0) {
+        return (zigzag >>> 1) ^ -(zigzag & 1);
+      }
+    }
+    throw new IllegalArgumentException(
+        I18nUtility.getString("LogLinearHistogram.error.invalidSerializedHistogram")
+    );
+  }
+}
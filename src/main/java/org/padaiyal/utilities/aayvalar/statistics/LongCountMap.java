@@ -0,0 +1,331 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+/**
+ * Counts the occurrences of primitive long keys in an open addressing hash table with linear
+ * probing. Neither keys nor counts are boxed, so counting a value allocates nothing unless the
+ * table needs to grow. Maps filled by different threads can be merged, so it can be used as the
+ * container of a parallel {@link java.util.stream.LongStream#collect} reduction.
+ *
+ * <p>This class is not thread safe.
+ */
+public class LongCountMap {
+
+  /**
+   * Initial number of slots in the table.
+   */
+  private static final int defaultCapacity = 16;
+
+  /**
+   * Keys of the occupied slots.
+   */
+  private long[] keys;
+  /**
+   * Counts of the occupied slots. A slot is empty when its count is 0.
+   */
+  private long[] counts;
+  /**
+   * Number of distinct keys in the map.
+   */
+  private int size;
+  /**
+   * Total of all the counts in the map.
+   */
+  private long totalCount;
+
+  /**
+   * Consumes the entries of a map.
+   */
+  @FunctionalInterface
+  public interface EntryConsumer {
+
+    /**
+     * Consumes an entry of the map.
+     *
+     * @param key   The key of the entry.
+     * @param count The number of occurrences of the key.
+     */
+    void accept(long key, long count);
+  }
+
+  /**
+   * Creates an empty map.
+   */
+  public LongCountMap() {
+    keys = new long[defaultCapacity];
+    counts = new long[defaultCapacity];
+  }
+
+  /**
+   * Counts one occurrence of a key.
+   *
+   * @param key The key to count.
+   */
+  public void add(long key) {
+    add(key, 1);
+  }
+
+  /**
+   * Counts several occurrences of a key.
+   *
+   * @param key   The key to count.
+   * @param count The number of occurrences to count, greater than 0.
+   */
+  public void add(long key, long count) {
+    int mask = keys.length - 1;
+    int slot = hash(key) & mask;
+    while (counts[slot] != 0) {
+      if (keys[slot] == key) {
+        counts[slot] += count;
+        totalCount += count;
+        return;
+      }
+      slot = (slot + 1) & mask;
+    }
+    keys[slot] = key;
+    counts[slot] = count;
+    totalCount += count;
+    if (++size * 2 > keys.length) {
+      resize(keys.length * 2);
+    }
+  }
+
+  /**
+   * Returns the number of occurrences counted for a key.
+   *
+   * @param key The key to look up.
+   * @return The number of occurrences of the key, 0 if it wasn't counted.
+   */
+  public long get(long key) {
+    int mask = keys.length - 1;
+    int slot = hash(key) & mask;
+    while (counts[slot] != 0) {
+      if (keys[slot] == key) {
+        return counts[slot];
+      }
+      slot = (slot + 1) & mask;
+    }
+    return 0;
+  }
+
+  /**
+   * Adds the counts of another map to this one.
+   *
+   * @param other The map to merge into this one.
+   */
+  public void merge(LongCountMap other) {
+    other.forEach(this::add);
+  }
+
+  /**
+   * Returns the number of distinct keys counted.
+   *
+   * @return The number of distinct keys counted.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the total number of occurrences counted.
+   *
+   * @return The total number of occurrences counted.
+   */
+  public long getTotalCount() {
+    return totalCount;
+  }
+
+  /**
+   * Performs an action for each key counted, in no particular order.
+   *
+   * @param consumer The action to perform.
+   */
+  public void forEach(EntryConsumer consumer) {
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (counts[slot] != 0) {
+        consumer.accept(keys[slot], counts[slot]);
+      }
+    }
+  }
+
+  /**
+   * Returns the keys counted, in no particular order.
+   *
+   * @return The keys counted.
+   */
+  public long[] keys() {
+    long[] distinctKeys = new long[size];
+    int index = 0;
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (counts[slot] != 0) {
+        distinctKeys[index++] = keys[slot];
+      }
+    }
+    return distinctKeys;
+  }
+
+  /**
+   * Returns the most frequent keys, most frequent first. The keys are retained in a bounded heap
+   * while scanning the table, so only the requested number of entries are ever sorted. Keys with
+   * equal counts are returned in no particular order.
+   *
+   * @param topNumbers The number of keys to return.
+   * @return The most frequent keys.
+   */
+  public long[] getTopFrequentKeys(int topNumbers) {
+    int[] heap = new int[Math.min(topNumbers, size)];
+    int heapSize = 0;
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (counts[slot] == 0) {
+        continue;
+      }
+      if (heapSize < heap.length) {
+        heap[heapSize] = slot;
+        siftUp(heap, heapSize++);
+      } else if (heapSize > 0 && counts[slot] > counts[heap[0]]) {
+        heap[0] = slot;
+        siftDown(heap, heapSize);
+      }
+    }
+
+    long[] topKeys = new long[heapSize];
+    for (int index = heapSize - 1; index >= 0; index--) {
+      topKeys[index] = keys[heap[0]];
+      heap[0] = heap[index];
+      siftDown(heap, index);
+    }
+    return topKeys;
+  }
+
+  /**
+   * Moves the slot at the provided heap index up until the heap, ordered by ascending count, is
+   * restored.
+   *
+   * @param heap  The heap of slots.
+   * @param index The index of the slot to move.
+   */
+  private void siftUp(int[] heap, int index) {
+    int slot = heap[index];
+    while (index > 0) {
+      int parent = (index - 1) >>> 1;
+      if (counts[heap[parent]] <= counts[slot]) {
+        break;
+      }
+      heap[index] = heap[parent];
+      index = parent;
+    }
+    heap[index] = slot;
+  }
+
+  /**
+   * Moves the root slot down until the heap, ordered by ascending count, is restored.
+   *
+   * @param heap     The heap of slots.
+   * @param heapSize The number of slots in the heap.
+   */
+  private void siftDown(int[] heap, int heapSize) {
+    if (heapSize == 0) {
+      return;
+    }
+    int index = 0;
+    int slot = heap[0];
+    int half = heapSize >>> 1;
+    while (index < half) {
+      int child = 2 * index + 1;
+      int right = child + 1;
+      if (right < heapSize && counts[heap[right]] < counts[heap[child]]) {
+        child = right;
+      }
+      if (counts[slot] <= counts[heap[child]]) {
+        break;
+      }
+      heap[index] = heap[child];
+      index = child;
+    }
+    heap[index] = slot;
+  }
+
+  /**
+   * Rehashes every entry into a table with the provided number of slots.
+   *
+   * @param capacity The new number of slots, a power of 2.
+   */
+  private void resize(int capacity) {
+    long[] oldKeys = keys;
+    long[] oldCounts = counts;
+    keys = new long[capacity];
+    counts = new long[capacity];
+    int mask = capacity - 1;
+    for (int oldSlot = 0; oldSlot < oldKeys.length; oldSlot++) {
+      if (oldCounts[oldSlot] != 0) {
+        int slot = hash(oldKeys[oldSlot]) & mask;
+        while (counts[slot] != 0) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = oldKeys[oldSlot];
+        counts[slot] = oldCounts[oldSlot];
+      }
+    }
+  }
+
+  /**
+   * Mixes all the bits of a key into a hash, so that keys which only differ in their high bits
+   * (such as the bits of small integral doubles) are spread over the table.
+   *
+   * @param key The key to hash.
+   * @return The hash of the key.
+   */
+  static int hash(long key) {
+    key ^= key >>> 33;
+    key *= 0xff51afd7ed558ccdL;
+    key ^= key >>> 33;
+    key *= 0xc4ceb9fe1a85ec53L;
+    key ^= key >>> 33;
+    return (int) key;
+  }
+
+  /**
+   * Returns a string representation of the count map.
+   *
+   * @return The string representation of the count map.
+   */
+  @Override
+  public String toString() {
+    StringBuilder stringBuilder = new StringBuilder("{");
+    forEach((key, count) -> stringBuilder.append(stringBuilder.length() > 1 ? ", " : "")
+        .append(key)
+        .append('=')
+        .append(count));
+    return stringBuilder.append('}').toString();
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof LongCountMap)) {
+      return false;
+    }
+    LongCountMap otherMap = (LongCountMap) other;
+    if (size != otherMap.size || totalCount != otherMap.totalCount) {
+      return false;
+    }
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (counts[slot] != 0 && otherMap.get(keys[slot]) != counts[slot]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int hashCode = 0;
+    for (int slot = 0; slot < keys.length; slot++) {
+      if (counts[slot] != 0) {
+        hashCode += hash(keys[slot]) ^ Long.hashCode(counts[slot]);
+      }
+    }
+    return hashCode;
+  }
+}
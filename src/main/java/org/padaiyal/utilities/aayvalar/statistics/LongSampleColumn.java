@@ -0,0 +1,121 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.Objects;
+import java.util.stream.LongStream;
+
+/**
+ * {@link SampleColumn} of longs. The statistics are those of the values converted to doubles, like
+ * the {@code long[]} variants of the {@link StatisticsUtility} metrics compute them.
+ */
+public final class LongSampleColumn extends SampleColumn {
+
+  /**
+   * Creates an empty column.
+   */
+  public LongSampleColumn() {
+    super(Long.BYTES);
+  }
+
+  /**
+   * Appends a value.
+   *
+   * @param value The value to append.
+   */
+  public void add(long value) {
+    long index = append(1);
+    ((LongBuffer) getRegion(index)).put(getRegionOffset(index), value);
+  }
+
+  /**
+   * Appends the values of an array.
+   *
+   * @param values The values to append.
+   */
+  public void addAll(long[] values) {
+    Objects.requireNonNull(values);
+    addAll(values, 0, values.length);
+  }
+
+  /**
+   * Appends the values of a range of an array.
+   *
+   * @param values The array holding the values to append.
+   * @param offset The index of the first value in the range.
+   * @param length The number of values in the range.
+   */
+  public void addAll(long[] values, int offset, int length) {
+    Objects.requireNonNull(values);
+    Objects.checkFromIndexSize(offset, length, values.length);
+    long index = append(length);
+    int copied = 0;
+    while (copied < length) {
+      int regionOffset = getRegionOffset(index + copied);
+      int pieceLength = Math.min(length - copied, regionLength - regionOffset);
+      ((LongBuffer) getRegion(index + copied))
+          .put(regionOffset, values, offset + copied, pieceLength);
+      copied += pieceLength;
+    }
+  }
+
+  /**
+   * Appends the values of a stream, in order.
+   *
+   * @param values The stream of the values to append.
+   */
+  public void addAll(LongStream values) {
+    Objects.requireNonNull(values);
+    values.forEachOrdered(this::add);
+  }
+
+  /**
+   * Returns a value.
+   *
+   * @param index The index of the value.
+   * @return The value.
+   */
+  public long get(long index) {
+    validateIndex(index);
+    return ((LongBuffer) getRegion(index)).get(getRegionOffset(index));
+  }
+
+  /**
+   * Creates the view of its type of a new buffer.
+   *
+   * @param bytes The new buffer.
+   * @return The view of the buffer.
+   */
+  @Override
+  Buffer createRegion(ByteBuffer bytes) {
+    return bytes.asLongBuffer();
+  }
+
+  /**
+   * Copies a range of values, which lies within a chunk, into a buffer.
+   *
+   * @param first  The index of the first value of the range.
+   * @param length The number of values of the range.
+   * @param values The buffer to copy the values into.
+   */
+  @Override
+  void read(long first, int length, double[] values) {
+    LongBuffer region = (LongBuffer) getRegion(first);
+    int regionOffset = getRegionOffset(first);
+    for (int index = 0; index < length; index++) {
+      values[index] = region.get(regionOffset + index);
+    }
+  }
+
+  /**
+   * Returns a value.
+   *
+   * @param index The index of the value, which should be less than the count.
+   * @return The value, converted to double.
+   */
+  @Override
+  double getAsDouble(long index) {
+    return ((LongBuffer) getRegion(index)).get(getRegionOffset(index));
+  }
+}
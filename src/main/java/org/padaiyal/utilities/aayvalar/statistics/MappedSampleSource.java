@@ -0,0 +1,209 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.Objects;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Samples stored in a binary file as consecutive little endian doubles or longs, whose statistics
+ * are computed without loading the file onto the heap:
+ * <pre>{@code
+ * MappedSampleSource latencies = MappedSampleSource.ofLongs(Path.of("latencies.bin"));
+ * double mean = latencies.getMean(MeanType.ARITHMETIC);
+ * double[] percentiles = latencies.getPercentiles(50, 99, 99.9);
+ * }</pre>
+ * The file is memory mapped and its statistics are computed chunk by chunk, in parallel if the
+ * execution policy of {@link StatisticsUtility} says so. Every metric is identical to that of the
+ * equivalent array. Longs are converted to doubles, like the {@code long[]} variants of the
+ * metrics do. The metrics without a method here are computed by passing {@link #stream()} to
+ * their {@link java.util.stream.DoubleStream} variant in {@link StatisticsUtility}.
+ *
+ * <p>The file should not be modified while the source is in use.
+ */
+public final class MappedSampleSource extends ChunkedSampleSource {
+
+  static {
+    I18nUtility.addResourceBundle(
+        MappedSampleSource.class,
+        MappedSampleSource.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Number of bytes of each value.
+   */
+  private static final int valueSize = Long.BYTES;
+  /**
+   * Base 2 logarithm of the number of values of each mapped region. A single mapping can't exceed
+   * 2 GiB, so larger files are mapped in 1 GiB regions.
+   */
+  private static final int defaultRegionShift = 27;
+  /**
+   * Mapped regions of the file, as doubles. Null for files of longs.
+   */
+  private final DoubleBuffer[] doubleRegions;
+  /**
+   * Mapped regions of the file, as longs. Null for files of doubles.
+   */
+  private final LongBuffer[] longRegions;
+  /**
+   * Base 2 logarithm of the number of values of each region.
+   */
+  private final int regionShift;
+  /**
+   * Number of values in the file.
+   */
+  private final long count;
+
+  /**
+   * Creates a source over mapped regions.
+   *
+   * @param doubleRegions The regions as doubles, or null.
+   * @param longRegions   The regions as longs, or null.
+   * @param regionShift   The base 2 logarithm of the number of values of each region.
+   * @param count         The number of values.
+   */
+  private MappedSampleSource(DoubleBuffer[] doubleRegions, LongBuffer[] longRegions,
+      int regionShift, long count) {
+    this.doubleRegions = doubleRegions;
+    this.longRegions = longRegions;
+    this.regionShift = regionShift;
+    this.count = count;
+  }
+
+  /**
+   * Maps a file of little endian doubles.
+   *
+   * @param path The path of the file.
+   * @return The source of the values in the file.
+   * @throws IOException When the file can't be read.
+   */
+  public static MappedSampleSource ofDoubles(Path path) throws IOException {
+    return map(path, false, defaultRegionShift);
+  }
+
+  /**
+   * Maps a file of little endian longs.
+   *
+   * @param path The path of the file.
+   * @return The source of the values in the file.
+   * @throws IOException When the file can't be read.
+   */
+  public static MappedSampleSource ofLongs(Path path) throws IOException {
+    return map(path, true, defaultRegionShift);
+  }
+
+  /**
+   * Maps a file in regions of the provided size. The mappings stay valid after the channel is
+   * closed.
+   *
+   * @param path        The path of the file.
+   * @param longValues  True if the file holds longs, false if it holds doubles.
+   * @param regionShift The base 2 logarithm of the number of values of each region, which should
+   *                    hold whole chunks.
+   * @return The source of the values in the file.
+   * @throws IOException When the file can't be read.
+   */
+  static MappedSampleSource map(Path path, boolean longValues, int regionShift)
+      throws IOException {
+    Objects.requireNonNull(path);
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size % valueSize != 0) {
+        throw new IllegalArgumentException(
+            I18nUtility.getFormattedString(
+                "MappedSampleSource.error.invalidFileSize",
+                size
+            )
+        );
+      }
+      long regionSize = (long) valueSize << regionShift;
+      int regionCount = Math.toIntExact((size + regionSize - 1) / regionSize);
+      DoubleBuffer[] doubleRegions = longValues ? null : new DoubleBuffer[regionCount];
+      LongBuffer[] longRegions = longValues ? new LongBuffer[regionCount] : null;
+      for (int region = 0; region < regionCount; region++) {
+        long position = region * regionSize;
+        ByteBuffer bytes = channel
+            .map(MapMode.READ_ONLY, position, Math.min(regionSize, size - position))
+            .order(ByteOrder.LITTLE_ENDIAN);
+        if (longValues) {
+          longRegions[region] = bytes.asLongBuffer();
+        } else {
+          doubleRegions[region] = bytes.asDoubleBuffer();
+        }
+      }
+      return new MappedSampleSource(doubleRegions, longRegions, regionShift, size / valueSize);
+    }
+  }
+
+  /**
+   * Returns the number of values.
+   *
+   * @return The number of values.
+   */
+  @Override
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Returns a string representation of the source.
+   *
+   * @return The string representation of the source.
+   */
+  @Override
+  public String toString() {
+    return String.format(
+        "%s{valueType=%s, count=%d}",
+        getClass().getSimpleName(),
+        longRegions != null ? "long" : "double",
+        count
+    );
+  }
+
+  /**
+   * Copies a range of values, which lies within a chunk, into a buffer.
+   *
+   * @param first  The index of the first value of the range.
+   * @param length The number of values of the range.
+   * @param values The buffer to copy the values into.
+   */
+  @Override
+  void read(long first, int length, double[] values) {
+    int region = (int) (first >>> regionShift);
+    int index = (int) (first & ((1L << regionShift) - 1));
+    if (longRegions == null) {
+      doubleRegions[region].get(index, values, 0, length);
+    } else {
+      LongBuffer longs = longRegions[region];
+      for (int offset = 0; offset < length; offset++) {
+        values[offset] = longs.get(index + offset);
+      }
+    }
+  }
+
+  /**
+   * Returns a value.
+   *
+   * @param index The index of the value, which should be less than the count.
+   * @return The value, converted to double.
+   */
+  @Override
+  double getAsDouble(long index) {
+    int region = (int) (index >>> regionShift);
+    int offset = (int) (index & ((1L << regionShift) - 1));
+    return longRegions == null
+        ? doubleRegions[region].get(offset)
+        : longRegions[region].get(offset);
+  }
+}
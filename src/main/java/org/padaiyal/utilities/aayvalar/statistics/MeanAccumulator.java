@@ -0,0 +1,77 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * Accumulates the arithmetic, geometric or harmonic mean of a sequence of values by summing the
+ * values, their logarithms or their reciprocals with compensated summation. Partial results can
+ * be merged, which makes this usable as the container of a parallel reduction.
+ *
+ * <p>This class is not thread safe.
+ */
+final class MeanAccumulator implements DoubleConsumer {
+
+  /**
+   * The type of mean accumulated.
+   */
+  private final MeanType meanType;
+  /**
+   * Sum of the terms of the values.
+   */
+  private final CompensatedSum sum = new CompensatedSum();
+  /**
+   * Number of values accumulated.
+   */
+  private long count;
+
+  /**
+   * Creates an empty accumulator.
+   *
+   * @param meanType The type of mean to accumulate, which should not be DONOTUSE.
+   */
+  MeanAccumulator(MeanType meanType) {
+    this.meanType = meanType;
+  }
+
+  /**
+   * Adds a value to the mean.
+   *
+   * @param value The value to add.
+   */
+  @Override
+  public void accept(double value) {
+    count++;
+    sum.accept(switch (meanType) {
+      case GEOMETRIC -> Math.log(value);
+      case HARMONIC -> 1 / value;
+      default -> value;
+    });
+  }
+
+  /**
+   * Merges the values accumulated by another accumulator of the same type into this one.
+   *
+   * @param other The accumulator to merge into this one.
+   */
+  void merge(MeanAccumulator other) {
+    count += other.count;
+    sum.merge(other.sum);
+  }
+
+  /**
+   * Returns the mean of the values accumulated.
+   *
+   * @return The mean, or NaN if no values have been accumulated.
+   */
+  double getMean() {
+    if (count == 0) {
+      return Double.NaN;
+    }
+    double termSum = sum.getSum();
+    return switch (meanType) {
+      case GEOMETRIC -> Math.exp(termSum / count);
+      case HARMONIC -> count / termSum;
+      default -> termSum / count;
+    };
+  }
+}
@@ -0,0 +1,330 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * Accumulates the count, minimum, maximum, mean and the second, third and fourth central moments
+ * of a sequence of values in a single pass. Values are added using Welford's online update and
+ * partial results are merged using Chan et al.'s pairwise update, which makes this usable as the
+ * mutable container of a parallel reduction, for example:
+ * <pre>{@code
+ * MomentsAccumulator moments = doubleStream.collect(
+ *     MomentsAccumulator::new,
+ *     MomentsAccumulator::accept,
+ *     MomentsAccumulator::combine
+ * );
+ * }</pre>
+ * For more information: https://en.wikipedia.org/wiki/Algorithms_for_calculating_variance
+ *
+ * <p>This class is not thread safe.
+ */
+public class MomentsAccumulator implements DoubleConsumer {
+
+  /**
+   * Number of values accumulated.
+   */
+  private long count;
+  /**
+   * Smallest value accumulated.
+   */
+  private double min = Double.POSITIVE_INFINITY;
+  /**
+   * Largest value accumulated.
+   */
+  private double max = Double.NEGATIVE_INFINITY;
+  /**
+   * Arithmetic mean of the values accumulated.
+   */
+  private double mean;
+  /**
+   * Sum of the squared deviations from the mean.
+   */
+  private double m2;
+  /**
+   * Sum of the cubed deviations from the mean.
+   */
+  private double m3;
+  /**
+   * Sum of the fourth powers of the deviations from the mean.
+   */
+  private double m4;
+
+  /**
+   * Accumulates the moments of a range of an array, such as a chunk of a parallel reduction, in
+   * two sweeps over the range while it is in cache. The mean comes from a compensated sum and the
+   * central moments are sums of the deviations from it, so unlike adding the values one by one,
+   * the rounding errors of a running mean don't build up in the moments.
+   *
+   * @param values The array to accumulate the moments of.
+   * @param from   The index of the first element in the range, inclusive.
+   * @param to     The index of the last element in the range, exclusive.
+   * @return The moments of the range.
+   */
+  static MomentsAccumulator of(double[] values, int from, int to) {
+    return of(values, from, to, DoubleReduction.sumChunk(values, from, to).getSum());
+  }
+
+  /**
+   * Accumulates the moments of a range of an array whose compensated sum is already known, in a
+   * single sweep over the range.
+   *
+   * @param values   The array to accumulate the moments of.
+   * @param from     The index of the first element in the range, inclusive.
+   * @param to       The index of the last element in the range, exclusive.
+   * @param rangeSum The compensated sum of the range.
+   * @return The moments of the range.
+   */
+  static MomentsAccumulator of(double[] values, int from, int to, double rangeSum) {
+    MomentsAccumulator moments = new MomentsAccumulator();
+    if (from == to) {
+      return moments;
+    }
+    long length = to - from;
+    double rangeMean = rangeSum / length;
+    if (!Double.isFinite(rangeMean)) {
+      // Infinite and NaN values have no finite deviations, so they are added one by one.
+      for (int index = from; index < to; index++) {
+        moments.accept(values[index]);
+      }
+      return moments;
+    }
+
+    double deviationSum = 0;
+    for (int index = from; index < to; index++) {
+      double value = values[index];
+      double deviation = value - rangeMean;
+      double squaredDeviation = deviation * deviation;
+      moments.min = Math.min(moments.min, value);
+      moments.max = Math.max(moments.max, value);
+      deviationSum += deviation;
+      moments.m2 += squaredDeviation;
+      moments.m3 += squaredDeviation * deviation;
+      moments.m4 += squaredDeviation * squaredDeviation;
+    }
+    moments.count = length;
+    moments.mean = rangeMean;
+    // The corrected two pass algorithm removes the rounding error of the mean from the sum of the
+    // squared deviations.
+    moments.m2 = Math.max(0, moments.m2 - deviationSum * deviationSum / length);
+    return moments;
+  }
+
+  /**
+   * Adds a value to the accumulated moments.
+   *
+   * @param value The value to add.
+   */
+  @Override
+  public void accept(double value) {
+    long previousCount = count;
+    count++;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+    double delta = value - mean;
+    double deltaByCount = delta / count;
+    double deltaByCountSquared = deltaByCount * deltaByCount;
+    double term = delta * deltaByCount * previousCount;
+
+    mean += deltaByCount;
+    m4 += term * deltaByCountSquared * ((double) count * count - 3 * count + 3)
+        + 6 * deltaByCountSquared * m2
+        - 4 * deltaByCount * m3;
+    m3 += term * deltaByCount * (count - 2) - 3 * deltaByCount * m2;
+    m2 += term;
+  }
+
+  /**
+   * Merges the moments accumulated by another accumulator into this one.
+   *
+   * @param other The accumulator to merge into this one.
+   */
+  public void combine(MomentsAccumulator other) {
+    if (other.count == 0) {
+      return;
+    }
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+    if (count == 0) {
+      count = other.count;
+      mean = other.mean;
+      m2 = other.m2;
+      m3 = other.m3;
+      m4 = other.m4;
+      return;
+    }
+
+    double countA = count;
+    double countB = other.count;
+    double combinedCount = countA + countB;
+    double delta = other.mean - mean;
+    double deltaSquared = delta * delta;
+    double countProduct = countA * countB;
+
+    double combinedM2 = m2 + other.m2 + deltaSquared * countProduct / combinedCount;
+    double combinedM3 = m3 + other.m3
+        + deltaSquared * delta * countProduct * (countA - countB)
+        / (combinedCount * combinedCount)
+        + 3 * delta * (countA * other.m2 - countB * m2) / combinedCount;
+    double combinedM4 = m4 + other.m4
+        + deltaSquared * deltaSquared * countProduct
+        * (countA * countA - countProduct + countB * countB)
+        / (combinedCount * combinedCount * combinedCount)
+        + 6 * deltaSquared * (countA * countA * other.m2 + countB * countB * m2)
+        / (combinedCount * combinedCount)
+        + 4 * delta * (countA * other.m3 - countB * m3) / combinedCount;
+
+    count += other.count;
+    mean += delta * countB / combinedCount;
+    m2 = combinedM2;
+    m3 = combinedM3;
+    m4 = combinedM4;
+  }
+
+  /**
+   * Returns the number of values accumulated.
+   *
+   * @return The number of values accumulated.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the smallest value accumulated.
+   *
+   * @return The smallest value, or positive infinity if no values have been accumulated.
+   */
+  public double getMin() {
+    return min;
+  }
+
+  /**
+   * Returns the largest value accumulated.
+   *
+   * @return The largest value, or negative infinity if no values have been accumulated.
+   */
+  public double getMax() {
+    return max;
+  }
+
+  /**
+   * Returns the arithmetic mean of the values accumulated.
+   *
+   * @return The arithmetic mean, or NaN if no values have been accumulated.
+   */
+  public double getMean() {
+    return count == 0 ? Double.NaN : mean;
+  }
+
+  /**
+   * Returns the sum of the squared deviations from the mean.
+   *
+   * @return The sum of the squared deviations from the mean.
+   */
+  public double getM2() {
+    return m2;
+  }
+
+  /**
+   * Returns the sum of the cubed deviations from the mean.
+   *
+   * @return The sum of the cubed deviations from the mean.
+   */
+  public double getM3() {
+    return m3;
+  }
+
+  /**
+   * Returns the sum of the fourth powers of the deviations from the mean.
+   *
+   * @return The sum of the fourth powers of the deviations from the mean.
+   */
+  public double getM4() {
+    return m4;
+  }
+
+  /**
+   * Returns the population variance of the values accumulated.
+   *
+   * @return The population variance, or NaN if no values have been accumulated.
+   */
+  public double getVariance() {
+    return count == 0 ? Double.NaN : m2 / count;
+  }
+
+  /**
+   * Returns the mean squared deviation of the values accumulated from the provided center. This
+   * is the variance around a mean other than the arithmetic one.
+   *
+   * @param center The value to measure the deviations from.
+   * @return The mean squared deviation from the center, or NaN if no values have been
+   *     accumulated.
+   */
+  public double getVariance(double center) {
+    double offset = mean - center;
+    return getVariance() + offset * offset;
+  }
+
+  /**
+   * Returns the sample (Bessel corrected) variance of the values accumulated.
+   *
+   * @return The sample variance, or NaN if less than two values have been accumulated.
+   */
+  public double getSampleVariance() {
+    return count < 2 ? Double.NaN : m2 / (count - 1);
+  }
+
+  /**
+   * Returns the population standard deviation of the values accumulated.
+   *
+   * @return The population standard deviation, or NaN if no values have been accumulated.
+   */
+  public double getStandardDeviation() {
+    return Math.sqrt(getVariance());
+  }
+
+  /**
+   * Returns the population skewness of the values accumulated.
+   * For more information: https://en.wikipedia.org/wiki/Skewness
+   *
+   * @return The skewness, or NaN if no values have been accumulated or all of them are equal.
+   */
+  public double getSkewness() {
+    if (count == 0 || m2 == 0) {
+      return Double.NaN;
+    }
+    return Math.sqrt(count) * m3 / Math.pow(m2, 1.5);
+  }
+
+  /**
+   * Returns the population excess kurtosis of the values accumulated. A normal distribution has
+   * an excess kurtosis of 0. For more information: https://en.wikipedia.org/wiki/Kurtosis
+   *
+   * @return The excess kurtosis, or NaN if no values have been accumulated or all of them are
+   *     equal.
+   */
+  public double getKurtosis() {
+    if (count == 0 || m2 == 0) {
+      return Double.NaN;
+    }
+    return count * m4 / (m2 * m2) - 3;
+  }
+
+  /**
+   * Returns a string representation of the accumulator.
+   *
+   * @return The string representation of the accumulator.
+   */
+  @Override
+  public String toString() {
+    return String.format(
+        "%s{count=%d, mean=%f, variance=%f, skewness=%f, kurtosis=%f}",
+        getClass().getSimpleName(),
+        getCount(),
+        getMean(),
+        getVariance(),
+        getSkewness(),
+        getKurtosis()
+    );
+  }
+}
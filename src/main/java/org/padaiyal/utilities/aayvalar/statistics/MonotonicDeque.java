@@ -0,0 +1,126 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+/**
+ * Deque of the values of a sliding window that can still become its maximum (or minimum). A value
+ * is dropped as soon as a later value is at least as large (or small), because it leaves the
+ * window first and can never be the extremum again. The values left are monotonic, so the
+ * extremum of the window is at the front, and every value is pushed and popped at most once,
+ * which costs amortized O(1) per value.
+ *
+ * <p>Values are ordered the same way as {@link Double#compare(double, double)}.
+ *
+ * <p>This class is not thread safe.
+ */
+final class MonotonicDeque {
+
+  /**
+   * Sequence numbers of the values in the deque, in a circular array.
+   */
+  private final long[] sequences;
+  /**
+   * Values in the deque, in a circular array.
+   */
+  private final double[] values;
+  /**
+   * Whether the deque tracks the maximum, rather than the minimum.
+   */
+  private final boolean maximum;
+  /**
+   * Index of the front of the deque.
+   */
+  private int head;
+  /**
+   * Number of values in the deque.
+   */
+  private int size;
+
+  /**
+   * Creates an empty deque.
+   *
+   * @param capacity The number of values of the window.
+   * @param maximum  Whether the deque tracks the maximum, rather than the minimum.
+   */
+  MonotonicDeque(int capacity, boolean maximum) {
+    this.sequences = new long[capacity];
+    this.values = new double[capacity];
+    this.maximum = maximum;
+  }
+
+  /**
+   * Adds the newest value of the window.
+   *
+   * @param sequence The sequence number of the value, greater than those already added.
+   * @param value    The value.
+   */
+  void offer(long sequence, double value) {
+    while (size > 0 && !isBefore(values[index(size - 1)], value)) {
+      size--;
+    }
+    int tail = index(size);
+    sequences[tail] = sequence;
+    values[tail] = value;
+    size++;
+  }
+
+  /**
+   * Removes the value that left the window, if it is still in the deque.
+   *
+   * @param sequence The sequence number of the oldest value of the window.
+   */
+  void evict(long sequence) {
+    if (size > 0 && sequences[head] == sequence) {
+      head = index(1);
+      size--;
+    }
+  }
+
+  /**
+   * Returns the extremum of the window.
+   *
+   * @return The maximum (or minimum) of the window.
+   */
+  double peek() {
+    return values[head];
+  }
+
+  /**
+   * Checks whether the deque is empty.
+   *
+   * @return True if the deque is empty.
+   */
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Removes every value.
+   */
+  void clear() {
+    head = 0;
+    size = 0;
+  }
+
+  /**
+   * Checks whether a value stays in the deque when a later value is added, that is whether it is
+   * strictly larger (or smaller) than the later value.
+   *
+   * @param value      The value in the deque.
+   * @param laterValue The value added.
+   * @return True if the value stays in the deque.
+   */
+  private boolean isBefore(double value, double laterValue) {
+    int comparison = Double.compare(value, laterValue);
+    return maximum ? comparison > 0 : comparison < 0;
+  }
+
+  /**
+   * Converts a position from the front of the deque into an index of its arrays.
+   *
+   * @param position The position from the front.
+   * @return The index in the circular arrays.
+   */
+  private int index(int position) {
+    int index = head + position;
+    return index >= values.length ? index - values.length : index;
+  }
+}
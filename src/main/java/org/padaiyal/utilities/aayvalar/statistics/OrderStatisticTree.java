@@ -0,0 +1,244 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.SplittableRandom;
+
+/**
+ * Multiset of doubles that supports insertion, removal and selection of the value of any rank in
+ * expected O(log n) time. It is a treap, a binary search tree whose nodes also form a heap of
+ * random priorities, which keeps the tree balanced with high probability. Every node knows the
+ * size of its subtree, which allows selecting by rank. For more information:
+ * https://en.wikipedia.org/wiki/Treap
+ *
+ * <p>The nodes are held in primitive arrays allocated up front for a fixed capacity, so that
+ * updating the tree does not allocate.
+ *
+ * <p>Values are ordered the same way as {@link Double#compare(double, double)}.
+ *
+ * <p>This class is not thread safe.
+ */
+final class OrderStatisticTree {
+
+  /**
+   * Index standing for the absence of a node.
+   */
+  private static final int none = -1;
+  /**
+   * Values of the nodes.
+   */
+  private final double[] keys;
+  /**
+   * Random priorities of the nodes, which are larger for the parents than for their children.
+   */
+  private final int[] priorities;
+  /**
+   * Left children of the nodes, and next free node of the free nodes.
+   */
+  private final int[] left;
+  /**
+   * Right children of the nodes.
+   */
+  private final int[] right;
+  /**
+   * Number of nodes in the subtree of each node.
+   */
+  private final int[] sizes;
+  /**
+   * Generator of the priorities of the nodes.
+   */
+  private final SplittableRandom random = new SplittableRandom(0x5eed);
+  /**
+   * Root of the tree.
+   */
+  private int root = none;
+  /**
+   * First node of the list of free nodes.
+   */
+  private int freeNode;
+
+  /**
+   * Creates an empty tree.
+   *
+   * @param capacity The maximum number of values in the tree.
+   */
+  OrderStatisticTree(int capacity) {
+    keys = new double[capacity];
+    priorities = new int[capacity];
+    left = new int[capacity];
+    right = new int[capacity];
+    sizes = new int[capacity];
+    clear();
+  }
+
+  /**
+   * Adds a value to the tree, which should not be full.
+   *
+   * @param value The value to add.
+   */
+  void add(double value) {
+    int node = freeNode;
+    freeNode = left[node];
+    keys[node] = value;
+    priorities[node] = random.nextInt();
+    left[node] = none;
+    right[node] = none;
+    sizes[node] = 1;
+    root = insert(root, node);
+  }
+
+  /**
+   * Removes one occurrence of a value from the tree.
+   *
+   * @param value The value to remove, which should be in the tree.
+   */
+  void remove(double value) {
+    root = remove(root, value);
+  }
+
+  /**
+   * Returns the value of a rank.
+   *
+   * @param rank The rank, between 0 and the number of values in the tree excluded.
+   * @return The value at that rank in ascending order.
+   */
+  double select(int rank) {
+    int node = root;
+    while (true) {
+      int leftSize = size(left[node]);
+      if (rank < leftSize) {
+        node = left[node];
+      } else if (rank == leftSize) {
+        return keys[node];
+      } else {
+        rank -= leftSize + 1;
+        node = right[node];
+      }
+    }
+  }
+
+  /**
+   * Returns the number of values in the tree.
+   *
+   * @return The number of values.
+   */
+  int size() {
+    return size(root);
+  }
+
+  /**
+   * Removes every value from the tree.
+   */
+  void clear() {
+    root = none;
+    freeNode = 0;
+    for (int node = 0; node < left.length; node++) {
+      left[node] = node + 1 < left.length ? node + 1 : none;
+    }
+  }
+
+  /**
+   * Inserts a node into a subtree.
+   *
+   * @param subtree The root of the subtree.
+   * @param node    The node to insert.
+   * @return The root of the subtree after insertion.
+   */
+  private int insert(int subtree, int node) {
+    if (subtree == none) {
+      return node;
+    }
+    sizes[subtree]++;
+    if (Double.compare(keys[node], keys[subtree]) < 0) {
+      left[subtree] = insert(left[subtree], node);
+      return priorities[left[subtree]] > priorities[subtree] ? rotateRight(subtree) : subtree;
+    }
+    right[subtree] = insert(right[subtree], node);
+    return priorities[right[subtree]] > priorities[subtree] ? rotateLeft(subtree) : subtree;
+  }
+
+  /**
+   * Removes a node holding a value from a subtree.
+   *
+   * @param subtree The root of the subtree, which should hold the value.
+   * @param value   The value to remove.
+   * @return The root of the subtree after removal.
+   */
+  private int remove(int subtree, double value) {
+    int comparison = Double.compare(value, keys[subtree]);
+    if (comparison == 0) {
+      int merged = merge(left[subtree], right[subtree]);
+      left[subtree] = freeNode;
+      freeNode = subtree;
+      return merged;
+    }
+    sizes[subtree]--;
+    if (comparison < 0) {
+      left[subtree] = remove(left[subtree], value);
+    } else {
+      right[subtree] = remove(right[subtree], value);
+    }
+    return subtree;
+  }
+
+  /**
+   * Merges two subtrees whose values are all ordered, the values of the first one being before
+   * those of the second one.
+   *
+   * @param first  The root of the first subtree.
+   * @param second The root of the second subtree.
+   * @return The root of the merged subtree.
+   */
+  private int merge(int first, int second) {
+    if (first == none) {
+      return second;
+    } else if (second == none) {
+      return first;
+    } else if (priorities[first] > priorities[second]) {
+      sizes[first] += sizes[second];
+      right[first] = merge(right[first], second);
+      return first;
+    }
+    sizes[second] += sizes[first];
+    left[second] = merge(first, left[second]);
+    return second;
+  }
+
+  /**
+   * Rotates a subtree to the right, making its left child its root.
+   *
+   * @param subtree The root of the subtree.
+   * @return The new root of the subtree.
+   */
+  private int rotateRight(int subtree) {
+    int newRoot = left[subtree];
+    left[subtree] = right[newRoot];
+    right[newRoot] = subtree;
+    sizes[newRoot] = sizes[subtree];
+    sizes[subtree] = size(left[subtree]) + size(right[subtree]) + 1;
+    return newRoot;
+  }
+
+  /**
+   * Rotates a subtree to the left, making its right child its root.
+   *
+   * @param subtree The root of the subtree.
+   * @return The new root of the subtree.
+   */
+  private int rotateLeft(int subtree) {
+    int newRoot = right[subtree];
+    right[subtree] = left[newRoot];
+    left[newRoot] = subtree;
+    sizes[newRoot] = sizes[subtree];
+    sizes[subtree] = size(left[subtree]) + size(right[subtree]) + 1;
+    return newRoot;
+  }
+
+  /**
+   * Returns the number of nodes in a subtree.
+   *
+   * @param subtree The root of the subtree.
+   * @return The number of nodes, 0 if there is no subtree.
+   */
+  private int size(int subtree) {
+    return subtree == none ? 0 : sizes[subtree];
+  }
+}
@@ -0,0 +1,169 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Locale;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Column of numbers stored outside of the heap, in direct buffers of 64K values allocated as the
+ * column grows, for example:
+ * <pre>{@code
+ * DoubleSampleColumn latencies = new DoubleSampleColumn();
+ * CsvColumnParser.of(1).parse(channel, latencies::add);
+ * double[] percentiles = latencies.getPercentiles(50, 99);
+ * double mean = StatisticsUtility.getMean(latencies.stream(), MeanType.ARITHMETIC);
+ * }</pre>
+ * A value costs its primitive size only, instead of a boxed element and a reference, and the
+ * garbage collector never scans the values. Their statistics are computed chunk by chunk, in
+ * parallel if the execution policy of {@link StatisticsUtility} says so, and are identical to
+ * those of the equivalent array. The metrics without a method here are computed by passing
+ * {@link #stream()}, whose spliterator splits at chunk boundaries, to their
+ * {@link java.util.stream.DoubleStream} variant in {@link StatisticsUtility}.
+ *
+ * <p>Values are appended by a single thread. Once appended, they can be read by any number of
+ * threads, as long as no value is being appended.
+ */
+public abstract class SampleColumn extends ChunkedSampleSource {
+
+  static {
+    I18nUtility.addResourceBundle(
+        SampleColumn.class,
+        SampleColumn.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Base 2 logarithm of the number of values of each buffer, which holds whole chunks.
+   */
+  private static final int regionShift = 16;
+  /**
+   * Number of values of each buffer.
+   */
+  static final int regionLength = 1 << regionShift;
+  /**
+   * Number of bytes of each value.
+   */
+  private final int valueSize;
+  /**
+   * Buffers holding the values, as views of their type.
+   */
+  private Buffer[] regions = new Buffer[0];
+  /**
+   * Number of values appended.
+   */
+  private long count;
+
+  /**
+   * Creates an empty column.
+   *
+   * @param valueSize The number of bytes of each value.
+   */
+  SampleColumn(int valueSize) {
+    this.valueSize = valueSize;
+  }
+
+  /**
+   * Returns the number of values.
+   *
+   * @return The number of values.
+   */
+  @Override
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Removes every value and releases the buffers holding them.
+   */
+  public void clear() {
+    regions = new Buffer[0];
+    count = 0;
+  }
+
+  /**
+   * Returns a string representation of the column.
+   *
+   * @return The string representation of the column.
+   */
+  @Override
+  public String toString() {
+    return String.format(
+        "%s{count=%d}",
+        getClass().getSimpleName(),
+        count
+    );
+  }
+
+  /**
+   * Creates the view of its type of a new buffer.
+   *
+   * @param bytes The new buffer.
+   * @return The view of the buffer.
+   */
+  abstract Buffer createRegion(ByteBuffer bytes);
+
+  /**
+   * Appends values to the column, allocating the buffers they need. Their content is written by
+   * the caller.
+   *
+   * @param length The number of values to append.
+   * @return The index of the first appended value.
+   */
+  long append(int length) {
+    long first = count;
+    int regionCount = Math.toIntExact((first + length + regionLength - 1) >>> regionShift);
+    if (regionCount > regions.length) {
+      regions = Arrays.copyOf(regions, Math.max(regionCount, 2 * regions.length));
+    }
+    for (int region = (int) (first >>> regionShift); region < regionCount; region++) {
+      if (regions[region] == null) {
+        regions[region] = createRegion(
+            ByteBuffer.allocateDirect(valueSize << regionShift).order(ByteOrder.nativeOrder())
+        );
+      }
+    }
+    count += length;
+    return first;
+  }
+
+  /**
+   * Returns the buffer holding a value.
+   *
+   * @param index The index of the value.
+   * @return The buffer holding the value.
+   */
+  Buffer getRegion(long index) {
+    return regions[(int) (index >>> regionShift)];
+  }
+
+  /**
+   * Returns the index of a value within its buffer.
+   *
+   * @param index The index of the value.
+   * @return The index of the value within its buffer.
+   */
+  static int getRegionOffset(long index) {
+    return (int) (index & (regionLength - 1));
+  }
+
+  /**
+   * Checks that a value exists.
+   *
+   * @param index The index of the value.
+   */
+  void validateIndex(long index) {
+    if (index < 0 || index >= count) {
+      throw new IndexOutOfBoundsException(
+          I18nUtility.getFormattedString(
+              "SampleColumn.error.indexOutOfBounds",
+              index,
+              count
+          )
+      );
+    }
+  }
+}
@@ -0,0 +1,370 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Order statistic selection over primitive arrays. Finds the elements that would be at given
+ * ranks if the array was sorted, in expected linear time and without sorting it.
+ *
+ * <p>Ranges are selected using the Floyd-Rivest algorithm, which narrows large ranges around the
+ * target rank using a small sample before partitioning. Like introselect, it falls back to sorting
+ * the remaining range when partitioning stops making progress, which bounds the worst case to
+ * O(n log n). Large ranges are partitioned in parallel around a sampled pivot before the
+ * sequential selection takes over. For more information:
+ * https://en.wikipedia.org/wiki/Floyd%E2%80%93Rivest_algorithm
+ *
+ * <p>The elements are ordered the same way as {@link Arrays#sort(double[])}, with NaN values
+ * placed after every other value.
+ */
+final class SelectionUtility {
+
+  /**
+   * Range length below which the range is insertion sorted instead of partitioned.
+   */
+  private static final int insertionSortThreshold = 16;
+  /**
+   * Range length above which the Floyd-Rivest sampling step is used to narrow the range.
+   */
+  private static final int samplingThreshold = 600;
+  /**
+   * Range length below which the range is never partitioned in parallel, as the scratch buffer
+   * and the sampled pivot of a parallel partition don't pay off. Longer ranges are partitioned in
+   * parallel if the execution policy says so.
+   */
+  static final int parallelThreshold = 1 << 17;
+  /**
+   * Number of elements sampled to choose the pivot of a parallel partition.
+   */
+  private static final int parallelPivotSampleSize = 1023;
+
+  /**
+   * Private constructor as this utility class is not meant to be used as an instance.
+   */
+  private SelectionUtility() {
+  }
+
+  /**
+   * Rearranges the range so that the element at the provided rank is the one that would be there
+   * if the range was sorted, all elements before it are not greater and all elements after it are
+   * not smaller.
+   *
+   * @param values The array to select from.
+   * @param from   The index of the first element in the range, inclusive.
+   * @param to     The index of the last element in the range, exclusive.
+   * @param rank   The absolute index of the element to select, within the range.
+   * @return The selected element.
+   */
+  static double select(double[] values, int from, int to, int rank) {
+    selectAll(values, from, to, new int[]{rank});
+    return values[rank];
+  }
+
+  /**
+   * Rearranges the range so that the elements at each of the provided ranks are the ones that
+   * would be there if the range was sorted. Partitioning work is shared between the ranks, as each
+   * partition step splits the remaining ranks between its two sides.
+   *
+   * @param values The array to select from.
+   * @param from   The index of the first element in the range, inclusive.
+   * @param to     The index of the last element in the range, exclusive.
+   * @param ranks  The absolute indices of the elements to select, sorted in ascending order.
+   */
+  static void selectAll(double[] values, int from, int to, int[] ranks) {
+    if (ranks.length == 0) {
+      return;
+    }
+    // NaN values compare false against everything, so they're moved out of the way first.
+    int end = moveNansToEnd(values, from, to);
+    int rankCount = 0;
+    while (rankCount < ranks.length && ranks[rankCount] < end) {
+      rankCount++;
+    }
+    ExecutionPolicy executionPolicy = StatisticsUtility.getExecutionPolicy();
+    if (end - from >= parallelThreshold && executionPolicy.isParallel(end - from)) {
+      int selectedRankCount = rankCount;
+      double[] buffer = new double[end - from];
+      executionPolicy.execute(() -> {
+        parallelSelect(values, from, end, ranks, 0, selectedRankCount, buffer, from);
+        return null;
+      });
+    } else {
+      select(values, from, end, ranks, 0, rankCount);
+    }
+  }
+
+  /**
+   * Moves all NaN values in the range to its end.
+   *
+   * @param values The array to rearrange.
+   * @param from   The index of the first element in the range, inclusive.
+   * @param to     The index of the last element in the range, exclusive.
+   * @return The index of the first NaN value in the range, or the end of the range if there are
+   *     none.
+   */
+  private static int moveNansToEnd(double[] values, int from, int to) {
+    int end = to;
+    for (int index = to - 1; index >= from; index--) {
+      if (Double.isNaN(values[index])) {
+        swap(values, index, --end);
+      }
+    }
+    return end;
+  }
+
+  /**
+   * Sequentially selects the ranks in the provided rank range.
+   *
+   * @param values    The array to select from.
+   * @param from      The index of the first element in the range, inclusive.
+   * @param to        The index of the last element in the range, exclusive.
+   * @param ranks     The absolute indices of the elements to select, sorted in ascending order.
+   * @param rankFrom  The index of the first rank to select, inclusive.
+   * @param rankTo    The index of the last rank to select, exclusive.
+   */
+  private static void select(double[] values, int from, int to, int[] ranks, int rankFrom,
+      int rankTo) {
+    while (rankFrom < rankTo) {
+      int middleRank = (rankFrom + rankTo) >>> 1;
+      int rank = ranks[middleRank];
+      select(values, from, to - 1, rank, 2 * (31 - Integer.numberOfLeadingZeros(to - from + 1)));
+
+      // Every element left of the rank is not greater than it and every element right of it is
+      // not smaller, so the remaining ranks only need to look at their own side.
+      int leftRankTo = middleRank;
+      while (leftRankTo > rankFrom && ranks[leftRankTo - 1] == rank) {
+        leftRankTo--;
+      }
+      select(values, from, rank, ranks, rankFrom, leftRankTo);
+
+      rankFrom = middleRank + 1;
+      while (rankFrom < rankTo && ranks[rankFrom] == rank) {
+        rankFrom++;
+      }
+      from = rank + 1;
+    }
+  }
+
+  /**
+   * Floyd-Rivest selection of a single rank within an inclusive range.
+   *
+   * @param values     The array to select from.
+   * @param left       The index of the first element in the range, inclusive.
+   * @param right      The index of the last element in the range, inclusive.
+   * @param rank       The absolute index of the element to select.
+   * @param depthLimit The number of partition steps after which the range is sorted instead.
+   */
+  private static void select(double[] values, int left, int right, int rank, int depthLimit) {
+    while (right - left >= insertionSortThreshold) {
+      if (depthLimit-- == 0) {
+        Arrays.sort(values, left, right + 1);
+        return;
+      }
+      if (right - left > samplingThreshold) {
+        // Recursively select from a sample so that the rank ends up in a small range around the
+        // pivot with high probability.
+        double size = right - left + 1;
+        double position = rank - left + 1;
+        double logSize = Math.log(size);
+        double sampleSize = 0.5 * Math.exp(2 * logSize / 3);
+        double sampleDeviation = 0.5 * Math.sqrt(logSize * sampleSize * (size - sampleSize) / size)
+            * Math.signum(position - size / 2);
+        int sampleLeft = (int) Math.max(left,
+            Math.floor(rank - position * sampleSize / size + sampleDeviation));
+        int sampleRight = (int) Math.min(right,
+            Math.floor(rank + (size - position) * sampleSize / size + sampleDeviation));
+        select(values, sampleLeft, sampleRight, rank, depthLimit);
+      }
+
+      double pivot = values[rank];
+      int lower = left;
+      int upper = right;
+      swap(values, left, rank);
+      if (values[right] > pivot) {
+        swap(values, right, left);
+      }
+      while (lower < upper) {
+        swap(values, lower, upper);
+        lower++;
+        upper--;
+        while (values[lower] < pivot) {
+          lower++;
+        }
+        while (values[upper] > pivot) {
+          upper--;
+        }
+      }
+      if (values[left] == pivot) {
+        swap(values, left, upper);
+      } else {
+        upper++;
+        swap(values, upper, right);
+      }
+
+      if (upper <= rank) {
+        left = upper + 1;
+      }
+      if (rank <= upper) {
+        right = upper - 1;
+      }
+    }
+    insertionSort(values, left, right);
+  }
+
+  /**
+   * Selects the ranks in the provided rank range, partitioning the range in parallel while it is
+   * large enough to benefit from it.
+   *
+   * @param values       The array to select from.
+   * @param from         The index of the first element in the range, inclusive.
+   * @param to           The index of the last element in the range, exclusive.
+   * @param ranks        The absolute indices of the elements to select, sorted in ascending
+   *                     order.
+   * @param rankFrom     The index of the first rank to select, inclusive.
+   * @param rankTo       The index of the last rank to select, exclusive.
+   * @param buffer       Scratch space for the partition.
+   * @param bufferOffset The index in the values array that the start of the buffer maps to.
+   */
+  private static void parallelSelect(double[] values, int from, int to, int[] ranks,
+      int rankFrom, int rankTo, double[] buffer, int bufferOffset) {
+    if (rankFrom >= rankTo) {
+      return;
+    }
+    if (to - from < parallelThreshold) {
+      select(values, from, to, ranks, rankFrom, rankTo);
+      return;
+    }
+
+    double pivot = samplePivot(values, from, to);
+    int chunkCount = Math.min(
+        StatisticsUtility.getExecutionPolicy().getPool().getParallelism() * 4,
+        (to - from) / (parallelThreshold >> 4)
+    );
+    chunkCount = Math.max(chunkCount, 1);
+    int chunkSize = (to - from + chunkCount - 1) / chunkCount;
+    int[] lessCounts = new int[chunkCount];
+    int[] equalCounts = new int[chunkCount];
+
+    IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+      int chunkFrom = from + chunk * chunkSize;
+      int chunkTo = Math.min(to, chunkFrom + chunkSize);
+      int less = 0;
+      int equal = 0;
+      for (int index = chunkFrom; index < chunkTo; index++) {
+        double value = values[index];
+        if (value < pivot) {
+          less++;
+        } else if (value == pivot) {
+          equal++;
+        }
+      }
+      lessCounts[chunk] = less;
+      equalCounts[chunk] = equal;
+    });
+
+    int totalLess = Arrays.stream(lessCounts).sum();
+    int totalEqual = Arrays.stream(equalCounts).sum();
+    int[] lessOffsets = new int[chunkCount];
+    int[] equalOffsets = new int[chunkCount];
+    int[] greaterOffsets = new int[chunkCount];
+    int lessOffset = from;
+    int equalOffset = from + totalLess;
+    int greaterOffset = from + totalLess + totalEqual;
+    for (int chunk = 0; chunk < chunkCount; chunk++) {
+      int chunkLength = Math.min(to, from + (chunk + 1) * chunkSize) - (from + chunk * chunkSize);
+      lessOffsets[chunk] = lessOffset;
+      equalOffsets[chunk] = equalOffset;
+      greaterOffsets[chunk] = greaterOffset;
+      lessOffset += lessCounts[chunk];
+      equalOffset += equalCounts[chunk];
+      greaterOffset += Math.max(chunkLength, 0) - lessCounts[chunk] - equalCounts[chunk];
+    }
+
+    IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+      int chunkFrom = from + chunk * chunkSize;
+      int chunkTo = Math.min(to, chunkFrom + chunkSize);
+      int less = lessOffsets[chunk] - bufferOffset;
+      int equal = equalOffsets[chunk] - bufferOffset;
+      int greater = greaterOffsets[chunk] - bufferOffset;
+      for (int index = chunkFrom; index < chunkTo; index++) {
+        double value = values[index];
+        if (value < pivot) {
+          buffer[less++] = value;
+        } else if (value == pivot) {
+          buffer[equal++] = value;
+        } else {
+          buffer[greater++] = value;
+        }
+      }
+    });
+    IntStream.range(0, chunkCount).parallel().forEach(chunk -> {
+      int chunkFrom = from + chunk * chunkSize;
+      int chunkTo = Math.min(to, chunkFrom + chunkSize);
+      if (chunkFrom < chunkTo) {
+        System.arraycopy(buffer, chunkFrom - bufferOffset, values, chunkFrom, chunkTo - chunkFrom);
+      }
+    });
+
+    int equalFrom = from + totalLess;
+    int greaterFrom = equalFrom + totalEqual;
+    int lessRankTo = rankFrom;
+    while (lessRankTo < rankTo && ranks[lessRankTo] < equalFrom) {
+      lessRankTo++;
+    }
+    int greaterRankFrom = lessRankTo;
+    while (greaterRankFrom < rankTo && ranks[greaterRankFrom] < greaterFrom) {
+      greaterRankFrom++;
+    }
+    parallelSelect(values, from, equalFrom, ranks, rankFrom, lessRankTo, buffer, bufferOffset);
+    parallelSelect(values, greaterFrom, to, ranks, greaterRankFrom, rankTo, buffer, bufferOffset);
+  }
+
+  /**
+   * Chooses a pivot for a parallel partition as the median of evenly spaced samples of the range.
+   *
+   * @param values The array to sample.
+   * @param from   The index of the first element in the range, inclusive.
+   * @param to     The index of the last element in the range, exclusive.
+   * @return The pivot.
+   */
+  private static double samplePivot(double[] values, int from, int to) {
+    double[] sample = new double[parallelPivotSampleSize];
+    long step = (long) (to - from) / parallelPivotSampleSize;
+    for (int index = 0; index < sample.length; index++) {
+      sample[index] = values[(int) (from + index * step)];
+    }
+    return select(sample, 0, sample.length, sample.length / 2);
+  }
+
+  /**
+   * Insertion sorts an inclusive range.
+   *
+   * @param values The array to sort.
+   * @param left   The index of the first element in the range, inclusive.
+   * @param right  The index of the last element in the range, inclusive.
+   */
+  private static void insertionSort(double[] values, int left, int right) {
+    for (int index = left + 1; index <= right; index++) {
+      double value = values[index];
+      int position = index - 1;
+      while (position >= left && values[position] > value) {
+        values[position + 1] = values[position];
+        position--;
+      }
+      values[position + 1] = value;
+    }
+  }
+
+  /**
+   * Swaps two elements of an array.
+   *
+   * @param values The array.
+   * @param first  The index of the first element.
+   * @param second The index of the second element.
+   */
+  private static void swap(double[] values, int first, int second) {
+    double temporary = values[first];
+    values[first] = values[second];
+    values[second] = temporary;
+  }
+}
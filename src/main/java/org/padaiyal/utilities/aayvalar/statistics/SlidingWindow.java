@@ -0,0 +1,244 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Locale;
+import java.util.function.DoubleConsumer;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Holds the most recent values of a signal in a primitive ring buffer, either a fixed number of
+ * values or the values added within a time span, bounded by a maximum number of values. Each
+ * value gets a sequence number in the order it is added, and subclasses are notified whenever a
+ * value enters or leaves the window so that they can maintain statistics incrementally.
+ *
+ * <p>Timestamps are supplied by the caller, in any unit, and should not decrease.
+ *
+ * <p>This class is not thread safe.
+ */
+abstract class SlidingWindow implements DoubleConsumer {
+
+  static {
+    I18nUtility.addResourceBundle(
+        SlidingWindow.class,
+        SlidingWindow.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Values of the window, in a circular array indexed by sequence number.
+   */
+  private final double[] values;
+  /**
+   * Timestamps of the values of the window, or null if the window is count-based.
+   */
+  private final long[] timestamps;
+  /**
+   * Time span of the window, which only applies if the window is time-based.
+   */
+  private final long timeSpan;
+  /**
+   * Sequence number of the oldest value of the window.
+   */
+  private long firstSequence;
+  /**
+   * Sequence number of the next value added to the window.
+   */
+  private long nextSequence;
+  /**
+   * Timestamp of the latest value added or of the latest time the window was advanced to.
+   */
+  private long latestTimestamp = Long.MIN_VALUE;
+
+  /**
+   * Creates an empty window.
+   *
+   * @param capacity  The maximum number of values of the window, at least 1.
+   * @param timeSpan  The time span of the window, at least 1.
+   * @param timeBased Whether values leave the window once older than its time span.
+   */
+  SlidingWindow(int capacity, long timeSpan, boolean timeBased) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "SlidingWindow.error.invalidCapacity",
+              capacity
+          )
+      );
+    }
+    if (timeSpan < 1) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "SlidingWindow.error.invalidTimeSpan",
+              timeSpan
+          )
+      );
+    }
+    this.values = new double[capacity];
+    this.timestamps = timeBased ? new long[capacity] : null;
+    this.timeSpan = timeSpan;
+  }
+
+  /**
+   * Adds a value at the latest timestamp of the window, evicting the oldest value if the window
+   * is full. The latest timestamp of a window that was never advanced is Long.MIN_VALUE.
+   *
+   * @param value The value to add.
+   */
+  @Override
+  public final void accept(double value) {
+    if (getCount() == values.length) {
+      evictOldest();
+    }
+    long sequence = nextSequence++;
+    int index = index(sequence);
+    values[index] = value;
+    if (timestamps != null) {
+      timestamps[index] = latestTimestamp;
+    }
+    onAdd(sequence, value);
+  }
+
+  /**
+   * Advances the window to a timestamp and adds a value at that timestamp.
+   *
+   * @param timestamp The timestamp of the value, not before the latest timestamp of the window.
+   * @param value     The value to add.
+   */
+  public final void add(long timestamp, double value) {
+    advanceTo(timestamp);
+    accept(value);
+  }
+
+  /**
+   * Advances the window to a timestamp, evicting the values that are older than the time span of
+   * the window at that timestamp. A value is older than the time span once the timestamp is at
+   * least the time span after the value's one. Count-based windows only record the timestamp.
+   *
+   * @param timestamp The timestamp, not before the latest timestamp of the window.
+   */
+  public final void advanceTo(long timestamp) {
+    if (timestamp < latestTimestamp) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "SlidingWindow.error.decreasingTimestamp",
+              timestamp,
+              latestTimestamp
+          )
+      );
+    }
+    latestTimestamp = timestamp;
+    if (timestamps == null || timestamp < Long.MIN_VALUE + timeSpan) {
+      return;
+    }
+    long expiry = timestamp - timeSpan;
+    while (getCount() > 0 && timestamps[index(firstSequence)] <= expiry) {
+      evictOldest();
+    }
+  }
+
+  /**
+   * Removes every value from the window. The latest timestamp of the window is kept.
+   */
+  public final void clear() {
+    firstSequence = nextSequence;
+    onClear();
+  }
+
+  /**
+   * Returns the number of values in the window.
+   *
+   * @return The number of values.
+   */
+  public final int getCount() {
+    return (int) (nextSequence - firstSequence);
+  }
+
+  /**
+   * Returns the maximum number of values of the window.
+   *
+   * @return The capacity of the window.
+   */
+  public final int getCapacity() {
+    return values.length;
+  }
+
+  /**
+   * Returns the values in the window.
+   *
+   * @return The values, oldest first.
+   */
+  public final double[] toArray() {
+    double[] windowValues = new double[getCount()];
+    for (int i = 0; i < windowValues.length; i++) {
+      windowValues[i] = values[index(firstSequence + i)];
+    }
+    return windowValues;
+  }
+
+  /**
+   * Called after a value entered the window.
+   *
+   * @param sequence The sequence number of the value.
+   * @param value    The value.
+   */
+  abstract void onAdd(long sequence, double value);
+
+  /**
+   * Called after a value left the window. Values leave the window in the order they entered it.
+   *
+   * @param sequence The sequence number of the value.
+   * @param value    The value.
+   */
+  abstract void onEvict(long sequence, double value);
+
+  /**
+   * Called after every value was removed from the window.
+   */
+  abstract void onClear();
+
+  /**
+   * Returns the sequence number of the oldest value of the window.
+   *
+   * @return The sequence number, which is that of the next value if the window is empty.
+   */
+  final long getFirstSequence() {
+    return firstSequence;
+  }
+
+  /**
+   * Returns the sequence number of the next value added to the window.
+   *
+   * @return The sequence number.
+   */
+  final long getNextSequence() {
+    return nextSequence;
+  }
+
+  /**
+   * Returns a value of the window.
+   *
+   * @param sequence The sequence number of the value, which should be in the window.
+   * @return The value.
+   */
+  final double getValue(long sequence) {
+    return values[index(sequence)];
+  }
+
+  /**
+   * Evicts the oldest value of the window, which should not be empty.
+   */
+  private void evictOldest() {
+    long sequence = firstSequence++;
+    onEvict(sequence, values[index(sequence)]);
+  }
+
+  /**
+   * Converts a sequence number into an index of the circular buffer.
+   *
+   * @param sequence The sequence number.
+   * @return The index of the buffer.
+   */
+  private int index(long sequence) {
+    return (int) (sequence % values.length);
+  }
+}
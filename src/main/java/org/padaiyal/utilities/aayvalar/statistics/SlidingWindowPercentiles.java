@@ -0,0 +1,170 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+/**
+ * Maintains the median and percentiles of the most recent values of a signal, without sorting
+ * the whole window whenever it slides. A window holds either a fixed number of values or the
+ * values added within a time span, the same way as {@link SlidingWindowStatistics}:
+ * <pre>{@code
+ * SlidingWindowPercentiles window = SlidingWindowPercentiles.ofCount(10_000);
+ * window.accept(latency);
+ * double p95Latency = window.getPercentile(95);
+ * }</pre>
+ * The values of the window are kept ordered in an order-statistic tree, so adding and evicting
+ * a value take expected O(log n) time and so does querying a percentile. The percentiles are
+ * interpolated the same way as {@link StatisticsUtility#getPercentile(double[], double)}.
+ *
+ * <p>Values are ordered the same way as {@link Double#compare(double, double)}.
+ *
+ * <p>This class is not thread safe.
+ */
+public final class SlidingWindowPercentiles extends SlidingWindow {
+
+  /**
+   * The values of the window, ordered.
+   */
+  private final OrderStatisticTree orderedValues;
+
+  /**
+   * Creates an empty window.
+   *
+   * @param capacity  The maximum number of values of the window.
+   * @param timeSpan  The time span of the window.
+   * @param timeBased Whether values leave the window once older than its time span.
+   */
+  private SlidingWindowPercentiles(int capacity, long timeSpan, boolean timeBased) {
+    super(capacity, timeSpan, timeBased);
+    this.orderedValues = new OrderStatisticTree(capacity);
+  }
+
+  /**
+   * Creates an empty window holding the latest values added.
+   *
+   * @param capacity The number of values of the window, at least 1.
+   * @return The window.
+   */
+  public static SlidingWindowPercentiles ofCount(int capacity) {
+    return new SlidingWindowPercentiles(capacity, Long.MAX_VALUE, false);
+  }
+
+  /**
+   * Creates an empty window holding the values added within a time span. A value leaves the
+   * window once the window reaches a timestamp at least the time span after the value's one, or
+   * once the window is full.
+   *
+   * @param timeSpan The time span of the window, at least 1, in the unit of the timestamps.
+   * @param capacity The maximum number of values of the window, at least 1.
+   * @return The window.
+   */
+  public static SlidingWindowPercentiles ofTimeSpan(long timeSpan, int capacity) {
+    return new SlidingWindowPercentiles(capacity, timeSpan, true);
+  }
+
+  /**
+   * Adds a value that entered the window to the ordered values.
+   *
+   * @param sequence The sequence number of the value.
+   * @param value    The value.
+   */
+  @Override
+  void onAdd(long sequence, double value) {
+    orderedValues.add(value);
+  }
+
+  /**
+   * Removes a value that left the window from the ordered values.
+   *
+   * @param sequence The sequence number of the value.
+   * @param value    The value.
+   */
+  @Override
+  void onEvict(long sequence, double value) {
+    orderedValues.remove(value);
+  }
+
+  /**
+   * Removes every ordered value.
+   */
+  @Override
+  void onClear() {
+    orderedValues.clear();
+  }
+
+  /**
+   * Returns a percentile of the values in the window.
+   *
+   * @param percentile The percentile, between 0 and 100.
+   * @return The percentile, or NaN if the window is empty.
+   */
+  public double getPercentile(double percentile) {
+    return getPercentiles(percentile)[0];
+  }
+
+  /**
+   * Returns percentiles of the values in the window.
+   *
+   * @param percentiles The percentiles, between 0 and 100.
+   * @return The percentiles in the same order as requested, or NaNs if the window is empty.
+   */
+  public double[] getPercentiles(double... percentiles) {
+    StatisticsUtility.validatePercentiles(percentiles);
+    double[] result = new double[percentiles.length];
+    int count = getCount();
+    for (int index = 0; index < percentiles.length; index++) {
+      if (count == 0) {
+        result[index] = Double.NaN;
+        continue;
+      }
+      double position = (count - 1) * (percentiles[index] / 100);
+      int lowerRank = (int) Math.floor(position);
+      double fraction = position - lowerRank;
+      double lower = orderedValues.select(lowerRank);
+      result[index] = fraction == 0
+          ? lower
+          : (1 - fraction) * lower + fraction * orderedValues.select(lowerRank + 1);
+    }
+    return result;
+  }
+
+  /**
+   * Returns the median of the values in the window.
+   *
+   * @return The median, or NaN if the window is empty.
+   */
+  public double getMedian() {
+    return getPercentile(50);
+  }
+
+  /**
+   * Returns the smallest value in the window.
+   *
+   * @return The minimum, or positive infinity if the window is empty.
+   */
+  public double getMin() {
+    return getCount() == 0 ? Double.POSITIVE_INFINITY : orderedValues.select(0);
+  }
+
+  /**
+   * Returns the largest value in the window.
+   *
+   * @return The maximum, or negative infinity if the window is empty.
+   */
+  public double getMax() {
+    return getCount() == 0 ? Double.NEGATIVE_INFINITY : orderedValues.select(getCount() - 1);
+  }
+
+  /**
+   * Returns a string representation of the window.
+   *
+   * @return The string representation of the window.
+   */
+  @Override
+  public String toString() {
+    return String.format(
+        "%s{count=%d, capacity=%d, median=%s}",
+        getClass().getSimpleName(),
+        getCount(),
+        getCapacity(),
+        getMedian()
+    );
+  }
+}
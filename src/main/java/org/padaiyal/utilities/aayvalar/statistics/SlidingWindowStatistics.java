@@ -0,0 +1,307 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+/**
+ * Maintains the count, mean, variance, minimum and maximum of the most recent values of a signal,
+ * updating them in O(1) per value instead of recomputing them over the whole window. A window
+ * holds either a fixed number of values:
+ * <pre>{@code
+ * SlidingWindowStatistics window = SlidingWindowStatistics.ofCount(1000);
+ * window.accept(latency);
+ * double meanLatency = window.getMean();
+ * }</pre>
+ * or the values added within a time span, bounded by a maximum number of values:
+ * <pre>{@code
+ * SlidingWindowStatistics window = SlidingWindowStatistics.ofTimeSpan(
+ *     TimeUnit.MINUTES.toNanos(1), 100_000);
+ * window.add(System.nanoTime(), latency);
+ * }</pre>
+ * The values are held in a primitive ring buffer. The mean and variance are updated with
+ * Welford's update when a value enters the window and with its inverse when a value leaves it.
+ * The inverse update accumulates rounding errors, so they are recomputed exactly from the buffer
+ * once every capacity evictions, which is amortized O(1). The minimum and maximum are tracked in
+ * monotonic deques, which is also amortized O(1). For more information:
+ * https://en.wikipedia.org/wiki/Algorithms_for_calculating_variance
+ *
+ * <p>NaN and infinite values are counted apart from the finite ones, so they do not leave the
+ * mean and variance NaN once they have left the window. The minimum and maximum order values the
+ * same way as {@link Double#compare(double, double)}.
+ *
+ * <p>This class is not thread safe.
+ */
+public final class SlidingWindowStatistics extends SlidingWindow {
+
+  /**
+   * Deque of the values that can become the maximum of the window.
+   */
+  private final MonotonicDeque maxDeque;
+  /**
+   * Deque of the values that can become the minimum of the window.
+   */
+  private final MonotonicDeque minDeque;
+  /**
+   * Number of finite values in the window.
+   */
+  private int finiteCount;
+  /**
+   * Arithmetic mean of the finite values in the window.
+   */
+  private double mean;
+  /**
+   * Sum of the squared deviations of the finite values in the window from their mean.
+   */
+  private double m2;
+  /**
+   * Number of NaN values in the window.
+   */
+  private int nanCount;
+  /**
+   * Number of positive infinite values in the window.
+   */
+  private int positiveInfinityCount;
+  /**
+   * Number of negative infinite values in the window.
+   */
+  private int negativeInfinityCount;
+  /**
+   * Number of finite values evicted since the mean and variance were last recomputed.
+   */
+  private int evictionsSinceRecomputation;
+
+  /**
+   * Creates an empty window.
+   *
+   * @param capacity  The maximum number of values of the window.
+   * @param timeSpan  The time span of the window.
+   * @param timeBased Whether values leave the window once older than its time span.
+   */
+  private SlidingWindowStatistics(int capacity, long timeSpan, boolean timeBased) {
+    super(capacity, timeSpan, timeBased);
+    this.maxDeque = new MonotonicDeque(capacity, true);
+    this.minDeque = new MonotonicDeque(capacity, false);
+  }
+
+  /**
+   * Creates an empty window holding the latest values added.
+   *
+   * @param capacity The number of values of the window, at least 1.
+   * @return The window.
+   */
+  public static SlidingWindowStatistics ofCount(int capacity) {
+    return new SlidingWindowStatistics(capacity, Long.MAX_VALUE, false);
+  }
+
+  /**
+   * Creates an empty window holding the values added within a time span. A value leaves the
+   * window once the window reaches a timestamp at least the time span after the value's one, or
+   * once the window is full.
+   *
+   * @param timeSpan The time span of the window, at least 1, in the unit of the timestamps.
+   * @param capacity The maximum number of values of the window, at least 1.
+   * @return The window.
+   */
+  public static SlidingWindowStatistics ofTimeSpan(long timeSpan, int capacity) {
+    return new SlidingWindowStatistics(capacity, timeSpan, true);
+  }
+
+  /**
+   * Updates the statistics with a value that entered the window.
+   *
+   * @param sequence The sequence number of the value.
+   * @param value    The value.
+   */
+  @Override
+  void onAdd(long sequence, double value) {
+    maxDeque.offer(sequence, value);
+    minDeque.offer(sequence, value);
+
+    if (Double.isNaN(value)) {
+      nanCount++;
+    } else if (value == Double.POSITIVE_INFINITY) {
+      positiveInfinityCount++;
+    } else if (value == Double.NEGATIVE_INFINITY) {
+      negativeInfinityCount++;
+    } else {
+      finiteCount++;
+      double delta = value - mean;
+      mean += delta / finiteCount;
+      m2 += delta * (value - mean);
+    }
+  }
+
+  /**
+   * Updates the statistics with a value that left the window.
+   *
+   * @param sequence The sequence number of the value.
+   * @param value    The value.
+   */
+  @Override
+  void onEvict(long sequence, double value) {
+    maxDeque.evict(sequence);
+    minDeque.evict(sequence);
+
+    if (Double.isNaN(value)) {
+      nanCount--;
+    } else if (value == Double.POSITIVE_INFINITY) {
+      positiveInfinityCount--;
+    } else if (value == Double.NEGATIVE_INFINITY) {
+      negativeInfinityCount--;
+    } else if (finiteCount == 1) {
+      resetMoments();
+    } else {
+      double delta = value - mean;
+      finiteCount--;
+      mean -= delta / finiteCount;
+      m2 -= delta * (value - mean);
+      if (++evictionsSinceRecomputation >= getCapacity()) {
+        recomputeMoments();
+      }
+    }
+  }
+
+  /**
+   * Resets the statistics to those of an empty window.
+   */
+  @Override
+  void onClear() {
+    maxDeque.clear();
+    minDeque.clear();
+    resetMoments();
+    nanCount = 0;
+    positiveInfinityCount = 0;
+    negativeInfinityCount = 0;
+  }
+
+  /**
+   * Returns the sum of the values in the window.
+   *
+   * @return The sum, or 0 if the window is empty.
+   */
+  public double getSum() {
+    double nonFiniteSum = getNonFiniteMean();
+    return nonFiniteSum == 0 ? mean * finiteCount : nonFiniteSum;
+  }
+
+  /**
+   * Returns the arithmetic mean of the values in the window.
+   *
+   * @return The mean, or NaN if the window is empty.
+   */
+  public double getMean() {
+    if (getCount() == 0) {
+      return Double.NaN;
+    }
+    double nonFiniteMean = getNonFiniteMean();
+    return nonFiniteMean == 0 ? mean : nonFiniteMean;
+  }
+
+  /**
+   * Returns the population variance of the values in the window.
+   *
+   * @return The variance, or NaN if the window is empty or holds NaN or infinite values.
+   */
+  public double getVariance() {
+    if (getCount() == 0 || getCount() != finiteCount) {
+      return Double.NaN;
+    }
+    return Math.max(0, m2 / finiteCount);
+  }
+
+  /**
+   * Returns the population standard deviation of the values in the window.
+   *
+   * @return The standard deviation, or NaN if the window is empty or holds NaN or infinite
+   *     values.
+   */
+  public double getStandardDeviation() {
+    return Math.sqrt(getVariance());
+  }
+
+  /**
+   * Returns the smallest value in the window.
+   *
+   * @return The minimum, or positive infinity if the window is empty.
+   */
+  public double getMin() {
+    return minDeque.isEmpty() ? Double.POSITIVE_INFINITY : minDeque.peek();
+  }
+
+  /**
+   * Returns the largest value in the window.
+   *
+   * @return The maximum, or negative infinity if the window is empty.
+   */
+  public double getMax() {
+    return maxDeque.isEmpty() ? Double.NEGATIVE_INFINITY : maxDeque.peek();
+  }
+
+  /**
+   * Returns a string representation of the window.
+   *
+   * @return The string representation of the window.
+   */
+  @Override
+  public String toString() {
+    return String.format(
+        "%s{count=%d, capacity=%d, mean=%s, variance=%s, min=%s, max=%s}",
+        getClass().getSimpleName(),
+        getCount(),
+        getCapacity(),
+        getMean(),
+        getVariance(),
+        getMin(),
+        getMax()
+    );
+  }
+
+  /**
+   * Recomputes the mean and the sum of squared deviations of the finite values in the window with
+   * two passes over the buffer, discarding the rounding errors of the inverse updates.
+   */
+  private void recomputeMoments() {
+    double sum = 0;
+    for (long sequence = getFirstSequence(); sequence < getNextSequence(); sequence++) {
+      double value = getValue(sequence);
+      if (Double.isFinite(value)) {
+        sum += value;
+      }
+    }
+    mean = sum / finiteCount;
+    double squaredDeviationSum = 0;
+    for (long sequence = getFirstSequence(); sequence < getNextSequence(); sequence++) {
+      double value = getValue(sequence);
+      if (Double.isFinite(value)) {
+        double deviation = value - mean;
+        squaredDeviationSum += deviation * deviation;
+      }
+    }
+    m2 = squaredDeviationSum;
+    evictionsSinceRecomputation = 0;
+  }
+
+  /**
+   * Resets the mean and variance of the finite values to those of an empty window.
+   */
+  private void resetMoments() {
+    finiteCount = 0;
+    mean = 0;
+    m2 = 0;
+    evictionsSinceRecomputation = 0;
+  }
+
+  /**
+   * Returns the mean of the window as determined by its NaN and infinite values alone.
+   *
+   * @return NaN if the window holds NaN or infinities of both signs, the sign of its infinities
+   *     if it holds infinities of one sign, and 0 if every value is finite.
+   */
+  private double getNonFiniteMean() {
+    if (nanCount > 0 || positiveInfinityCount > 0 && negativeInfinityCount > 0) {
+      return Double.NaN;
+    } else if (positiveInfinityCount > 0) {
+      return Double.POSITIVE_INFINITY;
+    } else if (negativeInfinityCount > 0) {
+      return Double.NEGATIVE_INFINITY;
+    }
+    return 0;
+  }
+}
@@ -0,0 +1,434 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongFunction;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Approximate heavy hitters sketch using the Space-Saving algorithm. It tracks at most a fixed
+ * number of elements, so its memory stays bounded however many distinct elements are added.
+ * With a capacity of m counters and n elements added:
+ * <ul>
+ *   <li>Every element that occurred more than n / m times is tracked.</li>
+ *   <li>The estimated count of a tracked element is never lower than its actual count, and
+ *   exceeds it by at most n / m.</li>
+ * </ul>
+ * Sketches filled by different threads can be merged while preserving these bounds, so it can
+ * be used as the container of a parallel {@link java.util.stream.DoubleStream#collect}
+ * reduction. For more information: https://doi.org/10.1007/978-3-540-30570-5_27
+ *
+ * <p>Elements are compared the same way as {@link Double#equals(Object)}.
+ *
+ * <p>This class is not thread safe.
+ */
+public class SpaceSavingSketch {
+
+  static {
+    I18nUtility.addResourceBundle(
+        SpaceSavingSketch.class,
+        SpaceSavingSketch.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Keys of the tracked elements, by counter.
+   */
+  private final long[] keys;
+  /**
+   * Estimated counts of the tracked elements, by counter.
+   */
+  private final long[] counts;
+  /**
+   * Maximum overestimation of the tracked elements, by counter.
+   */
+  private final long[] errors;
+  /**
+   * Counters ordered as a binary min heap of their counts.
+   */
+  private final int[] heap;
+  /**
+   * Position of each counter in the heap.
+   */
+  private final int[] heapPositions;
+  /**
+   * Open addressing index from key to counter, where -1 marks an empty slot.
+   */
+  private final int[] index;
+  /**
+   * Number of counters in use.
+   */
+  private int size;
+  /**
+   * Total number of elements added.
+   */
+  private long totalCount;
+
+  /**
+   * Creates a sketch with the provided number of counters.
+   *
+   * @param capacity The number of counters, which bounds both the memory used and the maximum
+   *                 error of the estimates to 1 / capacity of the elements added.
+   */
+  public SpaceSavingSketch(int capacity) {
+    validateCapacity(capacity);
+    keys = new long[capacity];
+    counts = new long[capacity];
+    errors = new long[capacity];
+    heap = new int[capacity];
+    heapPositions = new int[capacity];
+    index = new int[Integer.highestOneBit(capacity) << 2];
+    Arrays.fill(index, -1);
+  }
+
+  /**
+   * Validates the number of counters of a sketch.
+   *
+   * @param capacity The number of counters to validate.
+   */
+  static void validateCapacity(int capacity) {
+    if (capacity < 1) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "SpaceSavingSketch.error.invalidCapacity",
+              capacity
+          )
+      );
+    }
+  }
+
+  /**
+   * Creates a sketch whose estimates exceed the actual counts by at most the provided fraction of
+   * the elements added.
+   *
+   * @param maximumError The maximum error of the estimates as a fraction of the elements added,
+   *                     greater than 0 and at most 1.
+   * @return The sketch.
+   */
+  public static SpaceSavingSketch withMaximumError(double maximumError) {
+    return new SpaceSavingSketch(getCapacity(maximumError));
+  }
+
+  /**
+   * Computes the number of counters needed to bound the error of the estimates to the provided
+   * fraction of the elements added.
+   *
+   * @param maximumError The maximum error of the estimates as a fraction of the elements added,
+   *                     greater than 0 and at most 1.
+   * @return The number of counters.
+   */
+  static int getCapacity(double maximumError) {
+    if (!(maximumError > 0 && maximumError <= 1)) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "SpaceSavingSketch.error.invalidMaximumError",
+              maximumError
+          )
+      );
+    }
+    return (int) Math.min(Integer.MAX_VALUE >> 3, Math.ceil(1 / maximumError));
+  }
+
+  /**
+   * Adds an element to the sketch.
+   *
+   * @param value The element to add.
+   */
+  public void add(double value) {
+    addKey(Double.doubleToLongBits(value), 1);
+  }
+
+  /**
+   * Adds several occurrences of an element to the sketch.
+   *
+   * @param value The element to add.
+   * @param count The number of occurrences to add, greater than 0.
+   */
+  public void add(double value, long count) {
+    addKey(Double.doubleToLongBits(value), count);
+  }
+
+  /**
+   * Adds several occurrences of an element identified by a long key to the sketch.
+   *
+   * @param key   The key of the element to add.
+   * @param count The number of occurrences to add, greater than 0.
+   */
+  void addKey(long key, long count) {
+    totalCount += count;
+    int counter = find(key);
+    if (counter >= 0) {
+      counts[counter] += count;
+      siftDown(heapPositions[counter]);
+    } else if (size < keys.length) {
+      counter = size++;
+      keys[counter] = key;
+      counts[counter] = count;
+      errors[counter] = 0;
+      insert(key, counter);
+      heap[counter] = counter;
+      heapPositions[counter] = counter;
+      siftUp(counter);
+    } else {
+      // Replace the element with the smallest count. Its count is the most the new element could
+      // have occurred without being tracked.
+      counter = heap[0];
+      long minimumCount = counts[counter];
+      remove(keys[counter]);
+      keys[counter] = key;
+      counts[counter] = minimumCount + count;
+      errors[counter] = minimumCount;
+      insert(key, counter);
+      siftDown(0);
+    }
+  }
+
+  /**
+   * Merges another sketch into this one. Elements tracked by only one of the sketches may have
+   * occurred up to the smallest count of the other one there, which is added to both their count
+   * and error, before the elements with the largest counts are kept.
+   *
+   * @param other The sketch to merge into this one.
+   */
+  public void merge(SpaceSavingSketch other) {
+    long minimumCount = getMinimumCount();
+    long otherMinimumCount = other.getMinimumCount();
+    int mergedSize = size + other.size;
+    long[] mergedKeys = new long[mergedSize];
+    long[] mergedCounts = new long[mergedSize];
+    long[] mergedErrors = new long[mergedSize];
+
+    int mergedIndex = 0;
+    for (int counter = 0; counter < size; counter++) {
+      int otherCounter = other.find(keys[counter]);
+      mergedKeys[mergedIndex] = keys[counter];
+      mergedCounts[mergedIndex] = counts[counter]
+          + (otherCounter >= 0 ? other.counts[otherCounter] : otherMinimumCount);
+      mergedErrors[mergedIndex++] = errors[counter]
+          + (otherCounter >= 0 ? other.errors[otherCounter] : otherMinimumCount);
+    }
+    for (int otherCounter = 0; otherCounter < other.size; otherCounter++) {
+      if (find(other.keys[otherCounter]) < 0) {
+        mergedKeys[mergedIndex] = other.keys[otherCounter];
+        mergedCounts[mergedIndex] = other.counts[otherCounter] + minimumCount;
+        mergedErrors[mergedIndex++] = other.errors[otherCounter] + minimumCount;
+      }
+    }
+
+    Integer[] order = new Integer[mergedIndex];
+    Arrays.setAll(order, position -> position);
+    Arrays.sort(order, (first, second) -> Long.compare(mergedCounts[second], mergedCounts[first]));
+
+    long mergedTotalCount = totalCount + other.totalCount;
+    clear();
+    for (int position = 0; position < Math.min(order.length, keys.length); position++) {
+      int mergedCounter = order[position];
+      int counter = size++;
+      keys[counter] = mergedKeys[mergedCounter];
+      counts[counter] = mergedCounts[mergedCounter];
+      errors[counter] = mergedErrors[mergedCounter];
+      insert(keys[counter], counter);
+      heap[counter] = counter;
+      heapPositions[counter] = counter;
+      siftUp(counter);
+    }
+    totalCount = mergedTotalCount;
+  }
+
+  /**
+   * Returns the estimated number of occurrences of an element. For an element that isn't
+   * tracked, this is 0, although it may have occurred up to {@link #getMaximumError()} times.
+   *
+   * @param value The element to estimate.
+   * @return The estimated number of occurrences.
+   */
+  public long estimateCount(double value) {
+    int counter = find(Double.doubleToLongBits(value));
+    return counter >= 0 ? counts[counter] : 0;
+  }
+
+  /**
+   * Returns the elements with the largest estimated counts, largest first.
+   *
+   * @param topNumbers The number of elements to return.
+   * @return The elements with the largest estimated counts and their bounds.
+   */
+  public List<HeavyHitter<Double>> getHeavyHitters(int topNumbers) {
+    return getHeavyHitters(topNumbers, Double::longBitsToDouble);
+  }
+
+  /**
+   * Returns the elements with the largest estimated counts, largest first.
+   *
+   * @param topNumbers The number of elements to return.
+   * @param decoder    Converts the keys of the elements back into elements.
+   * @param <ValueT>   Type of the elements.
+   * @return The elements with the largest estimated counts and their bounds.
+   */
+  <ValueT extends Number> List<HeavyHitter<ValueT>> getHeavyHitters(int topNumbers,
+      LongFunction<ValueT> decoder) {
+    Integer[] order = new Integer[size];
+    Arrays.setAll(order, counter -> counter);
+    Arrays.sort(order, (first, second) -> Long.compare(counts[second], counts[first]));
+
+    List<HeavyHitter<ValueT>> heavyHitters = new ArrayList<>(Math.min(topNumbers, size));
+    for (int position = 0; position < Math.min(topNumbers, size); position++) {
+      int counter = order[position];
+      heavyHitters.add(
+          new HeavyHitter<>(decoder.apply(keys[counter]), counts[counter], errors[counter])
+      );
+    }
+    return heavyHitters;
+  }
+
+  /**
+   * Returns the maximum amount by which any estimate exceeds the actual count. This is the
+   * smallest tracked count once every counter is in use, and never more than the number of
+   * elements added divided by the capacity.
+   *
+   * @return The maximum overestimation of any element.
+   */
+  public long getMaximumError() {
+    return getMinimumCount();
+  }
+
+  /**
+   * Returns the number of counters of the sketch.
+   *
+   * @return The number of counters.
+   */
+  public int getCapacity() {
+    return keys.length;
+  }
+
+  /**
+   * Returns the number of elements added to the sketch.
+   *
+   * @return The number of elements added.
+   */
+  public long getTotalCount() {
+    return totalCount;
+  }
+
+  /**
+   * Returns the smallest tracked count if every counter is in use, or 0 otherwise.
+   *
+   * @return The smallest tracked count.
+   */
+  private long getMinimumCount() {
+    return size < keys.length ? 0 : counts[heap[0]];
+  }
+
+  /**
+   * Removes every element from the sketch.
+   */
+  private void clear() {
+    Arrays.fill(index, -1);
+    size = 0;
+    totalCount = 0;
+  }
+
+  /**
+   * Finds the counter tracking a key.
+   *
+   * @param key The key to find.
+   * @return The counter tracking the key, or -1 if it isn't tracked.
+   */
+  private int find(long key) {
+    int mask = index.length - 1;
+    for (int slot = LongCountMap.hash(key) & mask; index[slot] >= 0; slot = (slot + 1) & mask) {
+      if (keys[index[slot]] == key) {
+        return index[slot];
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Indexes a key that isn't tracked yet.
+   *
+   * @param key     The key to index.
+   * @param counter The counter tracking the key.
+   */
+  private void insert(long key, int counter) {
+    int mask = index.length - 1;
+    int slot = LongCountMap.hash(key) & mask;
+    while (index[slot] >= 0) {
+      slot = (slot + 1) & mask;
+    }
+    index[slot] = counter;
+  }
+
+  /**
+   * Removes a tracked key from the index, shifting back the entries after it so that no probe
+   * sequence is broken.
+   *
+   * @param key The key to remove.
+   */
+  private void remove(long key) {
+    int mask = index.length - 1;
+    int slot = LongCountMap.hash(key) & mask;
+    while (keys[index[slot]] != key) {
+      slot = (slot + 1) & mask;
+    }
+    int nextSlot = (slot + 1) & mask;
+    while (index[nextSlot] >= 0) {
+      int idealSlot = LongCountMap.hash(keys[index[nextSlot]]) & mask;
+      // Move the entry back if the emptied slot lies on its probe sequence.
+      if (((nextSlot - idealSlot) & mask) >= ((nextSlot - slot) & mask)) {
+        index[slot] = index[nextSlot];
+        slot = nextSlot;
+      }
+      nextSlot = (nextSlot + 1) & mask;
+    }
+    index[slot] = -1;
+  }
+
+  /**
+   * Moves the counter at the provided heap position up until the heap order is restored.
+   *
+   * @param position The heap position of the counter to move.
+   */
+  private void siftUp(int position) {
+    int counter = heap[position];
+    while (position > 0) {
+      int parent = (position - 1) >>> 1;
+      if (counts[heap[parent]] <= counts[counter]) {
+        break;
+      }
+      heap[position] = heap[parent];
+      heapPositions[heap[position]] = position;
+      position = parent;
+    }
+    heap[position] = counter;
+    heapPositions[counter] = position;
+  }
+
+  /**
+   * Moves the counter at the provided heap position down until the heap order is restored.
+   *
+   * @param position The heap position of the counter to move.
+   */
+  private void siftDown(int position) {
+    int counter = heap[position];
+    int half = size >>> 1;
+    while (position < half) {
+      int child = 2 * position + 1;
+      int right = child + 1;
+      if (right < size && counts[heap[right]] < counts[heap[child]]) {
+        child = right;
+      }
+      if (counts[counter] <= counts[heap[child]]) {
+        break;
+      }
+      heap[position] = heap[child];
+      heapPositions[heap[position]] = position;
+      position = child;
+    }
+    heap[position] = counter;
+    heapPositions[counter] = position;
+  }
+}
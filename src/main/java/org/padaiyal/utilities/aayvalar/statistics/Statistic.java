@@ -0,0 +1,18 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+/**
+ * Enum used for representing the statistics a {@link StatisticsQuery} can compute without
+ * parameters.
+ */
+public enum Statistic {
+  COUNT,
+  SUM,
+  MIN,
+  MAX,
+  MEAN,
+  VARIANCE,
+  STANDARD_DEVIATION,
+  SKEWNESS,
+  KURTOSIS,
+  MEDIAN
+}
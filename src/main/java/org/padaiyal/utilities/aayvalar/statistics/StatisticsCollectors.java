@@ -0,0 +1,419 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collector;
+import java.util.stream.Collector.Characteristics;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * {@link Collector} implementations computing statistics directly from streams, without
+ * collecting the elements into a collection first. For example, the mean and standard deviation
+ * of the prices of each category:
+ * <pre>{@code
+ * Map<String, MomentsAccumulator> moments = products.stream().collect(Collectors.groupingBy(
+ *     Product::getCategory,
+ *     StatisticsCollectors.toMoments(Product::getPrice)
+ * ));
+ * }</pre>
+ * Every collector has a variant for streams of numbers and a variant mapping each element to a
+ * primitive double. The containers of the collectors hold primitive doubles and merge correctly,
+ * so the collectors work with parallel streams and as downstream collectors.
+ *
+ * <p>Primitive streams can use the same containers through
+ * {@link java.util.stream.DoubleStream#collect}, as {@link StatisticsUtility} does.
+ */
+public final class StatisticsCollectors {
+
+  static {
+    I18nUtility.addResourceBundle(
+        StatisticsCollectors.class,
+        StatisticsCollectors.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Empty private constructor as this class is not meant to be used as an instance.
+   */
+  private StatisticsCollectors() {
+  }
+
+  /**
+   * Returns a collector accumulating the count, extremes, mean and central moments of numbers.
+   *
+   * @return The collector.
+   */
+  public static Collector<Number, ?, MomentsAccumulator> toMoments() {
+    return toMoments(StatisticsUtility::toDouble);
+  }
+
+  /**
+   * Returns a collector accumulating the count, extremes, mean and central moments of the double
+   * values of elements.
+   *
+   * @param mapper Maps each element to its double value.
+   * @param <T>    Type of the elements.
+   * @return The collector.
+   */
+  public static <T> Collector<T, ?, MomentsAccumulator> toMoments(
+      ToDoubleFunction<? super T> mapper) {
+    Objects.requireNonNull(mapper);
+    return Collector.of(
+        MomentsAccumulator::new,
+        (moments, element) -> moments.accept(mapper.applyAsDouble(element)),
+        (moments, otherMoments) -> {
+          moments.combine(otherMoments);
+          return moments;
+        },
+        Characteristics.IDENTITY_FINISH
+    );
+  }
+
+  /**
+   * Returns a collector accumulating the count, means and co-moments of the columns of rows, from
+   * which their covariance and correlation matrices are derived.
+   *
+   * @param dimension The number of values in each row.
+   * @return The collector.
+   */
+  public static Collector<double[], ?, CovarianceAccumulator> toCoMoments(int dimension) {
+    CovarianceAccumulator.validateDimension(dimension);
+    return Collector.of(
+        () -> new CovarianceAccumulator(dimension),
+        CovarianceAccumulator::accept,
+        (coMoments, otherCoMoments) -> {
+          coMoments.combine(otherCoMoments);
+          return coMoments;
+        },
+        Characteristics.IDENTITY_FINISH
+    );
+  }
+
+  /**
+   * Returns a collector accumulating the count, means and co-moments of several double values of
+   * elements, for example to correlate the metrics of records with each other.
+   *
+   * @param mappers Maps each element to the double value of each column.
+   * @param <T>     Type of the elements.
+   * @return The collector.
+   */
+  public static <T> Collector<T, ?, CovarianceAccumulator> toCoMoments(
+      List<? extends ToDoubleFunction<? super T>> mappers) {
+    Objects.requireNonNull(mappers);
+    List<? extends ToDoubleFunction<? super T>> columnMappers = List.copyOf(mappers);
+    int dimension = columnMappers.size();
+    CovarianceAccumulator.validateDimension(dimension);
+    return Collector.of(
+        () -> new CovarianceAccumulator(dimension),
+        (coMoments, element) -> {
+          double[] row = new double[dimension];
+          for (int column = 0; column < dimension; column++) {
+            row[column] = columnMappers.get(column).applyAsDouble(element);
+          }
+          coMoments.accept(row);
+        },
+        (coMoments, otherCoMoments) -> {
+          coMoments.combine(otherCoMoments);
+          return coMoments;
+        },
+        Characteristics.IDENTITY_FINISH
+    );
+  }
+
+  /**
+   * Returns a collector summarizing numbers.
+   *
+   * @return The collector.
+   */
+  public static Collector<Number, ?, DoubleSummaryStatistics> toSummaryStatistics() {
+    return toSummaryStatistics(StatisticsUtility::toDouble);
+  }
+
+  /**
+   * Returns a collector summarizing the double values of elements.
+   *
+   * @param mapper Maps each element to its double value.
+   * @param <T>    Type of the elements.
+   * @return The collector.
+   */
+  public static <T> Collector<T, ?, DoubleSummaryStatistics> toSummaryStatistics(
+      ToDoubleFunction<? super T> mapper) {
+    Objects.requireNonNull(mapper);
+    return Collector.of(
+        DoubleSummaryStatistics::new,
+        (summaryStatistics, element) -> summaryStatistics.accept(mapper.applyAsDouble(element)),
+        (summaryStatistics, otherSummaryStatistics) -> {
+          summaryStatistics.combine(otherSummaryStatistics);
+          return summaryStatistics;
+        },
+        Characteristics.IDENTITY_FINISH
+    );
+  }
+
+  /**
+   * Returns a collector computing the mean of numbers. The terms of the mean are summed with
+   * compensated summation.
+   *
+   * @param meanType The type of mean to compute.
+   * @return The collector, whose result is NaN if there are no elements.
+   */
+  public static Collector<Number, ?, Double> toMean(MeanType meanType) {
+    return toMean(meanType, StatisticsUtility::toDouble);
+  }
+
+  /**
+   * Returns a collector computing the mean of the double values of elements. The terms of the
+   * mean are summed with compensated summation.
+   *
+   * @param meanType The type of mean to compute.
+   * @param mapper   Maps each element to its double value.
+   * @param <T>      Type of the elements.
+   * @return The collector, whose result is NaN if there are no elements.
+   */
+  public static <T> Collector<T, ?, Double> toMean(MeanType meanType,
+      ToDoubleFunction<? super T> mapper) {
+    Objects.requireNonNull(meanType);
+    Objects.requireNonNull(mapper);
+    if (meanType != MeanType.ARITHMETIC && meanType != MeanType.GEOMETRIC
+        && meanType != MeanType.HARMONIC) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "StatisticsCollectors.error.invalidMeanType",
+              meanType.toString()
+          )
+      );
+    }
+    return Collector.of(
+        () -> new MeanAccumulator(meanType),
+        (mean, element) -> mean.accept(mapper.applyAsDouble(element)),
+        (mean, otherMean) -> {
+          mean.merge(otherMean);
+          return mean;
+        },
+        MeanAccumulator::getMean
+    );
+  }
+
+  /**
+   * Returns a collector counting the occurrences of each number.
+   *
+   * @return The collector.
+   */
+  public static Collector<Number, ?, DoubleCountMap> toFrequencyTable() {
+    return toFrequencyTable(StatisticsUtility::toDouble);
+  }
+
+  /**
+   * Returns a collector counting the occurrences of the double value of each element.
+   *
+   * @param mapper Maps each element to its double value.
+   * @param <T>    Type of the elements.
+   * @return The collector.
+   */
+  public static <T> Collector<T, ?, DoubleCountMap> toFrequencyTable(
+      ToDoubleFunction<? super T> mapper) {
+    Objects.requireNonNull(mapper);
+    return Collector.of(
+        DoubleCountMap::new,
+        (frequencyTable, element) -> frequencyTable.add(mapper.applyAsDouble(element)),
+        (frequencyTable, otherFrequencyTable) -> {
+          frequencyTable.merge(otherFrequencyTable);
+          return frequencyTable;
+        },
+        Characteristics.IDENTITY_FINISH,
+        Characteristics.UNORDERED
+    );
+  }
+
+  /**
+   * Returns a collector retaining the largest numbers in bounded heaps.
+   *
+   * @param topNumbers The number of largest values to retain.
+   * @return The collector, whose result is the largest values, largest first.
+   */
+  public static Collector<Number, ?, double[]> toTopMaxValues(int topNumbers) {
+    return toTopValues(topNumbers, true, StatisticsUtility::toDouble);
+  }
+
+  /**
+   * Returns a collector retaining the largest double values of elements in bounded heaps.
+   *
+   * @param topNumbers The number of largest values to retain.
+   * @param mapper     Maps each element to its double value.
+   * @param <T>        Type of the elements.
+   * @return The collector, whose result is the largest values, largest first.
+   */
+  public static <T> Collector<T, ?, double[]> toTopMaxValues(int topNumbers,
+      ToDoubleFunction<? super T> mapper) {
+    return toTopValues(topNumbers, true, mapper);
+  }
+
+  /**
+   * Returns a collector retaining the smallest numbers in bounded heaps.
+   *
+   * @param topNumbers The number of smallest values to retain.
+   * @return The collector, whose result is the smallest values, smallest first.
+   */
+  public static Collector<Number, ?, double[]> toTopMinValues(int topNumbers) {
+    return toTopValues(topNumbers, false, StatisticsUtility::toDouble);
+  }
+
+  /**
+   * Returns a collector retaining the smallest double values of elements in bounded heaps.
+   *
+   * @param topNumbers The number of smallest values to retain.
+   * @param mapper     Maps each element to its double value.
+   * @param <T>        Type of the elements.
+   * @return The collector, whose result is the smallest values, smallest first.
+   */
+  public static <T> Collector<T, ?, double[]> toTopMinValues(int topNumbers,
+      ToDoubleFunction<? super T> mapper) {
+    return toTopValues(topNumbers, false, mapper);
+  }
+
+  /**
+   * Returns a collector summarizing numbers in a t-digest of the default compression.
+   *
+   * @return The collector.
+   */
+  public static Collector<Number, ?, TDigest> toQuantileSketch() {
+    return toQuantileSketch(TDigest.defaultCompression, StatisticsUtility::toDouble);
+  }
+
+  /**
+   * Returns a collector summarizing the double values of elements in a t-digest.
+   *
+   * @param compression The compression of the digest, between 1 and 1000000.
+   * @param mapper      Maps each element to its double value.
+   * @param <T>         Type of the elements.
+   * @return The collector.
+   */
+  public static <T> Collector<T, ?, TDigest> toQuantileSketch(double compression,
+      ToDoubleFunction<? super T> mapper) {
+    TDigest.validateCompression(compression);
+    Objects.requireNonNull(mapper);
+    return Collector.of(
+        () -> new TDigest(compression),
+        (digest, element) -> digest.add(mapper.applyAsDouble(element)),
+        (digest, otherDigest) -> {
+          digest.merge(otherDigest);
+          return digest;
+        },
+        Characteristics.IDENTITY_FINISH,
+        Characteristics.UNORDERED
+    );
+  }
+
+  /**
+   * Returns a collector computing the statistics of a query over numbers. The order statistics
+   * need every value, so the values are gathered in a primitive array, which takes a fraction of
+   * the memory of a collection of boxed numbers.
+   *
+   * @param query The statistics to compute.
+   * @return The collector, which throws a {@link java.util.NoSuchElementException} if there are
+   *     no elements.
+   */
+  public static Collector<Number, ?, StatisticsReport> toReport(StatisticsQuery query) {
+    return toReport(query, StatisticsUtility::toDouble);
+  }
+
+  /**
+   * Returns a collector computing the statistics of a query over the double values of elements.
+   * The order statistics need every value, so the values are gathered in a primitive array, which
+   * takes a fraction of the memory of a collection of boxed numbers.
+   *
+   * @param query  The statistics to compute.
+   * @param mapper Maps each element to its double value.
+   * @param <T>    Type of the elements.
+   * @return The collector, which throws a {@link java.util.NoSuchElementException} if there are
+   *     no elements.
+   */
+  public static <T> Collector<T, ?, StatisticsReport> toReport(StatisticsQuery query,
+      ToDoubleFunction<? super T> mapper) {
+    Objects.requireNonNull(query);
+    Objects.requireNonNull(mapper);
+    return Collector.of(
+        GrowableDoubleArray::new,
+        (values, element) -> values.accept(mapper.applyAsDouble(element)),
+        (values, otherValues) -> {
+          values.append(otherValues);
+          return values;
+        },
+        values -> query.compute(values.getValues(), 0, values.size())
+    );
+  }
+
+  /**
+   * Returns a collector computing grouped statistics over elements. Unlike a
+   * {@link java.util.stream.Collectors#groupingBy} of a statistics collector, each container is a
+   * single hash table of primitive accumulators, and parallel streams merge the tables of their
+   * threads once at the end.
+   *
+   * @param statistics  The statistics to compute for each group.
+   * @param keyMapper   Maps each element to the key of its group. Null is a valid key.
+   * @param valueMapper Maps each element to its double value.
+   * @param <T>         Type of the elements.
+   * @param <K>         Type of the keys.
+   * @return The collector, whose result is the statistics of each group, by key.
+   */
+  public static <T, K> Collector<T, ?, Map<K, GroupAccumulator>> toGroupedStatistics(
+      GroupedStatistics statistics, Function<? super T, ? extends K> keyMapper,
+      ToDoubleFunction<? super T> valueMapper) {
+    Objects.requireNonNull(statistics);
+    Objects.requireNonNull(keyMapper);
+    Objects.requireNonNull(valueMapper);
+    return Collector.of(
+        HashMap::new,
+        (groups, element) -> groups
+            .computeIfAbsent(keyMapper.apply(element), key -> statistics.newAccumulator())
+            .accept(valueMapper.applyAsDouble(element)),
+        (groups, otherGroups) -> {
+          otherGroups.forEach((key, otherGroup) -> {
+            GroupAccumulator group = groups.putIfAbsent(key, otherGroup);
+            if (group != null) {
+              group.combine(otherGroup);
+            }
+          });
+          return groups;
+        },
+        Characteristics.IDENTITY_FINISH
+    );
+  }
+
+  /**
+   * Returns a collector retaining the top double values of elements in bounded heaps.
+   *
+   * @param topNumbers The number of top values to retain.
+   * @param largest    Whether the top values are the largest ones, rather than the smallest ones.
+   * @param mapper     Maps each element to its double value.
+   * @param <T>        Type of the elements.
+   * @return The collector, whose result is the top values, largest first if they are the largest
+   *     ones and smallest first otherwise.
+   */
+  private static <T> Collector<T, ?, double[]> toTopValues(int topNumbers, boolean largest,
+      ToDoubleFunction<? super T> mapper) {
+    if (topNumbers < 1) {
+      throw new IllegalArgumentException(
+          I18nUtility.getString("StatisticsCollectors.error.negativeTopNumberIsProvided")
+      );
+    }
+    Objects.requireNonNull(mapper);
+    return Collector.of(
+        () -> new BoundedDoubleHeap(topNumbers, largest),
+        (heap, element) -> heap.offer(mapper.applyAsDouble(element)),
+        (heap, otherHeap) -> {
+          heap.merge(otherHeap);
+          return heap;
+        },
+        BoundedDoubleHeap::toSortedArray,
+        Characteristics.UNORDERED
+    );
+  }
+}
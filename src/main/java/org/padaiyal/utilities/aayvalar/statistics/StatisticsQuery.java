@@ -0,0 +1,449 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Declares several statistics to compute together over the same values, for example:
+ * <pre>{@code
+ * StatisticsReport report = StatisticsQuery.of(Statistic.MEAN, Statistic.STANDARD_DEVIATION)
+ *     .withPercentiles(90, 99)
+ *     .withTopMaxValues(10)
+ *     .compute(values);
+ * }</pre>
+ * Instead of traversing the values once per statistic, a query plans at most two passes:
+ * <ul>
+ *   <li>A single streaming pass for the count, sum, extremes and moments. It sums the values
+ *   with the unrolled kernel of the sums, and accumulates their moments from each chunk's sum
+ *   when the variance, the standard deviation, the skewness or the kurtosis are requested.</li>
+ *   <li>A single selection pass over one copy of the values for the median, the percentiles and
+ *   the top values. Every rank they need is selected at once, without sorting the values.</li>
+ * </ul>
+ * The streaming pass reduces the same chunks as {@link StatisticsUtility}, so every statistic is
+ * exactly the same as when it is computed on its own.
+ *
+ * <p>Instances are immutable and thread safe. Each {@code with} method returns a new query.
+ */
+public final class StatisticsQuery {
+
+  static {
+    I18nUtility.addResourceBundle(
+        StatisticsQuery.class,
+        StatisticsQuery.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Statistics computed by the streaming pass.
+   */
+  private static final Set<Statistic> streamingStatistics = EnumSet.of(
+      Statistic.SUM,
+      Statistic.MIN,
+      Statistic.MAX,
+      Statistic.MEAN,
+      Statistic.VARIANCE,
+      Statistic.STANDARD_DEVIATION,
+      Statistic.SKEWNESS,
+      Statistic.KURTOSIS
+  );
+
+  /**
+   * Statistics that need the moments to be accumulated.
+   */
+  private static final Set<Statistic> momentStatistics = EnumSet.of(
+      Statistic.VARIANCE,
+      Statistic.STANDARD_DEVIATION,
+      Statistic.SKEWNESS,
+      Statistic.KURTOSIS
+  );
+
+  /**
+   * The statistics without parameters to compute.
+   */
+  private final EnumSet<Statistic> statistics;
+  /**
+   * The percentiles to compute, between 0 and 100.
+   */
+  private final double[] percentiles;
+  /**
+   * The number of largest values to retrieve, 0 for none.
+   */
+  private final int topMaxNumbers;
+  /**
+   * The number of smallest values to retrieve, 0 for none.
+   */
+  private final int topMinNumbers;
+
+  /**
+   * Creates a query.
+   *
+   * @param statistics    The statistics without parameters to compute.
+   * @param percentiles   The percentiles to compute.
+   * @param topMaxNumbers The number of largest values to retrieve, 0 for none.
+   * @param topMinNumbers The number of smallest values to retrieve, 0 for none.
+   */
+  private StatisticsQuery(EnumSet<Statistic> statistics, double[] percentiles, int topMaxNumbers,
+      int topMinNumbers) {
+    this.statistics = statistics;
+    this.percentiles = percentiles;
+    this.topMaxNumbers = topMaxNumbers;
+    this.topMinNumbers = topMinNumbers;
+  }
+
+  /**
+   * Creates a query computing the provided statistics.
+   *
+   * @param statistics The statistics to compute.
+   * @return The query.
+   */
+  public static StatisticsQuery of(Statistic... statistics) {
+    return new StatisticsQuery(EnumSet.noneOf(Statistic.class), new double[0], 0, 0)
+        .with(statistics);
+  }
+
+  /**
+   * Creates a copy of this query also computing the provided statistics.
+   *
+   * @param statistics The statistics to compute.
+   * @return The query computing the provided statistics.
+   */
+  public StatisticsQuery with(Statistic... statistics) {
+    Objects.requireNonNull(statistics);
+    EnumSet<Statistic> queriedStatistics = EnumSet.copyOf(this.statistics);
+    for (Statistic statistic : statistics) {
+      queriedStatistics.add(Objects.requireNonNull(statistic));
+    }
+    return new StatisticsQuery(queriedStatistics, percentiles, topMaxNumbers, topMinNumbers);
+  }
+
+  /**
+   * Creates a copy of this query also computing the provided percentiles.
+   *
+   * @param percentiles The percentiles to compute, between 0 and 100.
+   * @return The query computing the provided percentiles.
+   */
+  public StatisticsQuery withPercentiles(double... percentiles) {
+    StatisticsUtility.validatePercentiles(percentiles);
+    double[] queriedPercentiles = DoubleStream.concat(
+        Arrays.stream(this.percentiles),
+        Arrays.stream(percentiles)
+    ).distinct().toArray();
+    return new StatisticsQuery(statistics, queriedPercentiles, topMaxNumbers, topMinNumbers);
+  }
+
+  /**
+   * Creates a copy of this query also retrieving the largest values.
+   *
+   * @param topNumbers The number of largest values to retrieve.
+   * @return The query retrieving the largest values.
+   */
+  public StatisticsQuery withTopMaxValues(int topNumbers) {
+    validateTopNumbers(topNumbers);
+    return new StatisticsQuery(statistics, percentiles, topNumbers, topMinNumbers);
+  }
+
+  /**
+   * Creates a copy of this query also retrieving the smallest values.
+   *
+   * @param topNumbers The number of smallest values to retrieve.
+   * @return The query retrieving the smallest values.
+   */
+  public StatisticsQuery withTopMinValues(int topNumbers) {
+    validateTopNumbers(topNumbers);
+    return new StatisticsQuery(statistics, percentiles, topMaxNumbers, topNumbers);
+  }
+
+  /**
+   * Computes the statistics of the provided collection.
+   *
+   * @param inputCollection The collection to compute the statistics of.
+   * @return The report of the statistics.
+   */
+  public StatisticsReport compute(Collection<? extends Number> inputCollection) {
+    return compute(StatisticsUtility.toDoubleArray(inputCollection));
+  }
+
+  /**
+   * Computes the statistics of the provided array. The array is not modified.
+   *
+   * @param values The array to compute the statistics of.
+   * @return The report of the statistics.
+   */
+  public StatisticsReport compute(double[] values) {
+    Objects.requireNonNull(values);
+    return compute(values, 0, values.length);
+  }
+
+  /**
+   * Computes the statistics of a range of the provided array. The array is not modified.
+   *
+   * @param values The array to compute the statistics of.
+   * @param offset The index of the first element in the range.
+   * @param length The number of elements in the range.
+   * @return The report of the statistics.
+   */
+  public StatisticsReport compute(double[] values, int offset, int length) {
+    Objects.requireNonNull(values);
+    Objects.checkFromIndexSize(offset, length, values.length);
+    if (length == 0) {
+      throw new NoSuchElementException(
+          I18nUtility.getString("StatisticsQuery.error.emptyInput")
+      );
+    }
+
+    EnumMap<Statistic, Double> results = new EnumMap<>(Statistic.class);
+    if (statistics.contains(Statistic.COUNT)) {
+      results.put(Statistic.COUNT, (double) length);
+    }
+    if (statistics.stream().anyMatch(streamingStatistics::contains)) {
+      computeStreamingStatistics(values, offset, length, results);
+    }
+
+    Map<Double, Double> percentileResults = new LinkedHashMap<>();
+    double[] topMaxValues = null;
+    double[] topMinValues = null;
+    boolean median = statistics.contains(Statistic.MEDIAN);
+    if (median || percentiles.length > 0 || topMaxNumbers > 0 || topMinNumbers > 0) {
+      double[] rangeValues = Arrays.copyOfRange(values, offset, offset + length);
+      double[] selectedPercentiles = median
+          ? DoubleStream.concat(Arrays.stream(percentiles), DoubleStream.of(50)).toArray()
+          : percentiles;
+      int topMaxLength = Math.min(topMaxNumbers, length);
+      int topMinLength = Math.min(topMinNumbers, length);
+
+      // Selecting the boundaries of the top values partitions them at both ends of the copy.
+      IntStream ranks = IntStream.of(
+          StatisticsUtility.getPercentileRanks(0, length, selectedPercentiles)
+      );
+      if (topMaxLength > 0) {
+        ranks = IntStream.concat(ranks, IntStream.of(length - topMaxLength));
+      }
+      if (topMinLength > 0) {
+        ranks = IntStream.concat(ranks, IntStream.of(topMinLength - 1));
+      }
+      SelectionUtility.selectAll(rangeValues, 0, length, ranks.sorted().distinct().toArray());
+
+      double[] percentileValues = StatisticsUtility.interpolatePercentiles(
+          rangeValues, 0, length, selectedPercentiles
+      );
+      for (int index = 0; index < percentiles.length; index++) {
+        percentileResults.put(percentiles[index], percentileValues[index]);
+      }
+      if (median) {
+        results.put(Statistic.MEDIAN, percentileValues[percentiles.length]);
+      }
+      if (topMaxNumbers > 0) {
+        topMaxValues = Arrays.copyOfRange(rangeValues, length - topMaxLength, length);
+        Arrays.sort(topMaxValues);
+        BoundedDoubleHeap.reverse(topMaxValues);
+      }
+      if (topMinNumbers > 0) {
+        topMinValues = Arrays.copyOf(rangeValues, topMinLength);
+        Arrays.sort(topMinValues);
+      }
+    }
+    return new StatisticsReport(results, percentileResults, topMaxValues, topMinValues);
+  }
+
+  /**
+   * Computes the statistics of the provided stream.
+   *
+   * @param values The stream to compute the statistics of.
+   * @return The report of the statistics.
+   */
+  public StatisticsReport compute(DoubleStream values) {
+    Objects.requireNonNull(values);
+    return compute(values.toArray());
+  }
+
+  /**
+   * Computes the statistics of the provided array.
+   *
+   * @param values The array to compute the statistics of.
+   * @return The report of the statistics.
+   */
+  public StatisticsReport compute(long[] values) {
+    return compute(StatisticsUtility.toDoubleArray(values));
+  }
+
+  /**
+   * Computes the statistics of the provided array.
+   *
+   * @param values The array to compute the statistics of.
+   * @return The report of the statistics.
+   */
+  public StatisticsReport compute(int[] values) {
+    return compute(StatisticsUtility.toDoubleArray(values));
+  }
+
+  /**
+   * Returns the statistics without parameters this query computes.
+   *
+   * @return The statistics without parameters.
+   */
+  public Set<Statistic> getStatistics() {
+    return EnumSet.copyOf(statistics);
+  }
+
+  /**
+   * Returns the percentiles this query computes.
+   *
+   * @return The percentiles, in the order they were requested.
+   */
+  public double[] getPercentiles() {
+    return percentiles.clone();
+  }
+
+  /**
+   * Returns the number of largest values this query retrieves.
+   *
+   * @return The number of largest values, 0 for none.
+   */
+  public int getTopMaxNumbers() {
+    return topMaxNumbers;
+  }
+
+  /**
+   * Returns the number of smallest values this query retrieves.
+   *
+   * @return The number of smallest values, 0 for none.
+   */
+  public int getTopMinNumbers() {
+    return topMinNumbers;
+  }
+
+  /**
+   * Computes the statistics of the streaming pass over a non empty range.
+   *
+   * @param values  The array to compute the statistics of.
+   * @param offset  The index of the first element in the range.
+   * @param length  The number of elements in the range.
+   * @param results The results to add the statistics to.
+   */
+  private void computeStreamingStatistics(double[] values, int offset, int length,
+      Map<Statistic, Double> results) {
+    boolean momentsRequested = statistics.stream().anyMatch(momentStatistics::contains);
+    StreamingChunk reduction = StatisticsUtility.getExecutionPolicy().reduceInChunks(
+        offset,
+        length,
+        DoubleReduction.chunkSize,
+        (from, to) -> new StreamingChunk(values, from, to, momentsRequested),
+        (chunk, nextChunk) -> {
+          chunk.merge(nextChunk);
+          return chunk;
+        }
+    );
+    double sum = reduction.sum.getSum();
+    results.put(Statistic.SUM, sum);
+    results.put(Statistic.MIN, reduction.min);
+    results.put(Statistic.MAX, reduction.max);
+    results.put(Statistic.MEAN, sum / length);
+    if (momentsRequested) {
+      MomentsAccumulator moments = reduction.moments;
+      results.put(Statistic.VARIANCE, moments.getVariance());
+      results.put(Statistic.STANDARD_DEVIATION, moments.getStandardDeviation());
+      results.put(Statistic.SKEWNESS, moments.getSkewness());
+      results.put(Statistic.KURTOSIS, moments.getKurtosis());
+    }
+    results.keySet().retainAll(statistics);
+  }
+
+  /**
+   * Validates the number of top values requested.
+   *
+   * @param topNumbers The number of top values requested.
+   */
+  private static void validateTopNumbers(int topNumbers) {
+    if (topNumbers < 1) {
+      throw new IllegalArgumentException(
+          I18nUtility.getString("StatisticsQuery.error.negativeTopNumberIsProvided")
+      );
+    }
+  }
+
+  /**
+   * Returns a string representation of the query.
+   *
+   * @return The string representation of the query.
+   */
+  @Override
+  public String toString() {
+    return String.format(
+        "%s{statistics=%s, percentiles=%s, topMaxNumbers=%d, topMinNumbers=%d}",
+        getClass().getSimpleName(), statistics, Arrays.toString(percentiles), topMaxNumbers,
+        topMinNumbers
+    );
+  }
+
+  /**
+   * Partial results of the streaming pass over a chunk of the values.
+   */
+  private static final class StreamingChunk {
+
+    /**
+     * Compensated sum of the values.
+     */
+    private final CompensatedSum sum;
+    /**
+     * Moments of the values, or null if they are not requested.
+     */
+    private final MomentsAccumulator moments;
+    /**
+     * Smallest value.
+     */
+    private double min = Double.POSITIVE_INFINITY;
+    /**
+     * Largest value.
+     */
+    private double max = Double.NEGATIVE_INFINITY;
+
+    /**
+     * Reduces a chunk of an array.
+     *
+     * @param values           The array to reduce.
+     * @param from             The index of the first element in the chunk, inclusive.
+     * @param to               The index of the last element in the chunk, exclusive.
+     * @param momentsRequested Whether to accumulate the moments of the values.
+     */
+    private StreamingChunk(double[] values, int from, int to, boolean momentsRequested) {
+      sum = DoubleReduction.sumChunk(values, from, to);
+      if (momentsRequested) {
+        moments = MomentsAccumulator.of(values, from, to, sum.getSum());
+        min = moments.getMin();
+        max = moments.getMax();
+      } else {
+        moments = null;
+        for (int index = from; index < to; index++) {
+          min = Math.min(min, values[index]);
+          max = Math.max(max, values[index]);
+        }
+      }
+    }
+
+    /**
+     * Combines the partial results of the chunk following this one into this one.
+     *
+     * @param other The partial results of the following chunk.
+     */
+    private void merge(StreamingChunk other) {
+      sum.merge(other.sum);
+      if (moments != null) {
+        moments.combine(other.moments);
+      }
+      min = Math.min(min, other.min);
+      max = Math.max(max, other.max);
+    }
+  }
+}
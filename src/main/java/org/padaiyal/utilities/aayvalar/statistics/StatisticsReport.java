@@ -0,0 +1,255 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * The statistics computed by a {@link StatisticsQuery}. Only the statistics the query requested
+ * are available, asking for any other one throws an {@link IllegalStateException}.
+ *
+ * <p>Instances are immutable and thread safe.
+ */
+public final class StatisticsReport {
+
+  static {
+    I18nUtility.addResourceBundle(
+        StatisticsReport.class,
+        StatisticsReport.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * The statistics without parameters that were computed.
+   */
+  private final Map<Statistic, Double> statistics;
+  /**
+   * The percentiles that were computed, by percentile in the order they were requested.
+   */
+  private final Map<Double, Double> percentiles;
+  /**
+   * The largest values, largest first, or null if they were not requested.
+   */
+  private final double[] topMaxValues;
+  /**
+   * The smallest values, smallest first, or null if they were not requested.
+   */
+  private final double[] topMinValues;
+
+  /**
+   * Creates a report.
+   *
+   * @param statistics   The statistics without parameters that were computed.
+   * @param percentiles  The percentiles that were computed, by percentile.
+   * @param topMaxValues The largest values, largest first, or null if they were not requested.
+   * @param topMinValues The smallest values, smallest first, or null if they were not requested.
+   */
+  StatisticsReport(EnumMap<Statistic, Double> statistics, Map<Double, Double> percentiles,
+      double[] topMaxValues, double[] topMinValues) {
+    this.statistics = Collections.unmodifiableMap(new EnumMap<>(statistics));
+    this.percentiles = Collections.unmodifiableMap(new LinkedHashMap<>(percentiles));
+    this.topMaxValues = topMaxValues;
+    this.topMinValues = topMinValues;
+  }
+
+  /**
+   * Returns a statistic without parameters.
+   *
+   * @param statistic The statistic to return.
+   * @return The value of the statistic.
+   * @throws IllegalStateException If the statistic was not requested.
+   */
+  public double get(Statistic statistic) {
+    Objects.requireNonNull(statistic);
+    Double value = statistics.get(statistic);
+    if (value == null) {
+      throw notRequested(statistic.toString());
+    }
+    return value;
+  }
+
+  /**
+   * Checks whether a statistic without parameters was computed.
+   *
+   * @param statistic The statistic to check.
+   * @return True if the statistic was computed.
+   */
+  public boolean contains(Statistic statistic) {
+    return statistics.containsKey(Objects.requireNonNull(statistic));
+  }
+
+  /**
+   * Returns the number of values.
+   *
+   * @return The number of values.
+   */
+  public long getCount() {
+    return (long) get(Statistic.COUNT);
+  }
+
+  /**
+   * Returns the sum of the values.
+   *
+   * @return The sum of the values.
+   */
+  public double getSum() {
+    return get(Statistic.SUM);
+  }
+
+  /**
+   * Returns the smallest value.
+   *
+   * @return The smallest value.
+   */
+  public double getMinValue() {
+    return get(Statistic.MIN);
+  }
+
+  /**
+   * Returns the largest value.
+   *
+   * @return The largest value.
+   */
+  public double getMaxValue() {
+    return get(Statistic.MAX);
+  }
+
+  /**
+   * Returns the arithmetic mean of the values.
+   *
+   * @return The arithmetic mean.
+   */
+  public double getMean() {
+    return get(Statistic.MEAN);
+  }
+
+  /**
+   * Returns the population variance of the values.
+   *
+   * @return The population variance.
+   */
+  public double getVariance() {
+    return get(Statistic.VARIANCE);
+  }
+
+  /**
+   * Returns the population standard deviation of the values.
+   *
+   * @return The population standard deviation.
+   */
+  public double getStandardDeviation() {
+    return get(Statistic.STANDARD_DEVIATION);
+  }
+
+  /**
+   * Returns the population skewness of the values.
+   *
+   * @return The skewness.
+   */
+  public double getSkewness() {
+    return get(Statistic.SKEWNESS);
+  }
+
+  /**
+   * Returns the population excess kurtosis of the values.
+   *
+   * @return The excess kurtosis.
+   */
+  public double getKurtosis() {
+    return get(Statistic.KURTOSIS);
+  }
+
+  /**
+   * Returns the median of the values.
+   *
+   * @return The median.
+   */
+  public double getMedian() {
+    return get(Statistic.MEDIAN);
+  }
+
+  /**
+   * Returns a percentile of the values.
+   *
+   * @param percentile The percentile to return, as requested.
+   * @return The value of the percentile.
+   * @throws IllegalStateException If the percentile was not requested.
+   */
+  public double getPercentile(double percentile) {
+    Double value = percentiles.get(percentile);
+    if (value == null) {
+      throw notRequested(
+          I18nUtility.getFormattedString("StatisticsReport.statistic.percentile", percentile)
+      );
+    }
+    return value;
+  }
+
+  /**
+   * Returns the percentiles that were computed.
+   *
+   * @return The values of the percentiles by percentile, in the order they were requested.
+   */
+  public Map<Double, Double> getPercentiles() {
+    return percentiles;
+  }
+
+  /**
+   * Returns the largest values.
+   *
+   * @return The largest values, largest first.
+   * @throws IllegalStateException If the largest values were not requested.
+   */
+  public double[] getTopMaxValues() {
+    if (topMaxValues == null) {
+      throw notRequested(I18nUtility.getString("StatisticsReport.statistic.topMaxValues"));
+    }
+    return topMaxValues.clone();
+  }
+
+  /**
+   * Returns the smallest values.
+   *
+   * @return The smallest values, smallest first.
+   * @throws IllegalStateException If the smallest values were not requested.
+   */
+  public double[] getTopMinValues() {
+    if (topMinValues == null) {
+      throw notRequested(I18nUtility.getString("StatisticsReport.statistic.topMinValues"));
+    }
+    return topMinValues.clone();
+  }
+
+  /**
+   * Creates the exception thrown when a statistic that was not requested is asked for.
+   *
+   * @param statistic The description of the statistic.
+   * @return The exception to throw.
+   */
+  private static IllegalStateException notRequested(String statistic) {
+    return new IllegalStateException(
+        I18nUtility.getFormattedString(
+            "StatisticsReport.error.statisticNotRequested",
+            statistic
+        )
+    );
+  }
+
+  /**
+   * Returns a string representation of the report.
+   *
+   * @return The string representation of the report.
+   */
+  @Override
+  public String toString() {
+    return String.format("%s{statistics=%s, percentiles=%s, topMaxValues=%s, topMinValues=%s}",
+        getClass().getSimpleName(), statistics, percentiles,
+        Arrays.toString(topMaxValues), Arrays.toString(topMinValues));
+  }
+}
@@ -1,20 +1,39 @@
 package org.padaiyal.utilities.aayvalar.statistics;
 
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Comparator;
 import java.util.DoubleSummaryStatistics;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.function.BiConsumer;
+import java.util.function.DoubleFunction;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 import org.padaiyal.utilities.I18nUtility;
 
 /**
  * Statistics utility library for retrieving basic statistical metrics.
+ *
+ * <p>Every metric is available for a {@link Collection} of numbers as well as for primitive
+ * inputs ({@code double[]}, a {@code double[]} range, {@link DoubleStream}, {@code long[]} and
+ * {@code int[]}). The primitive variants never box their elements, and the collection variants
+ * convert each element once using {@link Number#doubleValue()} before delegating to them.
  */
 public class StatisticsUtility {
 
@@ -26,40 +45,198 @@ public class StatisticsUtility {
     );
   }
 
+  /**
+   * Number of elements summed by each parallel task of a compensated summation. It doesn't depend
+   * on the number of processors, so the result of a summation is the same on every machine.
+   */
+  private static final int summationChunkSize = 1 << 14;
+
+  /**
+   * Number of co-moment updates, rows times pairs of columns, of each parallel task of a
+   * covariance computation. It doesn't depend on the number of processors either.
+   */
+  private static final int coMomentsChunkSize = 1 << 22;
+
+  /**
+   * Top N queries requesting less than 1/heapSelectionRatio of the input are answered with
+   * bounded heaps, larger ones by selecting the boundary value.
+   */
+  private static final int heapSelectionRatio = 16;
+
+  /**
+   * Converts the counted long values back into each integral element type.
+   */
+  private static final Map<Class<?>, LongFunction<Number>> integralBoxers = Map.of(
+      Long.class, value -> value,
+      Integer.class, value -> (int) value,
+      Short.class, value -> (short) value,
+      Byte.class, value -> (byte) value
+  );
+
+  /**
+   * Converts the counted double values back into each floating point element type.
+   */
+  private static final Map<Class<?>, DoubleFunction<Number>> floatingPointBoxers = Map.of(
+      Double.class, value -> value,
+      Float.class, value -> (float) value
+  );
+
+  /**
+   * Decides whether each computation runs sequentially or in parallel, and in which pool.
+   */
+  private static volatile ExecutionPolicy executionPolicy = ExecutionPolicy.auto();
+
   /**
    * Empty private constructor as this utility class is not meant to be used as an instance.
    */
   private StatisticsUtility() {
   }
 
+  /**
+   * Gets the execution policy used by every metric.
+   *
+   * @return The execution policy.
+   */
+  public static ExecutionPolicy getExecutionPolicy() {
+    return executionPolicy;
+  }
+
+  /**
+   * Sets the execution policy used by every metric. By default, only inputs of at least
+   * {@link ExecutionPolicy#defaultParallelThreshold} elements are computed in parallel, in the
+   * common pool. Streams provided as input are used as they are, sequential or parallel.
+   *
+   * @param executionPolicy The execution policy.
+   */
+  public static void setExecutionPolicy(ExecutionPolicy executionPolicy) {
+    StatisticsUtility.executionPolicy = Objects.requireNonNull(executionPolicy);
+  }
+
+  /**
+   * Gets the sum of the provided collection. Sums are compensated, so their error doesn't grow
+   * with the number of values, and reproducible: they are bit for bit the same whatever the
+   * execution policy and the number of processors.
+   *
+   * @param inputCollection The collection to sum.
+   * @return The sum of the values inside the collection.
+   */
+  public static double getSum(Collection<? extends Number> inputCollection) {
+    return getSum(toDoubleArray(inputCollection));
+  }
+
+  /**
+   * Gets the sum of the provided array.
+   *
+   * @param values The array to sum.
+   * @return The sum of the values inside the array.
+   */
+  public static double getSum(double[] values) {
+    Objects.requireNonNull(values);
+    return getSum(values, 0, values.length);
+  }
+
+  /**
+   * Gets the sum of a range of the provided array. The range is split in chunks of a fixed size,
+   * summed with compensation in parallel or not according to the execution policy, and the chunk
+   * sums are combined in order.
+   *
+   * @param values The array to sum.
+   * @param offset The index of the first element in the range.
+   * @param length The number of elements in the range.
+   * @return The sum of the values inside the range.
+   */
+  public static double getSum(double[] values, int offset, int length) {
+    Objects.requireNonNull(values);
+    Objects.checkFromIndexSize(offset, length, values.length);
+    return DoubleReduction.sum(values, offset, length, executionPolicy);
+  }
+
+  /**
+   * Gets the sum of the provided stream.
+   *
+   * @param values The stream to sum.
+   * @return The sum of the values inside the stream.
+   */
+  public static double getSum(DoubleStream values) {
+    Objects.requireNonNull(values);
+    return getSum(values.toArray());
+  }
+
+  /**
+   * Gets the sum of the provided array.
+   *
+   * @param values The array to sum.
+   * @return The sum of the values inside the array.
+   */
+  public static double getSum(long[] values) {
+    return getSum(toDoubleArray(values));
+  }
+
+  /**
+   * Gets the sum of the provided array.
+   *
+   * @param values The array to sum.
+   * @return The sum of the values inside the array.
+   */
+  public static double getSum(int[] values) {
+    return getSum(toDoubleArray(values));
+  }
+
   /**
    * Gets the mean (arithmetic, geometric or harmonic) of the provided collection. For more
    * information about the different types of means: https://en.wikipedia.org/wiki/Mean#Types_of_means
    *
+   * <p>The geometric mean is computed as the exponential of the mean logarithm, so it neither
+   * overflows nor underflows however many values are multiplied.
+   *
    * @param inputCollection The collection to get the mean from.
    * @param meanType        The type of mean to calculate.
    * @return The mean of the values inside a collection.
    */
   public static double getMean(Collection<? extends Number> inputCollection, MeanType meanType) {
-    Objects.requireNonNull(inputCollection);
+    return getMean(toDoubleArray(inputCollection), meanType);
+  }
+
+  /**
+   * Gets the mean (arithmetic, geometric or harmonic) of the provided array.
+   *
+   * @param values   The array to get the mean from.
+   * @param meanType The type of mean to calculate.
+   * @return The mean of the values inside the array.
+   */
+  public static double getMean(double[] values, MeanType meanType) {
+    Objects.requireNonNull(values);
+    return getMean(values, 0, values.length, meanType);
+  }
+
+  /**
+   * Gets the mean (arithmetic, geometric or harmonic) of a range of the provided array.
+   *
+   * @param values   The array to get the mean from.
+   * @param offset   The index of the first element in the range.
+   * @param length   The number of elements in the range.
+   * @param meanType The type of mean to calculate.
+   * @return The mean of the values inside the range.
+   */
+  public static double getMean(double[] values, int offset, int length, MeanType meanType) {
+    Objects.requireNonNull(values);
+    Objects.checkFromIndexSize(offset, length, values.length);
 
-    double collectionLength = inputCollection.size();
+    double collectionLength = length;
     return switch (meanType) {
-      case ARITHMETIC -> //noinspection OptionalGetWithoutIsPresent
-          inputCollection.parallelStream()
-              .mapToDouble(element -> Double.parseDouble(element.toString()))
-              .average()
-              .getAsDouble();
-      case GEOMETRIC -> Math.pow(
-          inputCollection.parallelStream()
-              .mapToDouble(element -> Double.parseDouble(element.toString()))
-              .reduce(1, (subtotal, element) -> subtotal * element),
-          1 / collectionLength);
-      case HARMONIC -> collectionLength / (
-          inputCollection.parallelStream()
-              .mapToDouble(element -> Double.parseDouble(element.toString()))
-              .map(element -> 1 / element)
-              .sum());
+      case ARITHMETIC -> {
+        if (length == 0) {
+          throw new NoSuchElementException(
+              I18nUtility.getString("StatisticsUtility.error.emptyInput")
+          );
+        }
+        yield DoubleReduction.sum(values, offset, length, executionPolicy) / collectionLength;
+      }
+      case GEOMETRIC -> Math.exp(
+          getCompensatedSum(values, offset, length, Math::log) / collectionLength
+      );
+      case HARMONIC -> collectionLength
+          / getCompensatedSum(values, offset, length, element -> 1 / element);
       default -> throw new IllegalArgumentException(
           I18nUtility.getFormattedString(
               "StatisticsUtility.error.invalidMeanType",
@@ -69,190 +246,2370 @@ public class StatisticsUtility {
     };
   }
 
+  /**
+   * Gets the mean (arithmetic, geometric or harmonic) of the provided stream.
+   *
+   * @param values   The stream to get the mean from.
+   * @param meanType The type of mean to calculate.
+   * @return The mean of the values inside the stream.
+   */
+  public static double getMean(DoubleStream values, MeanType meanType) {
+    Objects.requireNonNull(values);
+    return getMean(values.toArray(), meanType);
+  }
+
+  /**
+   * Gets the mean (arithmetic, geometric or harmonic) of the provided array.
+   *
+   * @param values   The array to get the mean from.
+   * @param meanType The type of mean to calculate.
+   * @return The mean of the values inside the array.
+   */
+  public static double getMean(long[] values, MeanType meanType) {
+    return getMean(toDoubleArray(values), meanType);
+  }
+
+  /**
+   * Gets the mean (arithmetic, geometric or harmonic) of the provided array.
+   *
+   * @param values   The array to get the mean from.
+   * @param meanType The type of mean to calculate.
+   * @return The mean of the values inside the array.
+   */
+  public static double getMean(int[] values, MeanType meanType) {
+    return getMean(toDoubleArray(values), meanType);
+  }
+
   /**
    * Gets the median of the provided collection. The median is the value in the middle of a sorted
    * collection. For more information: https://en.wikipedia.org/wiki/Median
    *
+   * <p>The median is found by selection in linear time, without sorting the collection.
+   *
    * @param inputCollection The collection to get the median from.
    * @return The median from the provided collection.
    */
   public static double getMedian(Collection<? extends Number> inputCollection) {
-    Objects.requireNonNull(inputCollection);
+    return getPercentile(inputCollection, 50);
+  }
 
-    int collectionLength = inputCollection.size();
-    //noinspection OptionalGetWithoutIsPresent
-    return inputCollection.parallelStream()
-        .mapToDouble(element -> Double.parseDouble(element.toString()))
-        .sorted()
-        .skip((collectionLength - 1) / 2)
-        .limit(2 - collectionLength % 2)
-        .average()
-        .getAsDouble();
+  /**
+   * Gets the median of the provided array. The array is not modified.
+   *
+   * @param values The array to get the median from.
+   * @return The median from the provided array.
+   */
+  public static double getMedian(double[] values) {
+    return getPercentile(values, 50);
+  }
 
+  /**
+   * Gets the median of a range of the provided array. The array is not modified.
+   *
+   * @param values The array to get the median from.
+   * @param offset The index of the first element in the range.
+   * @param length The number of elements in the range.
+   * @return The median from the provided range.
+   */
+  public static double getMedian(double[] values, int offset, int length) {
+    return getPercentile(values, offset, length, 50);
   }
 
   /**
-   * Get the mode from the provided collection.
-   * Mode is the most frequent number in a collection of numbers.
-   * For more information: https://en.wikipedia.org/wiki/Mode
+   * Gets the median of the provided stream.
    *
-   * @param inputCollection The collection to retrieve the mode from.
-   * @return The mode from the provided collection.
+   * @param values The stream to get the median from.
+   * @return The median from the provided stream.
    */
-  public static Number getMode(Collection<? extends Number> inputCollection) {
-    return getTopFrequentElements(inputCollection, 1).get(0);
+  public static double getMedian(DoubleStream values) {
+    return getPercentile(values, 50);
   }
 
   /**
-   * Get the frequency distribution of elements from the provided collection.
-   * Frequency distribution is a graph that displays the frequency of a collection.
-   * For more information: https://en.wikipedia.org/wiki/Frequency_distribution
+   * Gets the median of the provided array.
    *
-   * @param inputCollection The collection to retrieve its elements frequency.
-   * @return The frequency distribution of the elements in the provided collection.
+   * @param values The array to get the median from.
+   * @return The median from the provided array.
    */
-  public static Map<? extends Number, Long> getFrequencyDistribution(
-      Collection<? extends Number> inputCollection) {
-    Objects.requireNonNull(inputCollection);
-    return inputCollection.parallelStream()
-        .collect(
-            Collectors.groupingBy(
-                number -> number,
-                Collectors.counting()
-            )
-        );
+  public static double getMedian(long[] values) {
+    return getPercentile(values, 50);
   }
 
   /**
-   * Gets the top frequent numbers in the provided collection.
+   * Gets the median of the provided array.
    *
-   * @param inputCollection The provided collection to get the top most frequent
-   * @param topNumbers      The number of most frequent values.
-   * @return The top most frequent numbers in the input collection.
+   * @param values The array to get the median from.
+   * @return The median from the provided array.
    */
-  public static List<? extends Number> getTopFrequentElements(
-      Collection<? extends Number> inputCollection, int topNumbers) {
-    Objects.requireNonNull(inputCollection);
-    if (topNumbers < 1) {
-      throw new IllegalArgumentException(
-          I18nUtility.getString("StatisticsUtility.error.negativeTopNumberIsProvided")
-      );
-    }
+  public static double getMedian(int[] values) {
+    return getPercentile(values, 50);
+  }
 
-    return getFrequencyDistribution(inputCollection).entrySet()
-        .parallelStream()
-        .sorted(Entry.comparingByValue(Comparator.reverseOrder()))
-        .limit(topNumbers)
-        .map(Entry::getKey)
-        .collect(Collectors.toList());
+  /**
+   * Gets a percentile of the provided collection. The percentile is the value below which the
+   * provided percentage of the values fall, linearly interpolated between the two closest ranks
+   * when it falls between them. For more information: https://en.wikipedia.org/wiki/Percentile
+   *
+   * @param inputCollection The collection to get the percentile from.
+   * @param percentile      The percentile to get, between 0 and 100.
+   * @return The percentile of the provided collection.
+   */
+  public static double getPercentile(Collection<? extends Number> inputCollection,
+      double percentile) {
+    return getPercentiles(inputCollection, percentile)[0];
   }
 
   /**
-   * Get SummaryStatistics from the provided collection.
+   * Gets a percentile of the provided array. The array is not modified.
    *
-   * @param inputCollection The input collection to retrieve the SummaryStatistics from.
-   * @return The SummaryStatistics from the provided collection.
+   * @param values     The array to get the percentile from.
+   * @param percentile The percentile to get, between 0 and 100.
+   * @return The percentile of the provided array.
    */
-  public static DoubleSummaryStatistics getSummaryStatistics(
-      Collection<? extends Number> inputCollection) {
-    return inputCollection.parallelStream()
-        .mapToDouble(element -> Double.parseDouble(element.toString()))
-        .summaryStatistics();
+  public static double getPercentile(double[] values, double percentile) {
+    return getPercentiles(values, percentile)[0];
   }
 
   /**
-   * Get the maximum value from the input collection.
+   * Gets a percentile of a range of the provided array. The array is not modified.
    *
-   * @param inputCollection The input collection to retrieve the maximum value from.
-   * @return The maximum value from the input collection.
+   * @param values     The array to get the percentile from.
+   * @param offset     The index of the first element in the range.
+   * @param length     The number of elements in the range.
+   * @param percentile The percentile to get, between 0 and 100.
+   * @return The percentile of the provided range.
    */
-  public static double getMaxValue(Collection<? extends Number> inputCollection) {
-    return getSummaryStatistics(inputCollection).getMax();
+  public static double getPercentile(double[] values, int offset, int length,
+      double percentile) {
+    return getPercentiles(values, offset, length, new double[]{percentile})[0];
   }
 
   /**
-   * Get the minimum value from the input collection.
+   * Gets a percentile of the provided stream.
    *
-   * @param inputCollection The input collection to retrieve the minimum value from.
-   * @return The minimum value from the input collection.
+   * @param values     The stream to get the percentile from.
+   * @param percentile The percentile to get, between 0 and 100.
+   * @return The percentile of the provided stream.
    */
-  public static double getMinValue(Collection<? extends Number> inputCollection) {
-    return getSummaryStatistics(inputCollection).getMin();
+  public static double getPercentile(DoubleStream values, double percentile) {
+    return getPercentiles(values, percentile)[0];
   }
 
   /**
-   * Get top maximum values.
+   * Gets a percentile of the provided array.
    *
-   * @param inputCollection The input collection to retrieve the top maximum values.
-   * @param topNumbers      The top numbers of maximum values.
-   * @return The top maximum values.
+   * @param values     The array to get the percentile from.
+   * @param percentile The percentile to get, between 0 and 100.
+   * @return The percentile of the provided array.
    */
-  public static List<? extends Number> getTopMaxValues(Collection<? extends Number> inputCollection,
-      int topNumbers) {
+  public static double getPercentile(long[] values, double percentile) {
+    return getPercentiles(values, percentile)[0];
+  }
 
-    if (topNumbers < 1) {
-      throw new IllegalArgumentException(
-          I18nUtility.getString("StatisticsUtility.error.negativeTopNumberIsProvided")
-      );
-    }
-    return inputCollection.parallelStream()
-        .sorted(Collections.reverseOrder())
-        .limit(topNumbers)
-        .collect(Collectors.toList());
+  /**
+   * Gets a percentile of the provided array.
+   *
+   * @param values     The array to get the percentile from.
+   * @param percentile The percentile to get, between 0 and 100.
+   * @return The percentile of the provided array.
+   */
+  public static double getPercentile(int[] values, double percentile) {
+    return getPercentiles(values, percentile)[0];
   }
 
   /**
-   * Get top minimum values.
+   * Gets several percentiles of the provided collection. The selections share their partitioning
+   * work, which makes this cheaper than getting each percentile separately.
    *
-   * @param inputCollection The input collection to retrieve the top minimum values.
-   * @param topNumbers      The top numbers of minimum values.
-   * @return The top minimum values.
+   * @param inputCollection The collection to get the percentiles from.
+   * @param percentiles     The percentiles to get, between 0 and 100.
+   * @return The percentiles of the provided collection, in the same order as requested.
    */
-  public static List<? extends Number> getTopMinValues(Collection<? extends Number> inputCollection,
-      int topNumbers) {
+  public static double[] getPercentiles(Collection<? extends Number> inputCollection,
+      double... percentiles) {
+    double[] values = toDoubleArray(inputCollection);
+    return selectPercentiles(values, 0, values.length, percentiles);
+  }
 
-    if (topNumbers < 1) {
-      throw new IllegalArgumentException(
-          I18nUtility.getString("StatisticsUtility.error.negativeTopNumberIsProvided")
-      );
-    }
+  /**
+   * Gets several percentiles of the provided array. The array is not modified.
+   *
+   * @param values      The array to get the percentiles from.
+   * @param percentiles The percentiles to get, between 0 and 100.
+   * @return The percentiles of the provided array, in the same order as requested.
+   */
+  public static double[] getPercentiles(double[] values, double... percentiles) {
+    Objects.requireNonNull(values);
+    return getPercentiles(values, 0, values.length, percentiles);
+  }
 
-    return inputCollection.parallelStream()
-        .sorted()
-        .limit(topNumbers)
-        .collect(Collectors.toList());
+  /**
+   * Gets several percentiles of a range of the provided array. The array is not modified.
+   *
+   * @param values      The array to get the percentiles from.
+   * @param offset      The index of the first element in the range.
+   * @param length      The number of elements in the range.
+   * @param percentiles The percentiles to get, between 0 and 100.
+   * @return The percentiles of the provided range, in the same order as requested.
+   */
+  public static double[] getPercentiles(double[] values, int offset, int length,
+      double[] percentiles) {
+    Objects.requireNonNull(values);
+    Objects.checkFromIndexSize(offset, length, values.length);
+    return selectPercentiles(
+        Arrays.copyOfRange(values, offset, offset + length),
+        0,
+        length,
+        percentiles
+    );
   }
 
   /**
-   * Gets the variance from the provided collection.
-   * The variance is the measure of variability in a collection of numbers.
-   * For more information: https://en.wikipedia.org/wiki/Variance
+   * Gets several percentiles of the provided stream.
    *
-   * @param inputCollection The input collection to retrieve variance.
-   * @param meanType        The mean type to use for calculation.
-   * @return The variance from the provided collection.
+   * @param values      The stream to get the percentiles from.
+   * @param percentiles The percentiles to get, between 0 and 100.
+   * @return The percentiles of the provided stream, in the same order as requested.
    */
-  public static double getVariance(Collection<? extends Number> inputCollection,
-      MeanType meanType) {
-    double mean = getMean(inputCollection, meanType);
-    //noinspection OptionalGetWithoutIsPresent
-    return inputCollection.parallelStream()
-        .mapToDouble(element -> Double.parseDouble(element.toString()))
-        .map(value -> Math.pow((value - mean), 2))
-        .average()
-        .getAsDouble();
+  public static double[] getPercentiles(DoubleStream values, double... percentiles) {
+    Objects.requireNonNull(values);
+    double[] valuesArray = values.toArray();
+    return selectPercentiles(valuesArray, 0, valuesArray.length, percentiles);
   }
 
   /**
-   * Gets the standard deviation from the provided collection.
-   * The standard deviation is the measurement of variation of collection of values.
+   * Gets several percentiles of the provided array.
    *
-   * @param inputCollection The input collection to retrieve the standard deviation.
-   * @param meanType        The mean type to use for calculation.
-   * @return The standard deviation from the provided collection.
+   * @param values      The array to get the percentiles from.
+   * @param percentiles The percentiles to get, between 0 and 100.
+   * @return The percentiles of the provided array, in the same order as requested.
    */
-  public static double getStandardDeviation(Collection<? extends Number> inputCollection,
-      MeanType meanType) {
-    return Math.sqrt(getVariance(inputCollection, meanType));
+  public static double[] getPercentiles(long[] values, double... percentiles) {
+    double[] valuesArray = toDoubleArray(values);
+    return selectPercentiles(valuesArray, 0, valuesArray.length, percentiles);
+  }
+
+  /**
+   * Gets several percentiles of the provided array.
+   *
+   * @param values      The array to get the percentiles from.
+   * @param percentiles The percentiles to get, between 0 and 100.
+   * @return The percentiles of the provided array, in the same order as requested.
+   */
+  public static double[] getPercentiles(int[] values, double... percentiles) {
+    double[] valuesArray = toDoubleArray(values);
+    return selectPercentiles(valuesArray, 0, valuesArray.length, percentiles);
+  }
+
+  /**
+   * Summarizes the provided collection in a quantile sketch, from which approximate percentiles
+   * can be retrieved without keeping the values. The sketch is built with per thread digests
+   * merged together, and can itself be merged with sketches of other collections.
+   *
+   * @param inputCollection The collection to summarize.
+   * @param compression     The compression of the sketch, see {@link TDigest#TDigest(double)}.
+   * @return The quantile sketch of the provided collection.
+   */
+  public static TDigest getQuantileSketch(Collection<? extends Number> inputCollection,
+      double compression) {
+    Objects.requireNonNull(inputCollection);
+    return getQuantileSketch(
+        stream(inputCollection).mapToDouble(StatisticsUtility::toDouble),
+        compression
+    );
+  }
+
+  /**
+   * Summarizes the provided array in a quantile sketch.
+   *
+   * @param values      The array to summarize.
+   * @param compression The compression of the sketch, see {@link TDigest#TDigest(double)}.
+   * @return The quantile sketch of the provided array.
+   */
+  public static TDigest getQuantileSketch(double[] values, double compression) {
+    Objects.requireNonNull(values);
+    return getQuantileSketch(values, 0, values.length, compression);
+  }
+
+  /**
+   * Summarizes a range of the provided array in a quantile sketch.
+   *
+   * @param values      The array to summarize.
+   * @param offset      The index of the first element in the range.
+   * @param length      The number of elements in the range.
+   * @param compression The compression of the sketch, see {@link TDigest#TDigest(double)}.
+   * @return The quantile sketch of the provided range.
+   */
+  public static TDigest getQuantileSketch(double[] values, int offset, int length,
+      double compression) {
+    Objects.requireNonNull(values);
+    Objects.checkFromIndexSize(offset, length, values.length);
+    return getQuantileSketch(stream(values, offset, length), compression);
+  }
+
+  /**
+   * Summarizes the provided stream in a quantile sketch. Only the sketches are kept in memory, so
+   * the stream may be larger than the available memory.
+   *
+   * @param values      The stream to summarize.
+   * @param compression The compression of the sketch, see {@link TDigest#TDigest(double)}.
+   * @return The quantile sketch of the provided stream.
+   */
+  public static TDigest getQuantileSketch(DoubleStream values, double compression) {
+    Objects.requireNonNull(values);
+    TDigest.validateCompression(compression);
+    return execute(() ->
+        values.collect(() -> new TDigest(compression), TDigest::add, TDigest::merge)
+    );
+  }
+
+  /**
+   * Summarizes the provided array in a quantile sketch.
+   *
+   * @param values      The array to summarize.
+   * @param compression The compression of the sketch, see {@link TDigest#TDigest(double)}.
+   * @return The quantile sketch of the provided array.
+   */
+  public static TDigest getQuantileSketch(long[] values, double compression) {
+    Objects.requireNonNull(values);
+    return getQuantileSketch(stream(values).asDoubleStream(), compression);
+  }
+
+  /**
+   * Summarizes the provided array in a quantile sketch.
+   *
+   * @param values      The array to summarize.
+   * @param compression The compression of the sketch, see {@link TDigest#TDigest(double)}.
+   * @return The quantile sketch of the provided array.
+   */
+  public static TDigest getQuantileSketch(int[] values, double compression) {
+    Objects.requireNonNull(values);
+    return getQuantileSketch(stream(values).asDoubleStream(), compression);
+  }
+
+  /**
+   * Get the mode from the provided collection.
+   * Mode is the most frequent number in a collection of numbers.
+   * For more information: https://en.wikipedia.org/wiki/Mode
+   *
+   * @param inputCollection The collection to retrieve the mode from.
+   * @return The mode from the provided collection.
+   */
+  public static Number getMode(Collection<? extends Number> inputCollection) {
+    return getTopFrequentElements(inputCollection, 1).get(0);
+  }
+
+  /**
+   * Get the mode from the provided array.
+   *
+   * @param values The array to retrieve the mode from.
+   * @return The mode from the provided array.
+   */
+  public static double getMode(double[] values) {
+    return getTopFrequentElements(values, 1)[0];
+  }
+
+  /**
+   * Get the mode from a range of the provided array.
+   *
+   * @param values The array to retrieve the mode from.
+   * @param offset The index of the first element in the range.
+   * @param length The number of elements in the range.
+   * @return The mode from the provided range.
+   */
+  public static double getMode(double[] values, int offset, int length) {
+    return getTopFrequentElements(values, offset, length, 1)[0];
+  }
+
+  /**
+   * Get the mode from the provided stream.
+   *
+   * @param values The stream to retrieve the mode from.
+   * @return The mode from the provided stream.
+   */
+  public static double getMode(DoubleStream values) {
+    return getTopFrequentElements(values, 1)[0];
+  }
+
+  /**
+   * Get the mode from the provided array.
+   *
+   * @param values The array to retrieve the mode from.
+   * @return The mode from the provided array.
+   */
+  public static double getMode(long[] values) {
+    return getTopFrequentElements(values, 1)[0];
+  }
+
+  /**
+   * Get the mode from the provided array.
+   *
+   * @param values The array to retrieve the mode from.
+   * @return The mode from the provided array.
+   */
+  public static double getMode(int[] values) {
+    return getTopFrequentElements(values, 1)[0];
+  }
+
+  /**
+   * Get an approximate mode from the provided collection, using a Space-Saving sketch whose
+   * memory is bounded however many distinct elements the collection contains. The estimated
+   * frequency of the returned element exceeds its actual frequency by at most maximumError times
+   * the size of the collection.
+   *
+   * @param inputCollection The collection to retrieve the mode from.
+   * @param maximumError    The maximum error of the estimated frequencies as a fraction of the
+   *                        size of the collection, greater than 0 and at most 1.
+   * @return The approximate mode from the provided collection.
+   */
+  public static Number getMode(Collection<? extends Number> inputCollection,
+      double maximumError) {
+    return getTopFrequentElements(inputCollection, 1, maximumError).get(0);
+  }
+
+  /**
+   * Get an approximate mode from the provided array.
+   *
+   * @param values       The array to retrieve the mode from.
+   * @param maximumError The maximum error of the estimated frequencies as a fraction of the size
+   *                     of the array, greater than 0 and at most 1.
+   * @return The approximate mode from the provided array.
+   */
+  public static double getMode(double[] values, double maximumError) {
+    return getTopFrequentElements(values, 1, maximumError)[0];
+  }
+
+  /**
+   * Get an approximate mode from a range of the provided array.
+   *
+   * @param values       The array to retrieve the mode from.
+   * @param offset       The index of the first element in the range.
+   * @param length       The number of elements in the range.
+   * @param maximumError The maximum error of the estimated frequencies as a fraction of the size
+   *                     of the range, greater than 0 and at most 1.
+   * @return The approximate mode from the provided range.
+   */
+  public static double getMode(double[] values, int offset, int length, double maximumError) {
+    return getTopFrequentElements(values, offset, length, 1, maximumError)[0];
+  }
+
+  /**
+   * Get an approximate mode from the provided stream.
+   *
+   * @param values       The stream to retrieve the mode from.
+   * @param maximumError The maximum error of the estimated frequencies as a fraction of the size
+   *                     of the stream, greater than 0 and at most 1.
+   * @return The approximate mode from the provided stream.
+   */
+  public static double getMode(DoubleStream values, double maximumError) {
+    return getTopFrequentElements(values, 1, maximumError)[0];
+  }
+
+  /**
+   * Get an approximate mode from the provided array.
+   *
+   * @param values       The array to retrieve the mode from.
+   * @param maximumError The maximum error of the estimated frequencies as a fraction of the size
+   *                     of the array, greater than 0 and at most 1.
+   * @return The approximate mode from the provided array.
+   */
+  public static double getMode(long[] values, double maximumError) {
+    return getTopFrequentElements(values, 1, maximumError)[0];
+  }
+
+  /**
+   * Get an approximate mode from the provided array.
+   *
+   * @param values       The array to retrieve the mode from.
+   * @param maximumError The maximum error of the estimated frequencies as a fraction of the size
+   *                     of the array, greater than 0 and at most 1.
+   * @return The approximate mode from the provided array.
+   */
+  public static double getMode(int[] values, double maximumError) {
+    return getTopFrequentElements(values, 1, maximumError)[0];
+  }
+
+  /**
+   * Get the frequency distribution of elements from the provided collection.
+   * Frequency distribution is a graph that displays the frequency of a collection.
+   * For more information: https://en.wikipedia.org/wiki/Frequency_distribution
+   *
+   * <p>Collections of a single boxed primitive type are counted in primitive per thread tables,
+   * so only the distinct values are boxed.
+   *
+   * <p>Every distinct value gets its own entry, so continuous values such as latencies are better
+   * counted in a {@link LogLinearHistogram}, whose buckets have a fixed relative width.
+   *
+   * @param inputCollection The collection to retrieve its elements frequency.
+   * @return The frequency distribution of the elements in the provided collection.
+   */
+  public static Map<? extends Number, Long> getFrequencyDistribution(
+      Collection<? extends Number> inputCollection) {
+    Objects.requireNonNull(inputCollection);
+    Class<?> elementType = getElementType(inputCollection);
+
+    Map<Number, Long> frequencyDistribution = new HashMap<>();
+    if (integralBoxers.containsKey(elementType)) {
+      LongFunction<Number> boxer = integralBoxers.get(elementType);
+      countIntegralValues(inputCollection).forEach(
+          (key, count) -> frequencyDistribution.put(boxer.apply(key), count)
+      );
+    } else if (floatingPointBoxers.containsKey(elementType)) {
+      DoubleFunction<Number> boxer = floatingPointBoxers.get(elementType);
+      countFloatingPointValues(inputCollection).forEach(
+          (key, count) -> frequencyDistribution.put(boxer.apply(key), count)
+      );
+    } else {
+      return execute(() -> stream(inputCollection)
+          .collect(
+              Collectors.groupingBy(
+                  number -> number,
+                  Collectors.counting()
+              )
+          ));
+    }
+    return frequencyDistribution;
+  }
+
+  /**
+   * Get the frequency distribution of elements from the provided array.
+   *
+   * @param values The array to retrieve its elements frequency.
+   * @return The frequency distribution of the elements in the provided array.
+   */
+  public static Map<Double, Long> getFrequencyDistribution(double[] values) {
+    return getFrequencyTable(values).toMap();
+  }
+
+  /**
+   * Get the frequency distribution of elements from a range of the provided array.
+   *
+   * @param values The array to retrieve its elements frequency.
+   * @param offset The index of the first element in the range.
+   * @param length The number of elements in the range.
+   * @return The frequency distribution of the elements in the provided range.
+   */
+  public static Map<Double, Long> getFrequencyDistribution(double[] values, int offset,
+      int length) {
+    return getFrequencyTable(values, offset, length).toMap();
+  }
+
+  /**
+   * Get the frequency distribution of elements from the provided stream.
+   *
+   * @param values The stream to retrieve its elements frequency.
+   * @return The frequency distribution of the elements in the provided stream.
+   */
+  public static Map<Double, Long> getFrequencyDistribution(DoubleStream values) {
+    return getFrequencyTable(values).toMap();
+  }
+
+  /**
+   * Get the frequency distribution of elements from the provided array.
+   *
+   * @param values The array to retrieve its elements frequency.
+   * @return The frequency distribution of the elements in the provided array.
+   */
+  public static Map<Double, Long> getFrequencyDistribution(long[] values) {
+    Map<Double, Long> frequencyDistribution = new HashMap<>();
+    getFrequencyTable(values).forEach(
+        (key, count) -> frequencyDistribution.merge((double) key, count, Long::sum)
+    );
+    return frequencyDistribution;
+  }
+
+  /**
+   * Get the frequency distribution of elements from the provided array.
+   *
+   * @param values The array to retrieve its elements frequency.
+   * @return The frequency distribution of the elements in the provided array.
+   */
+  public static Map<Double, Long> getFrequencyDistribution(int[] values) {
+    Map<Double, Long> frequencyDistribution = new HashMap<>();
+    getFrequencyTable(values).forEach(
+        (key, count) -> frequencyDistribution.put((double) key, count)
+    );
+    return frequencyDistribution;
+  }
+
+  /**
+   * Get the frequency of each distinct element of the provided array as a primitive table. The
+   * elements are counted in per thread tables which are merged at the end, and nothing is boxed.
+   *
+   * @param values The array to count the elements of.
+   * @return The number of occurrences of each distinct element.
+   */
+  public static DoubleCountMap getFrequencyTable(double[] values) {
+    Objects.requireNonNull(values);
+    return getFrequencyTable(values, 0, values.length);
+  }
+
+  /**
+   * Get the frequency of each distinct element of a range of the provided array as a primitive
+   * table.
+   *
+   * @param values The array to count the elements of.
+   * @param offset The index of the first element in the range.
+   * @param length The number of elements in the range.
+   * @return The number of occurrences of each distinct element.
+   */
+  public static DoubleCountMap getFrequencyTable(double[] values, int offset, int length) {
+    Objects.requireNonNull(values);
+    Objects.checkFromIndexSize(offset, length, values.length);
+    return getFrequencyTable(stream(values, offset, length));
+  }
+
+  /**
+   * Get the frequency of each distinct element of the provided stream as a primitive table.
+   *
+   * @param values The stream to count the elements of.
+   * @return The number of occurrences of each distinct element.
+   */
+  public static DoubleCountMap getFrequencyTable(DoubleStream values) {
+    Objects.requireNonNull(values);
+    return execute(() ->
+        values.collect(DoubleCountMap::new, DoubleCountMap::add, DoubleCountMap::merge)
+    );
+  }
+
+  /**
+   * Get the frequency of each distinct element of the provided array as a primitive table.
+   *
+   * @param values The array to count the elements of.
+   * @return The number of occurrences of each distinct element.
+   */
+  public static LongCountMap getFrequencyTable(long[] values) {
+    Objects.requireNonNull(values);
+    return execute(() -> stream(values)
+        .collect(LongCountMap::new, LongCountMap::add, LongCountMap::merge));
+  }
+
+  /**
+   * Get the frequency of each distinct element of the provided array as a primitive table.
+   *
+   * @param values The array to count the elements of.
+   * @return The number of occurrences of each distinct element.
+   */
+  public static LongCountMap getFrequencyTable(int[] values) {
+    Objects.requireNonNull(values);
+    return execute(() -> stream(values)
+        .collect(LongCountMap::new, LongCountMap::add, LongCountMap::merge));
+  }
+
+  /**
+   * Estimates the number of distinct elements of the provided collection with a
+   * {@link HyperLogLog} estimator, in a fixed amount of memory however many distinct elements it
+   * contains. Integral numbers are distinguished by their long value and other numbers by their
+   * double value.
+   *
+   * @param inputCollection The collection to count the distinct elements of.
+   * @param precision       The precision of the estimator, between 4 and 18. The relative
+   *                        standard error is about 1.04 / sqrt(2^precision).
+   * @return The estimated number of distinct elements.
+   */
+  public static long getDistinctCount(Collection<? extends Number> inputCollection,
+      int precision) {
+    Objects.requireNonNull(inputCollection);
+    HyperLogLog.validatePrecision(precision);
+    return execute(() -> stream(inputCollection)
+        .collect(
+            () -> new HyperLogLog(precision),
+            (estimator, number) -> {
+              if (integralBoxers.containsKey(number.getClass())) {
+                estimator.add(number.longValue());
+              } else {
+                estimator.add(number.doubleValue());
+              }
+            },
+            HyperLogLog::merge
+        ))
+        .getDistinctCount();
+  }
+
+  /**
+   * Estimates the number of distinct elements of the provided array with a {@link HyperLogLog}
+   * estimator, in a fixed amount of memory however many distinct elements it contains.
+   *
+   * @param values    The array to count the distinct elements of.
+   * @param precision The precision of the estimator, between 4 and 18. The relative standard
+   *                  error is about 1.04 / sqrt(2^precision).
+   * @return The estimated number of distinct elements.
+   */
+  public static long getDistinctCount(double[] values, int precision) {
+    Objects.requireNonNull(values);
+    return getDistinctCount(values, 0, values.length, precision);
+  }
+
+  /**
+   * Estimates the number of distinct elements of a range of the provided array with a
+   * {@link HyperLogLog} estimator.
+   *
+   * @param values    The array to count the distinct elements of.
+   * @param offset    The index of the first element in the range.
+   * @param length    The number of elements in the range.
+   * @param precision The precision of the estimator, between 4 and 18. The relative standard
+   *                  error is about 1.04 / sqrt(2^precision).
+   * @return The estimated number of distinct elements.
+   */
+  public static long getDistinctCount(double[] values, int offset, int length, int precision) {
+    Objects.requireNonNull(values);
+    Objects.checkFromIndexSize(offset, length, values.length);
+    return getDistinctCount(stream(values, offset, length), precision);
+  }
+
+  /**
+   * Estimates the number of distinct elements of the provided stream with a {@link HyperLogLog}
+   * estimator.
+   *
+   * @param values    The stream to count the distinct elements of.
+   * @param precision The precision of the estimator, between 4 and 18. The relative standard
+   *                  error is about 1.04 / sqrt(2^precision).
+   * @return The estimated number of distinct elements.
+   */
+  public static long getDistinctCount(DoubleStream values, int precision) {
+    Objects.requireNonNull(values);
+    HyperLogLog.validatePrecision(precision);
+    return execute(() -> values
+        .collect(() -> new HyperLogLog(precision), HyperLogLog::add, HyperLogLog::merge))
+        .getDistinctCount();
+  }
+
+  /**
+   * Estimates the number of distinct elements of the provided array with a {@link HyperLogLog}
+   * estimator.
+   *
+   * @param values    The array to count the distinct elements of.
+   * @param precision The precision of the estimator, between 4 and 18. The relative standard
+   *                  error is about 1.04 / sqrt(2^precision).
+   * @return The estimated number of distinct elements.
+   */
+  public static long getDistinctCount(long[] values, int precision) {
+    Objects.requireNonNull(values);
+    HyperLogLog.validatePrecision(precision);
+    return execute(() -> stream(values)
+        .collect(() -> new HyperLogLog(precision), HyperLogLog::add, HyperLogLog::merge))
+        .getDistinctCount();
+  }
+
+  /**
+   * Estimates the number of distinct elements of the provided array with a {@link HyperLogLog}
+   * estimator.
+   *
+   * @param values    The array to count the distinct elements of.
+   * @param precision The precision of the estimator, between 4 and 18. The relative standard
+   *                  error is about 1.04 / sqrt(2^precision).
+   * @return The estimated number of distinct elements.
+   */
+  public static long getDistinctCount(int[] values, int precision) {
+    Objects.requireNonNull(values);
+    HyperLogLog.validatePrecision(precision);
+    return execute(() -> stream(values)
+        .collect(() -> new HyperLogLog(precision), HyperLogLog::add, HyperLogLog::merge))
+        .getDistinctCount();
+  }
+
+  /**
+   * Gets the top frequent numbers in the provided collection.
+   *
+   * @param inputCollection The provided collection to get the top most frequent
+   * @param topNumbers      The number of most frequent values.
+   * @return The top most frequent numbers in the input collection.
+   */
+  public static List<? extends Number> getTopFrequentElements(
+      Collection<? extends Number> inputCollection, int topNumbers) {
+    Objects.requireNonNull(inputCollection);
+    validateTopNumbers(topNumbers);
+    Class<?> elementType = getElementType(inputCollection);
+
+    if (integralBoxers.containsKey(elementType)) {
+      return Arrays.stream(countIntegralValues(inputCollection).getTopFrequentKeys(topNumbers))
+          .mapToObj(integralBoxers.get(elementType))
+          .collect(Collectors.toList());
+    } else if (floatingPointBoxers.containsKey(elementType)) {
+      return Arrays.stream(
+          countFloatingPointValues(inputCollection).getTopFrequentKeys(topNumbers)
+      )
+          .mapToObj(floatingPointBoxers.get(elementType))
+          .collect(Collectors.toList());
+    }
+    Map<? extends Number, Long> frequencyDistribution = getFrequencyDistribution(inputCollection);
+    return execute(() -> stream(frequencyDistribution.entrySet())
+        .sorted(Entry.comparingByValue(Comparator.reverseOrder()))
+        .limit(topNumbers)
+        .map(Entry::getKey)
+        .collect(Collectors.toList()));
+  }
+
+  /**
+   * Gets the top frequent numbers in the provided array.
+   *
+   * @param values     The provided array to get the top most frequent numbers from.
+   * @param topNumbers The number of most frequent values.
+   * @return The top most frequent numbers in the input array.
+   */
+  public static double[] getTopFrequentElements(double[] values, int topNumbers) {
+    Objects.requireNonNull(values);
+    return getTopFrequentElements(values, 0, values.length, topNumbers);
+  }
+
+  /**
+   * Gets the top frequent numbers in a range of the provided array.
+   *
+   * @param values     The provided array to get the top most frequent numbers from.
+   * @param offset     The index of the first element in the range.
+   * @param length     The number of elements in the range.
+   * @param topNumbers The number of most frequent values.
+   * @return The top most frequent numbers in the input range.
+   */
+  public static double[] getTopFrequentElements(double[] values, int offset, int length,
+      int topNumbers) {
+    Objects.requireNonNull(values);
+    validateTopNumbers(topNumbers);
+    return getFrequencyTable(values, offset, length).getTopFrequentKeys(topNumbers);
+  }
+
+  /**
+   * Gets the top frequent numbers in the provided stream.
+   *
+   * @param values     The provided stream to get the top most frequent numbers from.
+   * @param topNumbers The number of most frequent values.
+   * @return The top most frequent numbers in the input stream.
+   */
+  public static double[] getTopFrequentElements(DoubleStream values, int topNumbers) {
+    Objects.requireNonNull(values);
+    validateTopNumbers(topNumbers);
+    return getFrequencyTable(values).getTopFrequentKeys(topNumbers);
+  }
+
+  /**
+   * Gets the top frequent numbers in the provided array.
+   *
+   * @param values     The provided array to get the top most frequent numbers from.
+   * @param topNumbers The number of most frequent values.
+   * @return The top most frequent numbers in the input array.
+   */
+  public static double[] getTopFrequentElements(long[] values, int topNumbers) {
+    validateTopNumbers(topNumbers);
+    return Arrays.stream(getFrequencyTable(values).getTopFrequentKeys(topNumbers))
+        .asDoubleStream()
+        .toArray();
+  }
+
+  /**
+   * Gets the top frequent numbers in the provided array.
+   *
+   * @param values     The provided array to get the top most frequent numbers from.
+   * @param topNumbers The number of most frequent values.
+   * @return The top most frequent numbers in the input array.
+   */
+  public static double[] getTopFrequentElements(int[] values, int topNumbers) {
+    validateTopNumbers(topNumbers);
+    return Arrays.stream(getFrequencyTable(values).getTopFrequentKeys(topNumbers))
+        .asDoubleStream()
+        .toArray();
+  }
+
+  /**
+   * Gets the approximate top frequent numbers in the provided collection. See
+   * {@link #getHeavyHitters(Collection, int, double)} for the guarantees of the approximation.
+   *
+   * @param inputCollection The provided collection to get the top most frequent numbers from.
+   * @param topNumbers      The number of most frequent values.
+   * @param maximumError    The maximum error of the estimated frequencies as a fraction of the
+   *                        size of the collection, greater than 0 and at most 1.
+   * @return The approximate top most frequent numbers in the input collection.
+   */
+  public static List<? extends Number> getTopFrequentElements(
+      Collection<? extends Number> inputCollection, int topNumbers, double maximumError) {
+    return getHeavyHitters(inputCollection, topNumbers, maximumError).stream()
+        .map(HeavyHitter::getValue)
+        .collect(Collectors.toList());
+  }
+
+  /**
+   * Gets the approximate top frequent numbers in the provided array.
+   *
+   * @param values       The provided array to get the top most frequent numbers from.
+   * @param topNumbers   The number of most frequent values.
+   * @param maximumError The maximum error of the estimated frequencies as a fraction of the size
+   *                     of the array, greater than 0 and at most 1.
+   * @return The approximate top most frequent numbers in the input array.
+   */
+  public static double[] getTopFrequentElements(double[] values, int topNumbers,
+      double maximumError) {
+    return toValueArray(getHeavyHitters(values, topNumbers, maximumError));
+  }
+
+  /**
+   * Gets the approximate top frequent numbers in a range of the provided array.
+   *
+   * @param values       The provided array to get the top most frequent numbers from.
+   * @param offset       The index of the first element in the range.
+   * @param length       The number of elements in the range.
+   * @param topNumbers   The number of most frequent values.
+   * @param maximumError The maximum error of the estimated frequencies as a fraction of the size
+   *                     of the range, greater than 0 and at most 1.
+   * @return The approximate top most frequent numbers in the input range.
+   */
+  public static double[] getTopFrequentElements(double[] values, int offset, int length,
+      int topNumbers, double maximumError) {
+    return toValueArray(getHeavyHitters(values, offset, length, topNumbers, maximumError));
+  }
+
+  /**
+   * Gets the approximate top frequent numbers in the provided stream.
+   *
+   * @param values       The provided stream to get the top most frequent numbers from.
+   * @param topNumbers   The number of most frequent values.
+   * @param maximumError The maximum error of the estimated frequencies as a fraction of the size
+   *                     of the stream, greater than 0 and at most 1.
+   * @return The approximate top most frequent numbers in the input stream.
+   */
+  public static double[] getTopFrequentElements(DoubleStream values, int topNumbers,
+      double maximumError) {
+    return toValueArray(getHeavyHitters(values, topNumbers, maximumError));
+  }
+
+  /**
+   * Gets the approximate top frequent numbers in the provided array.
+   *
+   * @param values       The provided array to get the top most frequent numbers from.
+   * @param topNumbers   The number of most frequent values.
+   * @param maximumError The maximum error of the estimated frequencies as a fraction of the size
+   *                     of the array, greater than 0 and at most 1.
+   * @return The approximate top most frequent numbers in the input array.
+   */
+  public static double[] getTopFrequentElements(long[] values, int topNumbers,
+      double maximumError) {
+    return toValueArray(getHeavyHitters(values, topNumbers, maximumError));
+  }
+
+  /**
+   * Gets the approximate top frequent numbers in the provided array.
+   *
+   * @param values       The provided array to get the top most frequent numbers from.
+   * @param topNumbers   The number of most frequent values.
+   * @param maximumError The maximum error of the estimated frequencies as a fraction of the size
+   *                     of the array, greater than 0 and at most 1.
+   * @return The approximate top most frequent numbers in the input array.
+   */
+  public static double[] getTopFrequentElements(int[] values, int topNumbers,
+      double maximumError) {
+    return toValueArray(getHeavyHitters(values, topNumbers, maximumError));
+  }
+
+  /**
+   * Gets the heavy hitters of the provided collection, which are its most frequent numbers along
+   * with bounds on their frequencies. They are estimated with per thread Space-Saving sketches of
+   * 1 / maximumError counters, so the memory used doesn't depend on the number of distinct
+   * elements in the collection. Every element that occurs more than maximumError times the size
+   * of the collection is tracked, and the estimated frequency of each element returned exceeds its
+   * actual frequency by at most its reported error. For more information:
+   * https://en.wikipedia.org/wiki/Misra%E2%80%93Gries_heavy_hitters_algorithm
+   *
+   * @param inputCollection The provided collection to get the heavy hitters from.
+   * @param topNumbers      The number of heavy hitters.
+   * @param maximumError    The maximum error of the estimated frequencies as a fraction of the
+   *                        size of the collection, greater than 0 and at most 1.
+   * @return The heavy hitters of the input collection, most frequent first.
+   */
+  public static List<HeavyHitter<Number>> getHeavyHitters(
+      Collection<? extends Number> inputCollection, int topNumbers, double maximumError) {
+    Objects.requireNonNull(inputCollection);
+    validateTopNumbers(topNumbers);
+    int capacity = SpaceSavingSketch.getCapacity(maximumError);
+    Class<?> elementType = getElementType(inputCollection);
+
+    if (integralBoxers.containsKey(elementType)) {
+      return sketch(stream(inputCollection).mapToLong(Number::longValue), capacity)
+          .getHeavyHitters(topNumbers, integralBoxers.get(elementType));
+    } else if (floatingPointBoxers.containsKey(elementType)) {
+      DoubleFunction<Number> boxer = floatingPointBoxers.get(elementType);
+      return sketch(stream(inputCollection).mapToDouble(Number::doubleValue), capacity)
+          .getHeavyHitters(topNumbers, bits -> boxer.apply(Double.longBitsToDouble(bits)));
+    }
+    return sketch(stream(inputCollection).mapToDouble(StatisticsUtility::toDouble),
+        capacity)
+        .getHeavyHitters(topNumbers, Double::longBitsToDouble);
+  }
+
+  /**
+   * Gets the heavy hitters of the provided array. See
+   * {@link #getHeavyHitters(Collection, int, double)} for the guarantees of the estimates.
+   *
+   * @param values       The provided array to get the heavy hitters from.
+   * @param topNumbers   The number of heavy hitters.
+   * @param maximumError The maximum error of the estimated frequencies as a fraction of the size
+   *                     of the array, greater than 0 and at most 1.
+   * @return The heavy hitters of the input array, most frequent first.
+   */
+  public static List<HeavyHitter<Double>> getHeavyHitters(double[] values, int topNumbers,
+      double maximumError) {
+    Objects.requireNonNull(values);
+    return getHeavyHitters(values, 0, values.length, topNumbers, maximumError);
+  }
+
+  /**
+   * Gets the heavy hitters of a range of the provided array.
+   *
+   * @param values       The provided array to get the heavy hitters from.
+   * @param offset       The index of the first element in the range.
+   * @param length       The number of elements in the range.
+   * @param topNumbers   The number of heavy hitters.
+   * @param maximumError The maximum error of the estimated frequencies as a fraction of the size
+   *                     of the range, greater than 0 and at most 1.
+   * @return The heavy hitters of the input range, most frequent first.
+   */
+  public static List<HeavyHitter<Double>> getHeavyHitters(double[] values, int offset,
+      int length, int topNumbers, double maximumError) {
+    Objects.requireNonNull(values);
+    Objects.checkFromIndexSize(offset, length, values.length);
+    validateTopNumbers(topNumbers);
+    return sketch(stream(values, offset, length), SpaceSavingSketch.getCapacity(maximumError))
+        .getHeavyHitters(topNumbers);
+  }
+
+  /**
+   * Gets the heavy hitters of the provided stream.
+   *
+   * @param values       The provided stream to get the heavy hitters from.
+   * @param topNumbers   The number of heavy hitters.
+   * @param maximumError The maximum error of the estimated frequencies as a fraction of the size
+   *                     of the stream, greater than 0 and at most 1.
+   * @return The heavy hitters of the input stream, most frequent first.
+   */
+  public static List<HeavyHitter<Double>> getHeavyHitters(DoubleStream values, int topNumbers,
+      double maximumError) {
+    Objects.requireNonNull(values);
+    validateTopNumbers(topNumbers);
+    return sketch(values, SpaceSavingSketch.getCapacity(maximumError))
+        .getHeavyHitters(topNumbers);
+  }
+
+  /**
+   * Gets the heavy hitters of the provided array. The values are tracked as longs, so large
+   * values that the same double would represent are never mixed up.
+   *
+   * @param values       The provided array to get the heavy hitters from.
+   * @param topNumbers   The number of heavy hitters.
+   * @param maximumError The maximum error of the estimated frequencies as a fraction of the size
+   *                     of the array, greater than 0 and at most 1.
+   * @return The heavy hitters of the input array, most frequent first.
+   */
+  public static List<HeavyHitter<Double>> getHeavyHitters(long[] values, int topNumbers,
+      double maximumError) {
+    Objects.requireNonNull(values);
+    validateTopNumbers(topNumbers);
+    return sketch(stream(values), SpaceSavingSketch.getCapacity(maximumError))
+        .getHeavyHitters(topNumbers, value -> (double) value);
+  }
+
+  /**
+   * Gets the heavy hitters of the provided array.
+   *
+   * @param values       The provided array to get the heavy hitters from.
+   * @param topNumbers   The number of heavy hitters.
+   * @param maximumError The maximum error of the estimated frequencies as a fraction of the size
+   *                     of the array, greater than 0 and at most 1.
+   * @return The heavy hitters of the input array, most frequent first.
+   */
+  public static List<HeavyHitter<Double>> getHeavyHitters(int[] values, int topNumbers,
+      double maximumError) {
+    Objects.requireNonNull(values);
+    validateTopNumbers(topNumbers);
+    return sketch(stream(values).asLongStream(),
+        SpaceSavingSketch.getCapacity(maximumError))
+        .getHeavyHitters(topNumbers, value -> (double) value);
+  }
+
+  /**
+   * Get SummaryStatistics from the provided collection.
+   *
+   * @param inputCollection The input collection to retrieve the SummaryStatistics from.
+   * @return The SummaryStatistics from the provided collection.
+   */
+  public static DoubleSummaryStatistics getSummaryStatistics(
+      Collection<? extends Number> inputCollection) {
+    return getSummaryStatistics(toDoubleArray(inputCollection));
+  }
+
+  /**
+   * Get SummaryStatistics from the provided array.
+   *
+   * @param values The input array to retrieve the SummaryStatistics from.
+   * @return The SummaryStatistics from the provided array.
+   */
+  public static DoubleSummaryStatistics getSummaryStatistics(double[] values) {
+    Objects.requireNonNull(values);
+    return getSummaryStatistics(values, 0, values.length);
+  }
+
+  /**
+   * Get SummaryStatistics from a range of the provided array. The range is reduced by an unrolled
+   * kernel with compensated sums, which is faster and more accurate than a stream.
+   *
+   * @param values The input array to retrieve the SummaryStatistics from.
+   * @param offset The index of the first element in the range.
+   * @param length The number of elements in the range.
+   * @return The SummaryStatistics from the provided range.
+   */
+  public static DoubleSummaryStatistics getSummaryStatistics(double[] values, int offset,
+      int length) {
+    Objects.requireNonNull(values);
+    Objects.checkFromIndexSize(offset, length, values.length);
+    DoubleSummaryStatistics summaryStatistics = DoubleReduction
+        .reduce(values, offset, length, 0, executionPolicy)
+        .toSummaryStatistics();
+    return summaryStatistics != null ? summaryStatistics : execute(
+        () -> stream(values, offset, length).summaryStatistics()
+    );
+  }
+
+  /**
+   * Get SummaryStatistics from the provided stream.
+   *
+   * @param values The input stream to retrieve the SummaryStatistics from.
+   * @return The SummaryStatistics from the provided stream.
+   */
+  public static DoubleSummaryStatistics getSummaryStatistics(DoubleStream values) {
+    Objects.requireNonNull(values);
+    return execute(values::summaryStatistics);
+  }
+
+  /**
+   * Get SummaryStatistics from the provided array.
+   *
+   * @param values The input array to retrieve the SummaryStatistics from.
+   * @return The SummaryStatistics from the provided array.
+   */
+  public static DoubleSummaryStatistics getSummaryStatistics(long[] values) {
+    return getSummaryStatistics(toDoubleArray(values));
+  }
+
+  /**
+   * Get SummaryStatistics from the provided array.
+   *
+   * @param values The input array to retrieve the SummaryStatistics from.
+   * @return The SummaryStatistics from the provided array.
+   */
+  public static DoubleSummaryStatistics getSummaryStatistics(int[] values) {
+    return getSummaryStatistics(toDoubleArray(values));
+  }
+
+  /**
+   * Get the maximum value from the input collection.
+   *
+   * @param inputCollection The input collection to retrieve the maximum value from.
+   * @return The maximum value from the input collection.
+   */
+  public static double getMaxValue(Collection<? extends Number> inputCollection) {
+    return getSummaryStatistics(inputCollection).getMax();
+  }
+
+  /**
+   * Get the maximum value from the input array.
+   *
+   * @param values The input array to retrieve the maximum value from.
+   * @return The maximum value from the input array.
+   */
+  public static double getMaxValue(double[] values) {
+    return getSummaryStatistics(values).getMax();
+  }
+
+  /**
+   * Get the maximum value from a range of the input array.
+   *
+   * @param values The input array to retrieve the maximum value from.
+   * @param offset The index of the first element in the range.
+   * @param length The number of elements in the range.
+   * @return The maximum value from the input range.
+   */
+  public static double getMaxValue(double[] values, int offset, int length) {
+    return getSummaryStatistics(values, offset, length).getMax();
+  }
+
+  /**
+   * Get the maximum value from the input stream.
+   *
+   * @param values The input stream to retrieve the maximum value from.
+   * @return The maximum value from the input stream.
+   */
+  public static double getMaxValue(DoubleStream values) {
+    return getSummaryStatistics(values).getMax();
+  }
+
+  /**
+   * Get the maximum value from the input array.
+   *
+   * @param values The input array to retrieve the maximum value from.
+   * @return The maximum value from the input array.
+   */
+  public static double getMaxValue(long[] values) {
+    return getSummaryStatistics(values).getMax();
+  }
+
+  /**
+   * Get the maximum value from the input array.
+   *
+   * @param values The input array to retrieve the maximum value from.
+   * @return The maximum value from the input array.
+   */
+  public static double getMaxValue(int[] values) {
+    return getSummaryStatistics(values).getMax();
+  }
+
+  /**
+   * Get the minimum value from the input collection.
+   *
+   * @param inputCollection The input collection to retrieve the minimum value from.
+   * @return The minimum value from the input collection.
+   */
+  public static double getMinValue(Collection<? extends Number> inputCollection) {
+    return getSummaryStatistics(inputCollection).getMin();
+  }
+
+  /**
+   * Get the minimum value from the input array.
+   *
+   * @param values The input array to retrieve the minimum value from.
+   * @return The minimum value from the input array.
+   */
+  public static double getMinValue(double[] values) {
+    return getSummaryStatistics(values).getMin();
+  }
+
+  /**
+   * Get the minimum value from a range of the input array.
+   *
+   * @param values The input array to retrieve the minimum value from.
+   * @param offset The index of the first element in the range.
+   * @param length The number of elements in the range.
+   * @return The minimum value from the input range.
+   */
+  public static double getMinValue(double[] values, int offset, int length) {
+    return getSummaryStatistics(values, offset, length).getMin();
+  }
+
+  /**
+   * Get the minimum value from the input stream.
+   *
+   * @param values The input stream to retrieve the minimum value from.
+   * @return The minimum value from the input stream.
+   */
+  public static double getMinValue(DoubleStream values) {
+    return getSummaryStatistics(values).getMin();
+  }
+
+  /**
+   * Get the minimum value from the input array.
+   *
+   * @param values The input array to retrieve the minimum value from.
+   * @return The minimum value from the input array.
+   */
+  public static double getMinValue(long[] values) {
+    return getSummaryStatistics(values).getMin();
+  }
+
+  /**
+   * Get the minimum value from the input array.
+   *
+   * @param values The input array to retrieve the minimum value from.
+   * @return The minimum value from the input array.
+   */
+  public static double getMinValue(int[] values) {
+    return getSummaryStatistics(values).getMin();
+  }
+
+  /**
+   * Get top maximum values.
+   *
+   * @param inputCollection The input collection to retrieve the top maximum values.
+   * @param topNumbers      The top numbers of maximum values.
+   * @return The top maximum values.
+   */
+  public static List<? extends Number> getTopMaxValues(Collection<? extends Number> inputCollection,
+      int topNumbers) {
+
+    validateTopNumbers(topNumbers);
+    return getTopValues(inputCollection, topNumbers, StatisticsUtility::compareNumbers);
+  }
+
+  /**
+   * Get top maximum values from the provided array, largest first.
+   *
+   * @param values     The input array to retrieve the top maximum values.
+   * @param topNumbers The top numbers of maximum values.
+   * @return The top maximum values.
+   */
+  public static double[] getTopMaxValues(double[] values, int topNumbers) {
+    Objects.requireNonNull(values);
+    return getTopMaxValues(values, 0, values.length, topNumbers);
+  }
+
+  /**
+   * Get top maximum values from a range of the provided array, largest first.
+   *
+   * @param values     The input array to retrieve the top maximum values.
+   * @param offset     The index of the first element in the range.
+   * @param length     The number of elements in the range.
+   * @param topNumbers The top numbers of maximum values.
+   * @return The top maximum values.
+   */
+  public static double[] getTopMaxValues(double[] values, int offset, int length,
+      int topNumbers) {
+    Objects.requireNonNull(values);
+    validateTopNumbers(topNumbers);
+    Objects.checkFromIndexSize(offset, length, values.length);
+    return getTopValues(values, offset, length, topNumbers, true);
+  }
+
+  /**
+   * Get top maximum values from the provided stream, largest first.
+   *
+   * @param values     The input stream to retrieve the top maximum values.
+   * @param topNumbers The top numbers of maximum values.
+   * @return The top maximum values.
+   */
+  public static double[] getTopMaxValues(DoubleStream values, int topNumbers) {
+    Objects.requireNonNull(values);
+    validateTopNumbers(topNumbers);
+    return getTopValues(values, topNumbers, true);
+  }
+
+  /**
+   * Get top maximum values from the provided array, largest first.
+   *
+   * @param values     The input array to retrieve the top maximum values.
+   * @param topNumbers The top numbers of maximum values.
+   * @return The top maximum values.
+   */
+  public static double[] getTopMaxValues(long[] values, int topNumbers) {
+    validateTopNumbers(topNumbers);
+    return getTopMaxValues(toDoubleArray(values), topNumbers);
+  }
+
+  /**
+   * Get top maximum values from the provided array, largest first.
+   *
+   * @param values     The input array to retrieve the top maximum values.
+   * @param topNumbers The top numbers of maximum values.
+   * @return The top maximum values.
+   */
+  public static double[] getTopMaxValues(int[] values, int topNumbers) {
+    validateTopNumbers(topNumbers);
+    return getTopMaxValues(toDoubleArray(values), topNumbers);
+  }
+
+  /**
+   * Get top minimum values.
+   *
+   * @param inputCollection The input collection to retrieve the top minimum values.
+   * @param topNumbers      The top numbers of minimum values.
+   * @return The top minimum values.
+   */
+  public static List<? extends Number> getTopMinValues(Collection<? extends Number> inputCollection,
+      int topNumbers) {
+
+    validateTopNumbers(topNumbers);
+    return getTopValues(
+        inputCollection,
+        topNumbers,
+        ((Comparator<Number>) StatisticsUtility::compareNumbers).reversed()
+    );
+  }
+
+  /**
+   * Get top minimum values from the provided array, smallest first.
+   *
+   * @param values     The input array to retrieve the top minimum values.
+   * @param topNumbers The top numbers of minimum values.
+   * @return The top minimum values.
+   */
+  public static double[] getTopMinValues(double[] values, int topNumbers) {
+    Objects.requireNonNull(values);
+    return getTopMinValues(values, 0, values.length, topNumbers);
+  }
+
+  /**
+   * Get top minimum values from a range of the provided array, smallest first.
+   *
+   * @param values     The input array to retrieve the top minimum values.
+   * @param offset     The index of the first element in the range.
+   * @param length     The number of elements in the range.
+   * @param topNumbers The top numbers of minimum values.
+   * @return The top minimum values.
+   */
+  public static double[] getTopMinValues(double[] values, int offset, int length,
+      int topNumbers) {
+    Objects.requireNonNull(values);
+    validateTopNumbers(topNumbers);
+    Objects.checkFromIndexSize(offset, length, values.length);
+    return getTopValues(values, offset, length, topNumbers, false);
+  }
+
+  /**
+   * Get top minimum values from the provided stream, smallest first.
+   *
+   * @param values     The input stream to retrieve the top minimum values.
+   * @param topNumbers The top numbers of minimum values.
+   * @return The top minimum values.
+   */
+  public static double[] getTopMinValues(DoubleStream values, int topNumbers) {
+    Objects.requireNonNull(values);
+    validateTopNumbers(topNumbers);
+    return getTopValues(values, topNumbers, false);
+  }
+
+  /**
+   * Get top minimum values from the provided array, smallest first.
+   *
+   * @param values     The input array to retrieve the top minimum values.
+   * @param topNumbers The top numbers of minimum values.
+   * @return The top minimum values.
+   */
+  public static double[] getTopMinValues(long[] values, int topNumbers) {
+    validateTopNumbers(topNumbers);
+    return getTopMinValues(toDoubleArray(values), topNumbers);
+  }
+
+  /**
+   * Get top minimum values from the provided array, smallest first.
+   *
+   * @param values     The input array to retrieve the top minimum values.
+   * @param topNumbers The top numbers of minimum values.
+   * @return The top minimum values.
+   */
+  public static double[] getTopMinValues(int[] values, int topNumbers) {
+    validateTopNumbers(topNumbers);
+    return getTopMinValues(toDoubleArray(values), topNumbers);
+  }
+
+  /**
+   * Gets the variance from the provided collection.
+   * The variance is the measure of variability in a collection of numbers.
+   * For more information: https://en.wikipedia.org/wiki/Variance
+   *
+   * @param inputCollection The input collection to retrieve variance.
+   * @param meanType        The mean type to use for calculation.
+   * @return The variance from the provided collection.
+   */
+  public static double getVariance(Collection<? extends Number> inputCollection,
+      MeanType meanType) {
+    return getVariance(toDoubleArray(inputCollection), meanType);
+  }
+
+  /**
+   * Gets the variance from the provided array.
+   *
+   * @param values   The input array to retrieve variance.
+   * @param meanType The mean type to use for calculation.
+   * @return The variance from the provided array.
+   */
+  public static double getVariance(double[] values, MeanType meanType) {
+    Objects.requireNonNull(values);
+    return getVariance(values, 0, values.length, meanType);
+  }
+
+  /**
+   * Gets the variance from a range of the provided array.
+   *
+   * @param values   The input array to retrieve variance.
+   * @param offset   The index of the first element in the range.
+   * @param length   The number of elements in the range.
+   * @param meanType The mean type to use for calculation.
+   * @return The variance from the provided range.
+   */
+  public static double getVariance(double[] values, int offset, int length, MeanType meanType) {
+    Objects.requireNonNull(values);
+    Objects.checkFromIndexSize(offset, length, values.length);
+    return switch (meanType) {
+      case ARITHMETIC, GEOMETRIC, HARMONIC -> {
+        if (length == 0) {
+          throw new NoSuchElementException(
+              I18nUtility.getString("StatisticsUtility.error.emptyInput")
+          );
+        }
+        MomentsAccumulator moments = getMoments(values, offset, length);
+        // The geometric and harmonic deviations are measured from a different center, which
+        // needs its own pass.
+        yield meanType == MeanType.ARITHMETIC
+            ? moments.getVariance()
+            : moments.getVariance(getMean(values, offset, length, meanType));
+      }
+      default -> throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "StatisticsUtility.error.invalidMeanType",
+              meanType.toString()
+          )
+      );
+    };
+  }
+
+  /**
+   * Gets the variance from the provided stream.
+   *
+   * @param values   The input stream to retrieve variance.
+   * @param meanType The mean type to use for calculation.
+   * @return The variance from the provided stream.
+   */
+  public static double getVariance(DoubleStream values, MeanType meanType) {
+    Objects.requireNonNull(values);
+    return getVariance(values.toArray(), meanType);
+  }
+
+  /**
+   * Gets the variance from the provided array.
+   *
+   * @param values   The input array to retrieve variance.
+   * @param meanType The mean type to use for calculation.
+   * @return The variance from the provided array.
+   */
+  public static double getVariance(long[] values, MeanType meanType) {
+    return getVariance(toDoubleArray(values), meanType);
+  }
+
+  /**
+   * Gets the variance from the provided array.
+   *
+   * @param values   The input array to retrieve variance.
+   * @param meanType The mean type to use for calculation.
+   * @return The variance from the provided array.
+   */
+  public static double getVariance(int[] values, MeanType meanType) {
+    return getVariance(toDoubleArray(values), meanType);
+  }
+
+  /**
+   * Gets the standard deviation from the provided collection.
+   * The standard deviation is the measurement of variation of collection of values.
+   *
+   * @param inputCollection The input collection to retrieve the standard deviation.
+   * @param meanType        The mean type to use for calculation.
+   * @return The standard deviation from the provided collection.
+   */
+  public static double getStandardDeviation(Collection<? extends Number> inputCollection,
+      MeanType meanType) {
+    return Math.sqrt(getVariance(inputCollection, meanType));
+  }
+
+  /**
+   * Gets the standard deviation from the provided array.
+   *
+   * @param values   The input array to retrieve the standard deviation.
+   * @param meanType The mean type to use for calculation.
+   * @return The standard deviation from the provided array.
+   */
+  public static double getStandardDeviation(double[] values, MeanType meanType) {
+    return Math.sqrt(getVariance(values, meanType));
+  }
+
+  /**
+   * Gets the standard deviation from a range of the provided array.
+   *
+   * @param values   The input array to retrieve the standard deviation.
+   * @param offset   The index of the first element in the range.
+   * @param length   The number of elements in the range.
+   * @param meanType The mean type to use for calculation.
+   * @return The standard deviation from the provided range.
+   */
+  public static double getStandardDeviation(double[] values, int offset, int length,
+      MeanType meanType) {
+    return Math.sqrt(getVariance(values, offset, length, meanType));
+  }
+
+  /**
+   * Gets the standard deviation from the provided stream.
+   *
+   * @param values   The input stream to retrieve the standard deviation.
+   * @param meanType The mean type to use for calculation.
+   * @return The standard deviation from the provided stream.
+   */
+  public static double getStandardDeviation(DoubleStream values, MeanType meanType) {
+    return Math.sqrt(getVariance(values, meanType));
+  }
+
+  /**
+   * Gets the standard deviation from the provided array.
+   *
+   * @param values   The input array to retrieve the standard deviation.
+   * @param meanType The mean type to use for calculation.
+   * @return The standard deviation from the provided array.
+   */
+  public static double getStandardDeviation(long[] values, MeanType meanType) {
+    return Math.sqrt(getVariance(values, meanType));
+  }
+
+  /**
+   * Gets the standard deviation from the provided array.
+   *
+   * @param values   The input array to retrieve the standard deviation.
+   * @param meanType The mean type to use for calculation.
+   * @return The standard deviation from the provided array.
+   */
+  public static double getStandardDeviation(int[] values, MeanType meanType) {
+    return Math.sqrt(getVariance(values, meanType));
+  }
+
+  /**
+   * Gets the count, mean and central moments of the provided collection in a single pass.
+   *
+   * @param inputCollection The input collection to retrieve the moments from.
+   * @return The moments of the provided collection.
+   */
+  public static MomentsAccumulator getMoments(Collection<? extends Number> inputCollection) {
+    return getMoments(toDoubleArray(inputCollection));
+  }
+
+  /**
+   * Gets the count, mean and central moments of the provided array in a single pass.
+   *
+   * @param values The input array to retrieve the moments from.
+   * @return The moments of the provided array.
+   */
+  public static MomentsAccumulator getMoments(double[] values) {
+    Objects.requireNonNull(values);
+    return getMoments(values, 0, values.length);
+  }
+
+  /**
+   * Gets the count, mean and central moments of a range of the provided array in a single pass.
+   *
+   * @param values The input array to retrieve the moments from.
+   * @param offset The index of the first element in the range.
+   * @param length The number of elements in the range.
+   * @return The moments of the provided range.
+   */
+  public static MomentsAccumulator getMoments(double[] values, int offset, int length) {
+    Objects.requireNonNull(values);
+    Objects.checkFromIndexSize(offset, length, values.length);
+    return executionPolicy.reduceInChunks(
+        offset,
+        length,
+        summationChunkSize,
+        (from, to) -> MomentsAccumulator.of(values, from, to),
+        (moments, nextMoments) -> {
+          moments.combine(nextMoments);
+          return moments;
+        }
+    );
+  }
+
+  /**
+   * Gets the count, mean and central moments of the provided stream in a single pass.
+   *
+   * @param values The input stream to retrieve the moments from.
+   * @return The moments of the provided stream.
+   */
+  public static MomentsAccumulator getMoments(DoubleStream values) {
+    Objects.requireNonNull(values);
+    return execute(() -> values.collect(
+        MomentsAccumulator::new,
+        MomentsAccumulator::accept,
+        MomentsAccumulator::combine
+    ));
+  }
+
+  /**
+   * Gets the count, mean and central moments of the provided array in a single pass.
+   *
+   * @param values The input array to retrieve the moments from.
+   * @return The moments of the provided array.
+   */
+  public static MomentsAccumulator getMoments(long[] values) {
+    return getMoments(toDoubleArray(values));
+  }
+
+  /**
+   * Gets the count, mean and central moments of the provided array in a single pass.
+   *
+   * @param values The input array to retrieve the moments from.
+   * @return The moments of the provided array.
+   */
+  public static MomentsAccumulator getMoments(int[] values) {
+    return getMoments(toDoubleArray(values));
+  }
+
+  /**
+   * Gets the skewness of the provided collection. The skewness is a measure of the asymmetry of
+   * the distribution of the values about their mean. For more information:
+   * https://en.wikipedia.org/wiki/Skewness
+   *
+   * @param inputCollection The input collection to retrieve the skewness from.
+   * @return The skewness of the provided collection.
+   */
+  public static double getSkewness(Collection<? extends Number> inputCollection) {
+    return getMoments(inputCollection).getSkewness();
+  }
+
+  /**
+   * Gets the skewness of the provided array.
+   *
+   * @param values The input array to retrieve the skewness from.
+   * @return The skewness of the provided array.
+   */
+  public static double getSkewness(double[] values) {
+    return getMoments(values).getSkewness();
+  }
+
+  /**
+   * Gets the skewness of a range of the provided array.
+   *
+   * @param values The input array to retrieve the skewness from.
+   * @param offset The index of the first element in the range.
+   * @param length The number of elements in the range.
+   * @return The skewness of the provided range.
+   */
+  public static double getSkewness(double[] values, int offset, int length) {
+    return getMoments(values, offset, length).getSkewness();
+  }
+
+  /**
+   * Gets the skewness of the provided stream.
+   *
+   * @param values The input stream to retrieve the skewness from.
+   * @return The skewness of the provided stream.
+   */
+  public static double getSkewness(DoubleStream values) {
+    return getMoments(values).getSkewness();
+  }
+
+  /**
+   * Gets the skewness of the provided array.
+   *
+   * @param values The input array to retrieve the skewness from.
+   * @return The skewness of the provided array.
+   */
+  public static double getSkewness(long[] values) {
+    return getMoments(values).getSkewness();
+  }
+
+  /**
+   * Gets the skewness of the provided array.
+   *
+   * @param values The input array to retrieve the skewness from.
+   * @return The skewness of the provided array.
+   */
+  public static double getSkewness(int[] values) {
+    return getMoments(values).getSkewness();
+  }
+
+  /**
+   * Gets the excess kurtosis of the provided collection. The kurtosis is a measure of how heavy
+   * the tails of the distribution of the values are. For more information:
+   * https://en.wikipedia.org/wiki/Kurtosis
+   *
+   * @param inputCollection The input collection to retrieve the kurtosis from.
+   * @return The excess kurtosis of the provided collection.
+   */
+  public static double getKurtosis(Collection<? extends Number> inputCollection) {
+    return getMoments(inputCollection).getKurtosis();
+  }
+
+  /**
+   * Gets the excess kurtosis of the provided array.
+   *
+   * @param values The input array to retrieve the kurtosis from.
+   * @return The excess kurtosis of the provided array.
+   */
+  public static double getKurtosis(double[] values) {
+    return getMoments(values).getKurtosis();
+  }
+
+  /**
+   * Gets the excess kurtosis of a range of the provided array.
+   *
+   * @param values The input array to retrieve the kurtosis from.
+   * @param offset The index of the first element in the range.
+   * @param length The number of elements in the range.
+   * @return The excess kurtosis of the provided range.
+   */
+  public static double getKurtosis(double[] values, int offset, int length) {
+    return getMoments(values, offset, length).getKurtosis();
+  }
+
+  /**
+   * Gets the excess kurtosis of the provided stream.
+   *
+   * @param values The input stream to retrieve the kurtosis from.
+   * @return The excess kurtosis of the provided stream.
+   */
+  public static double getKurtosis(DoubleStream values) {
+    return getMoments(values).getKurtosis();
+  }
+
+  /**
+   * Gets the excess kurtosis of the provided array.
+   *
+   * @param values The input array to retrieve the kurtosis from.
+   * @return The excess kurtosis of the provided array.
+   */
+  public static double getKurtosis(long[] values) {
+    return getMoments(values).getKurtosis();
+  }
+
+  /**
+   * Gets the excess kurtosis of the provided array.
+   *
+   * @param values The input array to retrieve the kurtosis from.
+   * @return The excess kurtosis of the provided array.
+   */
+  public static double getKurtosis(int[] values) {
+    return getMoments(values).getKurtosis();
+  }
+
+  /**
+   * Gets the count, means and co-moments of the columns of the provided rows in a single pass,
+   * from which their covariance and correlation matrices are derived.
+   *
+   * @param rows The input rows to retrieve the co-moments from, at least one and all of the same
+   *             length.
+   * @return The co-moments of the provided rows.
+   */
+  public static CovarianceAccumulator getCoMoments(double[][] rows) {
+    Objects.requireNonNull(rows);
+    if (rows.length == 0) {
+      throw new NoSuchElementException(I18nUtility.getString("StatisticsUtility.error.emptyInput"));
+    }
+    Objects.requireNonNull(rows[0]);
+    int dimension = rows[0].length;
+    CovarianceAccumulator.validateDimension(dimension);
+    return executionPolicy.reduceInChunks(
+        0,
+        rows.length,
+        getCoMomentsChunkRows(dimension),
+        (from, to) -> {
+          CovarianceAccumulator chunkCoMoments = new CovarianceAccumulator(dimension);
+          chunkCoMoments.acceptRows(rows, from, to - from);
+          return chunkCoMoments;
+        },
+        (coMoments, nextCoMoments) -> {
+          coMoments.combine(nextCoMoments);
+          return coMoments;
+        }
+    );
+  }
+
+  /**
+   * Gets the count, means and co-moments of the columns of the rows held one after the other by
+   * the provided array in a single pass.
+   *
+   * @param values    The input array holding the rows to retrieve the co-moments from, at least
+   *                  one.
+   * @param dimension The number of values in each row.
+   * @return The co-moments of the provided rows.
+   */
+  public static CovarianceAccumulator getCoMoments(double[] values, int dimension) {
+    Objects.requireNonNull(values);
+    CovarianceAccumulator.validateDimension(dimension);
+    if (values.length % dimension != 0) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "StatisticsUtility.error.incompleteRows",
+              values.length,
+              dimension
+          )
+      );
+    }
+    int rowCount = values.length / dimension;
+    if (rowCount == 0) {
+      throw new NoSuchElementException(I18nUtility.getString("StatisticsUtility.error.emptyInput"));
+    }
+    return executionPolicy.reduceInChunks(
+        0,
+        rowCount,
+        getCoMomentsChunkRows(dimension),
+        (from, to) -> {
+          CovarianceAccumulator chunkCoMoments = new CovarianceAccumulator(dimension);
+          chunkCoMoments.acceptRows(values, from * dimension, to - from);
+          return chunkCoMoments;
+        },
+        (coMoments, nextCoMoments) -> {
+          coMoments.combine(nextCoMoments);
+          return coMoments;
+        }
+    );
+  }
+
+  /**
+   * Gets the population covariance matrix of the columns of the provided rows in a single pass.
+   *
+   * @param rows The input rows to retrieve the covariance matrix from, all of the same length.
+   * @return The symmetric matrix of the covariance of each pair of columns.
+   */
+  public static double[][] getCovarianceMatrix(double[][] rows) {
+    return getCoMoments(rows).getCovarianceMatrix();
+  }
+
+  /**
+   * Gets the Pearson correlation matrix of the columns of the provided rows in a single pass.
+   * For more information: https://en.wikipedia.org/wiki/Pearson_correlation_coefficient
+   *
+   * @param rows The input rows to retrieve the correlation matrix from, all of the same length.
+   * @return The symmetric matrix of the correlation coefficient of each pair of columns, which
+   *     are NaN for the columns whose values are all equal.
+   */
+  public static double[][] getCorrelationMatrix(double[][] rows) {
+    return getCoMoments(rows).getCorrelationMatrix();
+  }
+
+  /**
+   * Gets several percentiles of a range of the provided array by selecting the ranks around each
+   * of them. The range is rearranged in the process.
+   *
+   * @param values      The array to get the percentiles from.
+   * @param offset      The index of the first element in the range.
+   * @param length      The number of elements in the range.
+   * @param percentiles The percentiles to get, between 0 and 100.
+   * @return The percentiles of the provided range, in the same order as requested.
+   */
+  private static double[] selectPercentiles(double[] values, int offset, int length,
+      double[] percentiles) {
+    validatePercentiles(percentiles);
+    if (length == 0) {
+      throw new NoSuchElementException(
+          I18nUtility.getString("StatisticsUtility.error.emptyInput")
+      );
+    }
+    SelectionUtility.selectAll(
+        values,
+        offset,
+        offset + length,
+        getPercentileRanks(offset, length, percentiles)
+    );
+    return interpolatePercentiles(values, offset, length, percentiles);
+  }
+
+  /**
+   * Validates percentiles.
+   *
+   * @param percentiles The percentiles to validate, which should be between 0 and 100.
+   */
+  static void validatePercentiles(double[] percentiles) {
+    Objects.requireNonNull(percentiles);
+    for (double percentile : percentiles) {
+      if (!(percentile >= 0 && percentile <= 100)) {
+        throw new IllegalArgumentException(
+            I18nUtility.getFormattedString(
+                "StatisticsUtility.error.invalidPercentile",
+                percentile
+            )
+        );
+      }
+    }
+  }
+
+  /**
+   * Gets the ranks to select in a non empty range for the percentiles to be interpolated from
+   * them.
+   *
+   * @param offset      The index of the first element in the range.
+   * @param length      The number of elements in the range.
+   * @param percentiles The percentiles, between 0 and 100.
+   * @return The distinct ranks around each percentile, in ascending order.
+   */
+  static int[] getPercentileRanks(int offset, int length, double[] percentiles) {
+    int[] ranks = new int[2 * percentiles.length];
+    for (int index = 0; index < percentiles.length; index++) {
+      int lowerRank = (int) Math.floor((length - 1) * (percentiles[index] / 100));
+      ranks[2 * index] = offset + lowerRank;
+      ranks[2 * index + 1] = offset + Math.min(lowerRank + 1, length - 1);
+    }
+    return Arrays.stream(ranks).sorted().distinct().toArray();
+  }
+
+  /**
+   * Interpolates percentiles from a non empty range in which the ranks around them have been
+   * selected.
+   *
+   * @param values      The array the ranks have been selected in.
+   * @param offset      The index of the first element in the range.
+   * @param length      The number of elements in the range.
+   * @param percentiles The percentiles, between 0 and 100.
+   * @return The percentiles of the range, in the same order as requested.
+   */
+  static double[] interpolatePercentiles(double[] values, int offset, int length,
+      double[] percentiles) {
+    double[] result = new double[percentiles.length];
+    for (int index = 0; index < percentiles.length; index++) {
+      double position = (length - 1) * (percentiles[index] / 100);
+      int lowerRank = (int) Math.floor(position);
+      double fraction = position - lowerRank;
+      double lower = values[offset + lowerRank];
+      result[index] = fraction == 0
+          ? lower
+          : (1 - fraction) * lower + fraction * values[offset + lowerRank + 1];
+    }
+    return result;
+  }
+
+  /**
+   * Gets the top values of a collection according to the provided order. Each thread retains at
+   * most topNumbers elements in a bounded heap, and the heaps are merged at the end.
+   *
+   * @param inputCollection The input collection to retrieve the top values from.
+   * @param topNumbers      The number of top values to retrieve.
+   * @param comparator      The order of the values, the greatest values being the top ones.
+   * @return The top values, greatest first.
+   */
+  private static List<? extends Number> getTopValues(Collection<? extends Number> inputCollection,
+      int topNumbers, Comparator<Number> comparator) {
+    BiConsumer<PriorityQueue<Number>, Number> offer = (heap, number) -> {
+      heap.offer(number);
+      if (heap.size() > topNumbers) {
+        heap.poll();
+      }
+    };
+    List<Number> topValues = new ArrayList<>(
+        execute(() -> stream(inputCollection)
+            .collect(
+                () -> new PriorityQueue<>(comparator),
+                offer,
+                (heap, otherHeap) -> otherHeap.forEach(number -> offer.accept(heap, number))
+            ))
+    );
+    topValues.sort(comparator.reversed());
+    return topValues;
+  }
+
+  /**
+   * Gets the top values of a range of an array. Small numbers of top values are retained in per
+   * thread bounded heaps in O(n log topNumbers). When a large share of the range is requested, the
+   * boundary value is selected in linear time instead and only the top values are sorted.
+   *
+   * @param values     The input array to retrieve the top values from.
+   * @param offset     The index of the first element in the range.
+   * @param length     The number of elements in the range.
+   * @param topNumbers The number of top values to retrieve.
+   * @param largest    Whether the top values are the largest ones, rather than the smallest ones.
+   * @return The top values, largest first if they are the largest ones and smallest first
+   *     otherwise.
+   */
+  private static double[] getTopValues(double[] values, int offset, int length, int topNumbers,
+      boolean largest) {
+    if ((long) topNumbers * heapSelectionRatio < length) {
+      return getTopValues(stream(values, offset, length), topNumbers, largest);
+    }
+
+    int topLength = Math.min(topNumbers, length);
+    double[] rangeValues = Arrays.copyOfRange(values, offset, offset + length);
+    int boundary = largest ? length - topLength : topLength - 1;
+    if (topLength < length) {
+      SelectionUtility.select(rangeValues, 0, length, boundary);
+    }
+    double[] topValues = largest
+        ? Arrays.copyOfRange(rangeValues, boundary, length)
+        : Arrays.copyOf(rangeValues, topLength);
+    Arrays.sort(topValues);
+    if (largest) {
+      BoundedDoubleHeap.reverse(topValues);
+    }
+    return topValues;
+  }
+
+  /**
+   * Gets the top values of a stream using per thread bounded heaps.
+   *
+   * @param values     The input stream to retrieve the top values from.
+   * @param topNumbers The number of top values to retrieve.
+   * @param largest    Whether the top values are the largest ones, rather than the smallest ones.
+   * @return The top values, largest first if they are the largest ones and smallest first
+   *     otherwise.
+   */
+  private static double[] getTopValues(DoubleStream values, int topNumbers, boolean largest) {
+    return execute(() -> values.collect(
+        () -> new BoundedDoubleHeap(topNumbers, largest),
+        BoundedDoubleHeap::offer,
+        BoundedDoubleHeap::merge
+    )).toSortedArray();
+  }
+
+  /**
+   * Compares two numbers by value. Integral numbers are compared exactly, and any other number is
+   * compared by its double value.
+   *
+   * @param first  The first number to compare.
+   * @param second The second number to compare.
+   * @return A negative integer, zero, or a positive integer as the first number is less than,
+   *     equal to, or greater than the second.
+   */
+  static int compareNumbers(Number first, Number second) {
+    return isIntegral(first) && isIntegral(second)
+        ? Long.compare(first.longValue(), second.longValue())
+        : Double.compare(toDouble(first), toDouble(second));
+  }
+
+  /**
+   * Checks whether a number is of an integral type that fits in a long.
+   *
+   * @param number The number to check.
+   * @return True if the number is a Long, Integer, Short or Byte.
+   */
+  static boolean isIntegral(Number number) {
+    return number instanceof Long
+        || number instanceof Integer
+        || number instanceof Short
+        || number instanceof Byte;
+  }
+
+  /**
+   * Gets the class shared by all the elements of a collection.
+   *
+   * @param inputCollection The collection to inspect.
+   * @return The class of the elements, or Number if the collection is empty or its elements are
+   *     of different classes.
+   */
+  private static Class<?> getElementType(Collection<? extends Number> inputCollection) {
+    Iterator<? extends Number> iterator = inputCollection.iterator();
+    if (!iterator.hasNext()) {
+      return Number.class;
+    }
+    Class<?> elementType = iterator.next().getClass();
+    while (iterator.hasNext()) {
+      if (iterator.next().getClass() != elementType) {
+        return Number.class;
+      }
+    }
+    return elementType;
+  }
+
+  /**
+   * Counts the values of a collection of integral numbers in primitive per thread tables.
+   *
+   * @param inputCollection The collection to count.
+   * @return The number of occurrences of each distinct value.
+   */
+  private static LongCountMap countIntegralValues(Collection<? extends Number> inputCollection) {
+    return execute(() -> stream(inputCollection)
+        .collect(
+            LongCountMap::new,
+            (countMap, number) -> countMap.add(number.longValue()),
+            LongCountMap::merge
+        ));
+  }
+
+  /**
+   * Counts the values of a collection of floating point numbers in primitive per thread tables.
+   *
+   * @param inputCollection The collection to count.
+   * @return The number of occurrences of each distinct value.
+   */
+  private static DoubleCountMap countFloatingPointValues(
+      Collection<? extends Number> inputCollection) {
+    return execute(() -> stream(inputCollection)
+        .collect(
+            DoubleCountMap::new,
+            (countMap, number) -> countMap.add(number.doubleValue()),
+            DoubleCountMap::merge
+        ));
+  }
+
+  /**
+   * Estimates the heavy hitters of a stream in per thread Space-Saving sketches.
+   *
+   * @param values   The stream to sketch.
+   * @param capacity The number of counters of each sketch.
+   * @return The merged sketch.
+   */
+  private static SpaceSavingSketch sketch(DoubleStream values, int capacity) {
+    return execute(() -> values.collect(
+        () -> new SpaceSavingSketch(capacity),
+        SpaceSavingSketch::add,
+        SpaceSavingSketch::merge
+    ));
+  }
+
+  /**
+   * Estimates the heavy hitters of a stream of integral values in per thread Space-Saving
+   * sketches. The values themselves are used as the keys of the sketches.
+   *
+   * @param values   The stream to sketch.
+   * @param capacity The number of counters of each sketch.
+   * @return The merged sketch.
+   */
+  private static SpaceSavingSketch sketch(LongStream values, int capacity) {
+    return execute(() -> values.collect(
+        () -> new SpaceSavingSketch(capacity),
+        (sketch, value) -> sketch.addKey(value, 1),
+        SpaceSavingSketch::merge
+    ));
+  }
+
+  /**
+   * Extracts the values of a list of heavy hitters.
+   *
+   * @param heavyHitters The heavy hitters.
+   * @return The values of the heavy hitters, in the same order.
+   */
+  private static double[] toValueArray(List<HeavyHitter<Double>> heavyHitters) {
+    return heavyHitters.stream()
+        .mapToDouble(HeavyHitter::getValue)
+        .toArray();
+  }
+
+  /**
+   * Computes the compensated sum of a function of the values of a range of the provided array.
+   * Fixed size chunks are summed in parallel and then combined in order, so the result doesn't
+   * depend on how the work was scheduled.
+   *
+   * @param values The array to sum a function of.
+   * @param offset The index of the first element in the range.
+   * @param length The number of elements in the range.
+   * @param term   The function of each value to sum.
+   * @return The sum of the function of the values in the range.
+   */
+  private static double getCompensatedSum(double[] values, int offset, int length,
+      DoubleUnaryOperator term) {
+    return executionPolicy.reduceInChunks(
+        offset,
+        length,
+        summationChunkSize,
+        (from, to) -> {
+          CompensatedSum chunkSum = new CompensatedSum();
+          for (int index = from; index < to; index++) {
+            chunkSum.accept(term.applyAsDouble(values[index]));
+          }
+          return chunkSum;
+        },
+        (sum, nextSum) -> {
+          sum.merge(nextSum);
+          return sum;
+        }
+    ).getSum();
+  }
+
+  /**
+   * Returns the number of rows of each parallel task of a covariance computation, so that it
+   * updates about {@link #coMomentsChunkSize} co-moments.
+   *
+   * @param dimension The number of values in each row.
+   * @return The number of rows of each task.
+   */
+  private static int getCoMomentsChunkRows(int dimension) {
+    long pairCount = (long) dimension * (dimension + 1) / 2;
+    return (int) Math.max(1, coMomentsChunkSize / pairCount);
+  }
+
+  /**
+   * Validates the number of top elements requested from a top N query.
+   *
+   * @param topNumbers The number of top elements requested.
+   */
+  static void validateTopNumbers(int topNumbers) {
+    if (topNumbers < 1) {
+      throw new IllegalArgumentException(
+          I18nUtility.getString("StatisticsUtility.error.negativeTopNumberIsProvided")
+      );
+    }
+  }
+
+  /**
+   * Converts a number to its double value. Floats are widened through their decimal
+   * representation, so that 0.1f is treated as 0.1 rather than 0.10000000149011612.
+   *
+   * @param number The number to convert.
+   * @return The double value of the number.
+   */
+  static double toDouble(Number number) {
+    return number instanceof Float
+        ? Double.parseDouble(number.toString())
+        : number.doubleValue();
+  }
+
+  /**
+   * Converts a collection of numbers into a primitive array.
+   *
+   * @param inputCollection The collection to convert.
+   * @return The values of the collection as doubles.
+   */
+  static double[] toDoubleArray(Collection<? extends Number> inputCollection) {
+    Objects.requireNonNull(inputCollection);
+    return execute(() -> stream(inputCollection)
+        .mapToDouble(StatisticsUtility::toDouble)
+        .toArray());
+  }
+
+  /**
+   * Converts an array of longs into an array of doubles.
+   *
+   * @param values The array to convert.
+   * @return The values of the array as doubles.
+   */
+  static double[] toDoubleArray(long[] values) {
+    Objects.requireNonNull(values);
+    double[] doubleValues = new double[values.length];
+    for (int index = 0; index < values.length; index++) {
+      doubleValues[index] = values[index];
+    }
+    return doubleValues;
+  }
+
+  /**
+   * Converts an array of ints into an array of doubles.
+   *
+   * @param values The array to convert.
+   * @return The values of the array as doubles.
+   */
+  static double[] toDoubleArray(int[] values) {
+    Objects.requireNonNull(values);
+    double[] doubleValues = new double[values.length];
+    for (int index = 0; index < values.length; index++) {
+      doubleValues[index] = values[index];
+    }
+    return doubleValues;
+  }
+
+  /**
+   * Creates a stream over a range of the provided array, parallel if the execution policy says
+   * so.
+   *
+   * @param values The array to stream.
+   * @param offset The index of the first element in the range.
+   * @param length The number of elements in the range.
+   * @return A stream over the range.
+   */
+  private static DoubleStream stream(double[] values, int offset, int length) {
+    return executionPolicy.configure(Arrays.stream(values, offset, offset + length), length);
+  }
+
+  /**
+   * Creates a stream over the provided array, parallel if the execution policy says so.
+   *
+   * @param values The array to stream.
+   * @return A stream over the array.
+   */
+  private static LongStream stream(long[] values) {
+    return executionPolicy.configure(Arrays.stream(values), values.length);
+  }
+
+  /**
+   * Creates a stream over the provided array, parallel if the execution policy says so.
+   *
+   * @param values The array to stream.
+   * @return A stream over the array.
+   */
+  private static IntStream stream(int[] values) {
+    return executionPolicy.configure(Arrays.stream(values), values.length);
+  }
+
+  /**
+   * Creates a stream over the provided collection, parallel if the execution policy says so.
+   *
+   * @param inputCollection The collection to stream.
+   * @param <T>             Type of the elements of the collection.
+   * @return A stream over the collection.
+   */
+  private static <T> Stream<T> stream(Collection<T> inputCollection) {
+    return executionPolicy.configure(inputCollection.stream(), inputCollection.size());
+  }
+
+  /**
+   * Runs a computation in the pool of the execution policy.
+   *
+   * @param computation The computation to run.
+   * @param <T>         Type of the result.
+   * @return The result of the computation.
+   */
+  private static <T> T execute(Supplier<T> computation) {
+    return executionPolicy.execute(computation);
   }
 }
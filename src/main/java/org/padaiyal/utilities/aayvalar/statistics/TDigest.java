@@ -0,0 +1,488 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.DoubleConsumer;
+import org.padaiyal.utilities.I18nUtility;
+
+/**
+ * Streaming quantile sketch using the merging t-digest. Values are buffered and periodically
+ * merged into a sorted list of weighted centroids, whose sizes are bounded by a scale function
+ * that keeps centroids near the extremes small. The memory used depends only on the compression,
+ * not on the number of values added, while quantiles near 0 and 1 (such as p99) stay accurate.
+ * For more information: https://arxiv.org/abs/1902.04023
+ *
+ * <p>Digests filled by different threads or on different nodes can be merged, so it can be used
+ * as the container of a parallel {@link java.util.stream.DoubleStream#collect} reduction and
+ * shipped around in its binary form ({@link #toByteArray()}).
+ *
+ * <p>Quantiles are interpolated linearly between the centroids, the same way
+ * {@link StatisticsUtility#getPercentile(double[], double)} interpolates between values. As long
+ * as no values have been merged into a shared centroid, the results are exact.
+ *
+ * <p>This class is not thread safe.
+ */
+public class TDigest implements DoubleConsumer {
+
+  static {
+    I18nUtility.addResourceBundle(
+        TDigest.class,
+        TDigest.class.getSimpleName(),
+        Locale.US
+    );
+  }
+
+  /**
+   * Compression used when none is provided.
+   */
+  public static final double defaultCompression = 100;
+
+  /**
+   * Version of the binary format written by {@link #toByteArray()}.
+   */
+  private static final int serializationVersion = 1;
+
+  /**
+   * Number of values buffered per unit of compression before they are merged into the centroids.
+   */
+  private static final int bufferSizeRatio = 5;
+
+  /**
+   * Bounds the number of centroids, which stays below compression.
+   */
+  private final double compression;
+  /**
+   * Values added since the last merge.
+   */
+  private final double[] buffer;
+  /**
+   * Number of values in the buffer.
+   */
+  private int bufferSize;
+  /**
+   * Means of the centroids, sorted in ascending order.
+   */
+  private double[] means = new double[0];
+  /**
+   * Weights of the centroids.
+   */
+  private long[] weights = new long[0];
+  /**
+   * Number of centroids.
+   */
+  private int centroidCount;
+  /**
+   * Number of values added, including the buffered ones.
+   */
+  private long count;
+  /**
+   * Smallest value added.
+   */
+  private double min = Double.POSITIVE_INFINITY;
+  /**
+   * Largest value added.
+   */
+  private double max = Double.NEGATIVE_INFINITY;
+
+  /**
+   * Creates an empty digest with the default compression.
+   */
+  public TDigest() {
+    this(defaultCompression);
+  }
+
+  /**
+   * Creates an empty digest.
+   *
+   * @param compression Bounds the number of centroids to below compression. Higher values
+   *                    are more accurate and use more memory, 100 is a good trade off.
+   */
+  public TDigest(double compression) {
+    validateCompression(compression);
+    this.compression = compression;
+    this.buffer = new double[(int) Math.ceil(compression * bufferSizeRatio)];
+  }
+
+  /**
+   * Validates the compression of a digest.
+   *
+   * @param compression The compression to validate.
+   */
+  static void validateCompression(double compression) {
+    if (!(compression >= 1 && compression <= 1_000_000)) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "TDigest.error.invalidCompression",
+              compression
+          )
+      );
+    }
+  }
+
+  /**
+   * Adds a value to the digest.
+   *
+   * @param value The value to add. NaN values are ignored.
+   */
+  public void add(double value) {
+    if (Double.isNaN(value)) {
+      return;
+    }
+    if (bufferSize == buffer.length) {
+      flush();
+    }
+    buffer[bufferSize++] = value;
+    count++;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+  }
+
+  /**
+   * Adds a value to the digest.
+   *
+   * @param value The value to add. NaN values are ignored.
+   */
+  @Override
+  public void accept(double value) {
+    add(value);
+  }
+
+  /**
+   * Merges another digest into this one. The other digest is left unchanged.
+   *
+   * @param other The digest to merge into this one.
+   */
+  public void merge(TDigest other) {
+    if (other.count == 0) {
+      return;
+    }
+    flush();
+    setCentroids(
+        means, weights, centroidCount,
+        other.means, other.weights, other.centroidCount
+    );
+    for (int index = 0; index < other.bufferSize; index++) {
+      add(other.buffer[index]);
+    }
+    count += other.count - other.bufferSize;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+  }
+
+  /**
+   * Returns the number of values added to the digest.
+   *
+   * @return The number of values added.
+   */
+  public long getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the compression of the digest.
+   *
+   * @return The compression.
+   */
+  public double getCompression() {
+    return compression;
+  }
+
+  /**
+   * Returns the smallest value added.
+   *
+   * @return The smallest value added, NaN if the digest is empty.
+   */
+  public double getMin() {
+    return count == 0 ? Double.NaN : min;
+  }
+
+  /**
+   * Returns the largest value added.
+   *
+   * @return The largest value added, NaN if the digest is empty.
+   */
+  public double getMax() {
+    return count == 0 ? Double.NaN : max;
+  }
+
+  /**
+   * Returns the number of centroids summarizing the values added.
+   *
+   * @return The number of centroids.
+   */
+  public int getCentroidCount() {
+    flush();
+    return centroidCount;
+  }
+
+  /**
+   * Estimates a quantile of the values added.
+   *
+   * @param quantile The quantile to estimate, between 0 and 1.
+   * @return The estimated quantile, NaN if the digest is empty.
+   */
+  public double quantile(double quantile) {
+    if (!(quantile >= 0 && quantile <= 1)) {
+      throw new IllegalArgumentException(
+          I18nUtility.getFormattedString(
+              "TDigest.error.invalidQuantile",
+              quantile
+          )
+      );
+    }
+    if (count == 0) {
+      return Double.NaN;
+    }
+    flush();
+
+    // Each centroid is placed at the rank of its middle value, between the minimum at rank 0 and
+    // the maximum at rank count - 1.
+    double rank = quantile * (count - 1);
+    if (rank >= count - 1) {
+      return max;
+    }
+    double previousRank = 0;
+    double previousValue = min;
+    double centroidStart = 0;
+    for (int centroid = 0; centroid < centroidCount; centroid++) {
+      double centroidRank = centroidStart + (weights[centroid] - 1) / 2.0;
+      if (rank <= centroidRank) {
+        return interpolate(previousRank, previousValue, centroidRank, means[centroid], rank);
+      }
+      previousRank = centroidRank;
+      previousValue = means[centroid];
+      centroidStart += weights[centroid];
+    }
+    return interpolate(previousRank, previousValue, count - 1, max, rank);
+  }
+
+  /**
+   * Estimates the fraction of the values added that are less than or equal to the provided value.
+   *
+   * @param value The value to estimate the cumulative distribution at.
+   * @return The estimated fraction of values, NaN if the digest is empty.
+   */
+  public double cdf(double value) {
+    if (count == 0 || Double.isNaN(value)) {
+      return Double.NaN;
+    }
+    if (value < min) {
+      return 0;
+    }
+    if (value >= max) {
+      return 1;
+    }
+    flush();
+
+    double previousRank = 0;
+    double previousValue = min;
+    double centroidStart = 0;
+    for (int centroid = 0; centroid < centroidCount; centroid++) {
+      double centroidRank = centroidStart + (weights[centroid] - 1) / 2.0;
+      if (value < means[centroid]) {
+        return (interpolate(previousValue, previousRank, means[centroid], centroidRank, value) + 1)
+            / count;
+      }
+      previousRank = centroidRank;
+      previousValue = means[centroid];
+      centroidStart += weights[centroid];
+    }
+    return (interpolate(previousValue, previousRank, max, count - 1, value) + 1) / count;
+  }
+
+  /**
+   * Serializes the digest into a compact binary form, which can be read back with
+   * {@link #fromByteArray(byte[])}.
+   *
+   * @return The serialized digest.
+   */
+  public byte[] toByteArray() {
+    flush();
+    ByteBuffer byteBuffer = ByteBuffer.allocate(
+        Integer.BYTES * 2 + Double.BYTES * 3 + Long.BYTES
+            + centroidCount * (Double.BYTES + Long.BYTES)
+    );
+    byteBuffer.putInt(serializationVersion)
+        .putDouble(compression)
+        .putLong(count)
+        .putDouble(min)
+        .putDouble(max)
+        .putInt(centroidCount);
+    for (int centroid = 0; centroid < centroidCount; centroid++) {
+      byteBuffer.putDouble(means[centroid]).putLong(weights[centroid]);
+    }
+    return byteBuffer.array();
+  }
+
+  /**
+   * Deserializes a digest written by {@link #toByteArray()}.
+   *
+   * @param bytes The serialized digest.
+   * @return The digest.
+   */
+  public static TDigest fromByteArray(byte[] bytes) {
+    ByteBuffer byteBuffer = ByteBuffer.wrap(bytes);
+    try {
+      int version = byteBuffer.getInt();
+      if (version != serializationVersion) {
+        throw new IllegalArgumentException(
+            I18nUtility.getFormattedString(
+                "TDigest.error.unsupportedSerializationVersion",
+                version
+            )
+        );
+      }
+      TDigest digest = new TDigest(byteBuffer.getDouble());
+      digest.count = byteBuffer.getLong();
+      digest.min = byteBuffer.getDouble();
+      digest.max = byteBuffer.getDouble();
+      int centroidCount = byteBuffer.getInt();
+      if (centroidCount < 0 || centroidCount > byteBuffer.remaining()) {
+        throw new IllegalArgumentException(
+            I18nUtility.getString("TDigest.error.invalidSerializedDigest")
+        );
+      }
+      digest.means = new double[centroidCount];
+      digest.weights = new long[centroidCount];
+      digest.centroidCount = centroidCount;
+      for (int centroid = 0; centroid < centroidCount; centroid++) {
+        digest.means[centroid] = byteBuffer.getDouble();
+        digest.weights[centroid] = byteBuffer.getLong();
+      }
+      return digest;
+    } catch (BufferUnderflowException exception) {
+      throw new IllegalArgumentException(
+          I18nUtility.getString("TDigest.error.invalidSerializedDigest"),
+          exception
+      );
+    }
+  }
+
+  /**
+   * Merges the buffered values into the centroids.
+   */
+  private void flush() {
+    if (bufferSize == 0) {
+      return;
+    }
+    double[] sortedBuffer = Arrays.copyOf(buffer, bufferSize);
+    Arrays.sort(sortedBuffer);
+    long[] bufferWeights = new long[bufferSize];
+    Arrays.fill(bufferWeights, 1);
+    setCentroids(means, weights, centroidCount, sortedBuffer, bufferWeights, bufferSize);
+    bufferSize = 0;
+  }
+
+  /**
+   * Replaces the centroids with the result of merging two sorted lists of weighted points.
+   * Neighbouring points are merged as long as the merged centroid spans at most one unit of the
+   * scale function k(q) = compression / (4 * log(n / compression) + 24) * log(q / (1 - q)), whose
+   * centroids shrink in proportion to q(1 - q) so that the tails stay accurate.
+   *
+   * @param firstMeans    Means of the first list, in ascending order.
+   * @param firstWeights  Weights of the first list.
+   * @param firstSize     Number of points in the first list.
+   * @param secondMeans   Means of the second list, in ascending order.
+   * @param secondWeights Weights of the second list.
+   * @param secondSize    Number of points in the second list.
+   */
+  private void setCentroids(double[] firstMeans, long[] firstWeights, int firstSize,
+      double[] secondMeans, long[] secondWeights, int secondSize) {
+    double totalWeight = 0;
+    for (int index = 0; index < firstSize; index++) {
+      totalWeight += firstWeights[index];
+    }
+    for (int index = 0; index < secondSize; index++) {
+      totalWeight += secondWeights[index];
+    }
+
+    double[] mergedMeans = new double[firstSize + secondSize];
+    long[] mergedWeights = new long[firstSize + secondSize];
+    int mergedCount = 0;
+    double mergedWeightSoFar = 0;
+    double normalizer = compression
+        / (4 * Math.log(Math.max(1, totalWeight / compression)) + 24);
+    double weightLimit = totalWeight * getQuantileLimit(0, normalizer);
+    double currentMean = 0;
+    long currentWeight = 0;
+
+    for (int first = 0, second = 0; first < firstSize || second < secondSize; ) {
+      double mean;
+      long weight;
+      if (second == secondSize
+          || first < firstSize && firstMeans[first] <= secondMeans[second]) {
+        mean = firstMeans[first];
+        weight = firstWeights[first++];
+      } else {
+        mean = secondMeans[second];
+        weight = secondWeights[second++];
+      }
+
+      if (currentWeight > 0 && mergedWeightSoFar + currentWeight + weight <= weightLimit) {
+        currentWeight += weight;
+        currentMean += (mean - currentMean) * weight / currentWeight;
+      } else {
+        if (currentWeight > 0) {
+          mergedMeans[mergedCount] = currentMean;
+          mergedWeights[mergedCount++] = currentWeight;
+          mergedWeightSoFar += currentWeight;
+          weightLimit = totalWeight
+              * getQuantileLimit(mergedWeightSoFar / totalWeight, normalizer);
+        }
+        currentMean = mean;
+        currentWeight = weight;
+      }
+    }
+    if (currentWeight > 0) {
+      mergedMeans[mergedCount] = currentMean;
+      mergedWeights[mergedCount++] = currentWeight;
+    }
+
+    means = mergedMeans;
+    weights = mergedWeights;
+    centroidCount = mergedCount;
+  }
+
+  /**
+   * Computes the largest quantile a centroid starting at the provided quantile may reach, that is
+   * the quantile one unit of the scale function further.
+   *
+   * @param quantile   The quantile at which the centroid starts.
+   * @param normalizer The factor of the scale function.
+   * @return The largest quantile the centroid may reach.
+   */
+  private static double getQuantileLimit(double quantile, double normalizer) {
+    return quantile / (quantile + (1 - quantile) * Math.exp(-1 / normalizer));
+  }
+
+  /**
+   * Linearly interpolates between two points.
+   *
+   * @param x0 The abscissa of the first point.
+   * @param y0 The ordinate of the first point.
+   * @param x1 The abscissa of the second point.
+   * @param y1 The ordinate of the second point.
+   * @param x  The abscissa to interpolate at, between x0 and x1.
+   * @return The interpolated ordinate.
+   */
+  private static double interpolate(double x0, double y0, double x1, double y1, double x) {
+    if (x1 <= x0) {
+      return y1;
+    }
+    double fraction = (x - x0) / (x1 - x0);
+    return (1 - fraction) * y0 + fraction * y1;
+  }
+
+  /**
+   * Returns a string representation of the digest.
+   *
+   * @return The string representation of the digest.
+   */
+  @Override
+  public String toString() {
+    return String.format("%s{count=%d, min=%s, max=%s, centroids=%d, compression=%s}",
+        getClass().getSimpleName(), count, getMin(), getMax(), getCentroidCount(), compression);
+  }
+}
@@ -0,0 +1,64 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Synchronizes writers updating an active data structure with a reader swapping it for an
+ * inactive one, without ever blocking the writers. Writers enclose their updates in critical
+ * sections, which only cost an atomic increment on entry and exit. After swapping the
+ * structures, the reader flips the phase, which waits until every writer that may still be
+ * updating the previously active structure has left its critical section. This is the scheme of
+ * HdrHistogram's WriterReaderPhaser. For more information:
+ * http://stuff-gil-says.blogspot.com/2014/11/writerreaderphaser-story-about-new.html
+ *
+ * <p>Writers are wait-free. Flipping the phase should be done by a single reader at a time.
+ */
+final class WriterReaderPhaser {
+
+  /**
+   * Number of critical sections entered, which is negative during odd phases.
+   */
+  private final AtomicLong startEpoch = new AtomicLong(0);
+  /**
+   * Number of critical sections entered during even phases and exited.
+   */
+  private final AtomicLong evenEndEpoch = new AtomicLong(0);
+  /**
+   * Number of critical sections entered during odd phases and exited, offset by Long.MIN_VALUE.
+   */
+  private final AtomicLong oddEndEpoch = new AtomicLong(Long.MIN_VALUE);
+
+  /**
+   * Enters a writer critical section.
+   *
+   * @return The value to pass to {@link #writerCriticalSectionExit(long)}.
+   */
+  long writerCriticalSectionEnter() {
+    return startEpoch.getAndIncrement();
+  }
+
+  /**
+   * Exits a writer critical section.
+   *
+   * @param criticalValueAtEnter The value returned when entering the critical section.
+   */
+  void writerCriticalSectionExit(long criticalValueAtEnter) {
+    (criticalValueAtEnter < 0 ? oddEndEpoch : evenEndEpoch).getAndIncrement();
+  }
+
+  /**
+   * Flips the phase, waiting until every writer that entered its critical section during the
+   * previous phase has exited it. Writers entering their critical section afterwards see the
+   * data structures as they were when the phase was flipped.
+   */
+  void flipPhase() {
+    boolean nextPhaseIsEven = startEpoch.get() < 0;
+    long initialStartValue = nextPhaseIsEven ? 0 : Long.MIN_VALUE;
+    (nextPhaseIsEven ? evenEndEpoch : oddEndEpoch).set(initialStartValue);
+    long startValueAtFlip = startEpoch.getAndSet(initialStartValue);
+    AtomicLong previousEndEpoch = nextPhaseIsEven ? oddEndEpoch : evenEndEpoch;
+    while (previousEndEpoch.get() != startValueAtFlip) {
+      Thread.yield();
+    }
+  }
+}
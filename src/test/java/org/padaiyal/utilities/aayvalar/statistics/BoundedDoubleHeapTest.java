@@ -0,0 +1,94 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test functionality of BoundedDoubleHeap.
+ */
+public class BoundedDoubleHeapTest {
+
+  /**
+   * Test that the heap retains the same values as sorting and truncating the input.
+   *
+   * @param seed          The seed of the random values to test.
+   * @param length        The number of values to offer.
+   * @param capacity      The capacity of the heap.
+   * @param retainLargest Whether the largest values are retained.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "1, 1000, 10, true",
+      "2, 1000, 10, false",
+      "3, 5, 10, true",
+      "4, 5, 10, false",
+      "5, 10000, 1, true",
+      "6, 10000, 1000, false",
+  })
+  public void testRetainsTopValues(long seed, int length, int capacity, boolean retainLargest) {
+    double[] values = new Random(seed).ints(length, 0, length / 2 + 1).asDoubleStream().toArray();
+    BoundedDoubleHeap heap = new BoundedDoubleHeap(capacity, retainLargest);
+    Arrays.stream(values).forEach(heap::offer);
+
+    double[] sortedValues = values.clone();
+    Arrays.sort(sortedValues);
+    if (retainLargest) {
+      BoundedDoubleHeap.reverse(sortedValues);
+    }
+    Assertions.assertEquals(Math.min(length, capacity), heap.size());
+    Assertions.assertArrayEquals(
+        Arrays.copyOf(sortedValues, Math.min(length, capacity)),
+        heap.toSortedArray()
+    );
+  }
+
+  /**
+   * Test that merging heaps filled with separate halves of the input retains the same values as a
+   * single heap.
+   */
+  @Test
+  public void testMerge() {
+    double[] values = new Random(9).doubles(2000).toArray();
+    BoundedDoubleHeap expectedHeap = new BoundedDoubleHeap(50, true);
+    BoundedDoubleHeap leftHeap = new BoundedDoubleHeap(50, true);
+    BoundedDoubleHeap rightHeap = new BoundedDoubleHeap(50, true);
+    for (int index = 0; index < values.length; index++) {
+      expectedHeap.offer(values[index]);
+      (index % 3 == 0 ? leftHeap : rightHeap).offer(values[index]);
+    }
+    leftHeap.merge(rightHeap);
+
+    Assertions.assertArrayEquals(expectedHeap.toSortedArray(), leftHeap.toSortedArray());
+  }
+
+  /**
+   * Test that special values are ordered like Double.compare does.
+   */
+  @Test
+  public void testSpecialValues() {
+    BoundedDoubleHeap heap = new BoundedDoubleHeap(3, true);
+    for (double value : new double[]{0.0, Double.NaN, -0.0, Double.NEGATIVE_INFINITY, 1}) {
+      heap.offer(value);
+    }
+
+    Assertions.assertArrayEquals(new double[]{Double.NaN, 1, 0.0}, heap.toSortedArray());
+  }
+
+  /**
+   * Test that a heap of a huge capacity only allocates for the values it retains.
+   */
+  @Test
+  public void testHugeCapacity() {
+    BoundedDoubleHeap heap = new BoundedDoubleHeap(Integer.MAX_VALUE, false);
+    for (int value = 100; value > 0; value--) {
+      heap.offer(value);
+    }
+
+    Assertions.assertEquals(100, heap.size());
+    Assertions.assertEquals(1, heap.toSortedArray()[0]);
+  }
+}
@@ -0,0 +1,63 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test functionality of CompensatedSum.
+ */
+public class CompensatedSumTest {
+
+  /**
+   * Test that the rounding errors of the additions are recovered.
+   *
+   * @param repetitions The number of times the values are added.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "1",
+      "1000",
+      "100000",
+  })
+  public void testRoundingErrorsAreRecovered(int repetitions) {
+    CompensatedSum sum = new CompensatedSum();
+    for (int repetition = 0; repetition < repetitions; repetition++) {
+      sum.accept(1e100);
+      sum.accept(1.0);
+      sum.accept(-1e100);
+      sum.accept(0.1);
+    }
+    Assertions.assertEquals(1.1 * repetitions, sum.getSum(), 1e-9 * repetitions);
+  }
+
+  /**
+   * Test that merging sums adds up the values and their rounding errors.
+   */
+  @Test
+  public void testMerge() {
+    CompensatedSum sum = new CompensatedSum();
+    CompensatedSum otherSum = new CompensatedSum();
+    sum.accept(1);
+    sum.accept(1e-16);
+    otherSum.accept(1e-16);
+    otherSum.accept(-1);
+    sum.merge(otherSum);
+    Assertions.assertEquals(2e-16, sum.getSum());
+  }
+
+  /**
+   * Test the sum of special values.
+   */
+  @Test
+  public void testSpecialValues() {
+    CompensatedSum sum = new CompensatedSum();
+    Assertions.assertEquals(0, sum.getSum());
+    sum.accept(Double.NEGATIVE_INFINITY);
+    sum.accept(1);
+    Assertions.assertEquals(Double.NEGATIVE_INFINITY, sum.getSum());
+    sum.accept(Double.POSITIVE_INFINITY);
+    Assertions.assertTrue(Double.isNaN(sum.getSum()));
+  }
+}
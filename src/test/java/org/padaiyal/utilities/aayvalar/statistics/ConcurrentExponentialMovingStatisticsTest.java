@@ -0,0 +1,54 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test functionality of ConcurrentExponentialMovingStatistics.
+ */
+public class ConcurrentExponentialMovingStatisticsTest {
+
+  /**
+   * Test that values added concurrently give the same estimates as adding them sequentially.
+   *
+   * @param threads The number of threads adding values.
+   * @throws InterruptedException When interrupted while waiting for the threads.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {1, 4, 16})
+  public void testConcurrentAdditions(int threads) throws InterruptedException {
+    int valuesPerThread = 10_000;
+    ConcurrentExponentialMovingStatistics concurrent =
+        ConcurrentExponentialMovingStatistics.ofHalfLife(1000);
+    ExponentialMovingStatistics sequential = ExponentialMovingStatistics.ofHalfLife(1000);
+    for (int thread = 0; thread < threads; thread++) {
+      for (int i = 0; i < valuesPerThread; i++) {
+        sequential.add(i, thread + i % 10);
+      }
+    }
+
+    ExecutorService executorService = Executors.newFixedThreadPool(threads);
+    for (int thread = 0; thread < threads; thread++) {
+      int offset = thread;
+      executorService.execute(() -> {
+        for (int i = 0; i < valuesPerThread; i++) {
+          concurrent.add(i, offset + i % 10);
+        }
+      });
+    }
+    executorService.shutdown();
+    Assertions.assertTrue(executorService.awaitTermination(1, TimeUnit.MINUTES));
+
+    Assertions.assertEquals((long) threads * valuesPerThread, concurrent.getCount());
+    Assertions.assertEquals(sequential.getMean(), concurrent.getMean(), 1e-9);
+    Assertions.assertEquals(sequential.getVariance(), concurrent.getVariance(), 1e-9);
+
+    concurrent.clear();
+    Assertions.assertEquals(0, concurrent.getCount());
+    Assertions.assertTrue(Double.isNaN(concurrent.getMean()));
+  }
+}
@@ -0,0 +1,123 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongConsumer;
+
+/**
+ * Compares the throughput of {@link ConcurrentStatisticsRecorder} with recording into a
+ * histogram and moments guarded by a lock, for 1 to 64 writer threads recording concurrently
+ * while a reader ends an interval every millisecond.
+ */
+public final class ConcurrentStatisticsRecorderBenchmark {
+
+  /**
+   * Number of values recorded by each writer thread.
+   */
+  private static final int valuesPerThread = 1_000_000;
+
+  /**
+   * Empty private constructor as this class is not meant to be used as an instance.
+   */
+  private ConcurrentStatisticsRecorderBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args Unused.
+   * @throws InterruptedException When interrupted while waiting for the threads.
+   */
+  public static void main(String[] args) throws InterruptedException {
+    // Compiles the recording paths before they are timed.
+    for (int run = 0; run < 5; run++) {
+      measureRecorder(2);
+      measureLocked(2);
+    }
+
+    System.out.printf("%8s %18s %18s%n", "threads", "recorder ns/value", "locked ns/value");
+    for (int threads = 1; threads <= 64; threads <<= 1) {
+      double recorderTime = measureRecorder(threads);
+      double lockedTime = measureLocked(threads);
+      System.out.printf("%8d %18.1f %18.1f%n", threads, recorderTime, lockedTime);
+    }
+  }
+
+  /**
+   * Measures the concurrent recorder.
+   *
+   * @param threads The number of writer threads.
+   * @return The elapsed time per value recorded, in nanoseconds.
+   * @throws InterruptedException When interrupted while waiting for the threads.
+   */
+  private static double measureRecorder(int threads) throws InterruptedException {
+    ConcurrentStatisticsRecorder recorder = new ConcurrentStatisticsRecorder(1L << 40, 3);
+    return measure(threads, recorder::record, recorder::getIntervalStatistics);
+  }
+
+  /**
+   * Measures a histogram and moments guarded by a lock.
+   *
+   * @param threads The number of writer threads.
+   * @return The elapsed time per value recorded, in nanoseconds.
+   * @throws InterruptedException When interrupted while waiting for the threads.
+   */
+  private static double measureLocked(int threads) throws InterruptedException {
+    Object lock = new Object();
+    LogLinearHistogram[] histogram = {new LogLinearHistogram(1L << 40, 3)};
+    MomentsAccumulator[] moments = {new MomentsAccumulator()};
+    LongConsumer record = value -> {
+      synchronized (lock) {
+        histogram[0].record(value);
+        moments[0].accept(value);
+      }
+    };
+    Runnable endInterval = () -> {
+      synchronized (lock) {
+        histogram[0] = new LogLinearHistogram(1L << 40, 3);
+        moments[0] = new MomentsAccumulator();
+      }
+    };
+    return measure(threads, record, endInterval);
+  }
+
+  /**
+   * Measures writer threads recording values while a reader ends intervals.
+   *
+   * @param threads     The number of writer threads.
+   * @param record      Records a value.
+   * @param endInterval Ends the current interval.
+   * @return The elapsed time per value recorded, in nanoseconds.
+   * @throws InterruptedException When interrupted while waiting for the threads.
+   */
+  private static double measure(int threads, LongConsumer record, Runnable endInterval)
+      throws InterruptedException {
+    CountDownLatch start = new CountDownLatch(1);
+    CountDownLatch done = new CountDownLatch(threads);
+    for (int thread = 0; thread < threads; thread++) {
+      long seed = thread;
+      new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException exception) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+        long value = seed;
+        for (int index = 0; index < valuesPerThread; index++) {
+          value = value * 6364136223846793005L + 1442695040888963407L;
+          record.accept((value >>> 44) + 1000);
+        }
+        done.countDown();
+      }).start();
+    }
+
+    long startTime = System.nanoTime();
+    start.countDown();
+    while (!done.await(1, TimeUnit.MILLISECONDS)) {
+      endInterval.run();
+    }
+    endInterval.run();
+    return (System.nanoTime() - startTime) / ((double) threads * valuesPerThread);
+  }
+}
@@ -0,0 +1,92 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test functionality of ConcurrentStatisticsRecorder.
+ */
+public class ConcurrentStatisticsRecorderTest {
+
+  /**
+   * Test that the statistics of a single interval match those of the values recorded.
+   */
+  @Test
+  public void testSingleInterval() {
+    ConcurrentStatisticsRecorder recorder = new ConcurrentStatisticsRecorder(1_000_000, 3);
+    long[] values = LongStream.rangeClosed(1_000, 2_000).toArray();
+    for (long value : values) {
+      recorder.record(value);
+    }
+    IntervalStatistics statistics = recorder.getIntervalStatistics();
+
+    Assertions.assertEquals(values.length, statistics.getCount());
+    Assertions.assertEquals(StatisticsUtility.getSum(values), statistics.getSum());
+    Assertions.assertEquals(StatisticsUtility.getMean(values, MeanType.ARITHMETIC),
+        statistics.getMean());
+    Assertions.assertEquals(StatisticsUtility.getVariance(values, MeanType.ARITHMETIC),
+        statistics.getVariance(), 1e-6);
+    Assertions.assertEquals(1_000, statistics.getMin());
+    Assertions.assertEquals(2_000, statistics.getMax());
+    Assertions.assertEquals(1_500, statistics.getPercentile(50), 1.5);
+    Assertions.assertTrue(statistics.getEndTime() >= statistics.getStartTime());
+
+    IntervalStatistics emptyStatistics = recorder.getIntervalStatistics();
+    Assertions.assertEquals(0, emptyStatistics.getCount());
+    Assertions.assertTrue(Double.isNaN(emptyStatistics.getMean()));
+    Assertions.assertEquals(statistics.getEndTime(), emptyStatistics.getStartTime());
+    Assertions.assertThrows(IllegalArgumentException.class, () -> recorder.record(-1));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> recorder.record(1_000_001));
+  }
+
+  /**
+   * Test that no value is lost or counted twice when intervals end while threads record values.
+   *
+   * @param threads The number of threads recording values.
+   * @throws InterruptedException When interrupted while waiting for the threads.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {1, 4, 16})
+  public void testConcurrentIntervals(int threads) throws InterruptedException {
+    int valuesPerThread = 100_000;
+    ConcurrentStatisticsRecorder recorder = new ConcurrentStatisticsRecorder(1_000_000, 2);
+    ExecutorService executorService = Executors.newFixedThreadPool(threads);
+    for (int thread = 0; thread < threads; thread++) {
+      executorService.execute(() -> {
+        for (int value = 0; value < valuesPerThread; value++) {
+          recorder.record(value % 1000);
+        }
+      });
+    }
+    executorService.shutdown();
+
+    List<IntervalStatistics> intervals = new ArrayList<>();
+    while (!executorService.isTerminated()) {
+      intervals.add(recorder.getIntervalStatistics());
+    }
+    Assertions.assertTrue(executorService.awaitTermination(1, TimeUnit.MINUTES));
+    intervals.add(recorder.getIntervalStatistics());
+
+    LogLinearHistogram histogram = new LogLinearHistogram(1_000_000, 2);
+    long count = 0;
+    double sum = 0;
+    for (IntervalStatistics interval : intervals) {
+      count += interval.getCount();
+      sum += interval.getSum();
+      histogram.merge(interval.getHistogram());
+    }
+    Assertions.assertEquals((long) threads * valuesPerThread, count);
+    Assertions.assertEquals(threads * 499.5 * valuesPerThread, sum, 1e-6 * sum);
+    Assertions.assertEquals(count, histogram.getTotalCount());
+    Assertions.assertEquals(0, histogram.getMin());
+    Assertions.assertEquals(999, histogram.getMax());
+  }
+}
@@ -0,0 +1,134 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compares computing the correlation matrix of the columns of rows pair by pair with
+ * {@link StatisticsUtility}, with a {@link CovarianceAccumulator} adding the rows one by one, and
+ * with {@link StatisticsUtility#getCoMoments(double[][])} adding them by blocks, for increasing
+ * numbers of columns.
+ */
+public final class CovarianceAccumulatorBenchmark {
+
+  /**
+   * Number of timed runs of each measurement, of which the fastest is reported.
+   */
+  private static final int runs = 10;
+  /**
+   * Number of rows.
+   */
+  private static final int rowCount = 50_000;
+  /**
+   * Largest number of columns correlated pair by pair, which takes a pass per pair.
+   */
+  private static final int maxPairwiseDimension = 100;
+
+  /**
+   * Empty private constructor as this class is not meant to be used as an instance.
+   */
+  private CovarianceAccumulatorBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args Unused.
+   */
+  public static void main(String[] args) {
+    Random random = new Random(0);
+    StatisticsUtility.setExecutionPolicy(ExecutionPolicy.sequential());
+
+    System.out.printf("%10s %16s %16s %16s%n", "columns", "pairwise ms", "row by row ms",
+        "blocks ms");
+    for (int dimension : new int[]{10, 100, 300}) {
+      double[][] rows = new double[rowCount][dimension];
+      double[][] columns = new double[dimension][rowCount];
+      for (int row = 0; row < rowCount; row++) {
+        double base = random.nextGaussian();
+        for (int column = 0; column < dimension; column++) {
+          rows[row][column] = base * (column % 5) + random.nextGaussian();
+          columns[column][row] = rows[row][column];
+        }
+      }
+      long pairwiseTime = dimension > maxPairwiseDimension ? -1
+          : getFastestRunTime(() -> sumPairwiseCorrelations(columns));
+      long rowTime = getFastestRunTime(() -> {
+        CovarianceAccumulator coMoments = new CovarianceAccumulator(dimension);
+        for (double[] row : rows) {
+          coMoments.accept(row);
+        }
+        return sumCorrelations(coMoments.getCorrelationMatrix());
+      });
+      long blockTime = getFastestRunTime(
+          () -> sumCorrelations(StatisticsUtility.getCorrelationMatrix(rows)));
+      System.out.printf("%10d %16s %16.1f %16.1f%n", dimension,
+          pairwiseTime < 0 ? "-" : String.format("%.1f", pairwiseTime / 1e6), rowTime / 1e6,
+          blockTime / 1e6);
+    }
+  }
+
+  /**
+   * Computes the correlation of each pair of columns from their means and standard deviations.
+   *
+   * @param columns The columns.
+   * @return The sum of the correlations of the pairs of columns.
+   */
+  private static double sumPairwiseCorrelations(double[][] columns) {
+    double sum = 0;
+    for (int firstColumn = 0; firstColumn < columns.length; firstColumn++) {
+      for (int secondColumn = firstColumn; secondColumn < columns.length; secondColumn++) {
+        double[] first = columns[firstColumn];
+        double[] second = columns[secondColumn];
+        double firstMean = StatisticsUtility.getMean(first, MeanType.ARITHMETIC);
+        double secondMean = StatisticsUtility.getMean(second, MeanType.ARITHMETIC);
+        double coMoment = 0;
+        for (int row = 0; row < first.length; row++) {
+          coMoment += (first[row] - firstMean) * (second[row] - secondMean);
+        }
+        sum += coMoment / first.length / StatisticsUtility.getStandardDeviation(first,
+            MeanType.ARITHMETIC)
+            / StatisticsUtility.getStandardDeviation(second, MeanType.ARITHMETIC);
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Sums the upper triangle of a correlation matrix.
+   *
+   * @param correlationMatrix The correlation matrix.
+   * @return The sum of the correlations of the pairs of columns.
+   */
+  private static double sumCorrelations(double[][] correlationMatrix) {
+    double sum = 0;
+    for (int firstColumn = 0; firstColumn < correlationMatrix.length; firstColumn++) {
+      for (int secondColumn = firstColumn; secondColumn < correlationMatrix.length;
+          secondColumn++) {
+        sum += correlationMatrix[firstColumn][secondColumn];
+      }
+    }
+    return sum;
+  }
+
+  /**
+   * Times a computation several times.
+   *
+   * @param computation The computation to time.
+   * @return The fastest run time in nanoseconds.
+   */
+  private static long getFastestRunTime(Supplier<Double> computation) {
+    long fastestRunTime = Long.MAX_VALUE;
+    double checksum = 0;
+    for (int run = 0; run < runs; run++) {
+      long startTime = System.nanoTime();
+      checksum += computation.get();
+      fastestRunTime = Math.min(fastestRunTime, System.nanoTime() - startTime);
+    }
+    // Using the results keeps the computations from being optimized away.
+    if (checksum == 42) {
+      System.out.println(checksum);
+    }
+    return fastestRunTime;
+  }
+}
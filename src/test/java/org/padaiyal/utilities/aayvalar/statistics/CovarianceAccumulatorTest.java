@@ -0,0 +1,250 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test functionality of CovarianceAccumulator.
+ */
+public class CovarianceAccumulatorTest {
+
+  /**
+   * Generates rows whose columns are correlated with the first one, far from zero so that naive
+   * sums of products would lose most of their precision.
+   *
+   * @param rowCount  The number of rows.
+   * @param dimension The number of values in each row.
+   * @return The rows.
+   */
+  private static double[][] generateRows(int rowCount, int dimension) {
+    Random random = new Random(dimension);
+    double[][] rows = new double[rowCount][dimension];
+    for (double[] row : rows) {
+      double base = random.nextGaussian();
+      for (int column = 0; column < dimension; column++) {
+        row[column] = 1e6 + column + (column % 3 - 1) * base + random.nextGaussian() * column;
+      }
+    }
+    return rows;
+  }
+
+  /**
+   * Computes the population covariance of two columns with two passes.
+   *
+   * @param rows         The rows.
+   * @param firstColumn  The index of the first column.
+   * @param secondColumn The index of the second column.
+   * @return The population covariance of the columns.
+   */
+  private static double getTwoPassCovariance(double[][] rows, int firstColumn,
+      int secondColumn) {
+    double firstMean = Arrays.stream(rows).mapToDouble(row -> row[firstColumn]).sum()
+        / rows.length;
+    double secondMean = Arrays.stream(rows).mapToDouble(row -> row[secondColumn]).sum()
+        / rows.length;
+    return Arrays.stream(rows)
+        .mapToDouble(row -> (row[firstColumn] - firstMean) * (row[secondColumn] - secondMean))
+        .sum() / rows.length;
+  }
+
+  /**
+   * Test that rows added one by one, by blocks, from a flat array or through combined partial
+   * accumulators all give the two pass covariances and correlations.
+   *
+   * @param dimension The number of values in each row.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {1, 3, 37})
+  public void testMatchesTwoPassCovariance(int dimension) {
+    int rowCount = 1_001;
+    double[][] rows = generateRows(rowCount, dimension);
+    double[] values = Arrays.stream(rows).flatMapToDouble(Arrays::stream).toArray();
+
+    CovarianceAccumulator sequential = new CovarianceAccumulator(dimension);
+    Arrays.stream(rows).forEach(sequential);
+    CovarianceAccumulator blocks = new CovarianceAccumulator(dimension);
+    blocks.acceptRows(rows, 0, 100);
+    blocks.acceptRows(rows, 100, rowCount - 100);
+    CovarianceAccumulator flat = new CovarianceAccumulator(dimension);
+    flat.acceptRows(values, 0, rowCount);
+    CovarianceAccumulator combined = new CovarianceAccumulator(dimension);
+    CovarianceAccumulator second = new CovarianceAccumulator(dimension);
+    combined.acceptRows(rows, 0, 300);
+    second.acceptRows(values, 300 * dimension, rowCount - 300);
+    combined.combine(second);
+
+    for (CovarianceAccumulator coMoments : new CovarianceAccumulator[]{sequential, blocks, flat,
+        combined}) {
+      Assertions.assertEquals(rowCount, coMoments.getCount());
+      for (int firstColumn = 0; firstColumn < dimension; firstColumn++) {
+        int column = firstColumn;
+        Assertions.assertEquals(
+            Arrays.stream(rows).mapToDouble(row -> row[column]).sum() / rowCount,
+            coMoments.getMean(firstColumn), 1e-6);
+        for (int secondColumn = 0; secondColumn < dimension; secondColumn++) {
+          double expectedCovariance = getTwoPassCovariance(rows, firstColumn, secondColumn);
+          double standardDeviationProduct = Math.sqrt(
+              getTwoPassCovariance(rows, firstColumn, firstColumn)
+                  * getTwoPassCovariance(rows, secondColumn, secondColumn));
+          Assertions.assertEquals(expectedCovariance,
+              coMoments.getCovariance(firstColumn, secondColumn),
+              1e-9 * (1 + standardDeviationProduct));
+          Assertions.assertEquals(expectedCovariance / standardDeviationProduct,
+              coMoments.getCorrelation(firstColumn, secondColumn), 1e-8);
+        }
+      }
+    }
+    Assertions.assertArrayEquals(sequential.getMeans(), combined.getMeans(), 1e-6);
+  }
+
+  /**
+   * Test the matrices of rows with known correlations.
+   */
+  @Test
+  public void testKnownMatrices() {
+    CovarianceAccumulator coMoments = new CovarianceAccumulator(4);
+    for (double value = 1; value <= 5; value++) {
+      coMoments.accept(new double[]{value, 2 * value + 1, -value, 7});
+    }
+
+    Assertions.assertArrayEquals(new double[]{3, 7, -3, 7}, coMoments.getMeans());
+    Assertions.assertEquals(2, coMoments.getCovariance(0, 0), 1e-12);
+    Assertions.assertEquals(4, coMoments.getCovariance(1, 0), 1e-12);
+    Assertions.assertEquals(20, coMoments.getCoMoment(0, 1), 1e-12);
+    Assertions.assertEquals(5, coMoments.getSampleCovariance(0, 1), 1e-12);
+    Assertions.assertEquals(-2.5, coMoments.getSampleCovarianceMatrix()[2][0], 1e-12);
+
+    double[][] covarianceMatrix = coMoments.getCovarianceMatrix();
+    double[][] correlationMatrix = coMoments.getCorrelationMatrix();
+    for (int firstColumn = 0; firstColumn < 4; firstColumn++) {
+      for (int secondColumn = 0; secondColumn < 4; secondColumn++) {
+        Assertions.assertEquals(covarianceMatrix[secondColumn][firstColumn],
+            covarianceMatrix[firstColumn][secondColumn]);
+        Assertions.assertEquals(correlationMatrix[secondColumn][firstColumn],
+            correlationMatrix[firstColumn][secondColumn]);
+      }
+    }
+    Assertions.assertArrayEquals(new double[]{1, 1, -1, Double.NaN}, correlationMatrix[0]);
+    Assertions.assertArrayEquals(new double[]{-1, -1, 1, Double.NaN}, correlationMatrix[2]);
+    Assertions.assertEquals(0, covarianceMatrix[3][3]);
+    Assertions.assertEquals("CovarianceAccumulator{dimension=4, count=5}", coMoments.toString());
+  }
+
+  /**
+   * Test that constant columns whose value isn't a binary fraction have means of exactly that
+   * value, co-moments of exactly zero and undefined correlations, however the rows are added.
+   */
+  @Test
+  public void testConstantColumns() {
+    int rowCount = 100;
+    double[][] rows = new double[rowCount][];
+    for (int row = 0; row < rowCount; row++) {
+      rows[row] = new double[]{0.1, row * 0.3, 0.7};
+    }
+    double[] values = Arrays.stream(rows).flatMapToDouble(Arrays::stream).toArray();
+
+    CovarianceAccumulator sequential = new CovarianceAccumulator(3);
+    Arrays.stream(rows).forEach(sequential);
+    CovarianceAccumulator blocks = new CovarianceAccumulator(3);
+    blocks.acceptRows(rows, 0, rowCount);
+    CovarianceAccumulator flat = new CovarianceAccumulator(3);
+    flat.acceptRows(values, 0, rowCount);
+    CovarianceAccumulator combined = new CovarianceAccumulator(3);
+    CovarianceAccumulator second = new CovarianceAccumulator(3);
+    combined.acceptRows(rows, 0, 30);
+    second.acceptRows(values, 30 * 3, rowCount - 30);
+    combined.combine(second);
+    ExecutionPolicy defaultPolicy = StatisticsUtility.getExecutionPolicy();
+    CovarianceAccumulator parallel;
+    try {
+      StatisticsUtility.setExecutionPolicy(ExecutionPolicy.parallel());
+      parallel = StatisticsUtility.getCoMoments(values, 3);
+      double[][] correlationMatrix = StatisticsUtility.getCorrelationMatrix(rows);
+      Assertions.assertArrayEquals(new double[]{Double.NaN, Double.NaN, Double.NaN},
+          correlationMatrix[0]);
+      Assertions.assertArrayEquals(new double[]{Double.NaN, 1, Double.NaN},
+          correlationMatrix[1]);
+      Assertions.assertArrayEquals(new double[]{Double.NaN, Double.NaN, Double.NaN},
+          correlationMatrix[2]);
+    } finally {
+      StatisticsUtility.setExecutionPolicy(defaultPolicy);
+    }
+
+    for (CovarianceAccumulator coMoments : new CovarianceAccumulator[]{sequential, blocks, flat,
+        combined, parallel}) {
+      Assertions.assertEquals(0.1, coMoments.getMean(0));
+      Assertions.assertEquals(0.7, coMoments.getMean(2));
+      for (int column = 0; column < 3; column++) {
+        Assertions.assertEquals(0, coMoments.getCovariance(0, column));
+        Assertions.assertEquals(0, coMoments.getCovariance(column, 2));
+        Assertions.assertTrue(Double.isNaN(coMoments.getCorrelation(0, column)));
+        Assertions.assertTrue(Double.isNaN(coMoments.getCorrelation(column, 2)));
+      }
+      Assertions.assertEquals(1, coMoments.getCorrelation(1, 1));
+    }
+  }
+
+  /**
+   * Test the statistics of empty accumulators, and that combining empty accumulators changes
+   * nothing.
+   */
+  @Test
+  public void testEmptyAccumulators() {
+    CovarianceAccumulator coMoments = new CovarianceAccumulator(2);
+    Assertions.assertEquals(0, coMoments.getCount());
+    Assertions.assertTrue(Double.isNaN(coMoments.getMean(1)));
+    Assertions.assertTrue(Double.isNaN(coMoments.getCovariance(0, 1)));
+    Assertions.assertTrue(Double.isNaN(coMoments.getCorrelation(0, 1)));
+    Assertions.assertTrue(Double.isNaN(coMoments.getCovarianceMatrix()[1][1]));
+
+    coMoments.combine(new CovarianceAccumulator(2));
+    Assertions.assertEquals(0, coMoments.getCount());
+    CovarianceAccumulator other = new CovarianceAccumulator(2);
+    other.accept(new double[]{1, 2});
+    Assertions.assertTrue(Double.isNaN(other.getSampleCovariance(0, 1)));
+    other.accept(new double[]{3, 0});
+    coMoments.combine(other);
+    other.combine(new CovarianceAccumulator(2));
+    coMoments.acceptRows(new double[0], 0, 0);
+    for (CovarianceAccumulator accumulator : new CovarianceAccumulator[]{coMoments, other}) {
+      Assertions.assertEquals(2, accumulator.getCount());
+      Assertions.assertArrayEquals(new double[]{2, 1}, accumulator.getMeans());
+      Assertions.assertEquals(-1, accumulator.getCovariance(0, 1));
+      Assertions.assertEquals(-1, accumulator.getCorrelation(1, 0));
+    }
+  }
+
+  /**
+   * Test that invalid parameters are rejected.
+   */
+  @Test
+  public void testInvalidParameters() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new CovarianceAccumulator(0));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new CovarianceAccumulator(CovarianceAccumulator.maxDimension + 1));
+
+    CovarianceAccumulator coMoments = new CovarianceAccumulator(3);
+    Assertions.assertEquals(3, coMoments.getDimension());
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> coMoments.accept(new double[2]));
+    Assertions.assertThrows(NullPointerException.class, () -> coMoments.accept(null));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> coMoments.acceptRows(new double[][]{new double[3], new double[4]}, 0, 2));
+    Assertions.assertThrows(IndexOutOfBoundsException.class,
+        () -> coMoments.acceptRows(new double[3][3], 1, 3));
+    Assertions.assertThrows(IndexOutOfBoundsException.class,
+        () -> coMoments.acceptRows(new double[8], 0, 3));
+    Assertions.assertThrows(IndexOutOfBoundsException.class,
+        () -> coMoments.acceptRows(new double[9], 1, -1));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> coMoments.combine(new CovarianceAccumulator(2)));
+    Assertions.assertThrows(IndexOutOfBoundsException.class, () -> coMoments.getMean(3));
+    Assertions.assertThrows(IndexOutOfBoundsException.class,
+        () -> coMoments.getCovariance(0, -1));
+    Assertions.assertEquals(0, coMoments.getCount());
+  }
+}
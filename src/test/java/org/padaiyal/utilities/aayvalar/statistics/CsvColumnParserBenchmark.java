@@ -0,0 +1,102 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Compares parsing a CSV column with {@link CsvColumnParser} and with String.split followed by
+ * Double.parseDouble, by summing the parsed values.
+ */
+public final class CsvColumnParserBenchmark {
+
+  /**
+   * Number of timed runs of each measurement, of which the fastest is reported.
+   */
+  private static final int runs = 10;
+  /**
+   * Number of lines of the parsed text.
+   */
+  private static final int lineCount = 1_000_000;
+
+  /**
+   * Empty private constructor as this class is not meant to be used as an instance.
+   */
+  private CsvColumnParserBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args Unused.
+   */
+  public static void main(String[] args) {
+    Random random = new Random(0);
+    StringBuilder text = new StringBuilder("host,latency,status\n");
+    for (int line = 0; line < lineCount; line++) {
+      text.append("host-").append(random.nextInt(100)).append(',')
+          .append(Math.round(random.nextDouble() * 1e6) / 1e3).append(',')
+          .append(200).append('\n');
+    }
+    String csv = text.toString();
+    byte[] bytes = csv.getBytes(StandardCharsets.UTF_8);
+    CsvColumnParser parser = CsvColumnParser.of(1).withHeader();
+
+    long splitTime = getFastestRunTime(csv, CsvColumnParserBenchmark::sumSplitColumn);
+    long parserTime = getFastestRunTime(bytes, input -> {
+      CompensatedSum sum = new CompensatedSum();
+      parser.parse(ByteBuffer.wrap(input), sum);
+      return sum.getSum();
+    });
+    System.out.printf("%14s %14s%n", "split ns/line", "parser ns/line");
+    System.out.printf("%14.1f %14.1f%n", (double) splitTime / lineCount,
+        (double) parserTime / lineCount);
+  }
+
+  /**
+   * Sums the second column of CSV text with String.split and Double.parseDouble.
+   *
+   * @param csv The CSV text, with a header.
+   * @return The sum of the column.
+   */
+  private static double sumSplitColumn(String csv) {
+    try (BufferedReader reader = new BufferedReader(new StringReader(csv))) {
+      reader.readLine();
+      double sum = 0;
+      for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+        sum += Double.parseDouble(line.split(",")[1]);
+      }
+      return sum;
+    } catch (IOException exception) {
+      throw new UncheckedIOException(exception);
+    }
+  }
+
+  /**
+   * Times a parse several times.
+   *
+   * @param input The input of the parse.
+   * @param parse The parse to time, returning the sum of the values.
+   * @param <T>   Type of the input.
+   * @return The fastest run time in nanoseconds.
+   */
+  private static <T> long getFastestRunTime(T input, ToDoubleFunction<T> parse) {
+    long fastestRunTime = Long.MAX_VALUE;
+    double checksum = 0;
+    for (int run = 0; run < runs; run++) {
+      long startTime = System.nanoTime();
+      checksum += parse.applyAsDouble(input);
+      fastestRunTime = Math.min(fastestRunTime, System.nanoTime() - startTime);
+    }
+    // Using the results keeps the parses from being optimized away.
+    if (checksum == 42) {
+      System.out.println(checksum);
+    }
+    return fastestRunTime;
+  }
+}
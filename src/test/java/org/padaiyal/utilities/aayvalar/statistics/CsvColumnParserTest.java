@@ -0,0 +1,195 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.DoubleStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test functionality of CsvColumnParser.
+ */
+public class CsvColumnParserTest {
+
+  /**
+   * Directory the CSV files are written into.
+   */
+  @TempDir
+  Path directory;
+
+  /**
+   * Test that numbers are parsed exactly like Double.parseDouble does.
+   *
+   * @param number The number to parse.
+   */
+  @ParameterizedTest
+  @ValueSource(strings = {"0", "-0", "+5", "0.000", "-0.0e10", ".5", "5.", "1E+5", "2.5e-3",
+      "123456789012345678", "1234567890123456789012", "123456789012345678000", "9007199254740993",
+      "0.1", "1e22", "1e23", "4.9e-324", "1.7976931348623157e308", "1e400", "1e-400",
+      "0.30000000000000004", "NaN", "-Infinity", "0x1p3", "1.5d", "00012.50"})
+  public void testParseDoubleMatchesJdk(String number) {
+    Assertions.assertEquals(Double.doubleToLongBits(Double.parseDouble(number)),
+        Double.doubleToLongBits(parseDouble(number)));
+  }
+
+  /**
+   * Test that random numbers in several formats are parsed exactly like Double.parseDouble does.
+   */
+  @Test
+  public void testParseRandomDoubles() {
+    Random random = new Random(5);
+    for (int index = 0; index < 100_000; index++) {
+      double value = Math.scalb(random.nextDouble() - 0.5, random.nextInt(200) - 100);
+      for (String number : new String[]{
+          Double.toString(value),
+          String.format("%.6f", value),
+          String.format("%.3e", value),
+          Long.toString(random.nextLong() >> random.nextInt(64))
+      }) {
+        Assertions.assertEquals(Double.parseDouble(number), parseDouble(number), number);
+      }
+    }
+  }
+
+  /**
+   * Test that the column is located in lines with headers, quotes, blanks, CRLF line breaks and
+   * missing fields.
+   *
+   * @param column    The index of the column.
+   * @param delimiter The delimiter.
+   * @param text      The lines, with | instead of line feeds.
+   * @param expected  The expected values, separated by spaces.
+   */
+  @ParameterizedTest
+  @CsvSource(delimiter = ';', value = {
+      "1; ','; name,value|a,1|b, 2.5 |c,\"3\"|d|e,|\"f,g\",4; 1 2.5 3 4",
+      "0; ','; name|1\r|2\r|\r|3; 1 2 3",
+      "2; '\t'; a\tb\tc|x\ty\t-1e3|x\t\"y\t\"\t7; -1000 7",
+  })
+  public void testParseLines(int column, char delimiter, String text, String expected) {
+    CsvColumnParser parser = CsvColumnParser.of(column).withDelimiter(delimiter).withHeader();
+    DoubleStream.Builder values = DoubleStream.builder();
+    ByteBuffer bytes = ByteBuffer.wrap(text.replace('|', '\n').getBytes(StandardCharsets.UTF_8));
+    parser.parse(bytes, values);
+    Assertions.assertFalse(bytes.hasRemaining());
+    Assertions.assertArrayEquals(
+        Arrays.stream(expected.split(" ")).mapToDouble(Double::parseDouble).toArray(),
+        values.build().toArray()
+    );
+    Assertions.assertEquals(delimiter, parser.getDelimiter());
+    Assertions.assertTrue(parser.hasHeader());
+  }
+
+  /**
+   * Test that lines read from a channel, including lines longer than its buffer, are parsed in
+   * order.
+   *
+   * @throws IOException When the channel can't be read.
+   */
+  @Test
+  public void testParseChannel() throws IOException {
+    StringBuilder text = new StringBuilder("header\n");
+    double[] expected = new Random(1).doubles(50_000).toArray();
+    for (int index = 0; index < expected.length; index++) {
+      text.append("row").append(index).append(';').append(expected[index]).append('\n');
+      if (index == 1000) {
+        text.append("x".repeat(200_000)).append('\n');
+      }
+    }
+    DoubleStream.Builder values = DoubleStream.builder();
+    CsvColumnParser.of(1).withDelimiter(';').withHeader().parse(
+        Channels.newChannel(new ByteArrayInputStream(
+            text.toString().getBytes(StandardCharsets.UTF_8))),
+        values
+    );
+    Assertions.assertArrayEquals(expected, values.build().toArray());
+  }
+
+  /**
+   * Test that files spanning many chunks are parsed identically by every execution policy.
+   *
+   * @throws IOException When the file can't be written or read.
+   */
+  @Test
+  public void testCollectFile() throws IOException {
+    Random random = new Random(2);
+    double[] expected = random.doubles(300_000, -1e6, 1e6).toArray();
+    StringBuilder text = new StringBuilder("id,value,comment\n");
+    for (int index = 0; index < expected.length; index++) {
+      text.append(index).append(',').append(expected[index]).append(",\"a, b\"\n");
+    }
+    text.setLength(text.length() - 1);
+    Path path = Files.writeString(directory.resolve("values.csv"), text);
+    CsvColumnParser parser = CsvColumnParser.of(1).withHeader();
+
+    ExecutionPolicy defaultPolicy = StatisticsUtility.getExecutionPolicy();
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      for (ExecutionPolicy policy : new ExecutionPolicy[]{
+          ExecutionPolicy.sequential(),
+          ExecutionPolicy.parallel(),
+          ExecutionPolicy.parallel().withPool(pool)
+      }) {
+        StatisticsUtility.setExecutionPolicy(policy);
+        Assertions.assertArrayEquals(expected, parser.toArray(path));
+        MomentsAccumulator moments = parser.collect(path, MomentsAccumulator::new,
+            MomentsAccumulator::accept, MomentsAccumulator::combine);
+        Assertions.assertEquals(expected.length, moments.getCount());
+        Assertions.assertEquals(StatisticsUtility.getMean(expected, MeanType.ARITHMETIC),
+            moments.getMean(), 1e-6);
+      }
+    } finally {
+      StatisticsUtility.setExecutionPolicy(defaultPolicy);
+      pool.shutdown();
+    }
+    Assertions.assertEquals(0,
+        parser.toArray(Files.writeString(directory.resolve("empty.csv"), "")).length);
+  }
+
+  /**
+   * Test that invalid parsers and inputs are rejected.
+   *
+   * @throws IOException When the file can't be written.
+   */
+  @Test
+  public void testInvalidParametersAndInputs() throws IOException {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> CsvColumnParser.of(-1));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> CsvColumnParser.of(0).withDelimiter('"'));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> CsvColumnParser.of(0).withDelimiter('\u00e9'));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> CsvColumnParser.of(0).parse(ByteBuffer.wrap("1\n2.3.4\n".getBytes()), value -> {
+        }));
+    Assertions.assertThrows(IOException.class,
+        () -> CsvColumnParser.of(0).toArray(directory.resolve("missing.csv")));
+
+    String longLine = "1\n".repeat(500_000) + "2".repeat(200_000) + "\n3\n";
+    Path path = Files.writeString(directory.resolve("long.csv"), longLine);
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> CsvColumnParser.of(0).toArray(path));
+  }
+
+  /**
+   * Parses a number with the parser.
+   *
+   * @param number The number.
+   * @return The parsed number.
+   */
+  private static double parseDouble(String number) {
+    byte[] bytes = number.getBytes(StandardCharsets.US_ASCII);
+    return CsvColumnParser.parseDouble(ByteBuffer.wrap(bytes), 0, bytes.length);
+  }
+}
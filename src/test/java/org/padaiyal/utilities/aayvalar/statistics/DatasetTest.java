@@ -0,0 +1,152 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.stream.DoubleStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test functionality of Dataset.
+ */
+public class DatasetTest {
+
+  /**
+   * Percentiles compared with those computed by StatisticsUtility.
+   */
+  private static final double[] percentiles = {0, 0.1, 25, 50, 90, 99.9, 100};
+
+  /**
+   * Test that the metrics of a dataset, queried twice, are identical to those computed by
+   * StatisticsUtility.
+   *
+   * @param length The number of values.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2, 1_000, 100_001})
+  public void testMetricsMatchStatisticsUtility(int length) {
+    double[] values = new Random(length).ints(length, 1, 500).asDoubleStream().toArray();
+    Dataset dataset = Dataset.of(values);
+    for (int query = 0; query < 2; query++) {
+      Assertions.assertEquals(length, dataset.size());
+      Assertions.assertEquals(StatisticsUtility.getSum(values), dataset.getSum());
+      for (MeanType meanType : new MeanType[]{MeanType.ARITHMETIC, MeanType.GEOMETRIC,
+          MeanType.HARMONIC}) {
+        Assertions.assertEquals(StatisticsUtility.getMean(values, meanType),
+            dataset.getMean(meanType));
+        Assertions.assertEquals(StatisticsUtility.getVariance(values, meanType),
+            dataset.getVariance(meanType));
+        Assertions.assertEquals(StatisticsUtility.getStandardDeviation(values, meanType),
+            dataset.getStandardDeviation(meanType));
+      }
+      Assertions.assertEquals(StatisticsUtility.getMinValue(values), dataset.getMinValue());
+      Assertions.assertEquals(StatisticsUtility.getMaxValue(values), dataset.getMaxValue());
+      Assertions.assertEquals(StatisticsUtility.getMoments(values).toString(),
+          dataset.getMoments().toString());
+      Assertions.assertEquals(StatisticsUtility.getSkewness(values), dataset.getSkewness());
+      Assertions.assertEquals(StatisticsUtility.getKurtosis(values), dataset.getKurtosis());
+      Assertions.assertEquals(StatisticsUtility.getMedian(values.clone()), dataset.getMedian());
+      Assertions.assertArrayEquals(StatisticsUtility.getPercentiles(values.clone(), percentiles),
+          dataset.getPercentiles(percentiles));
+      Assertions.assertArrayEquals(StatisticsUtility.getTopMaxValues(values, 10),
+          dataset.getTopMaxValues(10));
+      Assertions.assertArrayEquals(StatisticsUtility.getTopMinValues(values, 10),
+          dataset.getTopMinValues(10));
+      Assertions.assertEquals(StatisticsUtility.getFrequencyTable(values).toMap(),
+          dataset.getFrequencyTable().toMap());
+
+      DoubleCountMap frequencyTable = StatisticsUtility.getFrequencyTable(values);
+      long maxCount = frequencyTable.get(StatisticsUtility.getMode(values));
+      Assertions.assertEquals(maxCount, frequencyTable.get(dataset.getMode()));
+      Assertions.assertEquals(maxCount, dataset.getFrequency(dataset.getMode()));
+    }
+    Assertions.assertArrayEquals(values, dataset.toArray());
+    Assertions.assertArrayEquals(values, dataset.stream().toArray());
+  }
+
+  /**
+   * Test that ranks and frequencies are found by binary search on the sorted values.
+   *
+   * @param value            The value to rank.
+   * @param expectedRank     The expected number of smaller values.
+   * @param expectedFrequency The expected number of occurrences of the value.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "-10, 0, 0",
+      "-0.0, 1, 1",
+      "0.0, 2, 2",
+      "1, 4, 3",
+      "1.5, 7, 0",
+      "3, 7, 1",
+      "Infinity, 8, 0",
+      "NaN, 8, 1"
+  })
+  public void testRankAndFrequency(double value, int expectedRank, int expectedFrequency) {
+    Dataset dataset = Dataset.of(1, 3, Double.NaN, 0.0, 1, -1, -0.0, 0.0, 1);
+    Assertions.assertEquals(expectedRank, dataset.getRank(value));
+    Assertions.assertEquals(expectedFrequency, dataset.getFrequency(value));
+    Assertions.assertEquals(100.0 * expectedRank / 9, dataset.getPercentileRank(value));
+    Assertions.assertEquals(1, dataset.getMode());
+    Assertions.assertArrayEquals(new double[]{-1, -0.0, 0.0, 0.0, 1, 1, 1, 3, Double.NaN},
+        dataset.toSortedArray());
+  }
+
+  /**
+   * Test that datasets created from every kind of input hold the same values.
+   */
+  @Test
+  public void testFactories() {
+    double[] expected = {3, -2, 7, 7};
+    double[] array = {0, 3, -2, 7, 7, 0};
+    Assertions.assertArrayEquals(expected, Dataset.of(array, 1, 4).toArray());
+    Assertions.assertArrayEquals(expected, Dataset.of(new long[]{3, -2, 7, 7}).toArray());
+    Assertions.assertArrayEquals(expected, Dataset.of(new int[]{3, -2, 7, 7}).toArray());
+    Assertions.assertArrayEquals(expected, Dataset.of(List.of(3, -2L, 7.0, 7f)).toArray());
+    Assertions.assertArrayEquals(expected, Dataset.of(DoubleStream.of(expected)).toArray());
+
+    Dataset dataset = Dataset.of(array);
+    array[0] = 100;
+    Assertions.assertEquals(7, dataset.getMaxValue());
+    dataset.toArray()[0] = 100;
+    dataset.toSortedArray()[5] = 100;
+    dataset.getMoments().accept(100);
+    dataset.getSummaryStatistics().accept(100);
+    dataset.getFrequencyTable().add(100);
+    Assertions.assertEquals(7, dataset.getMaxValue());
+    Assertions.assertEquals(7, dataset.getMoments().getMax());
+    Assertions.assertEquals(0, dataset.getFrequency(100));
+    Assertions.assertArrayEquals(new double[]{7, 7, 3}, dataset.getTopMaxValues(3));
+    Assertions.assertEquals("Dataset{size=6, sorted=true}", dataset.toString());
+    Assertions.assertEquals("Dataset{size=4, sorted=false}", Dataset.of(expected).toString());
+  }
+
+  /**
+   * Test that invalid parameters and queries on empty datasets are rejected.
+   */
+  @Test
+  public void testInvalidParametersAndEmptyDatasets() {
+    Assertions.assertThrows(NullPointerException.class, () -> Dataset.of((double[]) null));
+    Assertions.assertThrows(IndexOutOfBoundsException.class,
+        () -> Dataset.of(new double[3], 2, 2));
+    Dataset dataset = Dataset.of(1, 2, 3);
+    Assertions.assertThrows(IllegalArgumentException.class, () -> dataset.getPercentile(101));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> dataset.getTopMaxValues(-1));
+    Assertions.assertThrows(NullPointerException.class, () -> dataset.getMean(null));
+    Assertions.assertArrayEquals(new double[]{3, 2, 1}, dataset.getTopMaxValues(5));
+
+    Dataset empty = Dataset.of();
+    Assertions.assertThrows(NoSuchElementException.class, empty::getMedian);
+    Assertions.assertThrows(NoSuchElementException.class, empty::getMode);
+    Assertions.assertEquals(0, empty.getSum());
+    Assertions.assertEquals(0, empty.getRank(5));
+    Assertions.assertTrue(Double.isNaN(empty.getPercentileRank(5)));
+    Assertions.assertEquals(0, empty.getTopMinValues(3).length);
+    Assertions.assertEquals(0, Arrays.stream(empty.toSortedArray()).count());
+  }
+}
@@ -0,0 +1,52 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Map;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test functionality of DoubleCountMap.
+ */
+public class DoubleCountMapTest {
+
+  /**
+   * Test that keys are compared like Double.equals does.
+   */
+  @Test
+  public void testKeyEquality() {
+    DoubleCountMap countMap = new DoubleCountMap();
+    countMap.add(0.0);
+    countMap.add(-0.0);
+    countMap.add(Double.NaN);
+    countMap.add(0.0 / 0.0);
+    countMap.add(0.1, 3);
+
+    Assertions.assertEquals(4, countMap.size());
+    Assertions.assertEquals(1, countMap.get(0.0));
+    Assertions.assertEquals(1, countMap.get(-0.0));
+    Assertions.assertEquals(2, countMap.get(Double.NaN));
+    Assertions.assertEquals(3, countMap.get(0.1));
+    Assertions.assertEquals(
+        Map.of(0.0, 1L, -0.0, 1L, Double.NaN, 2L, 0.1, 3L),
+        countMap.toMap()
+    );
+  }
+
+  /**
+   * Test merging maps and retrieving the most frequent keys.
+   */
+  @Test
+  public void testMergeAndGetTopFrequentKeys() {
+    DoubleCountMap countMap = new DoubleCountMap();
+    DoubleCountMap otherCountMap = new DoubleCountMap();
+    countMap.add(1.5, 2);
+    countMap.add(2.5, 4);
+    otherCountMap.add(1.5, 3);
+    otherCountMap.add(-7.25);
+    countMap.merge(otherCountMap);
+
+    Assertions.assertArrayEquals(new double[]{1.5, 2.5}, countMap.getTopFrequentKeys(2));
+    Assertions.assertEquals(10, countMap.getTotalCount());
+    Assertions.assertEquals(3, countMap.keys().length);
+  }
+}
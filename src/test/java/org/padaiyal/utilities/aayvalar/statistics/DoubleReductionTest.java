@@ -0,0 +1,198 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test functionality of DoubleReduction.
+ */
+public class DoubleReductionTest {
+
+  /**
+   * Test that the kernel matches exact sums over ranges of every alignment, including the
+   * remainders that don't fill the four lanes.
+   *
+   * @param offset The index of the first element in the range.
+   * @param length The number of elements in the range.
+   * @param center The center the deviations are measured from.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "0, 0, 0",
+      "0, 1, 0",
+      "1, 3, 0",
+      "2, 7, 0.5",
+      "3, 1000, 0",
+      "0, 100000, 0.25",
+      "5, 99995, -3",
+  })
+  public void testReduce(int offset, int length, double center) {
+    double[] values = new Random(length).doubles(100000, -10, 10).toArray();
+    DoubleReduction reduction = DoubleReduction.reduce(
+        values, offset, length, center, ExecutionPolicy.sequential()
+    );
+
+    BigDecimal sum = BigDecimal.ZERO;
+    BigDecimal squareSum = BigDecimal.ZERO;
+    for (int index = offset; index < offset + length; index++) {
+      BigDecimal deviation = new BigDecimal(values[index]).subtract(new BigDecimal(center));
+      sum = sum.add(deviation);
+      squareSum = squareSum.add(new BigDecimal(values[index] - center).pow(2));
+    }
+    double[] range = Arrays.copyOfRange(values, offset, offset + length);
+
+    Assertions.assertEquals(length, reduction.getCount());
+    Assertions.assertEquals(sum.doubleValue(), reduction.getSum(), 1e-12);
+    Assertions.assertEquals(squareSum.doubleValue(), reduction.getSquareSum(),
+        1e-12 * squareSum.doubleValue());
+    Assertions.assertEquals(
+        Arrays.stream(range).min().orElse(Double.POSITIVE_INFINITY),
+        reduction.getMin()
+    );
+    Assertions.assertEquals(
+        Arrays.stream(range).max().orElse(Double.NEGATIVE_INFINITY),
+        reduction.getMax()
+    );
+  }
+
+  /**
+   * Computes the exact sum of doubles, rounded to the nearest double.
+   *
+   * @param values The values to sum.
+   * @return The exact sum, rounded.
+   */
+  private static double getExactSum(double[] values) {
+    return Arrays.stream(values)
+        .mapToObj(BigDecimal::new)
+        .reduce(BigDecimal.ZERO, BigDecimal::add)
+        .doubleValue();
+  }
+
+  /**
+   * Test that values too small to change the sum when added one at a time are not lost.
+   *
+   * @param length The number of values to sum.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "1000",
+      "1000001",
+  })
+  public void testRoundingErrorsAreRecovered(int length) {
+    double[] values = new double[length];
+    Arrays.fill(values, 1e-16);
+    values[0] = 1;
+    DoubleReduction reduction = DoubleReduction.reduceChunk(values, 0, values.length, 0);
+    Assertions.assertEquals(getExactSum(values), reduction.getSum());
+    Assertions.assertEquals(getExactSum(values),
+        DoubleReduction.sumChunk(values, 0, values.length).getSum());
+  }
+
+  /**
+   * Test that the sums of values that cancel each other out, or that are lost when added to a
+   * much larger value, are exact, whatever lane the values fall in.
+   *
+   * @param offset The index of the first value summed.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "0",
+      "1",
+      "3",
+  })
+  public void testCancellationIsExact(int offset) {
+    double[] cancellingValues = new double[offset + 4000];
+    for (int index = offset; index < cancellingValues.length; index += 4) {
+      cancellingValues[index] = 1e100;
+      cancellingValues[index + 1] = 1;
+      cancellingValues[index + 2] = -1e100;
+      cancellingValues[index + 3] = 0.1;
+    }
+    double[] absorbedValues = new double[offset + 1025];
+    Arrays.fill(absorbedValues, offset, absorbedValues.length, 1);
+    absorbedValues[offset] = 1e16;
+
+    for (double[] values : new double[][]{cancellingValues, absorbedValues}) {
+      double[] range = Arrays.copyOfRange(values, offset, values.length);
+      double expectedSum = getExactSum(range);
+      Assertions.assertEquals(expectedSum,
+          DoubleReduction.sumChunk(values, offset, values.length).getSum());
+      Assertions.assertEquals(expectedSum,
+          DoubleReduction.reduceChunk(values, offset, values.length, 0).getSum());
+      Assertions.assertEquals(expectedSum, StatisticsUtility.getSum(range));
+    }
+  }
+
+  /**
+   * Test that the sum of many random values of large magnitude is the exact sum, rounded.
+   */
+  @Test
+  public void testRandomSumIsExact() {
+    Random random = new Random(0);
+    double[] values = new double[1 << 20];
+    for (int index = 0; index < values.length; index++) {
+      values[index] = random.nextGaussian() * 1e9;
+    }
+    double expectedSum = getExactSum(values);
+    Assertions.assertEquals(expectedSum,
+        DoubleReduction.sum(values, 0, values.length, ExecutionPolicy.sequential()));
+    Assertions.assertEquals(expectedSum,
+        DoubleReduction.reduce(values, 0, values.length, 0, ExecutionPolicy.parallel()).getSum());
+  }
+
+  /**
+   * Test that the result doesn't depend on whether the chunks are reduced in parallel.
+   */
+  @Test
+  public void testParallelReductionIsReproducible() {
+    double[] values = new Random(0).doubles(10 * DoubleReduction.chunkSize + 3)
+        .map(value -> Math.pow(10, 20 * value - 10))
+        .toArray();
+    DoubleReduction sequentialReduction = DoubleReduction.reduce(
+        values, 0, values.length, 0, ExecutionPolicy.sequential()
+    );
+    DoubleReduction parallelReduction = DoubleReduction.reduce(
+        values, 0, values.length, 0, ExecutionPolicy.parallel()
+    );
+    Assertions.assertEquals(sequentialReduction.getSum(), parallelReduction.getSum());
+    Assertions.assertEquals(sequentialReduction.getSquareSum(), parallelReduction.getSquareSum());
+    Assertions.assertEquals(sequentialReduction.getMin(), parallelReduction.getMin());
+    Assertions.assertEquals(sequentialReduction.getMax(), parallelReduction.getMax());
+  }
+
+  /**
+   * Test the reduction of special values and their conversion to summary statistics.
+   */
+  @Test
+  public void testSpecialValues() {
+    DoubleSummaryStatistics summaryStatistics = DoubleReduction.reduceChunk(
+        new double[]{1, Double.POSITIVE_INFINITY, 2, 3, 4}, 0, 5, 0
+    ).toSummaryStatistics();
+    Assertions.assertNotNull(summaryStatistics);
+    Assertions.assertEquals(Double.POSITIVE_INFINITY, summaryStatistics.getSum());
+    Assertions.assertEquals(1, summaryStatistics.getMin());
+    Assertions.assertEquals(Double.POSITIVE_INFINITY, summaryStatistics.getMax());
+
+    summaryStatistics = DoubleReduction.reduceChunk(
+        new double[]{1, Double.NaN, 2, 3, 4}, 0, 5, 0
+    ).toSummaryStatistics();
+    Assertions.assertNotNull(summaryStatistics);
+    Assertions.assertTrue(Double.isNaN(summaryStatistics.getSum()));
+    Assertions.assertTrue(Double.isNaN(summaryStatistics.getMin()));
+
+    Assertions.assertNull(DoubleReduction.reduceChunk(
+        new double[]{Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY}, 0, 2, 0
+    ).toSummaryStatistics());
+
+    summaryStatistics = DoubleReduction.reduceChunk(new double[0], 0, 0, 0)
+        .toSummaryStatistics();
+    Assertions.assertNotNull(summaryStatistics);
+    Assertions.assertEquals(0, summaryStatistics.getCount());
+  }
+}
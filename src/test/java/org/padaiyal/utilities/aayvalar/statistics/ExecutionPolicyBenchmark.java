@@ -0,0 +1,85 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Compares sequential and parallel execution of a few statistics over inputs of growing sizes, and
+ * prints the parallel threshold calibrated for the common pool. Run it on the target machine and
+ * use the printed threshold with {@link ExecutionPolicy#auto(int)}, or call
+ * {@link ExecutionPolicy#calibrate(ForkJoinPool)} at startup.
+ */
+public final class ExecutionPolicyBenchmark {
+
+  /**
+   * Number of timed runs of each measurement, of which the fastest is reported.
+   */
+  private static final int runs = 15;
+
+  /**
+   * Empty private constructor as this class is not meant to be used as an instance.
+   */
+  private ExecutionPolicyBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args Unused.
+   */
+  public static void main(String[] args) {
+    System.out.printf("Common pool parallelism: %d%n", ForkJoinPool.getCommonPoolParallelism());
+    System.out.printf("%10s %12s %14s %14s%n", "size", "statistic", "sequential us", "parallel us");
+    for (int size = 16; size <= 1 << 22; size <<= 2) {
+      double[] values = new Random(size).doubles(size).toArray();
+      benchmark("mean", values, input -> StatisticsUtility.getMean(input, MeanType.ARITHMETIC));
+      benchmark("variance", values,
+          input -> StatisticsUtility.getVariance(input, MeanType.ARITHMETIC));
+      benchmark("median", values, input -> StatisticsUtility.getMedian(input.clone()));
+    }
+    StatisticsUtility.setExecutionPolicy(ExecutionPolicy.auto());
+
+    ExecutionPolicy calibratedPolicy = ExecutionPolicy.calibrate(ForkJoinPool.commonPool());
+    System.out.printf("Calibrated parallel threshold: %d%n",
+        calibratedPolicy.getParallelThreshold());
+  }
+
+  /**
+   * Times a statistic with the sequential and the parallel execution policies.
+   *
+   * @param name      The name of the statistic.
+   * @param values    The input of the statistic.
+   * @param statistic The statistic to time.
+   */
+  private static void benchmark(String name, double[] values,
+      ToDoubleFunction<double[]> statistic) {
+    StatisticsUtility.setExecutionPolicy(ExecutionPolicy.sequential());
+    long sequentialTime = getFastestRunTime(values, statistic);
+    StatisticsUtility.setExecutionPolicy(ExecutionPolicy.parallel());
+    long parallelTime = getFastestRunTime(values, statistic);
+    System.out.printf("%10d %12s %14.1f %14.1f%n", values.length, name,
+        sequentialTime / 1e3, parallelTime / 1e3);
+  }
+
+  /**
+   * Times a statistic several times.
+   *
+   * @param values    The input of the statistic.
+   * @param statistic The statistic to time.
+   * @return The fastest run time in nanoseconds.
+   */
+  private static long getFastestRunTime(double[] values, ToDoubleFunction<double[]> statistic) {
+    long fastestRunTime = Long.MAX_VALUE;
+    double checksum = 0;
+    for (int run = 0; run < runs; run++) {
+      long startTime = System.nanoTime();
+      checksum += statistic.applyAsDouble(values);
+      fastestRunTime = Math.min(fastestRunTime, System.nanoTime() - startTime);
+    }
+    if (Double.isNaN(checksum)) {
+      System.out.println("NaN statistic");
+    }
+    return fastestRunTime;
+  }
+}
@@ -0,0 +1,186 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test functionality of ExecutionPolicy.
+ */
+public class ExecutionPolicyTest {
+
+  /**
+   * Restores the default execution policy after each test.
+   */
+  @AfterEach
+  public void restoreDefaultExecutionPolicy() {
+    StatisticsUtility.setExecutionPolicy(ExecutionPolicy.auto());
+  }
+
+  /**
+   * Test deciding whether inputs of different sizes are computed in parallel.
+   *
+   * @param mode             The execution mode to test.
+   * @param size             The number of elements of the input.
+   * @param expectedParallel Whether the input is expected to be computed in parallel.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "SEQUENTIAL, 100000000, false",
+      "PARALLEL, 1, true",
+      "AUTO, 99, false",
+      "AUTO, 100, true",
+  })
+  public void testIsParallel(ExecutionMode mode, long size, boolean expectedParallel) {
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      ExecutionPolicy policy = switch (mode) {
+        case SEQUENTIAL -> ExecutionPolicy.sequential();
+        case PARALLEL -> ExecutionPolicy.parallel();
+        case AUTO -> ExecutionPolicy.auto(100);
+      };
+      policy = policy.withPool(pool);
+
+      Assertions.assertEquals(mode, policy.getMode());
+      Assertions.assertEquals(expectedParallel, policy.isParallel(size));
+      Assertions.assertEquals(expectedParallel,
+          policy.configure(DoubleStream.empty().parallel(), size).isParallel());
+      Assertions.assertFalse(
+          ExecutionPolicy.auto(100).withPool(new ForkJoinPool(1)).isParallel(size)
+      );
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Test that computations run in the pool of the policy.
+   */
+  @Test
+  public void testExecuteRunsInPool() {
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      ExecutionPolicy policy = ExecutionPolicy.parallel().withPool(pool);
+      Assertions.assertSame(pool, policy.execute(ForkJoinTask::getPool));
+      Assertions.assertSame(pool, policy.execute(() -> policy.execute(ForkJoinTask::getPool)));
+      Assertions.assertNull(ExecutionPolicy.sequential().execute(ForkJoinTask::getPool));
+      Assertions.assertThrows(IllegalStateException.class, () -> policy.execute(() -> {
+        throw new IllegalStateException();
+      }));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Test that chunks are combined in order whatever the policy, and that ranges are split into
+   * chunks of the requested size, up to the largest ranges.
+   */
+  @Test
+  public void testReduceChunksInOrder() {
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      for (ExecutionPolicy policy : List.of(
+          ExecutionPolicy.sequential(),
+          ExecutionPolicy.parallel(),
+          ExecutionPolicy.parallel().withPool(pool)
+      )) {
+        Assertions.assertEquals("0 1 2 3 4 5 6 7 8 9",
+            policy.reduceChunks(10, 10, Integer::toString,
+                (first, second) -> first + " " + second));
+        Assertions.assertEquals("[5, 8) [8, 11) [11, 12)",
+            policy.reduceInChunks(5, 7, 3, (from, to) -> "[" + from + ", " + to + ")",
+                (first, second) -> first + " " + second));
+        Assertions.assertEquals("[2, 2)",
+            policy.reduceInChunks(2, 0, 3, (from, to) -> "[" + from + ", " + to + ")",
+                (first, second) -> first + " " + second));
+        Assertions.assertEquals("[0, 1073741824) [1073741824, 2147483647)",
+            policy.reduceInChunks(0, Integer.MAX_VALUE, 1 << 30,
+                (from, to) -> "[" + from + ", " + to + ")",
+                (first, second) -> first + " " + second));
+        Assertions.assertEquals("[0, 2147483646) [2147483646, 2147483647)",
+            policy.reduceInChunks(0, Integer.MAX_VALUE, Integer.MAX_VALUE - 1,
+                (from, to) -> "[" + from + ", " + to + ")",
+                (first, second) -> first + " " + second));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Test that every execution policy computes the same statistics.
+   */
+  @Test
+  public void testStatisticsMatchAcrossPolicies() {
+    double[] values = new Random(3).ints(300_000, 0, 1000).asDoubleStream().toArray();
+    List<Integer> inputCollection = Arrays.stream(values)
+        .mapToObj(value -> (int) value)
+        .collect(Collectors.toList());
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      StatisticsUtility.setExecutionPolicy(ExecutionPolicy.sequential());
+      double expectedMean = StatisticsUtility.getMean(values, MeanType.ARITHMETIC);
+      double expectedMedian = StatisticsUtility.getMedian(values);
+      double expectedVariance = StatisticsUtility.getVariance(values, MeanType.ARITHMETIC);
+      List<? extends Number> expectedTopFrequentElements =
+          StatisticsUtility.getTopFrequentElements(inputCollection, 5);
+
+      for (ExecutionPolicy policy : List.of(
+          ExecutionPolicy.parallel(),
+          ExecutionPolicy.parallel().withPool(pool),
+          ExecutionPolicy.auto(1000).withPool(pool)
+      )) {
+        StatisticsUtility.setExecutionPolicy(policy);
+        Assertions.assertEquals(expectedMean,
+            StatisticsUtility.getMean(values, MeanType.ARITHMETIC), 1e-9);
+        Assertions.assertEquals(expectedMedian, StatisticsUtility.getMedian(values));
+        Assertions.assertEquals(expectedVariance,
+            StatisticsUtility.getVariance(values, MeanType.ARITHMETIC), 1e-6);
+        Assertions.assertEquals(expectedTopFrequentElements,
+            StatisticsUtility.getTopFrequentElements(inputCollection, 5));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Test calibrating the parallel threshold of a pool.
+   */
+  @Test
+  public void testCalibrate() {
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      ExecutionPolicy policy = ExecutionPolicy.calibrate(pool);
+      Assertions.assertEquals(ExecutionMode.AUTO, policy.getMode());
+      Assertions.assertSame(pool, policy.getPool());
+      Assertions.assertTrue(policy.getParallelThreshold() > 0);
+    } finally {
+      pool.shutdown();
+    }
+    Assertions.assertEquals(Integer.MAX_VALUE,
+        ExecutionPolicy.calibrate(new ForkJoinPool(1)).getParallelThreshold());
+  }
+
+  /**
+   * Test creating policies with invalid input.
+   */
+  @Test
+  public void testInvalidInput() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> ExecutionPolicy.auto(-1));
+    Assertions.assertThrows(NullPointerException.class,
+        () -> ExecutionPolicy.auto().withPool(null));
+    Assertions.assertThrows(NullPointerException.class,
+        () -> StatisticsUtility.setExecutionPolicy(null));
+  }
+}
@@ -0,0 +1,158 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test functionality of ExponentialMovingStatistics.
+ */
+public class ExponentialMovingStatisticsTest {
+
+  /**
+   * Tolerance used when comparing incremental estimates with direct computations.
+   */
+  private static final double delta = 1e-9;
+
+  /**
+   * Asserts that an estimator matches the weighted mean and variance of values computed
+   * directly.
+   *
+   * @param estimator The estimator.
+   * @param values    The values added.
+   * @param weights   The weights of the values.
+   */
+  private static void assertEstimatesMatch(ExponentialMovingStatistics estimator, double[] values,
+      double[] weights) {
+    double weightSum = 0;
+    double weightedSum = 0;
+    for (int i = 0; i < values.length; i++) {
+      weightSum += weights[i];
+      weightedSum += weights[i] * values[i];
+    }
+    double mean = weightedSum / weightSum;
+    double squaredDeviationSum = 0;
+    for (int i = 0; i < values.length; i++) {
+      squaredDeviationSum += weights[i] * (values[i] - mean) * (values[i] - mean);
+    }
+    Assertions.assertEquals(values.length, estimator.getCount());
+    Assertions.assertEquals(mean, estimator.getMean(), delta);
+    Assertions.assertEquals(squaredDeviationSum / weightSum, estimator.getVariance(), delta);
+  }
+
+  /**
+   * Test that per-value decay matches the directly computed weighted estimates.
+   *
+   * @param smoothingFactor The smoothing factor.
+   */
+  @ParameterizedTest
+  @ValueSource(doubles = {1, 0.5, 0.1, 0.001})
+  public void testSmoothingFactor(double smoothingFactor) {
+    double[] values = new Random(1).doubles(500, -10, 10).toArray();
+    ExponentialMovingStatistics estimator =
+        ExponentialMovingStatistics.ofSmoothingFactor(smoothingFactor);
+    for (double value : values) {
+      estimator.accept(value);
+    }
+    double[] weights = new double[values.length];
+    for (int i = 0; i < values.length; i++) {
+      weights[i] = Math.pow(1 - smoothingFactor, values.length - 1 - i);
+    }
+    assertEstimatesMatch(estimator, values, weights);
+  }
+
+  /**
+   * Test that time decay matches the directly computed weighted estimates, including for values
+   * added out of timestamp order.
+   *
+   * @param halfLife The half-life.
+   */
+  @ParameterizedTest
+  @ValueSource(doubles = {0.5, 10, 1000})
+  public void testHalfLife(double halfLife) {
+    Random random = new Random(2);
+    double[] values = random.doubles(500, 100, 200).toArray();
+    long[] timestamps = new long[values.length];
+    ExponentialMovingStatistics estimator = ExponentialMovingStatistics.ofHalfLife(halfLife);
+    long latestTimestamp = Long.MIN_VALUE;
+    for (int i = 0; i < values.length; i++) {
+      timestamps[i] = i + random.nextInt(5) - 2;
+      latestTimestamp = Math.max(latestTimestamp, timestamps[i]);
+      estimator.add(timestamps[i], values[i]);
+    }
+    double[] weights = new double[values.length];
+    for (int i = 0; i < values.length; i++) {
+      weights[i] = Math.pow(2, -(latestTimestamp - timestamps[i]) / halfLife);
+    }
+    assertEstimatesMatch(estimator, values, weights);
+  }
+
+  /**
+   * Test that merging estimators gives the same estimates as adding every value to one.
+   *
+   * @param splitIndex The number of values added to the first estimator.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 150, 299, 300})
+  public void testMerge(int splitIndex) {
+    double[] values = new Random(3).doubles(300, 0, 1).toArray();
+    ExponentialMovingStatistics expected = ExponentialMovingStatistics.ofHalfLife(20);
+    ExponentialMovingStatistics first = ExponentialMovingStatistics.ofHalfLife(20);
+    ExponentialMovingStatistics second = ExponentialMovingStatistics.ofHalfLife(20);
+    for (int i = 0; i < values.length; i++) {
+      long timestamp = i % 2 == 0 ? i : values.length - i;
+      expected.add(timestamp, values[i]);
+      (i < splitIndex ? first : second).add(timestamp, values[i]);
+    }
+    first.merge(second);
+    Assertions.assertEquals(expected.getCount(), first.getCount());
+    Assertions.assertEquals(expected.getMean(), first.getMean(), delta);
+    Assertions.assertEquals(expected.getVariance(), first.getVariance(), delta);
+  }
+
+  /**
+   * Test the estimates of empty and cleared estimators, and that a long gap forgets older values.
+   */
+  @Test
+  public void testEmptyAndForgetting() {
+    ExponentialMovingStatistics estimator = ExponentialMovingStatistics.ofHalfLife(1);
+    Assertions.assertTrue(Double.isNaN(estimator.getMean()));
+    Assertions.assertTrue(Double.isNaN(estimator.getStandardDeviation()));
+
+    estimator.add(0, 5);
+    estimator.accept(7);
+    Assertions.assertEquals(6, estimator.getMean());
+    Assertions.assertEquals(1, estimator.getStandardDeviation());
+    estimator.add(10_000, 3);
+    Assertions.assertEquals(3, estimator.getMean());
+    Assertions.assertEquals(0, estimator.getVariance());
+
+    estimator.clear();
+    Assertions.assertEquals(0, estimator.getCount());
+    Assertions.assertTrue(Double.isNaN(estimator.getVariance()));
+  }
+
+  /**
+   * Test that invalid parameters are rejected.
+   *
+   * @param smoothingFactor An invalid smoothing factor.
+   * @param halfLife        An invalid half-life.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "0, 0",
+      "1.5, -1",
+      "NaN, Infinity",
+  })
+  public void testInvalidParameters(double smoothingFactor, double halfLife) {
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> ExponentialMovingStatistics.ofSmoothingFactor(smoothingFactor));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> ExponentialMovingStatistics.ofHalfLife(halfLife));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> ConcurrentExponentialMovingStatistics.ofHalfLife(halfLife));
+  }
+}
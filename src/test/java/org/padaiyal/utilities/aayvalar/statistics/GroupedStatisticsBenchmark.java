@@ -0,0 +1,118 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compares computing the mean and variance of each group by partitioning the values into one
+ * collection per group followed by {@link StatisticsUtility}, and with {@link GroupedStatistics}
+ * with the sequential and parallel execution policies, for increasing numbers of groups.
+ */
+public final class GroupedStatisticsBenchmark {
+
+  /**
+   * Number of timed runs of each measurement, of which the fastest is reported.
+   */
+  private static final int runs = 10;
+  /**
+   * Number of (key, value) pairs.
+   */
+  private static final int length = 4_000_000;
+
+  /**
+   * Empty private constructor as this class is not meant to be used as an instance.
+   */
+  private GroupedStatisticsBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args Unused.
+   */
+  public static void main(String[] args) {
+    Random random = new Random(0);
+    double[] values = random.doubles(length, 0, 1000).toArray();
+    GroupedStatistics statistics = GroupedStatistics.of();
+    ExecutionPolicy defaultPolicy = StatisticsUtility.getExecutionPolicy();
+
+    System.out.printf("%10s %16s %16s %16s%n", "groups", "partition ms", "sequential ms",
+        "parallel ms");
+    for (int groupCount : new int[]{10, 1_000, 100_000, 1_000_000}) {
+      Integer[] keys = new Integer[length];
+      for (int index = 0; index < length; index++) {
+        keys[index] = random.nextInt(groupCount);
+      }
+      long partitionTime = getFastestRunTime(() -> sumPartitionedVariances(keys, values));
+      StatisticsUtility.setExecutionPolicy(ExecutionPolicy.sequential());
+      long sequentialTime = getFastestRunTime(() -> sumVariances(statistics, keys, values));
+      StatisticsUtility.setExecutionPolicy(ExecutionPolicy.parallel());
+      long parallelTime = getFastestRunTime(() -> sumVariances(statistics, keys, values));
+      StatisticsUtility.setExecutionPolicy(defaultPolicy);
+      System.out.printf("%10d %16.1f %16.1f %16.1f%n", groupCount, partitionTime / 1e6,
+          sequentialTime / 1e6, parallelTime / 1e6);
+    }
+  }
+
+  /**
+   * Partitions the values by key and computes the mean and variance of each partition.
+   *
+   * @param keys   The keys of the values.
+   * @param values The values.
+   * @return The sum of the means and variances of the groups.
+   */
+  private static double sumPartitionedVariances(Integer[] keys, double[] values) {
+    Map<Integer, List<Double>> partitions = new HashMap<>();
+    for (int index = 0; index < keys.length; index++) {
+      partitions.computeIfAbsent(keys[index], key -> new ArrayList<>()).add(values[index]);
+    }
+    double sum = 0;
+    for (List<Double> partition : partitions.values()) {
+      sum += StatisticsUtility.getMean(partition, MeanType.ARITHMETIC)
+          + StatisticsUtility.getVariance(partition, MeanType.ARITHMETIC);
+    }
+    return sum;
+  }
+
+  /**
+   * Computes the mean and variance of each group with grouped statistics.
+   *
+   * @param statistics The grouped statistics.
+   * @param keys       The keys of the values.
+   * @param values     The values.
+   * @return The sum of the means and variances of the groups.
+   */
+  private static double sumVariances(GroupedStatistics statistics, Integer[] keys,
+      double[] values) {
+    double sum = 0;
+    for (GroupAccumulator group : statistics.compute(keys, values).values()) {
+      sum += group.getMean() + group.getVariance();
+    }
+    return sum;
+  }
+
+  /**
+   * Times a computation several times.
+   *
+   * @param computation The computation to time.
+   * @return The fastest run time in nanoseconds.
+   */
+  private static long getFastestRunTime(Supplier<Double> computation) {
+    long fastestRunTime = Long.MAX_VALUE;
+    double checksum = 0;
+    for (int run = 0; run < runs; run++) {
+      long startTime = System.nanoTime();
+      checksum += computation.get();
+      fastestRunTime = Math.min(fastestRunTime, System.nanoTime() - startTime);
+    }
+    // Using the results keeps the computations from being optimized away.
+    if (checksum == 42) {
+      System.out.println(checksum);
+    }
+    return fastestRunTime;
+  }
+}
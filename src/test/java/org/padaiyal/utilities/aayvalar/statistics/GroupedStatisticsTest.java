@@ -0,0 +1,231 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test functionality of GroupedStatistics and GroupAccumulator.
+ */
+public class GroupedStatisticsTest {
+
+  /**
+   * Test that the statistics of each group match those of its values, and that they are
+   * identical for every execution policy.
+   *
+   * @param groupCount The number of distinct keys.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {1, 7, 50_000})
+  public void testGroupsMatchStatisticsUtility(int groupCount) {
+    Random random = new Random(groupCount);
+    int length = 300_001;
+    String[] keys = new String[length];
+    double[] values = new double[length];
+    Map<String, List<Double>> partitions = new HashMap<>();
+    for (int index = 0; index < length; index++) {
+      keys[index] = "group-" + random.nextInt(groupCount);
+      values[index] = Math.floor(random.nextGaussian() * 1e3);
+      partitions.computeIfAbsent(keys[index], key -> new ArrayList<>())
+          .add(values[index]);
+    }
+    GroupedStatistics statistics = GroupedStatistics.of()
+        .withTopMaxValues(3)
+        .withTopMinValues(2)
+        .withQuantileSketch(50)
+        .withFrequentValues(4);
+
+    ExecutionPolicy defaultPolicy = StatisticsUtility.getExecutionPolicy();
+    ForkJoinPool pool = new ForkJoinPool(3);
+    Map<String, GroupAccumulator> sequentialGroups;
+    try {
+      StatisticsUtility.setExecutionPolicy(ExecutionPolicy.sequential());
+      sequentialGroups = statistics.compute(keys, values);
+      for (ExecutionPolicy policy : new ExecutionPolicy[]{
+          ExecutionPolicy.parallel(),
+          ExecutionPolicy.parallel().withPool(pool)
+      }) {
+        StatisticsUtility.setExecutionPolicy(policy);
+        Map<String, GroupAccumulator> groups = statistics.compute(keys, values);
+        Assertions.assertEquals(partitions.size(), groups.size());
+        for (Map.Entry<String, GroupAccumulator> entry : sequentialGroups.entrySet()) {
+          Assertions.assertEquals(entry.getValue().getMoments().toString(),
+              groups.get(entry.getKey()).getMoments().toString());
+          Assertions.assertEquals(entry.getValue().getSum(), groups.get(entry.getKey()).getSum());
+        }
+      }
+    } finally {
+      StatisticsUtility.setExecutionPolicy(defaultPolicy);
+      pool.shutdown();
+    }
+
+    partitions.forEach((key, groupValues) -> {
+      GroupAccumulator group = sequentialGroups.get(key);
+      double[] expectedValues = StatisticsUtility.toDoubleArray(groupValues);
+      Assertions.assertEquals(expectedValues.length, group.getCount());
+      Assertions.assertEquals(StatisticsUtility.getSum(expectedValues), group.getSum());
+      Assertions.assertEquals(StatisticsUtility.getMean(expectedValues, MeanType.ARITHMETIC),
+          group.getMean(), 1e-9);
+      Assertions.assertEquals(
+          StatisticsUtility.getVariance(expectedValues, MeanType.ARITHMETIC),
+          group.getVariance(), 1e-6);
+      Assertions.assertEquals(StatisticsUtility.getMinValue(expectedValues),
+          group.getMinValue());
+      Assertions.assertEquals(StatisticsUtility.getMaxValue(expectedValues),
+          group.getMaxValue());
+      Assertions.assertArrayEquals(StatisticsUtility.getTopMaxValues(expectedValues, 3),
+          group.getTopMaxValues());
+      Assertions.assertArrayEquals(StatisticsUtility.getTopMinValues(expectedValues, 2),
+          group.getTopMinValues());
+      Assertions.assertEquals(expectedValues.length, group.getQuantileSketch().getCount());
+      double percentile = group.getPercentile(50);
+      Assertions.assertTrue(percentile >= group.getMinValue()
+          && percentile <= group.getMaxValue());
+      Assertions.assertFalse(group.getFrequentValues(1).isEmpty());
+    });
+  }
+
+  /**
+   * Test that the groups of elements are aggregated through extractors, whatever the collection.
+   */
+  @Test
+  public void testComputeCollection() {
+    List<String> words = List.of("a", "bb", "cc", "ddd", "eee", "fff", "gggg");
+    GroupedStatistics statistics = GroupedStatistics.of();
+    for (List<String> elements : List.of(words, new LinkedList<>(words))) {
+      Map<Integer, GroupAccumulator> groups = statistics.compute(
+          elements,
+          String::length,
+          word -> word.charAt(0)
+      );
+      Assertions.assertEquals(Arrays.asList(1, 2, 3, 4),
+          groups.keySet().stream().sorted().collect(Collectors.toList()));
+      Assertions.assertEquals(3, groups.get(3).getCount());
+      Assertions.assertEquals('e', groups.get(3).getMean());
+      Assertions.assertEquals('b', groups.get(2).getMinValue());
+    }
+
+    Map<Boolean, GroupAccumulator> groups = statistics.compute(
+        IntStream.range(0, 10).boxed().collect(Collectors.toList()),
+        value -> value % 2 == 0 ? null : Boolean.TRUE,
+        value -> value
+    );
+    Assertions.assertEquals(20, groups.get(null).getSum());
+    Assertions.assertEquals(25, groups.get(true).getSum());
+    Assertions.assertTrue(statistics.compute(new String[0], new double[0]).isEmpty());
+  }
+
+  /**
+   * Test that the key and value extractors are called once per element, whether the elements
+   * are aggregated as is or partitioned first, and with every execution policy.
+   *
+   * @param groupCount The number of distinct keys.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {3, 100_000})
+  public void testExtractorsAreCalledOncePerElement(int groupCount) {
+    List<Integer> elements = IntStream.range(0, 200_003).boxed().collect(Collectors.toList());
+    ExecutionPolicy defaultPolicy = StatisticsUtility.getExecutionPolicy();
+    try {
+      for (ExecutionPolicy policy : new ExecutionPolicy[]{
+          ExecutionPolicy.sequential(),
+          ExecutionPolicy.parallel()
+      }) {
+        StatisticsUtility.setExecutionPolicy(policy);
+        AtomicInteger keyCalls = new AtomicInteger();
+        AtomicInteger valueCalls = new AtomicInteger();
+        Map<Integer, GroupAccumulator> groups = GroupedStatistics.of().compute(
+            elements,
+            element -> {
+              keyCalls.incrementAndGet();
+              return element % groupCount;
+            },
+            element -> {
+              valueCalls.incrementAndGet();
+              return element;
+            }
+        );
+        Assertions.assertEquals(elements.size(), keyCalls.get());
+        Assertions.assertEquals(elements.size(), valueCalls.get());
+        Assertions.assertEquals(groupCount, groups.size());
+        Assertions.assertEquals(elements.size(),
+            groups.values().stream().mapToLong(GroupAccumulator::getCount).sum());
+      }
+    } finally {
+      StatisticsUtility.setExecutionPolicy(defaultPolicy);
+    }
+  }
+
+  /**
+   * Test that accumulators combine the values of accumulators of the same statistics only.
+   */
+  @Test
+  public void testCombineAccumulators() {
+    GroupedStatistics statistics = GroupedStatistics.of().withTopMaxValues(2);
+    GroupAccumulator accumulator = statistics.newAccumulator();
+    accumulator.accept(1);
+    accumulator.accept(5);
+    GroupAccumulator other = GroupedStatistics.of().withTopMaxValues(2).newAccumulator();
+    other.accept(3);
+    accumulator.combine(other);
+    Assertions.assertEquals(3, accumulator.getCount());
+    Assertions.assertArrayEquals(new double[]{5, 3}, accumulator.getTopMaxValues());
+    Assertions.assertEquals("GroupAccumulator{count=3, mean=3.0, min=1.0, max=5.0}",
+        accumulator.toString());
+
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> accumulator.combine(GroupedStatistics.of().newAccumulator()));
+    Assertions.assertThrows(IllegalStateException.class, accumulator::getTopMinValues);
+    Assertions.assertThrows(IllegalStateException.class, () -> accumulator.getPercentile(50));
+    Assertions.assertThrows(IllegalStateException.class, accumulator::getQuantileSketch);
+    Assertions.assertThrows(IllegalStateException.class, () -> accumulator.getFrequentValues(1));
+    Assertions.assertEquals(0, GroupedStatistics.of().newAccumulator().getSum());
+
+    GroupAccumulator tenths = GroupedStatistics.of().newAccumulator();
+    tenths.accept(0.1);
+    tenths.accept(0.2);
+    GroupAccumulator otherTenths = GroupedStatistics.of().newAccumulator();
+    otherTenths.accept(0.3);
+    tenths.combine(otherTenths);
+    Assertions.assertEquals(0.6, tenths.getSum());
+  }
+
+  /**
+   * Test that invalid parameters and inputs are rejected.
+   */
+  @Test
+  public void testInvalidParameters() {
+    GroupedStatistics statistics = GroupedStatistics.of();
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> statistics.withTopMaxValues(0));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> statistics.withTopMinValues(-1));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> statistics.withQuantileSketch(0));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> statistics.withFrequentValues(0));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> statistics.compute(new String[2], new double[3]));
+    Assertions.assertThrows(NullPointerException.class,
+        () -> statistics.compute(null, new double[0]));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> statistics.withQuantileSketch().newAccumulator().getPercentile(101));
+    Assertions.assertEquals(
+        "GroupedStatistics{quantileSketchCompression=100.0, topMaxNumbers=0, topMinNumbers=4, "
+            + "frequentValuesCapacity=0}",
+        statistics.withQuantileSketch().withTopMinValues(4).toString()
+    );
+  }
+}
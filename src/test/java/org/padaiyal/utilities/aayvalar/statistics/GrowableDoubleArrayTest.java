@@ -0,0 +1,41 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test functionality of GrowableDoubleArray.
+ */
+public class GrowableDoubleArrayTest {
+
+  /**
+   * Test that appended arrays keep every value in order as they grow.
+   *
+   * @param leftSize  The number of values added to the first array.
+   * @param rightSize The number of values added to the appended array.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "0, 0",
+      "0, 17",
+      "16, 1",
+      "1000, 3000",
+  })
+  public void testAppend(int leftSize, int rightSize) {
+    GrowableDoubleArray left = new GrowableDoubleArray();
+    GrowableDoubleArray right = new GrowableDoubleArray();
+    IntStream.range(0, leftSize).forEach(left::accept);
+    IntStream.range(leftSize, leftSize + rightSize).forEach(right::accept);
+    left.append(right);
+
+    Assertions.assertEquals(leftSize + rightSize, left.size());
+    Assertions.assertArrayEquals(
+        IntStream.range(0, leftSize + rightSize).asDoubleStream().toArray(),
+        Arrays.copyOf(left.getValues(), left.size())
+    );
+    Assertions.assertEquals(rightSize, right.size());
+  }
+}
@@ -0,0 +1,76 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Compares counting the distinct values of an array exactly, through the boxed frequency
+ * distribution and through the primitive frequency table, and estimating it with
+ * {@link HyperLogLog}, for increasing numbers of distinct values.
+ */
+public final class HyperLogLogBenchmark {
+
+  /**
+   * Number of timed runs of each measurement, of which the fastest is reported.
+   */
+  private static final int runs = 10;
+  /**
+   * Number of values.
+   */
+  private static final int length = 2_000_000;
+
+  /**
+   * Empty private constructor as this class is not meant to be used as an instance.
+   */
+  private HyperLogLogBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args Unused.
+   */
+  public static void main(String[] args) {
+    Random random = new Random(0);
+    System.out.printf("%10s %20s %20s %20s%n", "distinct", "distribution ms", "table ms",
+        "hyperloglog ms");
+    for (int distinctCount : new int[]{1_000, 100_000, 2_000_000}) {
+      double[] values = random.ints(length, 0, distinctCount).asDoubleStream().toArray();
+      List<Double> inputCollection = Arrays.stream(values).boxed().collect(Collectors.toList());
+      long distributionTime = getFastestRunTime(inputCollection,
+          input -> StatisticsUtility.getFrequencyDistribution(input).size());
+      long tableTime = getFastestRunTime(values,
+          input -> StatisticsUtility.getFrequencyTable(input).size());
+      long estimatorTime = getFastestRunTime(values,
+          input -> StatisticsUtility.getDistinctCount(input, HyperLogLog.defaultPrecision));
+      System.out.printf("%10d %20.1f %20.1f %20.1f%n", distinctCount, distributionTime / 1e6,
+          tableTime / 1e6, estimatorTime / 1e6);
+    }
+  }
+
+  /**
+   * Times a count several times.
+   *
+   * @param input The input of the count.
+   * @param count The count to time.
+   * @param <T>   Type of the input.
+   * @return The fastest run time in nanoseconds.
+   */
+  private static <T> long getFastestRunTime(T input, ToLongFunction<T> count) {
+    long fastestRunTime = Long.MAX_VALUE;
+    long checksum = 0;
+    for (int run = 0; run < runs; run++) {
+      long startTime = System.nanoTime();
+      checksum += count.applyAsLong(input);
+      fastestRunTime = Math.min(fastestRunTime, System.nanoTime() - startTime);
+    }
+    // Using the results keeps the counts from being optimized away.
+    if (checksum == 42) {
+      System.out.println(checksum);
+    }
+    return fastestRunTime;
+  }
+}
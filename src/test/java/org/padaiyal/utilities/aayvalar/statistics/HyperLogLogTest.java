@@ -0,0 +1,156 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test functionality of HyperLogLog.
+ */
+public class HyperLogLogTest {
+
+  /**
+   * Test that the estimates are within four standard errors of the actual distinct counts, from
+   * small to large counts, and that duplicates don't change them.
+   *
+   * @param precision     The precision of the estimator.
+   * @param distinctCount The number of distinct values.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "4, 1000",
+      "10, 1",
+      "10, 100",
+      "10, 5000",
+      "14, 10",
+      "14, 1000",
+      "14, 12000",
+      "14, 100000",
+      "14, 2000000",
+      "18, 300000",
+  })
+  public void testEstimateAccuracy(int precision, int distinctCount) {
+    HyperLogLog estimator = new HyperLogLog(precision);
+    for (long value = 0; value < distinctCount; value++) {
+      estimator.add(value);
+    }
+    long estimate = estimator.getDistinctCount();
+    Assertions.assertEquals(distinctCount, estimate,
+        Math.max(0.5, 4 * estimator.getRelativeStandardError() * distinctCount));
+
+    for (long value = 0; value < distinctCount; value += 3) {
+      estimator.add(value);
+    }
+    Assertions.assertEquals(estimate, estimator.getDistinctCount());
+  }
+
+  /**
+   * Test that doubles are distinguished the same way as Double.equals.
+   */
+  @Test
+  public void testDoubleValues() {
+    HyperLogLog estimator = new HyperLogLog();
+    Assertions.assertTrue(estimator.isEmpty());
+    Assertions.assertEquals(0, estimator.getDistinctCount());
+    for (double value : new double[]{1, 1.0, 0.0, -0.0, Double.NaN, Double.longBitsToDouble(
+        0x7ff8000000000001L), Double.POSITIVE_INFINITY}) {
+      estimator.accept(value);
+    }
+    Assertions.assertFalse(estimator.isEmpty());
+    Assertions.assertEquals(5, estimator.getDistinctCount());
+    estimator.add(1L);
+    Assertions.assertEquals(6, estimator.getDistinctCount());
+    Assertions.assertEquals("HyperLogLog{precision=14, distinctCount=6}", estimator.toString());
+  }
+
+  /**
+   * Test that merging estimators gives the estimate of the union of their values.
+   */
+  @Test
+  public void testMerge() {
+    HyperLogLog first = new HyperLogLog(12);
+    HyperLogLog second = new HyperLogLog(12);
+    HyperLogLog union = new HyperLogLog(12);
+    Random random = new Random(3);
+    for (int index = 0; index < 50_000; index++) {
+      double value = random.nextInt(40_000);
+      (index % 2 == 0 ? first : second).add(value);
+      union.add(value);
+    }
+    first.merge(second);
+    Assertions.assertEquals(union.getDistinctCount(), first.getDistinctCount());
+    Assertions.assertArrayEquals(union.toByteArray(), first.toByteArray());
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> first.merge(new HyperLogLog(13)));
+  }
+
+  /**
+   * Test that serialized estimators are read back identically, and that few registers in use are
+   * serialized in fewer bytes than every register.
+   *
+   * @param distinctCount The number of distinct values.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 50, 3000, 100_000})
+  public void testSerialization(int distinctCount) {
+    for (int precision : new int[]{4, 11, 14}) {
+      HyperLogLog estimator = new HyperLogLog(precision);
+      new Random(distinctCount).longs(distinctCount).forEach(estimator::add);
+      byte[] bytes = estimator.toByteArray();
+      HyperLogLog copy = HyperLogLog.fromByteArray(bytes);
+      Assertions.assertEquals(precision, copy.getPrecision());
+      Assertions.assertEquals(estimator.getDistinctCount(), copy.getDistinctCount());
+      Assertions.assertArrayEquals(bytes, copy.toByteArray());
+      Assertions.assertTrue(bytes.length <= 6 + ((6 << precision) + 7) / 8);
+      if (distinctCount <= 50) {
+        Assertions.assertTrue(bytes.length <= 6 + 4 * distinctCount);
+      }
+    }
+  }
+
+  /**
+   * Test that invalid parameters and serialized forms are rejected.
+   */
+  @Test
+  public void testInvalidParameters() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(19));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> HyperLogLog.withMaximumError(0.001));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> HyperLogLog.withMaximumError(Double.NaN));
+    Assertions.assertEquals(14, HyperLogLog.withMaximumError(0.01).getPrecision());
+    Assertions.assertEquals(4, HyperLogLog.withMaximumError(0.26).getPrecision());
+
+    HyperLogLog estimator = new HyperLogLog(6);
+    estimator.add(42L);
+    byte[] sparseBytes = estimator.toByteArray();
+    estimator.addHash(0);
+    for (long value = 0; value < 1000; value++) {
+      estimator.add(value);
+    }
+    byte[] denseBytes = estimator.toByteArray();
+    Assertions.assertEquals(estimator.getDistinctCount(),
+        HyperLogLog.fromByteArray(denseBytes).getDistinctCount());
+
+    byte[] wrongVersion = sparseBytes.clone();
+    wrongVersion[3] = 9;
+    byte[] wrongPrecision = sparseBytes.clone();
+    wrongPrecision[4] = 30;
+    byte[] wrongFormat = sparseBytes.clone();
+    wrongFormat[5] = 7;
+    byte[] unterminatedEntry = sparseBytes.clone();
+    unterminatedEntry[unterminatedEntry.length - 1] |= (byte) 0x80;
+    byte[] zeroRank = Arrays.copyOf(sparseBytes, sparseBytes.length + 1);
+    for (byte[] bytes : new byte[][]{wrongVersion, wrongPrecision, wrongFormat, unterminatedEntry,
+        zeroRank, Arrays.copyOf(denseBytes, denseBytes.length - 1),
+        Arrays.copyOf(denseBytes, denseBytes.length + 1), new byte[2]}) {
+      Assertions.assertThrows(IllegalArgumentException.class,
+          () -> HyperLogLog.fromByteArray(bytes));
+    }
+  }
+}
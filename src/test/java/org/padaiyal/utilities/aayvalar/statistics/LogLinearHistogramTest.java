@@ -0,0 +1,142 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test functionality of LogLinearHistogram.
+ */
+public class LogLinearHistogramTest {
+
+  /**
+   * Percentiles compared with the exact ones.
+   */
+  private static final double[] percentiles = {0, 10, 50, 90, 99, 99.99, 100};
+
+  /**
+   * Test that the percentiles are within the precision of the histogram of the exact ones, over
+   * values spanning many orders of magnitude.
+   *
+   * @param significantDigits The number of significant digits of the histogram.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {0, 1, 2, 3, 4})
+  public void testPercentilePrecision(int significantDigits) {
+    long[] values = new Random(significantDigits).doubles(100_000, 0, 40)
+        .mapToLong(exponent -> (long) Math.pow(2, exponent))
+        .toArray();
+    LogLinearHistogram histogram = new LogLinearHistogram(1L << 40, significantDigits);
+    Arrays.stream(values).forEach(histogram::record);
+    Arrays.sort(values);
+
+    double relativePrecision = Math.pow(10, -significantDigits);
+    double[] histogramPercentiles = histogram.getPercentiles(percentiles);
+    for (int index = 0; index < percentiles.length; index++) {
+      int rank = (int) Math.max(1, Math.ceil(percentiles[index] / 100 * values.length));
+      long exactPercentile = values[rank - 1];
+      Assertions.assertTrue(histogramPercentiles[index] >= exactPercentile);
+      Assertions.assertEquals(exactPercentile, histogramPercentiles[index],
+          exactPercentile * relativePrecision);
+    }
+    Assertions.assertEquals(values.length, histogram.getTotalCount());
+    Assertions.assertEquals(values[0], histogram.getMin());
+    Assertions.assertEquals(values[values.length - 1], histogram.getMax());
+    double mean = StatisticsUtility.getMean(values, MeanType.ARITHMETIC);
+    Assertions.assertEquals(mean, histogram.getMean(), mean * relativePrecision);
+  }
+
+  /**
+   * Test that small values are counted exactly.
+   */
+  @Test
+  public void testExactSmallValues() {
+    LogLinearHistogram histogram = new LogLinearHistogram(1000, 2);
+    for (long value = 0; value <= 100; value++) {
+      histogram.record(value, 2);
+    }
+    Assertions.assertEquals(202, histogram.getTotalCount());
+    Assertions.assertEquals(50, histogram.getMedian());
+    Assertions.assertEquals(50, histogram.getMean());
+    Assertions.assertEquals(0, histogram.getPercentile(0));
+    Assertions.assertEquals(100, histogram.getPercentile(100));
+
+    histogram.clear();
+    Assertions.assertEquals(0, histogram.getTotalCount());
+    Assertions.assertTrue(Double.isNaN(histogram.getMedian()));
+    Assertions.assertEquals(Double.POSITIVE_INFINITY, histogram.getMin());
+  }
+
+  /**
+   * Test that merged and deserialized histograms hold the same counts as the original ones.
+   */
+  @Test
+  public void testMergeAndSerialization() {
+    Random random = new Random(7);
+    LogLinearHistogram expected = new LogLinearHistogram(1_000_000_000, 3);
+    LogLinearHistogram first = new LogLinearHistogram(1_000_000_000, 3);
+    LogLinearHistogram second = new LogLinearHistogram(10_000_000, 3);
+    for (int index = 0; index < 10_000; index++) {
+      long value = (long) Math.exp(random.nextDouble() * 16);
+      expected.record(value);
+      (index % 3 == 0 ? first : second).record(value);
+    }
+    first.merge(second);
+    Assertions.assertEquals(expected.getTotalCount(), first.getTotalCount());
+    Assertions.assertArrayEquals(expected.getPercentiles(percentiles),
+        first.getPercentiles(percentiles));
+
+    byte[] bytes = first.toByteArray();
+    Assertions.assertTrue(bytes.length < 10_000);
+    LogLinearHistogram deserialized = LogLinearHistogram.fromByteArray(bytes);
+    Assertions.assertEquals(first.toString(), deserialized.toString());
+    Assertions.assertArrayEquals(expected.getPercentiles(percentiles),
+        deserialized.getPercentiles(percentiles));
+    Assertions.assertEquals(expected.getMean(), deserialized.getMean());
+
+    LogLinearHistogram empty = LogLinearHistogram.fromByteArray(
+        new LogLinearHistogram(100, 1).toByteArray());
+    Assertions.assertEquals(0, empty.getTotalCount());
+
+    LogLinearHistogram large = new LogLinearHistogram(1_000_000_000, 3);
+    large.record(500_000_000);
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> second.merge(large));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> first.merge(new LogLinearHistogram(100, 2)));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> LogLinearHistogram.fromByteArray(Arrays.copyOf(bytes, bytes.length - 1)));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> LogLinearHistogram.fromByteArray(new byte[]{0, 0, 0, 2}));
+  }
+
+  /**
+   * Test that invalid histograms and values are rejected.
+   *
+   * @param highestTrackableValue The highest trackable value.
+   * @param significantDigits     The number of significant digits.
+   * @param value                 A value to record.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "1, 2, 0",
+      "100, -1, 0",
+      "100, 6, 0",
+      "100, 2, -1",
+      "100, 2, 101",
+  })
+  public void testInvalidParameters(long highestTrackableValue, int significantDigits,
+      long value) {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> {
+      LogLinearHistogram histogram = new LogLinearHistogram(highestTrackableValue,
+          significantDigits);
+      histogram.record(value);
+    });
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> new LogLinearHistogram(100, 2).record(1, -1));
+  }
+}
@@ -0,0 +1,103 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test functionality of LongCountMap.
+ */
+public class LongCountMapTest {
+
+  /**
+   * Test that the counts match a boxed map, including while the table grows.
+   *
+   * @param seed          The seed of the random keys to test.
+   * @param length        The number of keys to count.
+   * @param distinctCount The number of distinct keys to draw from.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "1, 0, 10",
+      "2, 100, 3",
+      "3, 100000, 50000",
+      "4, 100000, 2147483647",
+  })
+  public void testCountsMatchBoxedMap(long seed, int length, int distinctCount) {
+    long[] keys = new Random(seed).ints(length, -distinctCount / 2, distinctCount / 2 + 1)
+        .asLongStream()
+        .map(key -> key * 0x100000000L)
+        .toArray();
+    Map<Long, Long> expectedCounts = new HashMap<>();
+    LongCountMap countMap = new LongCountMap();
+    for (long key : keys) {
+      expectedCounts.merge(key, 1L, Long::sum);
+      countMap.add(key);
+    }
+
+    Assertions.assertEquals(expectedCounts.size(), countMap.size());
+    Assertions.assertEquals(length, countMap.getTotalCount());
+    expectedCounts.forEach((key, count) -> Assertions.assertEquals(count, countMap.get(key)));
+    Assertions.assertEquals(0, countMap.get(Long.MIN_VALUE + 1));
+
+    Map<Long, Long> actualCounts = new HashMap<>();
+    countMap.forEach(actualCounts::put);
+    Assertions.assertEquals(expectedCounts, actualCounts);
+    Assertions.assertEquals(expectedCounts.size(), countMap.keys().length);
+  }
+
+  /**
+   * Test that merging maps adds up their counts.
+   */
+  @Test
+  public void testMerge() {
+    LongCountMap countMap = new LongCountMap();
+    LongCountMap otherCountMap = new LongCountMap();
+    countMap.add(1, 2);
+    countMap.add(Long.MAX_VALUE);
+    otherCountMap.add(1);
+    otherCountMap.add(0, 5);
+    countMap.merge(otherCountMap);
+
+    LongCountMap expectedCountMap = new LongCountMap();
+    expectedCountMap.add(0, 5);
+    expectedCountMap.add(1, 3);
+    expectedCountMap.add(Long.MAX_VALUE, 1);
+    Assertions.assertEquals(expectedCountMap, countMap);
+    Assertions.assertEquals(expectedCountMap.hashCode(), countMap.hashCode());
+    Assertions.assertEquals(9, countMap.getTotalCount());
+  }
+
+  /**
+   * Test retrieving the most frequent keys.
+   */
+  @Test
+  public void testGetTopFrequentKeys() {
+    LongCountMap countMap = new LongCountMap();
+    for (int key = 0; key < 1000; key++) {
+      countMap.add(key, key % 100 + 1);
+    }
+    countMap.add(-5, 1000);
+
+    Assertions.assertArrayEquals(new long[]{-5}, countMap.getTopFrequentKeys(1));
+    long[] topKeys = countMap.getTopFrequentKeys(21);
+    Assertions.assertEquals(-5, topKeys[0]);
+    for (int index = 1; index < topKeys.length; index++) {
+      Assertions.assertTrue(countMap.get(topKeys[index]) <= countMap.get(topKeys[index - 1]));
+      Assertions.assertTrue(countMap.get(topKeys[index]) >= 99);
+    }
+    Assertions.assertEquals(1001, countMap.getTopFrequentKeys(5000).length);
+    Assertions.assertEquals(0, new LongCountMap().getTopFrequentKeys(3).length);
+    Assertions.assertEquals(
+        Arrays.stream(countMap.keys()).boxed().collect(Collectors.toSet()),
+        Arrays.stream(countMap.getTopFrequentKeys(1001)).boxed()
+            .collect(Collectors.toSet())
+    );
+  }
+}
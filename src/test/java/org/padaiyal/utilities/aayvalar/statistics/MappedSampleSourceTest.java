@@ -0,0 +1,180 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test functionality of MappedSampleSource.
+ */
+public class MappedSampleSourceTest {
+
+  /**
+   * Percentiles compared with those of the equivalent arrays.
+   */
+  private static final double[] percentiles = {0, 0.1, 25, 50, 66.6, 99, 100};
+
+  /**
+   * Directory the sample files are written into.
+   */
+  @TempDir
+  Path directory;
+
+  /**
+   * Test that the metrics of mapped doubles are identical to those of the equivalent array, with
+   * every execution policy and with files spanning several mapped regions.
+   *
+   * @param length      The number of values.
+   * @param regionShift The base 2 logarithm of the number of values of each mapped region.
+   * @throws IOException When the sample file can't be written.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "1, 27",
+      "1000, 27",
+      "100003, 14",
+      "100003, 15",
+  })
+  public void testDoubleMetrics(int length, int regionShift) throws IOException {
+    Random random = new Random(length);
+    double[] values = random.doubles(length, -1e6, 1e6)
+        .map(value -> random.nextInt(10) == 0 ? Math.rint(value / 1e5) + 0.0 : value)
+        .toArray();
+    Path path = writeDoubles(values);
+
+    ExecutionPolicy defaultPolicy = StatisticsUtility.getExecutionPolicy();
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      for (ExecutionPolicy policy : new ExecutionPolicy[]{
+          ExecutionPolicy.sequential(),
+          ExecutionPolicy.parallel(),
+          ExecutionPolicy.parallel().withPool(pool)
+      }) {
+        StatisticsUtility.setExecutionPolicy(policy);
+        assertSameMetrics(values, MappedSampleSource.map(path, false, regionShift));
+      }
+    } finally {
+      StatisticsUtility.setExecutionPolicy(defaultPolicy);
+      pool.shutdown();
+    }
+
+    double[] positiveValues = Arrays.stream(values).map(Math::abs).map(value -> value + 1)
+        .toArray();
+    MappedSampleSource positiveSource = MappedSampleSource.ofDoubles(writeDoubles(positiveValues));
+    for (MeanType meanType : new MeanType[]{MeanType.GEOMETRIC, MeanType.HARMONIC}) {
+      Assertions.assertEquals(StatisticsUtility.getMean(positiveValues, meanType),
+          positiveSource.getMean(meanType));
+      Assertions.assertEquals(StatisticsUtility.getVariance(positiveValues, meanType),
+          positiveSource.getVariance(meanType));
+    }
+  }
+
+  /**
+   * Test that the metrics of mapped longs are identical to those of the equivalent array.
+   *
+   * @throws IOException When the sample file can't be written.
+   */
+  @Test
+  public void testLongMetrics() throws IOException {
+    long[] values = new Random(3).longs(50_000, -1_000_000_000_000L, 1_000_000_000_000L)
+        .toArray();
+    values[0] = Long.MIN_VALUE;
+    values[1] = Long.MAX_VALUE;
+    ByteBuffer bytes = ByteBuffer.allocate(values.length * Long.BYTES)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    bytes.asLongBuffer().put(values);
+    Path path = Files.write(directory.resolve("longs.bin"), bytes.array());
+
+    MappedSampleSource source = MappedSampleSource.ofLongs(path);
+    assertSameMetrics(Arrays.stream(values).asDoubleStream().toArray(), source);
+    Assertions.assertArrayEquals(StatisticsUtility.getPercentiles(values, percentiles),
+        source.getPercentiles(percentiles));
+    Assertions.assertArrayEquals(StatisticsUtility.getTopMinValues(values, 3),
+        StatisticsUtility.getTopMinValues(source.stream(), 3));
+  }
+
+  /**
+   * Test that empty and malformed files are handled.
+   *
+   * @throws IOException When the sample file can't be written.
+   */
+  @Test
+  public void testEmptyAndInvalidFiles() throws IOException {
+    MappedSampleSource empty = MappedSampleSource.ofDoubles(writeDoubles(new double[0]));
+    Assertions.assertEquals(0, empty.getCount());
+    Assertions.assertEquals(0, empty.getSum());
+    Assertions.assertEquals(0, empty.getMoments().getCount());
+    Assertions.assertEquals(Double.POSITIVE_INFINITY, empty.getMinValue());
+    Assertions.assertEquals(0, empty.stream().count());
+    Assertions.assertThrows(NoSuchElementException.class,
+        () -> empty.getMean(MeanType.ARITHMETIC));
+    Assertions.assertThrows(NoSuchElementException.class, empty::getMedian);
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> MappedSampleSource.ofDoubles(writeDoubles(new double[]{1})).getPercentile(101));
+
+    Path truncated = Files.write(directory.resolve("truncated.bin"), new byte[12]);
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> MappedSampleSource.ofDoubles(truncated));
+    Assertions.assertThrows(IOException.class,
+        () -> MappedSampleSource.ofLongs(directory.resolve("missing.bin")));
+  }
+
+  /**
+   * Asserts that the metrics of a mapped source are identical to those of an array.
+   *
+   * @param values The values of the source.
+   * @param source The mapped source.
+   */
+  private static void assertSameMetrics(double[] values, MappedSampleSource source) {
+    Assertions.assertEquals(values.length, source.getCount());
+    Assertions.assertEquals(StatisticsUtility.getSum(values), source.getSum());
+    Assertions.assertEquals(StatisticsUtility.getMean(values, MeanType.ARITHMETIC),
+        source.getMean(MeanType.ARITHMETIC));
+    Assertions.assertEquals(StatisticsUtility.getVariance(values, MeanType.ARITHMETIC),
+        source.getVariance(MeanType.ARITHMETIC));
+    Assertions.assertEquals(StatisticsUtility.getStandardDeviation(values, MeanType.ARITHMETIC),
+        source.getStandardDeviation(MeanType.ARITHMETIC));
+    Assertions.assertEquals(StatisticsUtility.getMinValue(values), source.getMinValue());
+    Assertions.assertEquals(StatisticsUtility.getMaxValue(values), source.getMaxValue());
+    DoubleSummaryStatistics expectedSummary = StatisticsUtility.getSummaryStatistics(values);
+    DoubleSummaryStatistics summary = source.getSummaryStatistics();
+    Assertions.assertEquals(expectedSummary.getCount(), summary.getCount());
+    Assertions.assertEquals(expectedSummary.getSum(), summary.getSum());
+    Assertions.assertEquals(StatisticsUtility.getMoments(values).toString(),
+        source.getMoments().toString());
+    Assertions.assertEquals(StatisticsUtility.getSkewness(values), source.getSkewness());
+    Assertions.assertEquals(StatisticsUtility.getKurtosis(values), source.getKurtosis());
+    Assertions.assertEquals(StatisticsUtility.getMedian(values.clone()), source.getMedian());
+    Assertions.assertArrayEquals(StatisticsUtility.getPercentiles(values.clone(), percentiles),
+        source.getPercentiles(percentiles));
+    Assertions.assertArrayEquals(values, source.stream().toArray());
+    Assertions.assertArrayEquals(StatisticsUtility.getTopMaxValues(values, 5),
+        StatisticsUtility.getTopMaxValues(source.stream(), 5));
+  }
+
+  /**
+   * Writes doubles into a sample file.
+   *
+   * @param values The values to write.
+   * @return The path of the file.
+   * @throws IOException When the file can't be written.
+   */
+  private Path writeDoubles(double[] values) throws IOException {
+    ByteBuffer bytes = ByteBuffer.allocate(values.length * Double.BYTES)
+        .order(ByteOrder.LITTLE_ENDIAN);
+    bytes.asDoubleBuffer().put(values);
+    return Files.write(Files.createTempFile(directory, "doubles", ".bin"), bytes.array());
+  }
+}
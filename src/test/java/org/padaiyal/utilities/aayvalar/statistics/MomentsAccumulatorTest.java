@@ -0,0 +1,186 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.converter.ConvertWith;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.padaiyal.utilities.aayvalar.testutils.StringArrayConverter;
+
+/**
+ * Test functionality of MomentsAccumulator.
+ */
+public class MomentsAccumulatorTest {
+
+  /**
+   * Tolerance used when comparing values computed through different summation orders.
+   */
+  private static final double delta = 1e-9;
+
+  /**
+   * Accumulates the provided values sequentially.
+   *
+   * @param values The values to accumulate.
+   * @return The accumulator with the values added.
+   */
+  private MomentsAccumulator accumulate(double[] values) {
+    MomentsAccumulator moments = new MomentsAccumulator();
+    Arrays.stream(values).forEach(moments);
+    return moments;
+  }
+
+  /**
+   * Test the moments computed from known inputs.
+   *
+   * @param expectedMean     The expected mean.
+   * @param expectedVariance The expected population variance.
+   * @param expectedSkewness The expected skewness.
+   * @param expectedKurtosis The expected excess kurtosis.
+   * @param stringValues     The array with the string representation of the values to test.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "5.0,6.666666666666667,0.0,-1.23,'1,2,3,4,5,6,7,8,9'",
+      "3.62,7.5456,0.7120428692474626,-1.0241530645498944,'1.5, 2.3, 0.9, 8.3, 5.1'",
+      "2.0,1.0,0.0,-2.0,'1,3'",
+      "1.0666666666666667,1.5288888888888892,0.9313115383355103,-0.16661032990805857,"
+          + "'0,0,0,1,1,2,2,2,1,0,3,0,4,0,0'"
+  })
+  public void testKnownMoments(double expectedMean, double expectedVariance,
+      double expectedSkewness, double expectedKurtosis,
+      @ConvertWith(StringArrayConverter.class) String[] stringValues) {
+    double[] values = Arrays.stream(stringValues).mapToDouble(Double::parseDouble).toArray();
+    MomentsAccumulator moments = accumulate(values);
+
+    Assertions.assertEquals(values.length, moments.getCount());
+    Assertions.assertEquals(expectedMean, moments.getMean(), delta);
+    Assertions.assertEquals(expectedVariance, moments.getVariance(), delta);
+    Assertions.assertEquals(Math.sqrt(expectedVariance), moments.getStandardDeviation(), delta);
+    Assertions.assertEquals(expectedVariance * values.length / (values.length - 1),
+        moments.getSampleVariance(), delta);
+    Assertions.assertEquals(expectedSkewness, moments.getSkewness(), delta);
+    Assertions.assertEquals(expectedKurtosis, moments.getKurtosis(), delta);
+
+    Assertions.assertEquals(moments.getSkewness(), StatisticsUtility.getSkewness(values), delta);
+    Assertions.assertEquals(moments.getKurtosis(), StatisticsUtility.getKurtosis(values), delta);
+  }
+
+  /**
+   * Test that combining partial accumulators matches accumulating all values sequentially, for
+   * every split point.
+   *
+   * @param seed The seed of the random values to test.
+   */
+  @ParameterizedTest
+  @ValueSource(longs = {1, 42, 1234567})
+  public void testCombineMatchesSequential(long seed) {
+    double[] values = new Random(seed).doubles(64, -1000, 1000).toArray();
+    MomentsAccumulator expected = accumulate(values);
+
+    for (int split = 0; split <= values.length; split++) {
+      MomentsAccumulator left = accumulate(Arrays.copyOfRange(values, 0, split));
+      MomentsAccumulator right = accumulate(
+          Arrays.copyOfRange(values, split, values.length)
+      );
+      left.combine(right);
+
+      Assertions.assertEquals(expected.getCount(), left.getCount());
+      Assertions.assertEquals(expected.getMin(), left.getMin());
+      Assertions.assertEquals(expected.getMax(), left.getMax());
+      Assertions.assertEquals(expected.getMean(), left.getMean(), delta);
+      Assertions.assertEquals(expected.getM2(), left.getM2(), expected.getM2() * delta);
+      Assertions.assertEquals(expected.getM3(), left.getM3(), Math.abs(expected.getM3()) * delta);
+      Assertions.assertEquals(expected.getM4(), left.getM4(), expected.getM4() * delta);
+    }
+
+    MomentsAccumulator parallel = StatisticsUtility.getMoments(
+        Arrays.stream(values).parallel()
+    );
+    Assertions.assertEquals(expected.getVariance(), parallel.getVariance(), delta);
+    Assertions.assertEquals(expected.getKurtosis(), parallel.getKurtosis(), delta);
+  }
+
+  /**
+   * Test that the variance stays accurate when the values have a large common offset, where the
+   * naive sum of squares approach loses all precision.
+   */
+  @Test
+  public void testVarianceWithLargeOffset() {
+    double[] values = {1e9 + 4, 1e9 + 7, 1e9 + 13, 1e9 + 16};
+
+    Assertions.assertEquals(22.5, accumulate(values).getVariance(), delta);
+    Assertions.assertEquals(22.5,
+        StatisticsUtility.getVariance(values, MeanType.ARITHMETIC), delta);
+  }
+
+  /**
+   * Test the variance around a mean other than the arithmetic one.
+   */
+  @Test
+  public void testVarianceAroundCenter() {
+    double[] values = {1.5, 2.3, 0.9, 8.3, 5.1};
+    double geometricMean = StatisticsUtility.getMean(values, MeanType.GEOMETRIC);
+    double expectedVariance = Arrays.stream(values)
+        .map(value -> (value - geometricMean) * (value - geometricMean))
+        .average()
+        .orElseThrow();
+
+    Assertions.assertEquals(expectedVariance, accumulate(values).getVariance(geometricMean),
+        delta);
+  }
+
+  /**
+   * Test the moments of empty and degenerate inputs.
+   */
+  @Test
+  public void testEmptyAndConstantInputs() {
+    MomentsAccumulator empty = new MomentsAccumulator();
+    Assertions.assertEquals(0, empty.getCount());
+    Assertions.assertTrue(Double.isNaN(empty.getMean()));
+    Assertions.assertTrue(Double.isNaN(empty.getVariance()));
+    Assertions.assertTrue(Double.isNaN(empty.getSampleVariance()));
+    Assertions.assertTrue(Double.isNaN(empty.getSkewness()));
+    Assertions.assertEquals(Double.POSITIVE_INFINITY, empty.getMin());
+    Assertions.assertEquals(Double.NEGATIVE_INFINITY, empty.getMax());
+
+    MomentsAccumulator constant = accumulate(new double[]{3, 3, 3});
+    Assertions.assertEquals(3, constant.getMean());
+    Assertions.assertEquals(0, constant.getVariance());
+    Assertions.assertTrue(Double.isNaN(constant.getKurtosis()));
+
+    constant.combine(empty);
+    Assertions.assertEquals(3, constant.getCount());
+    empty.combine(constant);
+    Assertions.assertEquals(3, empty.getCount());
+    Assertions.assertEquals(3, empty.getMean());
+    Assertions.assertEquals(3, empty.getMin());
+    Assertions.assertEquals(3, empty.getMax());
+  }
+
+  /**
+   * Test that the moments of an array range match those of its values added one by one, and that
+   * ranges holding infinite values are accumulated too.
+   */
+  @Test
+  public void testRangeMoments() {
+    double[] values = new Random(5).doubles(1000, -50, 150).toArray();
+    MomentsAccumulator expected = accumulate(Arrays.copyOfRange(values, 10, 990));
+    MomentsAccumulator moments = MomentsAccumulator.of(values, 10, 990);
+    Assertions.assertEquals(expected.getCount(), moments.getCount());
+    Assertions.assertEquals(expected.getMin(), moments.getMin());
+    Assertions.assertEquals(expected.getMax(), moments.getMax());
+    Assertions.assertEquals(expected.getMean(), moments.getMean(), delta);
+    Assertions.assertEquals(expected.getVariance(), moments.getVariance(), 1e-6);
+    Assertions.assertEquals(expected.getSkewness(), moments.getSkewness(), delta);
+    Assertions.assertEquals(expected.getKurtosis(), moments.getKurtosis(), delta);
+
+    Assertions.assertEquals(0, MomentsAccumulator.of(values, 3, 3).getCount());
+    MomentsAccumulator infinite = MomentsAccumulator.of(
+        new double[]{1, Double.POSITIVE_INFINITY, 2}, 0, 3);
+    Assertions.assertEquals(3, infinite.getCount());
+    Assertions.assertEquals(Double.POSITIVE_INFINITY, infinite.getMax());
+  }
+}
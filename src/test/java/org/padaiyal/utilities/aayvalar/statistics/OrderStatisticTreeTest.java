@@ -0,0 +1,60 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test functionality of OrderStatisticTree.
+ */
+public class OrderStatisticTreeTest {
+
+  /**
+   * Test that the tree selects every rank correctly while values, including duplicates, are
+   * added and removed at random.
+   *
+   * @param capacity   The capacity of the tree.
+   * @param operations The number of random additions and removals.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "1, 100",
+      "10, 1000",
+      "200, 20000",
+  })
+  public void testRandomOperations(int capacity, int operations) {
+    Random random = new Random(capacity);
+    OrderStatisticTree tree = new OrderStatisticTree(capacity);
+    double[] values = new double[capacity];
+    int size = 0;
+
+    for (int operation = 0; operation < operations; operation++) {
+      if (size < capacity && (size == 0 || random.nextBoolean())) {
+        double value = random.nextInt(20) - 10;
+        values[size++] = value == 0 && random.nextBoolean() ? Double.NaN : value;
+        tree.add(values[size - 1]);
+      } else {
+        int index = random.nextInt(size);
+        tree.remove(values[index]);
+        values[index] = values[--size];
+      }
+
+      double[] sortedValues = Arrays.copyOf(values, size);
+      Arrays.sort(sortedValues);
+      Assertions.assertEquals(size, tree.size());
+      for (int rank = 0; rank < size; rank++) {
+        Assertions.assertEquals(sortedValues[rank], tree.select(rank));
+      }
+    }
+
+    tree.clear();
+    Assertions.assertEquals(0, tree.size());
+    for (int index = 0; index < capacity; index++) {
+      tree.add(capacity - index);
+    }
+    Assertions.assertEquals(1, tree.select(0));
+    Assertions.assertEquals(capacity, tree.select(capacity - 1));
+  }
+}
@@ -0,0 +1,175 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test functionality of SampleColumn and its variants.
+ */
+public class SampleColumnTest {
+
+  /**
+   * Percentiles compared with those of the equivalent arrays.
+   */
+  private static final double[] percentiles = {0, 1, 50, 99.9, 100};
+
+  /**
+   * Test that the metrics of a column of doubles spanning several buffers are identical to those
+   * of the equivalent array, with every execution policy.
+   *
+   * @param length The number of values.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {1, 20_000, 200_003})
+  public void testDoubleColumn(int length) {
+    double[] values = new Random(length).doubles(length, -1e3, 1e3).toArray();
+    DoubleSampleColumn column = new DoubleSampleColumn();
+    column.add(values[0]);
+    column.addAll(values, 1, length / 2);
+    column.addAll(Arrays.stream(values, length / 2 + 1, length));
+
+    ExecutionPolicy defaultPolicy = StatisticsUtility.getExecutionPolicy();
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      for (ExecutionPolicy policy : new ExecutionPolicy[]{
+          ExecutionPolicy.sequential(),
+          ExecutionPolicy.parallel(),
+          ExecutionPolicy.parallel().withPool(pool)
+      }) {
+        StatisticsUtility.setExecutionPolicy(policy);
+        assertSameMetrics(values, column);
+      }
+    } finally {
+      StatisticsUtility.setExecutionPolicy(defaultPolicy);
+      pool.shutdown();
+    }
+    Assertions.assertEquals(values[length - 1], column.get(length - 1));
+  }
+
+  /**
+   * Test that the metrics of columns of longs and ints are those of the values converted to
+   * doubles.
+   */
+  @Test
+  public void testIntegralColumns() {
+    long[] longValues = new Random(1).longs(150_000, -1L << 60, 1L << 60).toArray();
+    LongSampleColumn longColumn = new LongSampleColumn();
+    longColumn.addAll(longValues);
+    assertSameMetrics(Arrays.stream(longValues).asDoubleStream().toArray(), longColumn);
+    Assertions.assertEquals(longValues[123_456], longColumn.get(123_456));
+
+    int[] intValues = new Random(2).ints(150_000, -1000, 1000).toArray();
+    IntSampleColumn intColumn = new IntSampleColumn();
+    intColumn.addAll(IntStream.of(intValues));
+    assertSameMetrics(Arrays.stream(intValues).asDoubleStream().toArray(), intColumn);
+    Assertions.assertEquals(StatisticsUtility.getMode(intValues),
+        StatisticsUtility.getMode(intColumn.stream()));
+    Assertions.assertEquals(intValues[70_000], intColumn.get(70_000));
+  }
+
+  /**
+   * Test that the spliterator splits at chunk boundaries and covers every value once.
+   */
+  @Test
+  public void testSpliterator() {
+    DoubleSampleColumn column = new DoubleSampleColumn();
+    column.addAll(IntStream.range(0, 100_000).asDoubleStream());
+    Spliterator.OfDouble suffix = column.spliterator();
+    Spliterator.OfDouble prefix = suffix.trySplit();
+    Assertions.assertNotNull(prefix);
+    Assertions.assertEquals(0, prefix.estimateSize() % ChunkedSampleSource.chunkSize);
+    Assertions.assertEquals(100_000, prefix.estimateSize() + suffix.estimateSize());
+    Assertions.assertTrue(prefix.hasCharacteristics(Spliterator.SUBSIZED));
+
+    double[] first = new double[1];
+    Assertions.assertTrue(suffix.tryAdvance((double value) -> first[0] = value));
+    Assertions.assertEquals(prefix.estimateSize(), first[0]);
+
+    Spliterator.OfDouble small = new DoubleSampleColumn().spliterator();
+    Assertions.assertNull(small.trySplit());
+    Assertions.assertEquals(4_999_950_000.0,
+        column.stream().parallel().sum());
+  }
+
+  /**
+   * Test that selecting many percentiles at once, which narrows the digits of each selection
+   * pass, gives the percentiles of the equivalent array, with every execution policy.
+   */
+  @Test
+  public void testManyPercentiles() {
+    double[] values = new Random(3).doubles(150_000, -1e3, 1e3).map(Math::rint).toArray();
+    DoubleSampleColumn column = new DoubleSampleColumn();
+    column.addAll(values);
+
+    ExecutionPolicy defaultPolicy = StatisticsUtility.getExecutionPolicy();
+    try {
+      for (int percentileCount : new int[]{20, 301}) {
+        double[] manyPercentiles = IntStream.range(0, percentileCount)
+            .mapToDouble(index -> 100.0 * index / (percentileCount - 1))
+            .toArray();
+        double[] expectedPercentiles = StatisticsUtility.getPercentiles(values.clone(),
+            manyPercentiles);
+        for (ExecutionPolicy policy : new ExecutionPolicy[]{ExecutionPolicy.sequential(),
+            ExecutionPolicy.parallel()}) {
+          StatisticsUtility.setExecutionPolicy(policy);
+          Assertions.assertArrayEquals(expectedPercentiles,
+              column.getPercentiles(manyPercentiles));
+        }
+      }
+    } finally {
+      StatisticsUtility.setExecutionPolicy(defaultPolicy);
+    }
+  }
+
+  /**
+   * Test that cleared columns are empty and that missing values are rejected.
+   */
+  @Test
+  public void testClearAndInvalidIndices() {
+    LongSampleColumn column = new LongSampleColumn();
+    column.addAll(new long[]{1, 2, 3});
+    Assertions.assertEquals("LongSampleColumn{count=3}", column.toString());
+    Assertions.assertThrows(IndexOutOfBoundsException.class, () -> column.get(3));
+    Assertions.assertThrows(IndexOutOfBoundsException.class, () -> column.get(-1));
+    Assertions.assertThrows(IndexOutOfBoundsException.class,
+        () -> column.addAll(new long[2], 1, 2));
+
+    column.clear();
+    Assertions.assertEquals(0, column.getCount());
+    Assertions.assertEquals(0, column.getSum());
+    Assertions.assertThrows(IndexOutOfBoundsException.class, () -> column.get(0));
+    column.add(7);
+    Assertions.assertEquals(7, column.getMedian());
+  }
+
+  /**
+   * Asserts that the metrics of a column are identical to those of an array.
+   *
+   * @param values The values of the column.
+   * @param column The column.
+   */
+  private static void assertSameMetrics(double[] values, SampleColumn column) {
+    Assertions.assertEquals(values.length, column.getCount());
+    Assertions.assertEquals(StatisticsUtility.getSum(values), column.getSum());
+    Assertions.assertEquals(StatisticsUtility.getMean(values, MeanType.ARITHMETIC),
+        column.getMean(MeanType.ARITHMETIC));
+    Assertions.assertEquals(StatisticsUtility.getVariance(values, MeanType.ARITHMETIC),
+        column.getVariance(MeanType.ARITHMETIC));
+    Assertions.assertEquals(StatisticsUtility.getMinValue(values), column.getMinValue());
+    Assertions.assertEquals(StatisticsUtility.getMaxValue(values), column.getMaxValue());
+    Assertions.assertEquals(StatisticsUtility.getMoments(values).toString(),
+        column.getMoments().toString());
+    Assertions.assertArrayEquals(StatisticsUtility.getPercentiles(values.clone(), percentiles),
+        column.getPercentiles(percentiles));
+    Assertions.assertArrayEquals(values, column.stream().toArray());
+    Assertions.assertArrayEquals(StatisticsUtility.getTopMinValues(values, 3),
+        StatisticsUtility.getTopMinValues(column.stream(), 3));
+  }
+}
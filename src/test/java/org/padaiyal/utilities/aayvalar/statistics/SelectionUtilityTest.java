@@ -0,0 +1,94 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test functionality of SelectionUtility.
+ */
+public class SelectionUtilityTest {
+
+  /**
+   * Generates random values.
+   *
+   * @param seed          The seed of the random values.
+   * @param length        The number of values to generate.
+   * @param distinctCount The number of distinct values to draw from, or 0 for unbounded.
+   * @return The random values.
+   */
+  private double[] generateValues(long seed, int length, int distinctCount) {
+    Random random = new Random(seed);
+    return distinctCount == 0
+        ? random.doubles(length, -1e6, 1e6).toArray()
+        : random.ints(length, 0, distinctCount).asDoubleStream().toArray();
+  }
+
+  /**
+   * Test that selecting several ranks matches sorting, for both the sequential and the parallel
+   * partitioning paths.
+   *
+   * @param seed          The seed of the random values to test.
+   * @param length        The number of values to test.
+   * @param distinctCount The number of distinct values to draw from, or 0 for unbounded.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "1, 1, 0",
+      "2, 17, 0",
+      "3, 1000, 0",
+      "4, 1000, 3",
+      "5, 10000, 0",
+      "6, 300000, 0",
+      "7, 300000, 10",
+      "8, 300000, 1",
+  })
+  public void testSelectAllMatchesSort(long seed, int length, int distinctCount) {
+    double[] values = generateValues(seed, length, distinctCount);
+    double[] sortedValues = values.clone();
+    Arrays.sort(sortedValues);
+
+    int[] ranks = new Random(seed).ints(8, 0, length).sorted().toArray();
+    SelectionUtility.selectAll(values, 0, length, ranks);
+    for (int rank : ranks) {
+      Assertions.assertEquals(sortedValues[rank], values[rank]);
+      for (int index = 0; index < rank; index++) {
+        Assertions.assertTrue(values[index] <= values[rank]);
+      }
+      for (int index = rank + 1; index < length; index++) {
+        Assertions.assertTrue(values[index] >= values[rank]);
+      }
+    }
+
+    double[] remainingValues = values.clone();
+    Arrays.sort(remainingValues);
+    Assertions.assertArrayEquals(sortedValues, remainingValues);
+  }
+
+  /**
+   * Test that selection only rearranges the provided range.
+   */
+  @Test
+  public void testSelectWithinRange() {
+    double[] values = {100, 5, 4, 3, 2, 1, -100};
+
+    Assertions.assertEquals(3, SelectionUtility.select(values, 1, 6, 3));
+    Assertions.assertEquals(100, values[0]);
+    Assertions.assertEquals(-100, values[6]);
+  }
+
+  /**
+   * Test that NaN values are ordered after every other value.
+   */
+  @Test
+  public void testSelectWithNan() {
+    double[] values = {Double.NaN, 3, Double.NaN, 1, 2};
+
+    Assertions.assertEquals(1, SelectionUtility.select(values.clone(), 0, 5, 0));
+    Assertions.assertEquals(3, SelectionUtility.select(values.clone(), 0, 5, 2));
+    Assertions.assertTrue(Double.isNaN(SelectionUtility.select(values.clone(), 0, 5, 4)));
+  }
+}
@@ -0,0 +1,89 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test functionality of SlidingWindowPercentiles.
+ */
+public class SlidingWindowPercentilesTest {
+
+  /**
+   * Percentiles compared with StatisticsUtility.
+   */
+  private static final double[] percentiles = {0, 1, 25, 50, 95, 99.9, 100};
+
+  /**
+   * Test that a count-based window matches StatisticsUtility on its values after every value.
+   *
+   * @param capacity    The capacity of the window.
+   * @param valuesCount The number of values added.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "1, 10",
+      "2, 100",
+      "9, 1000",
+      "1000, 5000",
+  })
+  public void testCountWindow(int capacity, int valuesCount) {
+    Random random = new Random(capacity);
+    double[] values = random.ints(valuesCount, 0, 50).asDoubleStream().toArray();
+    SlidingWindowPercentiles window = SlidingWindowPercentiles.ofCount(capacity);
+    Assertions.assertTrue(Double.isNaN(window.getMedian()));
+
+    for (int i = 0; i < valuesCount; i++) {
+      window.accept(values[i]);
+      double[] windowValues = Arrays.copyOfRange(values, Math.max(0, i + 1 - capacity), i + 1);
+      Assertions.assertArrayEquals(windowValues, window.toArray());
+      Assertions.assertArrayEquals(
+          StatisticsUtility.getPercentiles(windowValues, percentiles),
+          window.getPercentiles(percentiles)
+      );
+      Assertions.assertEquals(StatisticsUtility.getMedian(windowValues), window.getMedian());
+      Assertions.assertEquals(StatisticsUtility.getMinValue(windowValues), window.getMin());
+      Assertions.assertEquals(StatisticsUtility.getMaxValue(windowValues), window.getMax());
+    }
+  }
+
+  /**
+   * Test that a time-based window only reports the percentiles of its recent values.
+   */
+  @Test
+  public void testTimeWindow() {
+    SlidingWindowPercentiles window = SlidingWindowPercentiles.ofTimeSpan(100, 1000);
+    for (int timestamp = 0; timestamp < 300; timestamp++) {
+      window.add(timestamp, timestamp);
+    }
+    Assertions.assertEquals(100, window.getCount());
+    Assertions.assertEquals(249.5, window.getMedian());
+    Assertions.assertEquals(200, window.getPercentile(0));
+
+    window.advanceTo(398);
+    Assertions.assertEquals(299, window.getMedian());
+    window.clear();
+    Assertions.assertEquals(0, window.getCount());
+    Assertions.assertTrue(Double.isNaN(window.getPercentile(99)));
+  }
+
+  /**
+   * Test that invalid percentiles are rejected.
+   *
+   * @param percentile An invalid percentile.
+   */
+  @ParameterizedTest
+  @ValueSource(doubles = {-1, 100.5, Double.NaN})
+  public void testInvalidPercentiles(double percentile) {
+    SlidingWindowPercentiles window = SlidingWindowPercentiles.ofCount(3);
+    window.accept(1);
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> window.getPercentile(percentile));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> SlidingWindowPercentiles.ofTimeSpan(0, 3));
+  }
+}
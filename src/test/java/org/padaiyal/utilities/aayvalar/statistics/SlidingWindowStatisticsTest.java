@@ -0,0 +1,157 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Test functionality of SlidingWindowStatistics.
+ */
+public class SlidingWindowStatisticsTest {
+
+  /**
+   * Relative tolerance used when comparing the window with a recomputation over its values.
+   */
+  private static final double relativeDelta = 1e-9;
+
+  /**
+   * Asserts that the statistics of a window match those computed over its values.
+   *
+   * @param window         The window.
+   * @param expectedValues The values expected in the window, oldest first.
+   */
+  private static void assertWindowMatches(SlidingWindowStatistics window,
+      double[] expectedValues) {
+    Assertions.assertArrayEquals(expectedValues, window.toArray());
+    Assertions.assertEquals(expectedValues.length, window.getCount());
+    if (expectedValues.length == 0) {
+      Assertions.assertTrue(Double.isNaN(window.getMean()));
+      return;
+    }
+    double mean = StatisticsUtility.getMean(expectedValues, MeanType.ARITHMETIC);
+    double variance = StatisticsUtility.getVariance(expectedValues, MeanType.ARITHMETIC);
+    Assertions.assertEquals(mean, window.getMean(), Math.abs(mean) * relativeDelta + 1e-12);
+    Assertions.assertEquals(variance, window.getVariance(), variance * relativeDelta + 1e-12);
+    Assertions.assertEquals(StatisticsUtility.getMinValue(expectedValues), window.getMin());
+    Assertions.assertEquals(StatisticsUtility.getMaxValue(expectedValues), window.getMax());
+  }
+
+  /**
+   * Test that a count-based window matches a recomputation over its values after every value.
+   *
+   * @param capacity    The capacity of the window.
+   * @param valuesCount The number of values added.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "1, 10",
+      "2, 100",
+      "7, 1000",
+      "64, 5000",
+  })
+  public void testCountWindow(int capacity, int valuesCount) {
+    double[] values = new Random(capacity).doubles(valuesCount, -50, 50).toArray();
+    SlidingWindowStatistics window = SlidingWindowStatistics.ofCount(capacity);
+    Assertions.assertEquals(capacity, window.getCapacity());
+    assertWindowMatches(window, new double[0]);
+
+    for (int i = 0; i < valuesCount; i++) {
+      window.accept(values[i]);
+      assertWindowMatches(window, Arrays.copyOfRange(values, Math.max(0, i + 1 - capacity), i + 1));
+    }
+  }
+
+  /**
+   * Test that a time-based window evicts values once they are older than its time span, and
+   * when it is full.
+   */
+  @Test
+  public void testTimeWindow() {
+    SlidingWindowStatistics window = SlidingWindowStatistics.ofTimeSpan(10, 3);
+    window.add(0, 1);
+    window.add(5, 2);
+    window.add(9, 3);
+    assertWindowMatches(window, new double[]{1, 2, 3});
+
+    window.add(10, 4);
+    assertWindowMatches(window, new double[]{2, 3, 4});
+    window.add(11, 5);
+    assertWindowMatches(window, new double[]{3, 4, 5});
+
+    window.advanceTo(19);
+    assertWindowMatches(window, new double[]{4, 5});
+    window.advanceTo(21);
+    assertWindowMatches(window, new double[0]);
+
+    window.accept(6);
+    assertWindowMatches(window, new double[]{6});
+    Assertions.assertThrows(IllegalArgumentException.class, () -> window.add(20, 7));
+  }
+
+  /**
+   * Test that the mean and variance stay accurate over many evictions of values far larger than
+   * their spread.
+   */
+  @Test
+  public void testRemoveIsNumericallyStable() {
+    Random random = new Random(5);
+    SlidingWindowStatistics window = SlidingWindowStatistics.ofCount(100);
+    double[] values = new double[1_000_000];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = (i / 1000 % 2 == 0 ? 1e9 : -1e3) + random.nextDouble();
+      window.accept(values[i]);
+    }
+    assertWindowMatches(window, Arrays.copyOfRange(values, values.length - 100, values.length));
+  }
+
+  /**
+   * Test that NaN and infinite values only affect the statistics while they are in the window.
+   */
+  @Test
+  public void testNonFiniteValues() {
+    SlidingWindowStatistics window = SlidingWindowStatistics.ofCount(3);
+    window.accept(1);
+    window.accept(Double.POSITIVE_INFINITY);
+    Assertions.assertEquals(Double.POSITIVE_INFINITY, window.getMean());
+    Assertions.assertEquals(Double.POSITIVE_INFINITY, window.getMax());
+    Assertions.assertTrue(Double.isNaN(window.getVariance()));
+
+    window.accept(Double.NaN);
+    Assertions.assertTrue(Double.isNaN(window.getMean()));
+    Assertions.assertTrue(Double.isNaN(window.getMax()));
+    Assertions.assertEquals(1, window.getMin());
+
+    window.accept(2);
+    window.accept(3);
+    window.accept(4);
+    assertWindowMatches(window, new double[]{2, 3, 4});
+    Assertions.assertEquals(9, window.getSum());
+
+    window.clear();
+    assertWindowMatches(window, new double[0]);
+    Assertions.assertEquals(0, window.getSum());
+  }
+
+  /**
+   * Test that invalid windows are rejected.
+   *
+   * @param capacity An invalid capacity.
+   * @param timeSpan An invalid time span.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "0, 0",
+      "-1, -10",
+  })
+  public void testInvalidWindows(int capacity, long timeSpan) {
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> SlidingWindowStatistics.ofCount(capacity));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> SlidingWindowStatistics.ofTimeSpan(10, capacity));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> SlidingWindowStatistics.ofTimeSpan(timeSpan, 10));
+  }
+}
@@ -0,0 +1,179 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test functionality of SpaceSavingSketch.
+ */
+public class SpaceSavingSketchTest {
+
+  /**
+   * Draws values whose frequencies decrease geometrically, so that a few values are heavy hitters
+   * among many rare ones.
+   *
+   * @param seed   The seed of the random values.
+   * @param length The number of values to draw.
+   * @return The values.
+   */
+  private static double[] getSkewedValues(long seed, int length) {
+    Random random = new Random(seed);
+    double[] values = new double[length];
+    for (int index = 0; index < length; index++) {
+      values[index] = random.nextBoolean()
+          ? Long.numberOfTrailingZeros(random.nextLong() | Long.MIN_VALUE)
+          : random.nextInt(1_000_000) + 0.5;
+    }
+    return values;
+  }
+
+  /**
+   * Asserts that the estimates of a sketch bound the actual counts and that every value more
+   * frequent than the maximum error is reported.
+   *
+   * @param sketch         The sketch to check.
+   * @param expectedCounts The actual counts of the values added to the sketch.
+   */
+  private static void assertBounds(SpaceSavingSketch sketch, Map<Double, Long> expectedCounts) {
+    long totalCount = expectedCounts.values().stream().mapToLong(Long::longValue).sum();
+    long errorBound = totalCount / sketch.getCapacity();
+    Assertions.assertEquals(totalCount, sketch.getTotalCount());
+    Assertions.assertTrue(sketch.getMaximumError() <= errorBound);
+
+    List<HeavyHitter<Double>> heavyHitters = sketch.getHeavyHitters(sketch.getCapacity());
+    for (int index = 0; index < heavyHitters.size(); index++) {
+      HeavyHitter<Double> heavyHitter = heavyHitters.get(index);
+      long actualCount = expectedCounts.getOrDefault(heavyHitter.getValue(), 0L);
+      Assertions.assertTrue(heavyHitter.getGuaranteedCount() <= actualCount, heavyHitter::toString);
+      Assertions.assertTrue(heavyHitter.getCount() >= actualCount, heavyHitter::toString);
+      Assertions.assertTrue(heavyHitter.getError() <= errorBound, heavyHitter::toString);
+      Assertions.assertEquals(heavyHitter.getCount(),
+          sketch.estimateCount(heavyHitter.getValue()));
+      if (index > 0) {
+        Assertions.assertTrue(heavyHitter.getCount() <= heavyHitters.get(index - 1).getCount());
+      }
+    }
+    expectedCounts.forEach((value, count) -> {
+      if (count > errorBound) {
+        Assertions.assertTrue(
+            heavyHitters.stream().anyMatch(heavyHitter -> heavyHitter.getValue().equals(value)),
+            value::toString
+        );
+      }
+    });
+  }
+
+  /**
+   * Test that the estimates of a sketch bound the actual counts.
+   *
+   * @param seed     The seed of the random values to test.
+   * @param length   The number of values to add.
+   * @param capacity The number of counters of the sketch.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "1, 0, 1",
+      "2, 1000, 1",
+      "3, 100000, 10",
+      "4, 100000, 100",
+      "5, 200000, 1000",
+  })
+  public void testEstimatesBoundActualCounts(long seed, int length, int capacity) {
+    Map<Double, Long> expectedCounts = new HashMap<>();
+    SpaceSavingSketch sketch = new SpaceSavingSketch(capacity);
+    for (double value : getSkewedValues(seed, length)) {
+      expectedCounts.merge(value, 1L, Long::sum);
+      sketch.add(value);
+    }
+    assertBounds(sketch, expectedCounts);
+  }
+
+  /**
+   * Test that merging sketches of parts of the input preserves the bounds of the estimates.
+   *
+   * @param parts The number of parts to sketch separately.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2, 7, 64})
+  public void testMergePreservesBounds(int parts) {
+    double[] values = getSkewedValues(parts, 100_000);
+    Map<Double, Long> expectedCounts = new HashMap<>();
+    SpaceSavingSketch sketch = SpaceSavingSketch.withMaximumError(0.01);
+    for (int part = 0; part < parts; part++) {
+      SpaceSavingSketch partSketch = SpaceSavingSketch.withMaximumError(0.01);
+      for (int index = part; index < values.length; index += parts) {
+        expectedCounts.merge(values[index], 1L, Long::sum);
+        partSketch.add(values[index]);
+      }
+      sketch.merge(partSketch);
+    }
+
+    Assertions.assertEquals(100, sketch.getCapacity());
+    assertBounds(sketch, expectedCounts);
+    Assertions.assertEquals(0.0, sketch.getHeavyHitters(1).get(0).getValue());
+  }
+
+  /**
+   * Test that the counts are exact while the number of distinct values fits in the sketch.
+   */
+  @Test
+  public void testExactWhileNotFull() {
+    SpaceSavingSketch sketch = new SpaceSavingSketch(4);
+    SpaceSavingSketch otherSketch = new SpaceSavingSketch(4);
+    sketch.add(1.5, 3);
+    sketch.add(Double.NaN);
+    otherSketch.add(-0.0, 2);
+    otherSketch.add(1.5);
+    sketch.merge(otherSketch);
+
+    Assertions.assertEquals(
+        List.of(
+            new HeavyHitter<>(1.5, 4, 0),
+            new HeavyHitter<>(-0.0, 2, 0),
+            new HeavyHitter<>(Double.NaN, 1, 0)
+        ),
+        sketch.getHeavyHitters(5)
+    );
+    Assertions.assertEquals(0, sketch.getMaximumError());
+    Assertions.assertEquals(0, sketch.estimateCount(0.0));
+    Assertions.assertEquals(7, sketch.getTotalCount());
+  }
+
+  /**
+   * Test that evicting values keeps every tracked value reachable.
+   */
+  @Test
+  public void testEvictionKeepsIndexConsistent() {
+    SpaceSavingSketch sketch = new SpaceSavingSketch(10);
+    for (int value = 0; value < 10_000; value++) {
+      sketch.add(value % 2 == 0 ? -1 : value);
+    }
+    List<HeavyHitter<Double>> heavyHitters = sketch.getHeavyHitters(3);
+    Assertions.assertEquals(3, heavyHitters.size());
+    Assertions.assertEquals(-1.0, heavyHitters.get(0).getValue());
+    heavyHitters.forEach(heavyHitter -> Assertions.assertEquals(heavyHitter.getCount(),
+        sketch.estimateCount(heavyHitter.getValue())));
+  }
+
+  /**
+   * Test creating sketches with invalid bounds.
+   */
+  @Test
+  public void testInvalidBounds() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new SpaceSavingSketch(0));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> SpaceSavingSketch.withMaximumError(0));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> SpaceSavingSketch.withMaximumError(1.5));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> SpaceSavingSketch.withMaximumError(Double.NaN));
+    Assertions.assertEquals(1, SpaceSavingSketch.withMaximumError(1).getCapacity());
+  }
+}
@@ -0,0 +1,269 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test functionality of StatisticsCollectors.
+ */
+public class StatisticsCollectorsTest {
+
+  /**
+   * Tolerance used when comparing values computed through different summation orders.
+   */
+  private static final double delta = 1e-9;
+
+  /**
+   * Creates a stream of the provided values, sequential or parallel.
+   *
+   * @param values   The values of the stream.
+   * @param parallel Whether the stream is parallel.
+   * @return The stream of boxed values.
+   */
+  private static Stream<Double> stream(double[] values, boolean parallel) {
+    Stream<Double> stream = Arrays.stream(values).boxed();
+    return parallel ? stream.parallel() : stream;
+  }
+
+  /**
+   * Test that the collectors match StatisticsUtility on sequential and parallel streams.
+   *
+   * @param parallel Whether the streams are parallel.
+   */
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  public void testCollectorsMatchStatisticsUtility(boolean parallel) {
+    double[] values = new Random(3).doubles(50_000, 0.5, 100).toArray();
+
+    MomentsAccumulator moments = stream(values, parallel)
+        .collect(StatisticsCollectors.toMoments());
+    Assertions.assertEquals(values.length, moments.getCount());
+    Assertions.assertEquals(StatisticsUtility.getMinValue(values), moments.getMin());
+    Assertions.assertEquals(StatisticsUtility.getMaxValue(values), moments.getMax());
+    Assertions.assertEquals(StatisticsUtility.getVariance(values, MeanType.ARITHMETIC),
+        moments.getVariance(), delta);
+    Assertions.assertEquals(StatisticsUtility.getKurtosis(values), moments.getKurtosis(), delta);
+
+    DoubleSummaryStatistics summaryStatistics = stream(values, parallel)
+        .collect(StatisticsCollectors.toSummaryStatistics());
+    Assertions.assertEquals(values.length, summaryStatistics.getCount());
+    Assertions.assertEquals(StatisticsUtility.getSum(values), summaryStatistics.getSum(), delta);
+
+    for (MeanType meanType : List.of(MeanType.ARITHMETIC, MeanType.GEOMETRIC,
+        MeanType.HARMONIC)) {
+      Assertions.assertEquals(StatisticsUtility.getMean(values, meanType),
+          stream(values, parallel).collect(StatisticsCollectors.toMean(meanType)), delta);
+    }
+
+    Assertions.assertArrayEquals(StatisticsUtility.getTopMaxValues(values, 7),
+        stream(values, parallel).collect(StatisticsCollectors.toTopMaxValues(7)));
+    Assertions.assertArrayEquals(StatisticsUtility.getTopMinValues(values, 7),
+        stream(values, parallel).collect(StatisticsCollectors.toTopMinValues(7)));
+
+    TDigest digest = stream(values, parallel)
+        .collect(StatisticsCollectors.toQuantileSketch());
+    Assertions.assertEquals(values.length, digest.getCount());
+    Assertions.assertEquals(StatisticsUtility.getMedian(values), digest.quantile(0.5), 1);
+
+    StatisticsQuery query = StatisticsQuery.of(Statistic.MEDIAN, Statistic.MEAN)
+        .withPercentiles(99);
+    StatisticsReport report = stream(values, parallel)
+        .collect(StatisticsCollectors.toReport(query));
+    Assertions.assertEquals(StatisticsUtility.getMedian(values), report.getMedian());
+    Assertions.assertEquals(StatisticsUtility.getPercentile(values, 99),
+        report.getPercentile(99));
+    Assertions.assertEquals(StatisticsUtility.getMean(values, MeanType.ARITHMETIC),
+        report.getMean(), delta);
+  }
+
+  /**
+   * Test the frequency table collector on sequential and parallel streams of integers.
+   *
+   * @param parallel Whether the stream is parallel.
+   */
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  public void testFrequencyTable(boolean parallel) {
+    List<Integer> values = IntStream.range(0, 10_000)
+        .map(value -> value % 7)
+        .boxed()
+        .collect(Collectors.toList());
+    DoubleCountMap frequencyTable = (parallel ? values.parallelStream() : values.stream())
+        .collect(StatisticsCollectors.toFrequencyTable());
+
+    Assertions.assertEquals(7, frequencyTable.size());
+    Assertions.assertEquals(10_000, frequencyTable.getTotalCount());
+    Assertions.assertEquals(1429, frequencyTable.get(0));
+    Assertions.assertEquals(1428, frequencyTable.get(6));
+  }
+
+  /**
+   * Test the collectors as downstream collectors of groupingBy.
+   */
+  @Test
+  public void testDownstreamCollectors() {
+    List<String> words = List.of("a", "bb", "cc", "ddd", "eee", "fff", "gggg");
+    Map<Character, Double> meanLengths = words.parallelStream().collect(Collectors.groupingBy(
+        word -> word.length() % 2 == 0 ? 'e' : 'o',
+        StatisticsCollectors.toMean(MeanType.ARITHMETIC, String::length)
+    ));
+    Assertions.assertEquals(Map.of('e', 8 / 3.0, 'o', 10 / 4.0), meanLengths);
+
+    Map<Integer, double[]> longestWords = words.stream().collect(Collectors.groupingBy(
+        word -> word.length() / 3,
+        StatisticsCollectors.toTopMaxValues(1, word -> word.charAt(0))
+    ));
+    Assertions.assertArrayEquals(new double[]{'c'}, longestWords.get(0));
+    Assertions.assertArrayEquals(new double[]{'g'}, longestWords.get(1));
+
+    Map<Boolean, StatisticsReport> reports = words.stream().collect(Collectors.partitioningBy(
+        word -> word.length() > 2,
+        StatisticsCollectors.toReport(StatisticsQuery.of(Statistic.COUNT), String::length)
+    ));
+    Assertions.assertEquals(3, reports.get(false).getCount());
+    Assertions.assertEquals(4, reports.get(true).getCount());
+
+    Map<Integer, MomentsAccumulator> moments = words.stream().collect(Collectors.groupingBy(
+        String::length,
+        StatisticsCollectors.toMoments(word -> word.charAt(0))
+    ));
+    Assertions.assertEquals(1, moments.get(1).getCount());
+    Assertions.assertEquals('e', moments.get(3).getMean());
+
+    Map<Integer, TDigest> digests = words.stream().collect(Collectors.groupingBy(
+        String::length,
+        StatisticsCollectors.toQuantileSketch(50, word -> word.charAt(0))
+    ));
+    Assertions.assertEquals('f', digests.get(3).getMax());
+  }
+
+  /**
+   * Test that the grouped statistics collector aggregates each group like a groupingBy of the
+   * moments collector.
+   *
+   * @param parallel Whether the stream is parallel.
+   */
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  public void testGroupedStatistics(boolean parallel) {
+    List<Integer> values = IntStream.range(0, 50_000).boxed().collect(Collectors.toList());
+    Map<Integer, GroupAccumulator> groups = (parallel ? values.parallelStream() : values.stream())
+        .collect(StatisticsCollectors.toGroupedStatistics(
+            GroupedStatistics.of().withTopMaxValues(2),
+            value -> value % 100,
+            value -> value
+        ));
+    Map<Integer, MomentsAccumulator> moments = values.stream().collect(Collectors.groupingBy(
+        value -> value % 100,
+        StatisticsCollectors.toMoments(value -> value)
+    ));
+
+    Assertions.assertEquals(moments.keySet(), groups.keySet());
+    moments.forEach((key, groupMoments) -> {
+      Assertions.assertEquals(groupMoments.getCount(), groups.get(key).getCount());
+      Assertions.assertEquals(groupMoments.getMean(), groups.get(key).getMean(), 1e-9);
+      Assertions.assertEquals(groupMoments.getVariance(), groups.get(key).getVariance(), 1e-3);
+      Assertions.assertArrayEquals(new double[]{49_900 + key, 49_800 + key},
+          groups.get(key).getTopMaxValues());
+    });
+    Assertions.assertThrows(NullPointerException.class,
+        () -> StatisticsCollectors.toGroupedStatistics(null, value -> value, value -> 0));
+  }
+
+  /**
+   * Test that the co-moments collectors of rows and of mapped columns accumulate the same
+   * co-moments as adding the rows to an accumulator.
+   *
+   * @param parallel Whether the stream is parallel.
+   */
+  @ParameterizedTest
+  @ValueSource(booleans = {false, true})
+  public void testCoMoments(boolean parallel) {
+    List<Integer> values = IntStream.range(0, 50_000).boxed().collect(Collectors.toList());
+    CovarianceAccumulator expectedCoMoments = new CovarianceAccumulator(3);
+    values.forEach(value -> expectedCoMoments.accept(
+        new double[]{value, value % 7, -2.0 * value}));
+
+    CovarianceAccumulator rowCoMoments = (parallel ? values.parallelStream() : values.stream())
+        .map(value -> new double[]{value, value % 7, -2.0 * value})
+        .collect(StatisticsCollectors.toCoMoments(3));
+    List<ToDoubleFunction<Integer>> mappers = List.of(
+        value -> value,
+        value -> value % 7,
+        value -> -2.0 * value
+    );
+    CovarianceAccumulator mappedCoMoments = (parallel ? values.parallelStream() : values.stream())
+        .collect(StatisticsCollectors.toCoMoments(mappers));
+
+    for (CovarianceAccumulator coMoments : List.of(rowCoMoments, mappedCoMoments)) {
+      Assertions.assertEquals(values.size(), coMoments.getCount());
+      Assertions.assertArrayEquals(expectedCoMoments.getMeans(), coMoments.getMeans(), 1e-9);
+      for (int column = 0; column < 3; column++) {
+        Assertions.assertArrayEquals(expectedCoMoments.getCovarianceMatrix()[column],
+            coMoments.getCovarianceMatrix()[column], 1e-3);
+      }
+      Assertions.assertEquals(-1, coMoments.getCorrelation(0, 2), 1e-12);
+    }
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> StatisticsCollectors.toCoMoments(0));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> StatisticsCollectors.toCoMoments(List.of()));
+  }
+
+  /**
+   * Test the results of the collectors on empty streams.
+   */
+  @Test
+  public void testEmptyStreams() {
+    Assertions.assertEquals(0,
+        Stream.<Number>empty().collect(StatisticsCollectors.toMoments()).getCount());
+    Assertions.assertTrue(Double.isNaN(
+        Stream.<Number>empty().collect(StatisticsCollectors.toMean(MeanType.HARMONIC))));
+    Assertions.assertEquals(0,
+        Stream.<Number>empty().collect(StatisticsCollectors.toTopMaxValues(3)).length);
+    Assertions.assertEquals(0,
+        Stream.<Number>empty().collect(StatisticsCollectors.toFrequencyTable()).size());
+    Assertions.assertThrows(NoSuchElementException.class,
+        () -> Stream.<Number>empty().collect(
+            StatisticsCollectors.toReport(StatisticsQuery.of(Statistic.MEAN))));
+  }
+
+  /**
+   * Test that invalid parameters are rejected when the collectors are created.
+   *
+   * @param topNumbers  An invalid number of top values.
+   * @param compression An invalid compression.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "0, 0",
+      "-1, 1e7",
+  })
+  public void testInvalidParameters(int topNumbers, double compression) {
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> StatisticsCollectors.toTopMaxValues(topNumbers));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> StatisticsCollectors.toTopMinValues(topNumbers, Double::doubleValue));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> StatisticsCollectors.toQuantileSketch(compression, Double::doubleValue));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> StatisticsCollectors.toMean(MeanType.DONOTUSE));
+    Assertions.assertThrows(NullPointerException.class,
+        () -> StatisticsCollectors.toReport(null));
+    Assertions.assertThrows(NullPointerException.class,
+        () -> StatisticsCollectors.toMoments(null));
+  }
+}
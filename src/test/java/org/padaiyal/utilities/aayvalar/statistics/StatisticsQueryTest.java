@@ -0,0 +1,255 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.stream.DoubleStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test functionality of StatisticsQuery and StatisticsReport.
+ */
+public class StatisticsQueryTest {
+
+  /**
+   * Test that every statistic of a report matches the same statistic computed on its own.
+   *
+   * @param length        The number of values.
+   * @param higherMoments Whether the skewness and kurtosis are requested.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "1, false",
+      "2, true",
+      "9, false",
+      "1000, true",
+      "100003, false",
+      "100003, true",
+  })
+  public void testComputeMatchesStatisticsUtility(int length, boolean higherMoments) {
+    double[] values = new Random(length).doubles(length, -100, 1000).toArray();
+    double[] originalValues = values.clone();
+    StatisticsQuery query = StatisticsQuery.of(
+        Statistic.COUNT,
+        Statistic.SUM,
+        Statistic.MIN,
+        Statistic.MAX,
+        Statistic.MEAN,
+        Statistic.VARIANCE,
+        Statistic.STANDARD_DEVIATION,
+        Statistic.MEDIAN
+    )
+        .withPercentiles(0, 25, 99.9, 100)
+        .withTopMaxValues(5)
+        .withTopMinValues(length + 1);
+    if (higherMoments) {
+      query = query.with(Statistic.SKEWNESS, Statistic.KURTOSIS);
+    }
+    StatisticsReport report = query.compute(values);
+    Assertions.assertArrayEquals(originalValues, values);
+
+    Assertions.assertEquals(length, report.getCount());
+    Assertions.assertEquals(StatisticsUtility.getSum(values), report.getSum());
+    Assertions.assertEquals(StatisticsUtility.getMinValue(values), report.getMinValue());
+    Assertions.assertEquals(StatisticsUtility.getMaxValue(values), report.getMaxValue());
+    Assertions.assertEquals(StatisticsUtility.getMean(values, MeanType.ARITHMETIC), report.getMean());
+    Assertions.assertEquals(StatisticsUtility.getVariance(values, MeanType.ARITHMETIC),
+        report.getVariance());
+    Assertions.assertEquals(StatisticsUtility.getStandardDeviation(values, MeanType.ARITHMETIC),
+        report.getStandardDeviation());
+    Assertions.assertEquals(StatisticsUtility.getMedian(values), report.getMedian());
+    Assertions.assertArrayEquals(
+        StatisticsUtility.getPercentiles(values, 0, 25, 99.9, 100),
+        new double[]{
+            report.getPercentile(0),
+            report.getPercentile(25),
+            report.getPercentile(99.9),
+            report.getPercentile(100)
+        }
+    );
+    Assertions.assertEquals(List.of(0.0, 25.0, 99.9, 100.0),
+        List.copyOf(report.getPercentiles().keySet()));
+    Assertions.assertArrayEquals(StatisticsUtility.getTopMaxValues(values, 5),
+        report.getTopMaxValues());
+    Assertions.assertArrayEquals(StatisticsUtility.getTopMinValues(values, length + 1),
+        report.getTopMinValues());
+    Assertions.assertEquals(higherMoments, report.contains(Statistic.SKEWNESS));
+    if (higherMoments) {
+      Assertions.assertEquals(StatisticsUtility.getSkewness(values), report.getSkewness());
+      Assertions.assertEquals(StatisticsUtility.getKurtosis(values), report.getKurtosis());
+    }
+  }
+
+  /**
+   * Test that only the requested statistics are reported.
+   */
+  @Test
+  public void testOnlyRequestedStatisticsAreReported() {
+    StatisticsReport report = StatisticsQuery.of(Statistic.MEAN)
+        .compute(new double[]{1, 2, 3, 4});
+    Assertions.assertEquals(2.5, report.getMean());
+    Assertions.assertEquals(2.5, report.get(Statistic.MEAN));
+    Assertions.assertTrue(report.contains(Statistic.MEAN));
+    Assertions.assertFalse(report.contains(Statistic.SUM));
+    Assertions.assertThrows(IllegalStateException.class, report::getSum);
+    Assertions.assertThrows(IllegalStateException.class, report::getMedian);
+    Assertions.assertThrows(IllegalStateException.class, () -> report.getPercentile(50));
+    Assertions.assertThrows(IllegalStateException.class, report::getTopMaxValues);
+    Assertions.assertThrows(IllegalStateException.class, report::getTopMinValues);
+    Assertions.assertEquals(
+        "The statistic was not requested - percentile 50.0.",
+        Assertions.assertThrows(IllegalStateException.class, () -> report.getPercentile(50))
+            .getMessage()
+    );
+    Assertions.assertEquals(
+        "The statistic was not requested - top max values.",
+        Assertions.assertThrows(IllegalStateException.class, report::getTopMaxValues).getMessage()
+    );
+    Assertions.assertTrue(report.getPercentiles().isEmpty());
+
+    StatisticsReport orderReport = StatisticsQuery.of()
+        .withPercentiles(50)
+        .withTopMinValues(2)
+        .compute(new int[]{4, 3, 2, 1});
+    Assertions.assertEquals(2.5, orderReport.getPercentile(50));
+    Assertions.assertArrayEquals(new double[]{1, 2}, orderReport.getTopMinValues());
+    Assertions.assertThrows(IllegalStateException.class, orderReport::getMean);
+  }
+
+  /**
+   * Test computing the statistics of the different input types.
+   */
+  @Test
+  public void testComputeInputTypes() {
+    StatisticsQuery query = StatisticsQuery.of(Statistic.SUM, Statistic.MEDIAN)
+        .withTopMaxValues(2);
+    for (StatisticsReport report : List.of(
+        query.compute(List.of(1, 5, 3)),
+        query.compute(new double[]{9, 1, 5, 3, 9}, 1, 3),
+        query.compute(DoubleStream.of(1, 5, 3)),
+        query.compute(new long[]{1, 5, 3}),
+        query.compute(new int[]{1, 5, 3})
+    )) {
+      Assertions.assertEquals(9, report.getSum());
+      Assertions.assertEquals(3, report.getMedian());
+      Assertions.assertArrayEquals(new double[]{5, 3}, report.getTopMaxValues());
+    }
+  }
+
+  /**
+   * Test that queries are immutable and accumulate their declarations.
+   */
+  @Test
+  public void testQueryIsImmutable() {
+    StatisticsQuery query = StatisticsQuery.of(Statistic.MEAN);
+    StatisticsQuery extendedQuery = query.with(Statistic.MAX)
+        .withPercentiles(90, 50)
+        .withPercentiles(90, 99)
+        .withTopMaxValues(3);
+
+    Assertions.assertEquals(EnumSet.of(Statistic.MEAN), query.getStatistics());
+    Assertions.assertEquals(0, query.getPercentiles().length);
+    Assertions.assertEquals(0, query.getTopMaxNumbers());
+    Assertions.assertEquals(EnumSet.of(Statistic.MEAN, Statistic.MAX),
+        extendedQuery.getStatistics());
+    Assertions.assertArrayEquals(new double[]{90, 50, 99}, extendedQuery.getPercentiles());
+    Assertions.assertEquals(3, extendedQuery.getTopMaxNumbers());
+    Assertions.assertEquals(0, extendedQuery.getTopMinNumbers());
+    extendedQuery.getStatistics().clear();
+    Assertions.assertEquals(2, extendedQuery.getStatistics().size());
+  }
+
+  /**
+   * Test the variance of values with a large common offset.
+   */
+  @Test
+  public void testVarianceWithLargeOffset() {
+    StatisticsReport report = StatisticsQuery.of(Statistic.VARIANCE)
+        .compute(new double[]{1e9 + 4, 1e9 + 7, 1e9 + 13, 1e9 + 16});
+    Assertions.assertEquals(22.5, report.getVariance());
+  }
+
+  /**
+   * Test that a first value that is infinite or far from the others doesn't change the streaming
+   * statistics, which match those of StatisticsUtility, and that the sum doesn't depend on the
+   * other statistics requested.
+   *
+   * @param firstValue The first value.
+   */
+  @ParameterizedTest
+  @ValueSource(doubles = {Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 1e12, -3e15})
+  public void testSpecialFirstValue(double firstValue) {
+    double[] values = new Random(7).doubles(50_000, 0, 10).toArray();
+    values[0] = firstValue;
+    StatisticsReport report = StatisticsQuery.of(
+        Statistic.SUM,
+        Statistic.MEAN,
+        Statistic.VARIANCE,
+        Statistic.STANDARD_DEVIATION
+    ).compute(values);
+    StatisticsReport sumReport = StatisticsQuery.of(Statistic.SUM, Statistic.MAX).compute(values);
+
+    Assertions.assertEquals(StatisticsUtility.getSum(values), report.getSum());
+    Assertions.assertEquals(StatisticsUtility.getSum(values), sumReport.getSum());
+    Assertions.assertEquals(StatisticsUtility.getMean(values, MeanType.ARITHMETIC),
+        report.getMean());
+    Assertions.assertEquals(StatisticsUtility.getVariance(values, MeanType.ARITHMETIC),
+        report.getVariance());
+    Assertions.assertEquals(StatisticsUtility.getStandardDeviation(values, MeanType.ARITHMETIC),
+        report.getStandardDeviation());
+    Assertions.assertEquals(StatisticsUtility.getMaxValue(values), sumReport.getMaxValue());
+    if (Double.isFinite(firstValue)) {
+      BigDecimal count = BigDecimal.valueOf(values.length);
+      BigDecimal mean = Arrays.stream(values)
+          .mapToObj(BigDecimal::new)
+          .reduce(BigDecimal.ZERO, BigDecimal::add)
+          .divide(count, MathContext.DECIMAL128);
+      double expectedVariance = Arrays.stream(values)
+          .mapToObj(value -> new BigDecimal(value).subtract(mean).pow(2))
+          .reduce(BigDecimal.ZERO, BigDecimal::add)
+          .divide(count, MathContext.DECIMAL128)
+          .doubleValue();
+      Assertions.assertEquals(expectedVariance, report.getVariance(), expectedVariance * 1e-12);
+    }
+  }
+
+  /**
+   * Test that invalid top numbers are rejected.
+   *
+   * @param topNumbers The invalid number of top values.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {0, -1})
+  public void testInvalidTopNumbers(int topNumbers) {
+    StatisticsQuery query = StatisticsQuery.of();
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> query.withTopMaxValues(topNumbers));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> query.withTopMinValues(topNumbers));
+  }
+
+  /**
+   * Test that invalid inputs are rejected.
+   */
+  @Test
+  public void testInvalidInputs() {
+    StatisticsQuery query = StatisticsQuery.of(Statistic.MEAN);
+    Assertions.assertThrows(IllegalArgumentException.class, () -> query.withPercentiles(101));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> query.withPercentiles(Double.NaN));
+    Assertions.assertThrows(NullPointerException.class,
+        () -> query.with((Statistic) null));
+    Assertions.assertThrows(NullPointerException.class, () -> query.compute((double[]) null));
+    Assertions.assertThrows(NoSuchElementException.class, () -> query.compute(new double[0]));
+    Assertions.assertThrows(IndexOutOfBoundsException.class,
+        () -> query.compute(new double[3], 2, 2));
+  }
+}
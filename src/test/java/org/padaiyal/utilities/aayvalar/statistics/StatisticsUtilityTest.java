@@ -1,17 +1,27 @@
 package org.padaiyal.utilities.aayvalar.statistics;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.converter.ConvertWith;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.junit.jupiter.params.provider.ValueSource;
 import org.padaiyal.utilities.aayvalar.testutils.ExceptionClassConverter;
 import org.padaiyal.utilities.aayvalar.testutils.StringArrayConverter;
 
@@ -181,6 +191,39 @@ public class StatisticsUtilityTest {
   }
 
 
+  /**
+   * Test that the arithmetic variance, computed in a single pass over the values, doesn't depend
+   * on their order nor on the execution policy.
+   */
+  @Test
+  public void testVarianceDoesNotDependOnOrder() {
+    List<Double> values = new ArrayList<>();
+    for (int value = 1; value <= 9; value++) {
+      values.add((double) value);
+    }
+    Random random = new Random(9);
+    for (int shuffle = 0; shuffle < 20; shuffle++) {
+      Collections.shuffle(values, random);
+      Assertions.assertEquals(60.0 / 9, StatisticsUtility.getVariance(values, MeanType.ARITHMETIC));
+    }
+
+    double[] largeValues = new Random(3).ints(200_000, 0, 1000).asDoubleStream().toArray();
+    double expectedVariance = StatisticsUtility.getVariance(largeValues, MeanType.ARITHMETIC);
+    ExecutionPolicy defaultPolicy = StatisticsUtility.getExecutionPolicy();
+    try {
+      for (ExecutionPolicy policy : new ExecutionPolicy[]{
+          ExecutionPolicy.sequential(),
+          ExecutionPolicy.parallel()
+      }) {
+        StatisticsUtility.setExecutionPolicy(policy);
+        Assertions.assertEquals(expectedVariance,
+            StatisticsUtility.getVariance(largeValues, MeanType.ARITHMETIC));
+      }
+    } finally {
+      StatisticsUtility.setExecutionPolicy(defaultPolicy);
+    }
+  }
+
   /**
    * Test calculating the standard deviation of a collection of numbers.
    *
@@ -545,6 +588,29 @@ public class StatisticsUtilityTest {
         () -> StatisticsUtility.getStandardDeviation(inputCollection, meanType));
   }
 
+  /**
+   * Test that the variance and standard deviation of empty inputs are rejected whatever the mean
+   * type.
+   *
+   * @param meanType The mean type to provide to the tested methods.
+   */
+  @ParameterizedTest
+  @EnumSource(value = MeanType.class, names = {"ARITHMETIC", "GEOMETRIC", "HARMONIC"})
+  public void testGetVarianceOfEmptyInput(MeanType meanType) {
+    Assertions.assertThrows(NoSuchElementException.class,
+        () -> StatisticsUtility.getVariance(new ArrayList<Integer>(), meanType));
+    Assertions.assertThrows(NoSuchElementException.class,
+        () -> StatisticsUtility.getVariance(new double[0], meanType));
+    Assertions.assertThrows(NoSuchElementException.class,
+        () -> StatisticsUtility.getVariance(new double[3], 1, 0, meanType));
+    Assertions.assertThrows(NoSuchElementException.class,
+        () -> StatisticsUtility.getStandardDeviation(new double[0], meanType));
+    Assertions.assertThrows(NoSuchElementException.class,
+        () -> new DoubleSampleColumn().getVariance(meanType));
+    Assertions.assertThrows(NoSuchElementException.class,
+        () -> new LongSampleColumn().getStandardDeviation(meanType));
+  }
+
   /**
    * Test retrieving the frequency distribution with invalid input.
    *
@@ -685,4 +751,636 @@ public class StatisticsUtilityTest {
     Assertions.assertThrows(expectedExceptionClass,
         () -> StatisticsUtility.getTopMinValues(inputCollection, topNumbers));
   }
+
+  /**
+   * Test that the primitive overloads of the scalar metrics match the collection variants.
+   *
+   * @param meanType     The mean type (arithmetic, geometric, harmonic).
+   * @param stringValues The array with the string representation of the values to test.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "ARITHMETIC,'1,2,3,4,5,5,6,7,8,9'",
+      "GEOMETRIC,'1,2,3,3,4,5,6,7,8,9'",
+      "HARMONIC,'1,2,3,4,5,6,7,8,9,9'",
+      "ARITHMETIC,'-7,-6,0,1,2,3,4,728,4,4'",
+  })
+  public void testPrimitiveOverloadsMatchCollection(MeanType meanType,
+      @ConvertWith(StringArrayConverter.class) String[] stringValues) {
+    Collection<? extends Number> inputCollection = convertToCollection(stringValues, "int",
+        "list");
+    int[] intValues = Arrays.stream(stringValues).mapToInt(Integer::parseInt).toArray();
+    long[] longValues = Arrays.stream(intValues).asLongStream().toArray();
+    double[] doubleValues = Arrays.stream(intValues).asDoubleStream().toArray();
+
+    double expectedMean = StatisticsUtility.getMean(inputCollection, meanType);
+    Assertions.assertEquals(expectedMean, StatisticsUtility.getMean(doubleValues, meanType));
+    Assertions.assertEquals(expectedMean,
+        StatisticsUtility.getMean(Arrays.stream(doubleValues), meanType));
+    Assertions.assertEquals(expectedMean, StatisticsUtility.getMean(longValues, meanType));
+    Assertions.assertEquals(expectedMean, StatisticsUtility.getMean(intValues, meanType));
+
+    double expectedVariance = StatisticsUtility.getVariance(inputCollection, meanType);
+    Assertions.assertEquals(expectedVariance,
+        StatisticsUtility.getVariance(doubleValues, meanType));
+    Assertions.assertEquals(expectedVariance,
+        StatisticsUtility.getVariance(Arrays.stream(doubleValues), meanType));
+    Assertions.assertEquals(expectedVariance, StatisticsUtility.getVariance(longValues, meanType));
+    Assertions.assertEquals(expectedVariance, StatisticsUtility.getVariance(intValues, meanType));
+    Assertions.assertEquals(Math.sqrt(expectedVariance),
+        StatisticsUtility.getStandardDeviation(intValues, meanType));
+
+    double expectedMedian = StatisticsUtility.getMedian(inputCollection);
+    Assertions.assertEquals(expectedMedian, StatisticsUtility.getMedian(doubleValues));
+    Assertions.assertEquals(expectedMedian,
+        StatisticsUtility.getMedian(Arrays.stream(doubleValues)));
+    Assertions.assertEquals(expectedMedian, StatisticsUtility.getMedian(longValues));
+    Assertions.assertEquals(expectedMedian, StatisticsUtility.getMedian(intValues));
+
+    double expectedMode = StatisticsUtility.getMode(inputCollection).doubleValue();
+    Assertions.assertEquals(expectedMode, StatisticsUtility.getMode(doubleValues));
+    Assertions.assertEquals(expectedMode, StatisticsUtility.getMode(longValues));
+    Assertions.assertEquals(expectedMode, StatisticsUtility.getMode(intValues));
+
+    Assertions.assertEquals(StatisticsUtility.getMaxValue(inputCollection),
+        StatisticsUtility.getMaxValue(intValues));
+    Assertions.assertEquals(StatisticsUtility.getMinValue(inputCollection),
+        StatisticsUtility.getMinValue(longValues));
+    Assertions.assertEquals(StatisticsUtility.getSummaryStatistics(inputCollection).getSum(),
+        StatisticsUtility.getSummaryStatistics(Arrays.stream(doubleValues)).getSum());
+  }
+
+  /**
+   * Test that the primitive overloads of the top N metrics match the collection variants.
+   *
+   * @param topNumber    The number of top elements to retrieve.
+   * @param stringValues The array with the string representation of the values to test.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "3,'-7,-6,0,1,2,3,4,728'",
+      "1,'5'",
+      "10,'0,0,0,0,0,1,1,2,2,2,3,4,4,4,4'",
+  })
+  public void testPrimitiveTopOverloadsMatchCollection(int topNumber,
+      @ConvertWith(StringArrayConverter.class) String[] stringValues) {
+    Collection<? extends Number> inputCollection = convertToCollection(stringValues, "double",
+        "list");
+    double[] values = Arrays.stream(stringValues).mapToDouble(Double::parseDouble).toArray();
+
+    Assertions.assertArrayEquals(
+        StatisticsUtility.getTopMaxValues(inputCollection, topNumber).stream()
+            .mapToDouble(Number::doubleValue)
+            .toArray(),
+        StatisticsUtility.getTopMaxValues(values, topNumber));
+    Assertions.assertArrayEquals(
+        StatisticsUtility.getTopMinValues(inputCollection, topNumber).stream()
+            .mapToDouble(Number::doubleValue)
+            .toArray(),
+        StatisticsUtility.getTopMinValues(Arrays.stream(values), topNumber));
+    Assertions.assertEquals(
+        StatisticsUtility.getFrequencyDistribution(inputCollection),
+        StatisticsUtility.getFrequencyDistribution(values));
+    Assertions.assertArrayEquals(
+        StatisticsUtility.getTopFrequentElements(inputCollection, 1).stream()
+            .mapToDouble(Number::doubleValue)
+            .toArray(),
+        StatisticsUtility.getTopFrequentElements(values, 1));
+  }
+
+  /**
+   * Test that the range overloads only consider the elements inside the range.
+   */
+  @Test
+  public void testRangeOverloads() {
+    double[] values = {1000, 1, 2, 3, 4, 5, -1000};
+
+    Assertions.assertEquals(3.0, StatisticsUtility.getMean(values, 1, 5, MeanType.ARITHMETIC));
+    Assertions.assertEquals(3.0, StatisticsUtility.getMedian(values, 1, 5));
+    Assertions.assertEquals(2.0, StatisticsUtility.getVariance(values, 1, 5, MeanType.ARITHMETIC));
+    Assertions.assertEquals(5.0, StatisticsUtility.getMaxValue(values, 1, 5));
+    Assertions.assertEquals(1.0, StatisticsUtility.getMinValue(values, 1, 5));
+    Assertions.assertArrayEquals(new double[]{5, 4},
+        StatisticsUtility.getTopMaxValues(values, 1, 5, 2));
+    Assertions.assertArrayEquals(new double[]{1, 2},
+        StatisticsUtility.getTopMinValues(values, 1, 5, 2));
+    Assertions.assertEquals(5, StatisticsUtility.getFrequencyDistribution(values, 1, 5).size());
+  }
+
+  /**
+   * Test the primitive overloads with invalid ranges.
+   *
+   * @param offset                 The offset of the range.
+   * @param length                 The length of the range.
+   * @param expectedExceptionClass The expected exception to be thrown.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "-1,2,IndexOutOfBoundsException.class",
+      "0,4,IndexOutOfBoundsException.class",
+      "2,-1,IndexOutOfBoundsException.class"
+  })
+  public void testRangeOverloadsWithInvalidInput(int offset, int length,
+      @ConvertWith(ExceptionClassConverter.class)
+          Class<? extends Exception> expectedExceptionClass) {
+    double[] values = {1, 2, 3};
+
+    Assertions.assertThrows(expectedExceptionClass,
+        () -> StatisticsUtility.getMean(values, offset, length, MeanType.ARITHMETIC));
+    Assertions.assertThrows(expectedExceptionClass,
+        () -> StatisticsUtility.getMedian(values, offset, length));
+    Assertions.assertThrows(expectedExceptionClass,
+        () -> StatisticsUtility.getTopMaxValues(values, offset, length, 1));
+    Assertions.assertThrows(expectedExceptionClass,
+        () -> StatisticsUtility.getSummaryStatistics(values, offset, length));
+  }
+
+  /**
+   * Test calculating percentiles of a collection of numbers.
+   *
+   * @param numericType         The numeric type to test.
+   * @param percentile          The percentile to calculate.
+   * @param expectedPercentile  The expected percentile.
+   * @param stringValues        The array with the string representation of the values to test.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "int, 0, 1, '9,8,7,6,5,4,3,2,1'",
+      "int, 100, 9, '9,8,7,6,5,4,3,2,1'",
+      "int, 50, 5, '9,8,7,6,5,4,3,2,1'",
+      "int, 25, 3, '9,8,7,6,5,4,3,2,1'",
+      "int, 90, 8.2, '9,8,7,6,5,4,3,2,1'",
+      "long, 75, 3.25, '4,1,3,2'",
+      "double, 50, 0.8, '0.1, 0.1, 0.1, 1.5, 2.4, 2.4'",
+      "double, 99, 42, '42'",
+  })
+  public void testGetPercentile(String numericType, double percentile, double expectedPercentile,
+      @ConvertWith(StringArrayConverter.class) String[] stringValues) {
+    Collection<? extends Number> inputCollection = convertToCollection(stringValues, numericType,
+        "list");
+    double[] values = Arrays.stream(stringValues).mapToDouble(Double::parseDouble).toArray();
+    double[] originalValues = values.clone();
+
+    Assertions.assertEquals(expectedPercentile,
+        StatisticsUtility.getPercentile(inputCollection, percentile), 1e-12);
+    Assertions.assertEquals(expectedPercentile,
+        StatisticsUtility.getPercentile(values, percentile), 1e-12);
+    Assertions.assertArrayEquals(originalValues, values);
+  }
+
+  /**
+   * Test that calculating several percentiles at once matches calculating them separately.
+   */
+  @Test
+  public void testGetPercentiles() {
+    double[] values = new Random(7).doubles(10_001).toArray();
+    double[] percentiles = {99, 50, 0, 95, 50, 100, 0.1};
+
+    double[] actualPercentiles = StatisticsUtility.getPercentiles(values, percentiles);
+    for (int index = 0; index < percentiles.length; index++) {
+      Assertions.assertEquals(
+          StatisticsUtility.getPercentile(values, percentiles[index]),
+          actualPercentiles[index]
+      );
+    }
+    double[] sortedValues = values.clone();
+    Arrays.sort(sortedValues);
+    Assertions.assertEquals(sortedValues[5000], actualPercentiles[1]);
+    Assertions.assertEquals(sortedValues[0], actualPercentiles[2]);
+    Assertions.assertEquals(sortedValues[10000], actualPercentiles[5]);
+    Assertions.assertArrayEquals(actualPercentiles,
+        StatisticsUtility.getPercentiles(Arrays.stream(values), percentiles));
+  }
+
+  /**
+   * Test calculating percentiles with invalid inputs.
+   *
+   * @param validCollection        A flag for the input collection to provide to the tested method.
+   *                               If true, provides a single element list and null otherwise.
+   * @param percentile             The percentile to provide to the tested method.
+   * @param expectedExceptionClass The expected exception to be thrown.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "false, 50, NullPointerException.class",
+      "true, -1, IllegalArgumentException.class",
+      "true, 100.5, IllegalArgumentException.class",
+      "true, NaN, IllegalArgumentException.class"
+  })
+  public void testGetPercentileWithInvalidInput(
+      boolean validCollection,
+      double percentile,
+      @ConvertWith(ExceptionClassConverter.class)
+          Class<? extends Exception> expectedExceptionClass
+  ) {
+    List<Integer> inputCollection = validCollection ? List.of(1) : null;
+    Assertions.assertThrows(expectedExceptionClass,
+        () -> StatisticsUtility.getPercentile(inputCollection, percentile));
+  }
+
+  /**
+   * Test that the top values match sorting the input, both when they're retained in bounded heaps
+   * and when a large share of the input is requested.
+   *
+   * @param topNumber The number of top values to retrieve.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {1, 10, 100, 5000, 20000})
+  public void testGetTopValuesMatchSort(int topNumber) {
+    double[] values = new Random(topNumber).ints(10000, 0, 2000).asDoubleStream().toArray();
+    double[] sortedValues = values.clone();
+    Arrays.sort(sortedValues);
+    int expectedLength = Math.min(topNumber, values.length);
+
+    double[] expectedTopMinValues = Arrays.copyOf(sortedValues, expectedLength);
+    double[] expectedTopMaxValues = new double[expectedLength];
+    for (int index = 0; index < expectedLength; index++) {
+      expectedTopMaxValues[index] = sortedValues[sortedValues.length - 1 - index];
+    }
+
+    Assertions.assertArrayEquals(expectedTopMaxValues,
+        StatisticsUtility.getTopMaxValues(values, topNumber));
+    Assertions.assertArrayEquals(expectedTopMaxValues,
+        StatisticsUtility.getTopMaxValues(Arrays.stream(values).parallel(), topNumber));
+    Assertions.assertArrayEquals(expectedTopMinValues,
+        StatisticsUtility.getTopMinValues(values, topNumber));
+    Assertions.assertArrayEquals(expectedTopMinValues,
+        StatisticsUtility.getTopMinValues(Arrays.stream(values).parallel(), topNumber));
+  }
+
+  /**
+   * Test that large longs are compared exactly when retrieving the top values of a collection.
+   */
+  @Test
+  public void testGetTopValuesWithLargeLongs() {
+    List<Long> inputCollection = List.of(
+        Long.MAX_VALUE - 1, Long.MAX_VALUE, Long.MAX_VALUE - 2, 0L
+    );
+
+    Assertions.assertEquals(List.of(Long.MAX_VALUE, Long.MAX_VALUE - 1),
+        StatisticsUtility.getTopMaxValues(inputCollection, 2));
+    Assertions.assertEquals(List.of(0L, Long.MAX_VALUE - 2),
+        StatisticsUtility.getTopMinValues(inputCollection, 2));
+  }
+
+  /**
+   * Test the frequency distribution of empty, mixed type and large integral collections.
+   */
+  @Test
+  public void testGetFrequencyDistributionOfSpecialCollections() {
+    Assertions.assertEquals(Map.of(), StatisticsUtility.getFrequencyDistribution(List.of()));
+    Assertions.assertEquals(
+        Map.of(1, 2L, 1L, 1L, 2.5, 1L),
+        StatisticsUtility.getFrequencyDistribution(List.of(1, 1L, 2.5, 1))
+    );
+    Assertions.assertEquals(
+        Map.of(Long.MAX_VALUE, 2L, Long.MAX_VALUE - 1, 1L),
+        StatisticsUtility.getFrequencyDistribution(
+            List.of(Long.MAX_VALUE, Long.MAX_VALUE - 1, Long.MAX_VALUE)
+        )
+    );
+    Assertions.assertEquals(
+        List.of(Long.MAX_VALUE - 1),
+        StatisticsUtility.getTopFrequentElements(
+            List.of(Long.MAX_VALUE, Long.MAX_VALUE - 1, Long.MAX_VALUE - 1), 1
+        )
+    );
+    Assertions.assertEquals(List.of(2.5f),
+        StatisticsUtility.getTopFrequentElements(List.of(0.1f, 2.5f, 2.5f), 1));
+  }
+
+  /**
+   * Test that the approximate frequency queries find the heavy hitters of every input type.
+   *
+   * @param maximumError The maximum error of the estimated frequencies.
+   */
+  @ParameterizedTest
+  @ValueSource(doubles = {0.001, 0.01, 0.05})
+  public void testApproximateFrequencyQueries(double maximumError) {
+    Random random = new Random(11);
+    int[] intValues = IntStream.range(0, 100_000)
+        .map(index -> Integer.numberOfTrailingZeros(~index) < 3
+            ? Integer.numberOfTrailingZeros(~index)
+            : random.nextInt(50_000) + 3)
+        .toArray();
+    long[] longValues = Arrays.stream(intValues).asLongStream().toArray();
+    double[] values = Arrays.stream(intValues).asDoubleStream().toArray();
+    List<Integer> inputCollection = Arrays.stream(intValues).boxed().collect(Collectors.toList());
+    double[] expectedTopElements = StatisticsUtility.getTopFrequentElements(values, 3);
+
+    Assertions.assertEquals(
+        Arrays.stream(expectedTopElements).mapToObj(value -> (int) value)
+            .collect(Collectors.toList()),
+        StatisticsUtility.getTopFrequentElements(inputCollection, 3, maximumError));
+    Assertions.assertArrayEquals(expectedTopElements,
+        StatisticsUtility.getTopFrequentElements(values, 3, maximumError));
+    Assertions.assertArrayEquals(expectedTopElements,
+        StatisticsUtility.getTopFrequentElements(Arrays.stream(values), 3, maximumError));
+    Assertions.assertArrayEquals(expectedTopElements,
+        StatisticsUtility.getTopFrequentElements(longValues, 3, maximumError));
+    Assertions.assertArrayEquals(expectedTopElements,
+        StatisticsUtility.getTopFrequentElements(intValues, 3, maximumError));
+    Assertions.assertEquals(StatisticsUtility.getMode(values),
+        StatisticsUtility.getMode(values, 0, values.length, maximumError));
+    Assertions.assertEquals(StatisticsUtility.getMode(values),
+        StatisticsUtility.getMode(inputCollection, maximumError).doubleValue());
+
+    Map<Double, Long> frequencies = StatisticsUtility.getFrequencyDistribution(values);
+    for (HeavyHitter<Double> heavyHitter : StatisticsUtility.getHeavyHitters(values, 3,
+        maximumError)) {
+      long actualCount = frequencies.get(heavyHitter.getValue());
+      Assertions.assertTrue(heavyHitter.getGuaranteedCount() <= actualCount);
+      Assertions.assertTrue(heavyHitter.getCount() >= actualCount);
+      Assertions.assertTrue(heavyHitter.getError() <= maximumError * values.length);
+    }
+  }
+
+  /**
+   * Test the approximate frequency queries with invalid input.
+   */
+  @Test
+  public void testApproximateFrequencyQueriesWithInvalidInput() {
+    double[] values = {1, 2, 2};
+    Assertions.assertThrows(NullPointerException.class,
+        () -> StatisticsUtility.getHeavyHitters((double[]) null, 1, 0.1));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> StatisticsUtility.getHeavyHitters(values, 0, 0.1));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> StatisticsUtility.getMode(values, 0.0));
+    Assertions.assertThrows(IndexOutOfBoundsException.class,
+        () -> StatisticsUtility.getMode(values, 2, 2, 0.1));
+    Assertions.assertEquals(List.of(Long.MAX_VALUE),
+        StatisticsUtility.getTopFrequentElements(
+            List.of(Long.MAX_VALUE - 1, Long.MAX_VALUE, Long.MAX_VALUE), 1, 0.5));
+    Assertions.assertEquals(0.1f, StatisticsUtility.getMode(List.of(0.1f, 0.1f, 2.5f), 0.5));
+  }
+
+  /**
+   * Test that the distinct count estimates of every input type are within the error bounds of
+   * their precision, and identical for the same values.
+   *
+   * @param precision The precision of the estimators.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {10, 14})
+  public void testGetDistinctCount(int precision) {
+    int[] intValues = new Random(12).ints(200_000, 0, 60_000).toArray();
+    long[] longValues = Arrays.stream(intValues).asLongStream().toArray();
+    double[] values = Arrays.stream(intValues).asDoubleStream().toArray();
+    List<Integer> inputCollection = Arrays.stream(intValues).boxed().collect(Collectors.toList());
+    int expectedCount = StatisticsUtility.getFrequencyTable(values).size();
+
+    long count = StatisticsUtility.getDistinctCount(values, precision);
+    Assertions.assertEquals(expectedCount, count,
+        4 * new HyperLogLog(precision).getRelativeStandardError() * expectedCount);
+    Assertions.assertEquals(count,
+        StatisticsUtility.getDistinctCount(values, 0, values.length, precision));
+    Assertions.assertEquals(count,
+        StatisticsUtility.getDistinctCount(Arrays.stream(values).parallel(), precision));
+    long longCount = StatisticsUtility.getDistinctCount(longValues, precision);
+    Assertions.assertEquals(longCount, StatisticsUtility.getDistinctCount(intValues, precision));
+    Assertions.assertEquals(longCount,
+        StatisticsUtility.getDistinctCount(inputCollection, precision));
+    Assertions.assertEquals(count, StatisticsUtility.getDistinctCount(
+        Arrays.stream(values).boxed().collect(Collectors.toList()), precision));
+
+    Assertions.assertEquals(0, StatisticsUtility.getDistinctCount(new double[0], precision));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> StatisticsUtility.getDistinctCount(values, 3));
+    Assertions.assertThrows(NullPointerException.class,
+        () -> StatisticsUtility.getDistinctCount((long[]) null, precision));
+    Assertions.assertThrows(IndexOutOfBoundsException.class,
+        () -> StatisticsUtility.getDistinctCount(values, 1, values.length, precision));
+  }
+
+  /**
+   * Test that the co-moments of rows and of flat arrays of rows match those accumulated row by
+   * row, and that they are identical for every execution policy.
+   *
+   * @param dimension The number of values in each row.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {2, 40, 200})
+  public void testGetCoMoments(int dimension) {
+    Random random = new Random(dimension);
+    double[][] rows = new double[30_000 / dimension * 10 + 7][dimension];
+    CovarianceAccumulator expectedCoMoments = new CovarianceAccumulator(dimension);
+    for (double[] row : rows) {
+      double base = random.nextGaussian();
+      for (int column = 0; column < dimension; column++) {
+        row[column] = column % 2 == 0 ? base + random.nextGaussian() : random.nextGaussian();
+      }
+      expectedCoMoments.accept(row);
+    }
+    double[] values = Arrays.stream(rows).flatMapToDouble(Arrays::stream).toArray();
+
+    ExecutionPolicy defaultPolicy = StatisticsUtility.getExecutionPolicy();
+    try {
+      StatisticsUtility.setExecutionPolicy(ExecutionPolicy.sequential());
+      CovarianceAccumulator coMoments = StatisticsUtility.getCoMoments(rows);
+      double[][] covarianceMatrix = coMoments.getCovarianceMatrix();
+      double[][] correlationMatrix = StatisticsUtility.getCorrelationMatrix(rows);
+      Assertions.assertEquals(rows.length, coMoments.getCount());
+      Assertions.assertArrayEquals(expectedCoMoments.getMeans(), coMoments.getMeans(), 1e-12);
+      for (int firstColumn = 0; firstColumn < dimension; firstColumn++) {
+        Assertions.assertArrayEquals(expectedCoMoments.getCovarianceMatrix()[firstColumn],
+            covarianceMatrix[firstColumn], 1e-12);
+      }
+      Assertions.assertEquals(dimension == 2 ? 1 : 0.5, correlationMatrix[0][dimension - 2],
+          0.05);
+      Assertions.assertEquals(0, correlationMatrix[0][dimension - 1], 0.05);
+
+      StatisticsUtility.setExecutionPolicy(ExecutionPolicy.parallel());
+      Assertions.assertArrayEquals(covarianceMatrix,
+          StatisticsUtility.getCovarianceMatrix(rows));
+      Assertions.assertArrayEquals(covarianceMatrix,
+          StatisticsUtility.getCoMoments(values, dimension).getCovarianceMatrix());
+      Assertions.assertArrayEquals(correlationMatrix,
+          StatisticsUtility.getCorrelationMatrix(rows));
+    } finally {
+      StatisticsUtility.setExecutionPolicy(defaultPolicy);
+    }
+
+    Assertions.assertThrows(NoSuchElementException.class,
+        () -> StatisticsUtility.getCoMoments(new double[0], dimension));
+    Assertions.assertThrows(NoSuchElementException.class,
+        () -> StatisticsUtility.getCoMoments(new double[0][]));
+    Assertions.assertThrows(NoSuchElementException.class,
+        () -> StatisticsUtility.getCorrelationMatrix(new double[0][]));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> StatisticsUtility.getCoMoments(new double[][]{new double[0]}));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> StatisticsUtility.getCoMoments(values, dimension + 1));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> StatisticsUtility.getCoMoments(values, 0));
+    Assertions.assertThrows(NullPointerException.class,
+        () -> StatisticsUtility.getCoMoments(null, dimension));
+  }
+
+  /**
+   * Test that the geometric mean neither overflows nor underflows on large inputs, and that it
+   * doesn't depend on how the input is split between threads.
+   *
+   * @param magnitude The magnitude of the values to test.
+   */
+  @ParameterizedTest
+  @ValueSource(doubles = {1e-300, 1e-5, 7, 1e300})
+  public void testGetGeometricMeanOfLargeInputs(double magnitude) {
+    double[] values = new Random(5).doubles(300_000, 0.5, 2)
+        .map(value -> value * magnitude)
+        .toArray();
+    double[] reversedValues = values.clone();
+    BoundedDoubleHeap.reverse(reversedValues);
+
+    double expectedMean = magnitude * Math.exp(
+        Arrays.stream(values).map(value -> Math.log(value / magnitude)).sum() / values.length
+    );
+    double actualMean = StatisticsUtility.getMean(values, MeanType.GEOMETRIC);
+    Assertions.assertEquals(expectedMean, actualMean, expectedMean * 1e-12);
+    Assertions.assertEquals(actualMean, StatisticsUtility.getMean(values, MeanType.GEOMETRIC));
+    Assertions.assertEquals(actualMean,
+        StatisticsUtility.getMean(reversedValues, MeanType.GEOMETRIC), actualMean * 1e-14);
+    Assertions.assertEquals(0, StatisticsUtility.getMean(new double[]{0, 5}, MeanType.GEOMETRIC));
+    Assertions.assertTrue(Double.isNaN(
+        StatisticsUtility.getMean(new double[]{-2, -8}, MeanType.GEOMETRIC)));
+  }
+
+  /**
+   * Test summing the elements of a collection.
+   *
+   * @param numericType    The numeric type to test.
+   * @param collectionType The collection type to test.
+   * @param expectedSum    The expected sum.
+   * @param stringValues   The array with the string representation of the values to test.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      // Test different numeric types
+      "int,list,45.0,'1,2,3,4,5,6,7,8,9'",
+      "long,list,45.0,'1,2,3,4,5,6,7,8,9'",
+      "double,list,18.1,'1.5, 2.3, 0.9, 8.3, 5.1'",
+      // Test different collection types
+      "double,set,45.0,'1,2,3,4,5,6,7,8,9'",
+      "double,linkedlist,45.0,'1,2,3,4,5,6,7,8,9'",
+      // Test cancellation
+      "double,list,2.0,'1e100, 1.0, -1e100, 1.0'",
+  })
+  public void testGetSumWithValidInputs(String numericType, String collectionType,
+      double expectedSum, @ConvertWith(StringArrayConverter.class) String[] stringValues) {
+
+    Collection<? extends Number> inputCollection = convertToCollection(stringValues, numericType,
+        collectionType);
+    Assertions.assertEquals(expectedSum, StatisticsUtility.getSum(inputCollection));
+    Assertions.assertEquals(0, StatisticsUtility.getSum(new double[0]));
+    Assertions.assertEquals(6, StatisticsUtility.getSum(new int[]{1, 2, 3}));
+    Assertions.assertEquals(6, StatisticsUtility.getSum(new long[]{1, 2, 3}));
+    Assertions.assertEquals(6, StatisticsUtility.getSum(DoubleStream.of(1, 2, 3)));
+    Assertions.assertEquals(5, StatisticsUtility.getSum(new double[]{1, 2, 3}, 1, 2));
+  }
+
+  /**
+   * Test that sums, means, variances and moments are bit for bit the same whatever the execution
+   * policy, on inputs spanning many orders of magnitude.
+   *
+   * @param length The number of values.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {1000, 100_003, 1_000_000})
+  public void testSummationIsReproducible(int length) {
+    double[] values = new Random(length).doubles(length)
+        .map(value -> Math.signum(value * 1e6 % 1 - 0.5) * Math.pow(10, 16 * value))
+        .toArray();
+    ExecutionPolicy defaultPolicy = StatisticsUtility.getExecutionPolicy();
+    ForkJoinPool pool = new ForkJoinPool(3);
+    try {
+      StatisticsUtility.setExecutionPolicy(ExecutionPolicy.sequential());
+      double[] sequentialResults = getSummationResults(values);
+      StatisticsUtility.setExecutionPolicy(ExecutionPolicy.parallel());
+      Assertions.assertArrayEquals(sequentialResults, getSummationResults(values));
+      StatisticsUtility.setExecutionPolicy(
+          ExecutionPolicy.parallel().withPool(pool)
+      );
+      Assertions.assertArrayEquals(sequentialResults, getSummationResults(values));
+    } finally {
+      StatisticsUtility.setExecutionPolicy(defaultPolicy);
+      pool.shutdown();
+    }
+
+    BigDecimal expectedSum = BigDecimal.ZERO;
+    for (double value : values) {
+      expectedSum = expectedSum.add(new BigDecimal(value));
+    }
+    // The error of a compensated sum doesn't grow with the number of values.
+    double absoluteSum = Arrays.stream(values).map(Math::abs).sum();
+    Assertions.assertEquals(expectedSum.doubleValue(), StatisticsUtility.getSum(values),
+        Math.ulp(1.0) * absoluteSum);
+  }
+
+  /**
+   * Test that the public sums and arithmetic means are exact where a plain or a block-wise sum
+   * loses values: in cancellation, in values absorbed by a much larger one and in large random
+   * inputs.
+   */
+  @Test
+  public void testSumsAreExact() {
+    double[] cancellingValues = new double[4000];
+    for (int index = 0; index < cancellingValues.length; index += 4) {
+      cancellingValues[index] = 1e100;
+      cancellingValues[index + 1] = 1;
+      cancellingValues[index + 2] = -1e100;
+      cancellingValues[index + 3] = 0.1;
+    }
+    double[] absorbedValues = new double[1025];
+    Arrays.fill(absorbedValues, 1);
+    absorbedValues[0] = 1e16;
+    Random random = new Random(20);
+    double[] randomValues = new double[1 << 20];
+    for (int index = 0; index < randomValues.length; index++) {
+      randomValues[index] = random.nextGaussian() * 1e9;
+    }
+
+    ExecutionPolicy defaultPolicy = StatisticsUtility.getExecutionPolicy();
+    try {
+      for (double[] values : new double[][]{cancellingValues, absorbedValues, randomValues}) {
+        double expectedSum = Arrays.stream(values)
+            .mapToObj(BigDecimal::new)
+            .reduce(BigDecimal.ZERO, BigDecimal::add)
+            .doubleValue();
+        DoubleSampleColumn column = new DoubleSampleColumn();
+        column.addAll(values);
+        for (ExecutionPolicy policy : new ExecutionPolicy[]{
+            ExecutionPolicy.sequential(),
+            ExecutionPolicy.parallel()
+        }) {
+          StatisticsUtility.setExecutionPolicy(policy);
+          Assertions.assertEquals(expectedSum, StatisticsUtility.getSum(values));
+          Assertions.assertEquals(expectedSum / values.length,
+              StatisticsUtility.getMean(values, MeanType.ARITHMETIC));
+          Assertions.assertEquals(expectedSum,
+              StatisticsUtility.getSummaryStatistics(values).getSum());
+          Assertions.assertEquals(expectedSum, column.getSum());
+          Assertions.assertEquals(expectedSum / values.length,
+              MomentsAccumulator.of(values, 0, values.length).getMean());
+        }
+      }
+    } finally {
+      StatisticsUtility.setExecutionPolicy(defaultPolicy);
+    }
+  }
+
+  /**
+   * Computes the statistics that sum values.
+   *
+   * @param values The values to compute the statistics of.
+   * @return The sum, the arithmetic and harmonic means, the variance and the kurtosis.
+   */
+  private static double[] getSummationResults(double[] values) {
+    return new double[]{
+        StatisticsUtility.getSum(values),
+        StatisticsUtility.getMean(values, MeanType.ARITHMETIC),
+        StatisticsUtility.getMean(values, MeanType.HARMONIC),
+        StatisticsUtility.getVariance(values, MeanType.ARITHMETIC),
+        StatisticsUtility.getKurtosis(values),
+    };
+  }
 }
@@ -0,0 +1,89 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Compares the compensated and reproducible sums of {@link StatisticsUtility#getSum(double[])}
+ * with a plain loop and with {@link java.util.stream.DoubleStream#sum()}, over inputs of growing
+ * sizes. The reproducible sum should cost close to the plain loop.
+ */
+public final class SummationBenchmark {
+
+  /**
+   * Number of timed runs of each measurement, of which the fastest is reported.
+   */
+  private static final int runs = 15;
+
+  /**
+   * Empty private constructor as this class is not meant to be used as an instance.
+   */
+  private SummationBenchmark() {
+  }
+
+  /**
+   * Runs the benchmark.
+   *
+   * @param args Unused.
+   */
+  public static void main(String[] args) {
+    // Compiles the sums before the smallest inputs are timed.
+    double[] warmUpValues = new Random(0).doubles(1 << 16).toArray();
+    for (int run = 0; run < 100; run++) {
+      getFastestRunTime(warmUpValues, SummationBenchmark::sum);
+      getFastestRunTime(warmUpValues, input -> Arrays.stream(input).sum());
+      getFastestRunTime(warmUpValues, StatisticsUtility::getSum);
+    }
+
+    System.out.printf("%10s %14s %14s %14s %14s%n", "size", "loop us", "stream us",
+        "sequential us", "parallel us");
+    for (int size = 1 << 10; size <= 1 << 24; size <<= 2) {
+      double[] values = new Random(size).doubles(size).toArray();
+      long loopTime = getFastestRunTime(values, SummationBenchmark::sum);
+      long streamTime = getFastestRunTime(values, input -> Arrays.stream(input).sum());
+      StatisticsUtility.setExecutionPolicy(ExecutionPolicy.sequential());
+      long sequentialTime = getFastestRunTime(values, StatisticsUtility::getSum);
+      StatisticsUtility.setExecutionPolicy(ExecutionPolicy.parallel());
+      long parallelTime = getFastestRunTime(values, StatisticsUtility::getSum);
+      System.out.printf("%10d %14.1f %14.1f %14.1f %14.1f%n", size, loopTime / 1e3,
+          streamTime / 1e3, sequentialTime / 1e3, parallelTime / 1e3);
+    }
+    StatisticsUtility.setExecutionPolicy(ExecutionPolicy.auto());
+  }
+
+  /**
+   * Sums an array with a plain loop, without compensation.
+   *
+   * @param values The array to sum.
+   * @return The sum of the array.
+   */
+  private static double sum(double[] values) {
+    double sum = 0;
+    for (double value : values) {
+      sum += value;
+    }
+    return sum;
+  }
+
+  /**
+   * Times a sum several times.
+   *
+   * @param values The input of the sum.
+   * @param sum    The sum to time.
+   * @return The fastest run time in nanoseconds.
+   */
+  private static long getFastestRunTime(double[] values, ToDoubleFunction<double[]> sum) {
+    long fastestRunTime = Long.MAX_VALUE;
+    double checksum = 0;
+    for (int run = 0; run < runs; run++) {
+      long startTime = System.nanoTime();
+      checksum += sum.applyAsDouble(values);
+      fastestRunTime = Math.min(fastestRunTime, System.nanoTime() - startTime);
+    }
+    if (Double.isNaN(checksum)) {
+      System.out.println("NaN sum");
+    }
+    return fastestRunTime;
+  }
+}
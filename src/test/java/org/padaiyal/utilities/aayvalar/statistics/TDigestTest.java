@@ -0,0 +1,199 @@
+package org.padaiyal.utilities.aayvalar.statistics;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.DoubleStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+/**
+ * Test functionality of TDigest.
+ */
+public class TDigestTest {
+
+  /**
+   * Draws random values from a distribution.
+   *
+   * @param distribution The name of the distribution to draw from.
+   * @param seed         The seed of the random values.
+   * @param length       The number of values to draw.
+   * @return The values.
+   */
+  private static double[] getValues(String distribution, long seed, int length) {
+    Random random = new Random(seed);
+    DoubleStream values = switch (distribution) {
+      case "uniform" -> random.doubles(length, -1000, 1000);
+      case "gaussian" -> DoubleStream.generate(random::nextGaussian).limit(length);
+      case "exponential" -> random.doubles(length).map(value -> -Math.log1p(-value));
+      case "discrete" -> random.ints(length, 0, 10).asDoubleStream();
+      default -> throw new IllegalStateException();
+    };
+    return values.toArray();
+  }
+
+  /**
+   * Computes the fraction of sorted values that are less than or equal to the provided value.
+   *
+   * @param sortedValues The sorted values.
+   * @param value        The value to look up.
+   * @return The fraction of values less than or equal to the provided value.
+   */
+  private static double getExactCdf(double[] sortedValues, double value) {
+    int lower = 0;
+    int upper = sortedValues.length;
+    while (lower < upper) {
+      int middle = (lower + upper) >>> 1;
+      if (sortedValues[middle] <= value) {
+        lower = middle + 1;
+      } else {
+        upper = middle;
+      }
+    }
+    return (double) lower / sortedValues.length;
+  }
+
+  /**
+   * Test that the estimated quantiles are close in rank to the exact ones, and that the error
+   * shrinks towards the extremes.
+   *
+   * @param distribution The distribution of the values to test.
+   * @param seed         The seed of the random values to test.
+   * @param length       The number of values to add.
+   */
+  @ParameterizedTest
+  @CsvSource({
+      "uniform, 1, 100000",
+      "gaussian, 2, 100000",
+      "exponential, 3, 200000",
+  })
+  public void testQuantileAccuracy(String distribution, long seed, int length) {
+    double[] values = getValues(distribution, seed, length);
+    TDigest digest = new TDigest();
+    Arrays.stream(values).forEach(digest);
+    double[] sortedValues = values.clone();
+    Arrays.sort(sortedValues);
+
+    Assertions.assertEquals(length, digest.getCount());
+    Assertions.assertTrue(digest.getCentroidCount() <= digest.getCompression());
+    double exactMedian = StatisticsUtility.getMedian(values);
+    double medianRankError = Math.abs(getExactCdf(sortedValues, digest.quantile(0.5)) - 0.5);
+    Assertions.assertTrue(medianRankError < 0.005, () -> exactMedian + " " + digest);
+    for (double quantile : new double[]{0.001, 0.01, 0.05, 0.25, 0.75, 0.95, 0.99, 0.999}) {
+      double rankError = Math.abs(getExactCdf(sortedValues, digest.quantile(quantile)) - quantile);
+      double allowedRankError = 0.02 * Math.sqrt(quantile * (1 - quantile)) + 2.0 / length;
+      Assertions.assertTrue(rankError < allowedRankError, () -> quantile + ": " + rankError);
+      Assertions.assertEquals(quantile, digest.cdf(digest.quantile(quantile)),
+          allowedRankError * 2);
+    }
+    Assertions.assertEquals(sortedValues[0], digest.quantile(0));
+    Assertions.assertEquals(sortedValues[length - 1], digest.quantile(1));
+    Assertions.assertEquals(0, digest.cdf(sortedValues[0] - 1));
+    Assertions.assertEquals(1, digest.cdf(sortedValues[length - 1]));
+  }
+
+  /**
+   * Test that the quantiles are exact while no values share a centroid.
+   *
+   * @param length The number of values to add.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {1, 2, 5, 10, 11})
+  public void testSmallInputsAreExact(int length) {
+    double[] values = getValues("gaussian", length, length);
+    TDigest digest = new TDigest(1000);
+    Arrays.stream(values).forEach(digest::add);
+
+    Assertions.assertEquals(StatisticsUtility.getMedian(values), digest.quantile(0.5), 1e-12);
+    for (double percentile : new double[]{0, 10, 33, 90, 100}) {
+      Assertions.assertEquals(StatisticsUtility.getPercentile(values, percentile),
+          digest.quantile(percentile / 100), 1e-12);
+    }
+    double[] sortedValues = values.clone();
+    Arrays.sort(sortedValues);
+    for (double value : sortedValues) {
+      Assertions.assertEquals(getExactCdf(sortedValues, value), digest.cdf(value), 1e-12);
+    }
+  }
+
+  /**
+   * Test that merging digests of parts of the input is as accurate as a single digest.
+   *
+   * @param parts The number of parts to summarize separately.
+   */
+  @ParameterizedTest
+  @ValueSource(ints = {1, 3, 16})
+  public void testMerge(int parts) {
+    double[] values = getValues("discrete", parts, 100_000);
+    TDigest digest = new TDigest();
+    for (int part = 0; part < parts; part++) {
+      TDigest partDigest = new TDigest();
+      for (int index = part; index < values.length; index += parts) {
+        partDigest.add(values[index]);
+      }
+      digest.merge(partDigest);
+      digest.merge(new TDigest());
+    }
+
+    double[] sortedValues = values.clone();
+    Arrays.sort(sortedValues);
+
+    Assertions.assertEquals(values.length, digest.getCount());
+    Assertions.assertEquals(0, digest.getMin());
+    Assertions.assertEquals(9, digest.getMax());
+    for (double quantile : new double[]{0.05, 0.5, 0.95}) {
+      // Values are discrete, so the estimate must fall between the values that surround the
+      // exact quantile.
+      int rank = (int) (quantile * (values.length - 1));
+      Assertions.assertTrue(digest.quantile(quantile) >= sortedValues[rank] - 1);
+      Assertions.assertTrue(digest.quantile(quantile) <= sortedValues[rank] + 1);
+      Assertions.assertEquals(getExactCdf(sortedValues, sortedValues[rank]),
+          digest.cdf(sortedValues[rank]), 0.1);
+    }
+    Assertions.assertEquals(StatisticsUtility.getMedian(values),
+        StatisticsUtility.getQuantileSketch(values, 100).quantile(0.5), 1);
+  }
+
+  /**
+   * Test that a digest survives a serialization round trip.
+   */
+  @Test
+  public void testSerialization() {
+    TDigest digest = new TDigest(50);
+    Arrays.stream(getValues("exponential", 7, 10_000)).forEach(digest::add);
+    TDigest deserializedDigest = TDigest.fromByteArray(digest.toByteArray());
+
+    Assertions.assertEquals(digest.getCount(), deserializedDigest.getCount());
+    Assertions.assertEquals(digest.getCompression(), deserializedDigest.getCompression());
+    Assertions.assertEquals(digest.getCentroidCount(), deserializedDigest.getCentroidCount());
+    for (double quantile = 0; quantile <= 1; quantile += 0.125) {
+      Assertions.assertEquals(digest.quantile(quantile), deserializedDigest.quantile(quantile));
+    }
+    Assertions.assertTrue(digest.toByteArray().length < 16 * 50 + 64);
+    Assertions.assertTrue(Double.isNaN(
+        TDigest.fromByteArray(new TDigest().toByteArray()).quantile(0.5)));
+
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> TDigest.fromByteArray(new byte[]{0, 0, 0, 1}));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> TDigest.fromByteArray(new byte[]{0, 0, 0, 2}));
+  }
+
+  /**
+   * Test the digest with invalid input.
+   */
+  @Test
+  public void testInvalidInput() {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new TDigest(0));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new TDigest(Double.NaN));
+    Assertions.assertThrows(IllegalArgumentException.class, () -> new TDigest().quantile(1.5));
+    Assertions.assertThrows(IllegalArgumentException.class,
+        () -> StatisticsUtility.getQuantileSketch(DoubleStream.empty(), -1));
+    Assertions.assertTrue(Double.isNaN(new TDigest().cdf(0)));
+    TDigest digest = new TDigest();
+    digest.add(Double.NaN);
+    Assertions.assertEquals(0, digest.getCount());
+  }
+}
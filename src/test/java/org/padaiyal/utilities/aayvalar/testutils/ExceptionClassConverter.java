@@ -27,6 +27,7 @@ public class ExceptionClassConverter implements ArgumentConverter {
       case "NullPointerException.class" -> NullPointerException.class;
       case "IllegalArgumentException.class" -> IllegalArgumentException.class;
       case "UnsupportedOperationException.class" -> UnsupportedOperationException.class;
+      case "IndexOutOfBoundsException.class" -> IndexOutOfBoundsException.class;
       default -> throw new ArgumentConversionException(
           "Unable to parse expected exception from input string: " + expectedExceptionClassString
       );